@@ -0,0 +1,124 @@
+package com.BFB.automobile.jmh;
+
+import com.BFB.automobile.AutomobileApplication;
+import com.BFB.automobile.data.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Application démarrée sans serveur web sur une base H2 en mémoire peuplée de données synthétiques
+ * 
+ * Historique de contrats réparti sur dix ans (majoritairement terminé, le dernier mois
+ * encore actif) et demandes de réservation aléatoires sur les trente prochains jours,
+ * dont une partie entre en conflit avec l'existant.
+ * 
+ * Volume : mvn test -Pjmh -Djmh.contrats=1000000 (100 000 par défaut)
+ */
+@State(Scope.Benchmark)
+public class BaseSynthetique {
+    
+    private static final int NB_CLIENTS = 2_000;
+    private static final int NB_VEHICULES = 1_000;
+    private static final int JOURS_HISTORIQUE = 3_650;
+    private static final int LIGNES_PAR_TRANSACTION = 10_000;
+    private static final int NB_DEMANDES = 4_096;
+    
+    private final int contrats = Integer.getInteger("bfb.bench.contrats", 100_000);
+    
+    ConfigurableApplicationContext contexte;
+    Contrat[] demandes;
+    
+    @Setup(Level.Trial)
+    public void demarrer() {
+        // Arguments de ligne de commande : prioritaires sur application.properties
+        contexte = new SpringApplicationBuilder(AutomobileApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                     "--spring.sql.init.mode=never",
+                     "--spring.jpa.show-sql=false",
+                     "--spring.main.banner-mode=off",
+                     "--logging.level.root=WARN",
+                     "--bfb.recherche.index.repertoire=target/jmh-index",
+                     "--spring.autoconfigure.exclude="
+                         + "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration");
+        demandes = peupler(contexte.getBean(EntityManagerFactory.class));
+    }
+    
+    @TearDown(Level.Trial)
+    public void arreter() {
+        contexte.close();
+    }
+    
+    /**
+     * Demande suivante, parcourue circulairement
+     */
+    Contrat demande(int rang) {
+        return demandes[rang & (NB_DEMANDES - 1)];
+    }
+    
+    private Contrat[] peupler(EntityManagerFactory entityManagerFactory) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        Client[] clients = new Client[NB_CLIENTS];
+        Vehicule[] vehicules = new Vehicule[NB_VEHICULES];
+        
+        em.getTransaction().begin();
+        for (int i = 0; i < NB_CLIENTS; i++) {
+            clients[i] = Client.builder()
+                    .nom("Nom" + i).prenom("Prenom" + i)
+                    .dateNaissance(LocalDate.of(1970, 1, 1).plusDays(i))
+                    .numeroPermis("P" + i).adresse("Adresse " + i)
+                    .actif(true)
+                    .build();
+            em.persist(clients[i]);
+        }
+        for (int i = 0; i < NB_VEHICULES; i++) {
+            vehicules[i] = Vehicule.builder()
+                    .marque("Marque" + (i % 10)).modele("Modele" + i)
+                    .motorisation("Essence").couleur("Gris")
+                    .immatriculation("IM-" + i)
+                    .dateAcquisition(LocalDate.of(2015, 1, 1))
+                    .etat(EtatVehicule.DISPONIBLE)
+                    .build();
+            em.persist(vehicules[i]);
+        }
+        em.getTransaction().commit();
+        
+        Random aleatoire = new Random(42);
+        LocalDate origine = LocalDate.now().minusDays(JOURS_HISTORIQUE - 30);
+        em.getTransaction().begin();
+        for (int i = 0; i < contrats; i++) {
+            int jour = aleatoire.nextInt(JOURS_HISTORIQUE);
+            LocalDate dateDebut = origine.plusDays(jour);
+            em.persist(Contrat.builder()
+                    .client(clients[aleatoire.nextInt(NB_CLIENTS)])
+                    .vehicule(vehicules[aleatoire.nextInt(NB_VEHICULES)])
+                    .dateDebut(dateDebut)
+                    .dateFin(dateDebut.plusDays(1 + aleatoire.nextInt(14)))
+                    .etat(jour < JOURS_HISTORIQUE - 60 ? EtatContrat.TERMINE : EtatContrat.EN_ATTENTE)
+                    .build());
+            if ((i + 1) % LIGNES_PAR_TRANSACTION == 0) {
+                em.getTransaction().commit();
+                em.clear();
+                em.getTransaction().begin();
+            }
+        }
+        em.getTransaction().commit();
+        em.close();
+        
+        Contrat[] nouvelles = new Contrat[NB_DEMANDES];
+        for (int i = 0; i < NB_DEMANDES; i++) {
+            LocalDate dateDebut = LocalDate.now().plusDays(aleatoire.nextInt(30));
+            nouvelles[i] = new Contrat(dateDebut, dateDebut.plusDays(1 + aleatoire.nextInt(7)),
+                    clients[aleatoire.nextInt(NB_CLIENTS)], vehicules[aleatoire.nextInt(NB_VEHICULES)]);
+        }
+        return nouvelles;
+    }
+}
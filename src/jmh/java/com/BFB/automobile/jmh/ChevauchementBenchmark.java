@@ -0,0 +1,49 @@
+package com.BFB.automobile.jmh;
+
+import com.BFB.automobile.data.Contrat;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contrat.chevauche : test d'intersection de périodes, appelé pour chaque contrat
+ * candidat lors des contrôles de disponibilité en mémoire
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChevauchementBenchmark {
+    
+    private static final int TAILLE = 1024;
+    
+    private Contrat[] contrats;
+    private LocalDate[] debuts;
+    private LocalDate[] fins;
+    private int rang;
+    
+    @Setup
+    public void preparer() {
+        Random aleatoire = new Random(42);
+        LocalDate origine = LocalDate.of(2030, 1, 1);
+        contrats = new Contrat[TAILLE];
+        debuts = new LocalDate[TAILLE];
+        fins = new LocalDate[TAILLE];
+        for (int i = 0; i < TAILLE; i++) {
+            LocalDate debut = origine.plusDays(aleatoire.nextInt(365));
+            contrats[i] = Contrat.builder().dateDebut(debut).dateFin(debut.plusDays(1 + aleatoire.nextInt(14))).build();
+            debuts[i] = origine.plusDays(aleatoire.nextInt(365));
+            fins[i] = debuts[i].plusDays(1 + aleatoire.nextInt(7));
+        }
+    }
+    
+    @Benchmark
+    public boolean chevauche() {
+        int i = rang++ & (TAILLE - 1);
+        return contrats[i].chevauche(debuts[i], fins[i]);
+    }
+}
@@ -0,0 +1,45 @@
+package com.BFB.automobile.jmh;
+
+import com.BFB.automobile.data.Contrat;
+import com.BFB.automobile.data.repository.ContratRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requêtes de détection des conflits de réservation sur H2 :
+ * findContratsConflictuels (chargement des entités, ancienne vérification de ContratService,
+ * gardée comme point de comparaison) et existeConflits (requête d'existence, utilisée par la
+ * chaîne de validation à la création et à la modification)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConflitsRequeteBenchmark {
+    
+    private ContratRepository contratRepository;
+    private int rang;
+    
+    @Setup
+    public void preparer(BaseSynthetique base) {
+        contratRepository = base.contexte.getBean(ContratRepository.class);
+    }
+    
+    @Benchmark
+    public List<Contrat> findContratsConflictuels(BaseSynthetique base) {
+        Contrat demande = base.demande(rang++);
+        return contratRepository.findContratsConflictuels(
+                demande.getVehicule().getId(), demande.getDateDebut(), demande.getDateFin());
+    }
+    
+    @Benchmark
+    public int existeConflits(BaseSynthetique base) {
+        Contrat demande = base.demande(rang++);
+        return contratRepository.existeConflits(null, demande.getVehicule().getId(),
+                demande.getClient().getId(), demande.getDateDebut(), demande.getDateFin());
+    }
+}
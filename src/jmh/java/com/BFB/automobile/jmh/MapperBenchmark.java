@@ -0,0 +1,101 @@
+package com.BFB.automobile.jmh;
+
+import com.BFB.automobile.data.*;
+import com.BFB.automobile.presentation.dto.ClientDTO;
+import com.BFB.automobile.presentation.dto.ContratDTO;
+import com.BFB.automobile.presentation.dto.VehiculeDTO;
+import com.BFB.automobile.presentation.mapper.ClientMapper;
+import com.BFB.automobile.presentation.mapper.ContratMapper;
+import com.BFB.automobile.presentation.mapper.VehiculeMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions entité ↔ DTO des trois mappers de la couche présentation
+ * (un contrat converti embarque son client et son véhicule)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+    
+    private final ClientMapper clientMapper = new ClientMapper();
+    private final VehiculeMapper vehiculeMapper = new VehiculeMapper();
+    private final ContratMapper contratMapper = new ContratMapper();
+    
+    private Client client;
+    private Vehicule vehicule;
+    private Contrat contrat;
+    private ClientDTO clientDTO;
+    private VehiculeDTO vehiculeDTO;
+    private ContratDTO contratDTO;
+    
+    @Setup
+    public void preparer() {
+        ReflectionTestUtils.setField(contratMapper, "clientMapper", clientMapper);
+        ReflectionTestUtils.setField(contratMapper, "vehiculeMapper", vehiculeMapper);
+        
+        client = Client.builder()
+                .nom("Dupont").prenom("Jean")
+                .dateNaissance(LocalDate.of(1990, 5, 15))
+                .numeroPermis("123456789").adresse("10 rue de la Paix")
+                .actif(true)
+                .build();
+        client.setId(1L);
+        vehicule = Vehicule.builder()
+                .marque("Peugeot").modele("308")
+                .motorisation("Diesel").couleur("Blanc")
+                .immatriculation("AB-123-CD")
+                .dateAcquisition(LocalDate.of(2020, 1, 15))
+                .etat(EtatVehicule.DISPONIBLE)
+                .build();
+        vehicule.setId(1L);
+        contrat = Contrat.builder()
+                .client(client).vehicule(vehicule)
+                .dateDebut(LocalDate.of(2030, 6, 1)).dateFin(LocalDate.of(2030, 6, 8))
+                .etat(EtatContrat.EN_ATTENTE)
+                .commentaire("Réservation")
+                .build();
+        contrat.setId(1L);
+        
+        clientDTO = clientMapper.toDTO(client);
+        vehiculeDTO = vehiculeMapper.toDTO(vehicule);
+        contratDTO = contratMapper.toDTO(contrat);
+    }
+    
+    @Benchmark
+    public ClientDTO clientVersDTO() {
+        return clientMapper.toDTO(client);
+    }
+    
+    @Benchmark
+    public Client clientVersEntite() {
+        return clientMapper.toEntity(clientDTO);
+    }
+    
+    @Benchmark
+    public VehiculeDTO vehiculeVersDTO() {
+        return vehiculeMapper.toDTO(vehicule);
+    }
+    
+    @Benchmark
+    public Vehicule vehiculeVersEntite() {
+        return vehiculeMapper.toEntity(vehiculeDTO);
+    }
+    
+    @Benchmark
+    public ContratDTO contratVersDTO() {
+        return contratMapper.toDTO(contrat);
+    }
+    
+    @Benchmark
+    public Contrat contratVersEntite() {
+        return contratMapper.toEntity(contratDTO);
+    }
+}
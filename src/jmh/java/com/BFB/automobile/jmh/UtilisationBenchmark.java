@@ -0,0 +1,67 @@
+package com.BFB.automobile.jmh;
+
+import com.BFB.automobile.business.statistiques.OccupationFlotte;
+import com.BFB.automobile.business.statistiques.Utilisation;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OccupationFlotte.calculer : occupation sur un an, sur un instantané de bfb.bench.contrats
+ * contrats répartis sur 10 ans (500 par véhicule), chargé sans base
+ *
+ * mvn test -Pjmh -Djmh.filtre=Utilisation -Djmh.contrats=10000000
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class UtilisationBenchmark {
+    
+    private static final String[] MODELES = {"208", "308", "3008", "Clio", "Megane", "C3", "C4", "Golf"};
+    
+    @Param({"VEHICULE", "MODELE", "MOIS"})
+    private Utilisation.Regroupement regroupement;
+    
+    private final int contrats = Integer.getInteger("bfb.bench.contrats", 100_000);
+    
+    private ForkJoinPool pool;
+    private OccupationFlotte occupation;
+    
+    @Setup
+    public void preparer() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        occupation = new OccupationFlotte(null, pool);
+        Random aleatoire = new Random(42);
+        LocalDate origine = LocalDate.of(2016, 1, 1);
+        int vehicules = Math.max(1, contrats / 500);
+        occupation.remplacer(chargement -> {
+            long id = 0;
+            for (long v = 0; v < vehicules; v++) {
+                chargement.vehicule(v, "Marque" + (v % 4), MODELES[(int) (v % MODELES.length)], origine);
+                LocalDate debut = origine;
+                for (int c = 0; c < 500 && id < contrats; c++) {
+                    debut = debut.plusDays(aleatoire.nextInt(4));
+                    LocalDate fin = debut.plusDays(aleatoire.nextInt(7));
+                    chargement.contrat(id++, v, debut, fin);
+                    debut = fin.plusDays(1);
+                }
+            }
+        });
+    }
+    
+    @TearDown
+    public void terminer() {
+        pool.shutdown();
+    }
+    
+    @Benchmark
+    public Utilisation calculer() {
+        return occupation.calculer(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31), regroupement);
+    }
+}
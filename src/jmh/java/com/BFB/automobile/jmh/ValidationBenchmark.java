@@ -0,0 +1,53 @@
+package com.BFB.automobile.jmh;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.validation.ContratValidationChain;
+import com.BFB.automobile.business.validation.DisponibiliteValidationHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chaîne de validation des contrats et chemin de détection des conflits sur H2
+ * 
+ * Les demandes acceptées comme rejetées sont comptées : un rejet est un résultat
+ * normal de la validation et non une erreur du benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+    
+    private ContratValidationChain chaine;
+    private DisponibiliteValidationHandler disponibilite;
+    private int rang;
+    
+    @Setup
+    public void preparer(BaseSynthetique base) {
+        chaine = base.contexte.getBean(ContratValidationChain.class);
+        disponibilite = base.contexte.getBean(DisponibiliteValidationHandler.class);
+    }
+    
+    @Benchmark
+    public boolean chaineComplete(BaseSynthetique base) {
+        try {
+            chaine.valider(base.demande(rang++));
+            return true;
+        } catch (BusinessException e) {
+            return false;
+        }
+    }
+    
+    @Benchmark
+    public boolean disponibilite(BaseSynthetique base) {
+        try {
+            disponibilite.valider(base.demande(rang++));
+            return true;
+        } catch (BusinessException e) {
+            return false;
+        }
+    }
+}
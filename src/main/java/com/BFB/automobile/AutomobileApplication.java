@@ -2,14 +2,17 @@ package com.BFB.automobile;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Application Spring Boot pour la gestion de locations automobiles BFB
  * @EnableScheduling : Active les tâches planifiées (traitement automatique des contrats)
+ * @EnableAsync : Active les traitements asynchrones (indexation après validation des transactions)
  */
 @SpringBootApplication
 @EnableScheduling
+@EnableAsync
 public class AutomobileApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,118 @@
+package com.BFB.automobile.business.archivage;
+
+import com.BFB.automobile.data.sync.SequencesSync;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.BFB.automobile.data.repository.ContratRepository.COLONNES;
+
+/**
+ * Archivage des contrats clos : les contrats terminés ou annulés depuis plus de N jours
+ * sont déplacés de contrats vers contrats_archive
+ *
+ * Sans archivage, ces contrats s'accumulent indéfiniment dans contrats et alourdissent les
+ * index parcourus par les requêtes du chemin actif (conflits, contrats actifs, planning).
+ * Les historiques par client et par véhicule réunissent les deux tables.
+ *
+ * Le déplacement se fait par lots, chacun dans sa propre transaction : les identifiants
+ * du lot sont lus, les lignes copiées puis supprimées. Un lot interrompu est annulé en
+ * entier ; aucun contrat n'est perdu ni dupliqué. Seuls des contrats dans un état final,
+ * clos depuis longtemps, sont déplacés : les transactions du chemin actif ne les touchent pas.
+ * Les contrats déplacés sont signalés comme supprimés aux clients synchronisés ({@link SequencesSync}).
+ */
+@Component
+public class ArchivageContrats {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivageContrats.class);
+
+    private static final String SELECTION_LOT =
+        "SELECT id FROM contrats WHERE etat IN ('TERMINE', 'ANNULE') AND date_fin < :limite " +
+        "ORDER BY id LIMIT :taille";
+
+    private static final String COPIE_LOT =
+        "INSERT INTO contrats_archive (" + COLONNES + ", date_archivage) " +
+        "SELECT " + COLONNES + ", :aujourdhui FROM contrats WHERE id IN (:ids)";
+
+    private static final String SUPPRESSION_LOT = "DELETE FROM contrats WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SequencesSync sequencesSync;
+    private final MeterRegistry meterRegistry;
+    private final int ageJours;
+    private final int tailleLot;
+
+    /**
+     * @param ageJours Nombre de jours depuis la date de fin au-delà duquel un contrat clos est archivé
+     * @param tailleLot Nombre de contrats déplacés par transaction
+     */
+    @Autowired
+    public ArchivageContrats(NamedParameterJdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             SequencesSync sequencesSync,
+                             MeterRegistry meterRegistry,
+                             @Value("${bfb.archivage.age-jours:90}") int ageJours,
+                             @Value("${bfb.archivage.taille-lot:1000}") int tailleLot) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sequencesSync = sequencesSync;
+        this.meterRegistry = meterRegistry;
+        this.ageJours = ageJours;
+        this.tailleLot = tailleLot;
+    }
+
+    /**
+     * Tâche planifiée : après le traitement des changements d'état de minuit
+     *
+     * @return le nombre de contrats archivés
+     */
+    @Scheduled(cron = "${bfb.archivage.cron:0 30 0 * * *}")
+    public int archiver() {
+        LocalDate aujourdhui = LocalDate.now();
+        LocalDate limite = aujourdhui.minusDays(ageJours);
+
+        Timer.Sample debut = Timer.start(meterRegistry);
+        int total = 0;
+        int lot;
+        do {
+            lot = transactionTemplate.execute(status -> archiverLot(limite, aujourdhui));
+            total += lot;
+        } while (lot == tailleLot);
+        debut.stop(meterRegistry.timer("bfb.archivage.duree"));
+        meterRegistry.counter("bfb.archivage.contrats").increment(total);
+
+        if (total > 0) {
+            log.info("Archivage : {} contrats clos avant le {} déplacés vers contrats_archive", total, limite);
+        }
+        return total;
+    }
+
+    private int archiverLot(LocalDate limite, LocalDate aujourdhui) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECTION_LOT, new MapSqlParameterSource()
+            .addValue("limite", limite)
+            .addValue("taille", tailleLot), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource lot = new MapSqlParameterSource()
+            .addValue("ids", ids)
+            .addValue("aujourdhui", aujourdhui);
+        jdbcTemplate.update(COPIE_LOT, lot);
+        jdbcTemplate.update(SUPPRESSION_LOT, lot);
+        sequencesSync.supprimes(SequencesSync.Entite.CONTRAT, ids);
+        return ids.size();
+    }
+}
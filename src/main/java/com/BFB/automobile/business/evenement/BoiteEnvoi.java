@@ -0,0 +1,162 @@
+package com.BFB.automobile.business.evenement;
+
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.data.EvenementSortant;
+import com.BFB.automobile.data.EvenementSortant.Categorie;
+import com.BFB.automobile.data.repository.EvenementSortantRepository;
+import com.BFB.automobile.data.routage.LecturePrimaire;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boîte d'envoi (outbox) des changements d'état des véhicules et des contrats
+ *
+ * Les événements publiés par ContratService et VehiculeService sont écrits dans
+ * evenements_sortants par la transaction qui les publie, juste avant sa validation :
+ * un événement est enregistré si et seulement si la modification l'est. Les événements
+ * d'une transaction sont insérés en un seul lot (imports en masse).
+ *
+ * Le flux d'événements relit la table dans l'ordre des identifiants ; les lignes plus
+ * anciennes que la rétention sont supprimées.
+ */
+@Component
+public class BoiteEnvoi {
+
+    private static final Logger log = LoggerFactory.getLogger(BoiteEnvoi.class);
+
+    private static final String INSERTION =
+        "INSERT INTO evenements_sortants (instant, categorie, nature, entite_id, ancien_etat, etat, vehicule_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final EvenementSortantRepository evenementSortantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long retentionMs;
+
+    /**
+     * @param retentionHeures Durée de conservation des événements : au-delà, un client qui
+     *                        reprend le flux doit recharger ses listes
+     */
+    @Autowired
+    public BoiteEnvoi(EvenementSortantRepository evenementSortantRepository,
+                      JdbcTemplate jdbcTemplate,
+                      @Value("${bfb.evenements.retention-heures:24}") int retentionHeures) {
+        this.evenementSortantRepository = evenementSortantRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionMs = TimeUnit.HOURS.toMillis(retentionHeures);
+    }
+
+    @EventListener
+    public void surContrat(ContratEvent event) {
+        ajouter(new EvenementSortant(Categorie.CONTRAT, event.type().name(), event.contratId(),
+            nom(event.ancienEtat()), nom(event.nouvelEtat()), event.vehiculeId()));
+    }
+
+    @EventListener
+    public void surVehicule(VehiculeEvent event) {
+        ajouter(new EvenementSortant(Categorie.VEHICULE, event.type().name(), event.vehicule().getId(),
+            nom(event.ancienEtat()), nom(event.vehicule().getEtat()), event.vehicule().getId()));
+    }
+
+    /**
+     * Événements postérieurs à une position, dans l'ordre d'écriture
+     */
+    @Transactional(readOnly = true)
+    @LecturePrimaire
+    public List<EvenementSortant> suivants(long apres, int nombre) {
+        return evenementSortantRepository.findByIdGreaterThanOrderByIdAsc(apres, Limit.of(nombre));
+    }
+
+    /**
+     * Identifiant du plus ancien événement conservé (null si aucun)
+     */
+    @Transactional(readOnly = true)
+    @LecturePrimaire
+    public Long premierId() {
+        return evenementSortantRepository.premierId();
+    }
+
+    /**
+     * Identifiant du dernier événement écrit (0 si aucun)
+     */
+    @Transactional(readOnly = true)
+    @LecturePrimaire
+    public long dernierId() {
+        Long dernier = evenementSortantRepository.dernierId();
+        return dernier != null ? dernier : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${bfb.evenements.purge-ms:600000}")
+    @Transactional
+    public void purger() {
+        int supprimes = evenementSortantRepository.supprimerAvant(System.currentTimeMillis() - retentionMs);
+        if (supprimes > 0) {
+            log.info("Boîte d'envoi : {} événements expirés supprimés", supprimes);
+        }
+    }
+
+    /**
+     * Rattache l'événement à la transaction en cours, écrit avec les autres avant sa validation ;
+     * hors transaction, écriture immédiate
+     */
+    private void ajouter(EvenementSortant evenement) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ecrire(List.of(evenement));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<EvenementSortant> lot = (List<EvenementSortant>) TransactionSynchronizationManager.getResource(this);
+        if (lot == null) {
+            List<EvenementSortant> nouveauLot = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, nouveauLot);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    ecrire(nouveauLot);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(BoiteEnvoi.this);
+                }
+            });
+            lot = nouveauLot;
+        }
+        lot.add(evenement);
+    }
+
+    private void ecrire(List<EvenementSortant> lot) {
+        jdbcTemplate.batchUpdate(INSERTION, lot, lot.size(), (ps, evenement) -> {
+            ps.setLong(1, evenement.getInstant());
+            ps.setString(2, evenement.getCategorie().name());
+            ps.setString(3, evenement.getNature());
+            ps.setLong(4, evenement.getEntiteId());
+            ps.setString(5, evenement.getAncienEtat());
+            ps.setString(6, evenement.getEtat());
+            if (evenement.getVehiculeId() != null) {
+                ps.setLong(7, evenement.getVehiculeId());
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+        });
+    }
+
+    private static String nom(Enum<?> etat) {
+        return etat != null ? etat.name() : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.BFB.automobile.business.event;
+
+import com.BFB.automobile.data.Client;
+
+/**
+ * Événement publié à chaque modification d'un client
+ *
+ * OBSERVER PATTERN : voir {@link VehiculeEvent}
+ *
+ * @param type Nature de la modification
+ * @param client Le client concerné (état après modification)
+ */
+public record ClientEvent(Type type, Client client) {
+
+    public enum Type {
+        CREE,
+        MODIFIE,
+        DESACTIVE
+    }
+}
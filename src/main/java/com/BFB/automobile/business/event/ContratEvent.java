@@ -0,0 +1,58 @@
+package com.BFB.automobile.business.event;
+
+import com.BFB.automobile.data.Contrat;
+import com.BFB.automobile.data.EtatContrat;
+
+import java.time.LocalDate;
+
+/**
+ * Événement publié à chaque création, modification ou changement d'état d'un contrat
+ *
+ * OBSERVER PATTERN : voir {@link VehiculeEvent}
+ *
+ * Contrairement aux événements client et véhicule, il ne transporte pas l'entité :
+ * ses associations sont chargées paresseusement et ne sont plus accessibles
+ * une fois la transaction terminée. Il en contient un instantané.
+ *
+ * @param type Nature de la modification
+ * @param contratId Identifiant du contrat
+ * @param clientId Identifiant du client
+ * @param vehiculeId Identifiant du véhicule
+ * @param dateDebut Date de début de la location
+ * @param dateFin Date de fin de la location
+ * @param ancienEtat L'état du contrat avant modification (null à la création)
+ * @param nouvelEtat L'état du contrat après modification
+ * @param commentaire Le commentaire du contrat après modification
+ */
+public record ContratEvent(Type type,
+                           Long contratId,
+                           Long clientId,
+                           Long vehiculeId,
+                           LocalDate dateDebut,
+                           LocalDate dateFin,
+                           EtatContrat ancienEtat,
+                           EtatContrat nouvelEtat,
+                           String commentaire) {
+
+    public enum Type {
+        CREE,
+        MODIFIE,
+        ETAT_CHANGE
+    }
+
+    /**
+     * Construit l'événement à partir de l'état courant du contrat
+     */
+    public static ContratEvent de(Type type, Contrat contrat, EtatContrat ancienEtat) {
+        return new ContratEvent(
+            type,
+            contrat.getId(),
+            contrat.getClient() != null ? contrat.getClient().getId() : null,
+            contrat.getVehicule() != null ? contrat.getVehicule().getId() : null,
+            contrat.getDateDebut(),
+            contrat.getDateFin(),
+            ancienEtat,
+            contrat.getEtat(),
+            contrat.getCommentaire());
+    }
+}
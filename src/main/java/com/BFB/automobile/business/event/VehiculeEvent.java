@@ -0,0 +1,25 @@
+package com.BFB.automobile.business.event;
+
+import com.BFB.automobile.data.EtatVehicule;
+import com.BFB.automobile.data.Vehicule;
+
+/**
+ * Événement publié à chaque modification d'un véhicule
+ *
+ * OBSERVER PATTERN : Les services publient cet événement via
+ * l'ApplicationEventPublisher de Spring, les structures dérivées
+ * (index, compteurs...) s'y abonnent sans que le service les connaisse.
+ *
+ * @param type Nature de la modification
+ * @param vehicule Le véhicule concerné (état après modification)
+ * @param ancienEtat L'état du véhicule avant modification (null à la création)
+ */
+public record VehiculeEvent(Type type, Vehicule vehicule, EtatVehicule ancienEtat) {
+
+    public enum Type {
+        CREE,
+        MODIFIE,
+        ETAT_CHANGE,
+        SUPPRIME
+    }
+}
@@ -2,28 +2,30 @@ package com.BFB.automobile.business.exception;
 
 /**
  * Exception métier pour les violations de règles métier
+ * 
+ * Les rejets métier (véhicule déjà loué, client inactif...) sont des issues attendues,
+ * fréquentes en période d'affluence : l'exception ne capture pas de pile d'appels
+ * (writableStackTrace = false), ce qui rend sa création presque gratuite.
+ * Une cause éventuelle conserve sa propre pile pour le diagnostic.
  */
 public class BusinessException extends RuntimeException {
     
     private final String code;
     
     public BusinessException(String message) {
-        super(message);
-        this.code = "BUSINESS_ERROR";
+        this("BUSINESS_ERROR", message, null);
     }
     
     public BusinessException(String code, String message) {
-        super(message);
-        this.code = code;
+        this(code, message, null);
     }
     
     public BusinessException(String message, Throwable cause) {
-        super(message, cause);
-        this.code = "BUSINESS_ERROR";
+        this("BUSINESS_ERROR", message, cause);
     }
     
     public BusinessException(String code, String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
         this.code = code;
     }
     
@@ -0,0 +1,11 @@
+package com.BFB.automobile.business.importation;
+
+/**
+ * Rejet d'une ligne d'import
+ *
+ * @param ligne Numéro de la ligne dans le fichier
+ * @param code Code d'erreur (mêmes codes que les BusinessException de création unitaire)
+ * @param message Message explicatif
+ */
+public record ErreurImport(long ligne, String code, String message) {
+}
@@ -0,0 +1,185 @@
+package com.BFB.automobile.business.importation;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse d'entités lues en flux (CSV, NDJSON)
+ *
+ * Le fichier n'est jamais chargé en entier : les lignes sont tirées de l'itérateur
+ * par lots de {@value #TAILLE_LOT}. Tant qu'un lot n'est pas enregistré, aucune
+ * ligne supplémentaire n'est lue, ce qui régule naturellement le débit d'envoi
+ * (la connexion HTTP n'est plus consommée et le client est ralenti).
+ *
+ * Pour chaque lot :
+ * 1. Validation Bean Validation et règles métier en parallèle (sans accès base)
+ * 2. Contrôle d'unicité, dans l'ordre du fichier, contre un ensemble en mémoire
+ *    des clés existantes chargé en une requête au début de l'import
+ * 3. Insertion du lot dans sa propre transaction (inserts JDBC groupés)
+ *
+ * Un lot en échec à l'insertion (conflit avec une écriture concurrente) est rejoué
+ * ligne par ligne afin d'isoler les lignes fautives sans perdre les autres.
+ */
+@Component
+public class ImportateurEnMasse {
+
+    static final int TAILLE_LOT = 1000;
+    static final int MAX_ERREURS_DETAILLEES = 1000;
+
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ImportateurEnMasse(Validator validator, PlatformTransactionManager transactionManager) {
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Importe toutes les lignes fournies par l'itérateur
+     */
+    public <T> RapportImport importer(Iterator<LigneImport<T>> lignes, StrategieImport<T> strategie) {
+        Bilan bilan = new Bilan();
+        Set<String> clesConnues = new HashSet<>(strategie.chargerClesExistantes());
+
+        List<LigneImport<T>> lot = new ArrayList<>(TAILLE_LOT);
+        while (lignes.hasNext()) {
+            lot.add(lignes.next());
+            if (lot.size() == TAILLE_LOT) {
+                traiterLot(lot, strategie, clesConnues, bilan);
+                lot.clear();
+            }
+        }
+        if (!lot.isEmpty()) {
+            traiterLot(lot, strategie, clesConnues, bilan);
+        }
+        return bilan.rapport();
+    }
+
+    private <T> void traiterLot(List<LigneImport<T>> lot, StrategieImport<T> strategie,
+                                Set<String> clesConnues, Bilan bilan) {
+        bilan.lues += lot.size();
+
+        // 1. Validation unitaire, indépendante de l'ordre : parallélisable
+        List<ErreurImport> verdicts = lot.parallelStream()
+            .map(ligne -> valider(ligne, strategie))
+            .toList();
+
+        // 2. Unicité, séquentielle pour que la première occurrence d'un doublon l'emporte
+        List<LigneImport<T>> acceptees = new ArrayList<>(lot.size());
+        for (int i = 0; i < lot.size(); i++) {
+            LigneImport<T> ligne = lot.get(i);
+            ErreurImport erreur = verdicts.get(i);
+            if (erreur == null) {
+                erreur = reserverCles(ligne, strategie, clesConnues);
+            }
+            if (erreur == null) {
+                acceptees.add(ligne);
+            } else {
+                bilan.rejeter(erreur);
+            }
+        }
+
+        // 3. Insertion groupée
+        if (!acceptees.isEmpty()) {
+            enregistrer(acceptees, strategie, bilan);
+        }
+    }
+
+    private <T> ErreurImport valider(LigneImport<T> ligne, StrategieImport<T> strategie) {
+        if (ligne.erreur() != null) {
+            return new ErreurImport(ligne.numero(), "LIGNE_ILLISIBLE", ligne.erreur());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(ligne.valeur());
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                .map(v -> v.getPropertyPath() + " : " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+            return new ErreurImport(ligne.numero(), "VALIDATION_ERROR", message);
+        }
+        try {
+            strategie.verifier(ligne.valeur());
+            return null;
+        } catch (BusinessException e) {
+            return new ErreurImport(ligne.numero(), e.getCode(), e.getMessage());
+        }
+    }
+
+    private <T> ErreurImport reserverCles(LigneImport<T> ligne, StrategieImport<T> strategie,
+                                          Set<String> clesConnues) {
+        List<String> cles = strategie.cles(ligne.valeur());
+        for (String cle : cles) {
+            if (clesConnues.contains(cle)) {
+                return new ErreurImport(ligne.numero(), strategie.codeDoublon(cle),
+                    "Doublon : " + cle);
+            }
+        }
+        clesConnues.addAll(cles);
+        return null;
+    }
+
+    private <T> void enregistrer(List<LigneImport<T>> lignes, StrategieImport<T> strategie, Bilan bilan) {
+        List<T> entites = lignes.stream().map(LigneImport::valeur).toList();
+        try {
+            transactionTemplate.executeWithoutResult(statut -> {
+                strategie.enregistrer(entites);
+                entityManager.flush();
+            });
+            bilan.importees += entites.size();
+        } catch (RuntimeException e) {
+            if (lignes.size() == 1) {
+                bilan.rejeter(new ErreurImport(lignes.get(0).numero(), "ERREUR_ENREGISTREMENT",
+                    "Impossible d'enregistrer la ligne : violation de contrainte"));
+            } else {
+                entityManager.clear();
+                for (LigneImport<T> ligne : lignes) {
+                    enregistrer(List.of(ligne), strategie, bilan);
+                }
+            }
+        } finally {
+            // Le contexte de persistance peut survivre à la transaction (open-in-view) :
+            // on le vide pour qu'il ne grossisse pas d'un lot à l'autre
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Compteurs de l'import en cours (confinés au thread appelant)
+     */
+    private static final class Bilan {
+        private long lues;
+        private long importees;
+        private long rejetees;
+        private final List<ErreurImport> erreurs = new ArrayList<>();
+
+        void rejeter(ErreurImport erreur) {
+            rejetees++;
+            if (erreurs.size() < MAX_ERREURS_DETAILLEES) {
+                erreurs.add(erreur);
+            }
+        }
+
+        RapportImport rapport() {
+            return new RapportImport(lues, importees, rejetees, List.copyOf(erreurs),
+                rejetees > erreurs.size());
+        }
+    }
+}
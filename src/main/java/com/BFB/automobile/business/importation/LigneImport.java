@@ -0,0 +1,19 @@
+package com.BFB.automobile.business.importation;
+
+/**
+ * Une ligne lue dans un fichier d'import : soit une entité à importer, soit une erreur de lecture
+ *
+ * @param numero Numéro de la ligne dans le fichier (à partir de 1)
+ * @param valeur L'entité lue (null si la ligne est illisible)
+ * @param erreur Le motif de l'échec de lecture (null si la ligne est lisible)
+ */
+public record LigneImport<T>(long numero, T valeur, String erreur) {
+
+    public static <T> LigneImport<T> valide(long numero, T valeur) {
+        return new LigneImport<>(numero, valeur, null);
+    }
+
+    public static <T> LigneImport<T> illisible(long numero, String erreur) {
+        return new LigneImport<>(numero, null, erreur);
+    }
+}
@@ -0,0 +1,19 @@
+package com.BFB.automobile.business.importation;
+
+import java.util.List;
+
+/**
+ * Bilan d'un import en masse
+ *
+ * @param lignesLues Nombre de lignes de données lues
+ * @param lignesImportees Nombre de lignes enregistrées en base
+ * @param lignesRejetees Nombre de lignes rejetées
+ * @param erreurs Détail des rejets (limité aux premiers rejets)
+ * @param erreursTronquees true si des rejets ne figurent pas dans le détail
+ */
+public record RapportImport(long lignesLues,
+                            long lignesImportees,
+                            long lignesRejetees,
+                            List<ErreurImport> erreurs,
+                            boolean erreursTronquees) {
+}
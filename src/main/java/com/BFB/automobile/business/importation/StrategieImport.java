@@ -0,0 +1,43 @@
+package com.BFB.automobile.business.importation;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Règles propres à un type d'entité pour l'import en masse
+ *
+ * STRATEGY PATTERN : ImportateurEnMasse porte l'algorithme commun (lecture par lots,
+ * validation parallèle, unicité, insertion par lots), chaque service fournit
+ * la stratégie de son entité.
+ *
+ * @param <T> Type d'entité importée
+ */
+public interface StrategieImport<T> {
+    
+    /**
+     * Clés d'unicité déjà présentes en base, chargées en une seule fois
+     */
+    Set<String> chargerClesExistantes();
+    
+    /**
+     * Clés d'unicité de l'entité (préfixées par leur nature, ex. "permis:123")
+     */
+    List<String> cles(T entite);
+    
+    /**
+     * Vérifie les règles métier propres à l'entité, hors unicité
+     * 
+     * @throws com.BFB.automobile.business.exception.BusinessException si une règle est violée
+     */
+    void verifier(T entite);
+    
+    /**
+     * Code d'erreur renvoyé lorsqu'une clé d'unicité est déjà utilisée
+     */
+    String codeDoublon(String cle);
+    
+    /**
+     * Enregistre un lot d'entités valides (appelé dans une transaction)
+     */
+    void enregistrer(List<T> lot);
+}
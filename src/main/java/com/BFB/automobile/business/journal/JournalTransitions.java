@@ -0,0 +1,296 @@
+package com.BFB.automobile.business.journal;
+
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.business.statistiques.EtatsFlotte;
+import com.BFB.automobile.data.EtatContrat;
+import com.BFB.automobile.data.EtatVehicule;
+import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.data.journal.JournalSegmente;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Journal des transitions d'état des contrats et des véhicules ({@link JournalSegmente})
+ *
+ * Chaque événement publié par les services est ajouté au journal une fois la transaction
+ * validée. S'y ajoute, à chaque recalage des compteurs sur la base, un cliché des compteurs :
+ * point de reprise du journal, dont les segments antérieurs sont alors supprimés. Le journal
+ * ne garde donc que le segment du dernier cliché et les transitions qui le suivent.
+ *
+ * Au démarrage, les projections en mémoire se reconstruisent à partir du dernier cliché et
+ * des transitions qui le suivent ({@link #rejouer}), sans interroger les tables : le coût dépend
+ * du nombre de transitions depuis le cliché (un intervalle de recalage), pas du volume des
+ * tables. Le journal doit survivre aux redémarrages avec la base : activé avec le profil
+ * "persistant".
+ *
+ * Un échec d'écriture est journalisé sans remonter au service : la transaction est déjà
+ * validée, et le recalage périodique corrige les projections.
+ */
+@Component
+@ConditionalOnProperty(name = "bfb.journal.actif", havingValue = "true")
+public class JournalTransitions {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalTransitions.class);
+
+    private static final byte CONTRAT = 1;
+    private static final byte VEHICULE = 2;
+    private static final byte CLICHE = 3;
+
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    /**
+     * Structure en mémoire reconstruite à partir du journal
+     */
+    public interface Projection {
+        void restaurer(EtatsFlotte cliche);
+        void surContrat(ContratEvent event);
+        void surVehicule(VehiculeEvent event);
+    }
+
+    private final Path repertoire;
+    private final int tailleSegment;
+
+    private JournalSegmente journal;
+
+    /**
+     * @param repertoire Répertoire des segments
+     * @param tailleSegmentMo Taille d'un segment en Mo
+     */
+    @Autowired
+    public JournalTransitions(@Value("${bfb.journal.repertoire}") String repertoire,
+                              @Value("${bfb.journal.taille-segment-mo:64}") int tailleSegmentMo) {
+        this.repertoire = Path.of(repertoire);
+        this.tailleSegment = tailleSegmentMo * 1024 * 1024;
+    }
+
+    @PostConstruct
+    public void ouvrir() throws IOException {
+        journal = new JournalSegmente(repertoire, tailleSegment);
+    }
+
+    @PreDestroy
+    public void fermer() {
+        journal.close();
+    }
+
+    @Scheduled(fixedDelayString = "${bfb.journal.synchro-ms:1000}")
+    public void synchroniser() {
+        journal.synchroniser();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surContrat(ContratEvent event) {
+        byte[] commentaire = event.commentaire() != null ? event.commentaire().getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer tampon = ByteBuffer.allocate(128 + (commentaire != null ? commentaire.length : 0));
+        tampon.put(CONTRAT).putLong(System.currentTimeMillis());
+        ecrireTexte(tampon, event.type().name());
+        tampon.putLong(valeur(event.contratId()))
+            .putLong(valeur(event.clientId()))
+            .putLong(valeur(event.vehiculeId()))
+            .putLong(event.dateDebut() != null ? event.dateDebut().toEpochDay() : ABSENT)
+            .putLong(event.dateFin() != null ? event.dateFin().toEpochDay() : ABSENT);
+        ecrireEtat(tampon, event.ancienEtat());
+        ecrireEtat(tampon, event.nouvelEtat());
+        tampon.putInt(commentaire != null ? commentaire.length : -1);
+        if (commentaire != null) {
+            tampon.put(commentaire);
+        }
+        ajouter(tampon);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surVehicule(VehiculeEvent event) {
+        ByteBuffer tampon = ByteBuffer.allocate(64);
+        tampon.put(VEHICULE).putLong(System.currentTimeMillis());
+        ecrireTexte(tampon, event.type().name());
+        tampon.putLong(valeur(event.vehicule().getId()));
+        ecrireEtat(tampon, event.ancienEtat());
+        ecrireEtat(tampon, event.vehicule().getEtat());
+        ajouter(tampon);
+    }
+
+    /**
+     * Ajoute un cliché des compteurs : point de départ des prochaines reconstructions.
+     * Une fois le cliché sur disque, les segments qui le précèdent sont supprimés.
+     */
+    public void cliche(EtatsFlotte etats) {
+        ByteBuffer tampon = ByteBuffer.allocate(512);
+        tampon.put(CLICHE).putLong(System.currentTimeMillis());
+        tampon.putLong(etats.derniereReconciliation() != null ? etats.derniereReconciliation().toEpochMilli() : ABSENT);
+        ecrireCompteurs(tampon, etats.vehicules());
+        ecrireCompteurs(tampon, etats.contrats());
+        try {
+            int supprimes = journal.ajouterPointDeReprise(tampon.flip());
+            if (supprimes > 0) {
+                log.info("Journal des transitions : {} segment(s) antérieur(s) au cliché supprimé(s)", supprimes);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Journal des transitions : écriture du cliché impossible", e);
+        }
+    }
+
+    /**
+     * Reconstruit une projection : cliché le plus récent, puis transitions suivantes dans l'ordre
+     *
+     * @return Le nombre de transitions rejouées après le cliché, ou -1 si le journal n'en contient aucun
+     */
+    public long rejouer(Projection projection) throws IOException {
+        // Segment du dernier cliché, en remontant depuis le plus récent
+        int segment = journal.segments() - 1;
+        long[] rang = {-1};
+        for (; segment >= 0 && rang[0] < 0; segment--) {
+            long[] lus = {0};
+            journal.lire(segment, contenu -> {
+                if (contenu.get(0) == CLICHE) {
+                    rang[0] = lus[0];
+                }
+                lus[0]++;
+            });
+        }
+        if (rang[0] < 0) {
+            return -1;
+        }
+
+        long[] transitions = {0};
+        for (int s = segment + 1; s < journal.segments(); s++) {
+            long[] lus = {0};
+            boolean premier = s == segment + 1;
+            journal.lire(s, contenu -> {
+                long position = lus[0]++;
+                if (premier && position < rang[0]) {
+                    return;
+                }
+                switch (contenu.get()) {
+                    case CLICHE -> {
+                        projection.restaurer(lireCliche(contenu));
+                        transitions[0] = 0;
+                    }
+                    case CONTRAT -> {
+                        projection.surContrat(lireContrat(contenu));
+                        transitions[0]++;
+                    }
+                    case VEHICULE -> {
+                        projection.surVehicule(lireVehicule(contenu));
+                        transitions[0]++;
+                    }
+                    default -> log.warn("Journal : enregistrement de type inconnu ignoré");
+                }
+            });
+        }
+        return transitions[0];
+    }
+
+    private void ajouter(ByteBuffer tampon) {
+        try {
+            journal.ajouter(tampon.flip());
+        } catch (IOException | RuntimeException e) {
+            log.error("Journal des transitions : écriture impossible", e);
+        }
+    }
+
+    private static ContratEvent lireContrat(ByteBuffer contenu) {
+        contenu.getLong();
+        ContratEvent.Type type = ContratEvent.Type.valueOf(lireTexte(contenu));
+        Long contratId = objet(contenu.getLong());
+        Long clientId = objet(contenu.getLong());
+        Long vehiculeId = objet(contenu.getLong());
+        Long debut = objet(contenu.getLong());
+        Long fin = objet(contenu.getLong());
+        EtatContrat ancien = lireEtat(contenu, EtatContrat.class);
+        EtatContrat nouveau = lireEtat(contenu, EtatContrat.class);
+        int longueur = contenu.getInt();
+        String commentaire = null;
+        if (longueur >= 0) {
+            byte[] octets = new byte[longueur];
+            contenu.get(octets);
+            commentaire = new String(octets, StandardCharsets.UTF_8);
+        }
+        return new ContratEvent(type, contratId, clientId, vehiculeId,
+            debut != null ? LocalDate.ofEpochDay(debut) : null,
+            fin != null ? LocalDate.ofEpochDay(fin) : null,
+            ancien, nouveau, commentaire);
+    }
+
+    private static VehiculeEvent lireVehicule(ByteBuffer contenu) {
+        contenu.getLong();
+        VehiculeEvent.Type type = VehiculeEvent.Type.valueOf(lireTexte(contenu));
+        Vehicule vehicule = new Vehicule();
+        vehicule.setId(objet(contenu.getLong()));
+        EtatVehicule ancien = lireEtat(contenu, EtatVehicule.class);
+        vehicule.setEtat(lireEtat(contenu, EtatVehicule.class));
+        return new VehiculeEvent(type, vehicule, ancien);
+    }
+
+    private static EtatsFlotte lireCliche(ByteBuffer contenu) {
+        contenu.getLong();
+        Long reconciliation = objet(contenu.getLong());
+        Map<EtatVehicule, Long> vehicules = lireCompteurs(contenu, EtatVehicule.class);
+        Map<EtatContrat, Long> contrats = lireCompteurs(contenu, EtatContrat.class);
+        return new EtatsFlotte(vehicules, contrats,
+            reconciliation != null ? Instant.ofEpochMilli(reconciliation) : null);
+    }
+
+    private static <E extends Enum<E>> void ecrireCompteurs(ByteBuffer tampon, Map<E, Long> compteurs) {
+        tampon.put((byte) compteurs.size());
+        compteurs.forEach((etat, nombre) -> {
+            ecrireTexte(tampon, etat.name());
+            tampon.putLong(nombre);
+        });
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> lireCompteurs(ByteBuffer contenu, Class<E> type) {
+        Map<E, Long> compteurs = new EnumMap<>(type);
+        int nombre = contenu.get();
+        for (int i = 0; i < nombre; i++) {
+            compteurs.put(Enum.valueOf(type, lireTexte(contenu)), contenu.getLong());
+        }
+        return compteurs;
+    }
+
+    /** Les états sont écrits par leur nom : le journal reste lisible si l'ordre des constantes change */
+    private static void ecrireEtat(ByteBuffer tampon, Enum<?> etat) {
+        ecrireTexte(tampon, etat != null ? etat.name() : "");
+    }
+
+    private static <E extends Enum<E>> E lireEtat(ByteBuffer contenu, Class<E> type) {
+        String nom = lireTexte(contenu);
+        return nom.isEmpty() ? null : Enum.valueOf(type, nom);
+    }
+
+    private static void ecrireTexte(ByteBuffer tampon, String texte) {
+        byte[] octets = texte.getBytes(StandardCharsets.US_ASCII);
+        tampon.put((byte) octets.length).put(octets);
+    }
+
+    private static String lireTexte(ByteBuffer contenu) {
+        byte[] octets = new byte[contenu.get()];
+        contenu.get(octets);
+        return new String(octets, StandardCharsets.US_ASCII);
+    }
+
+    private static long valeur(Long valeur) {
+        return valeur != null ? valeur : ABSENT;
+    }
+
+    private static Long objet(long valeur) {
+        return valeur == ABSENT ? null : valeur;
+    }
+}
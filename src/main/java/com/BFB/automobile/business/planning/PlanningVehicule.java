@@ -0,0 +1,64 @@
+package com.BFB.automobile.business.planning;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Périodes d'occupation d'un véhicule, triées par date de début et disjointes
+ *
+ * Les périodes qui se chevauchent sont fusionnées à l'insertion : la période
+ * commençant au plus tard avant une date donnée est alors aussi celle qui finit
+ * le plus tard, et un seul accès dichotomique (floorEntry) suffit pour savoir
+ * si une nouvelle période est libre.
+ *
+ * Les bornes sont incluses, comme dans ContratRepository.findContratsConflictuels.
+ * Cette classe n'est pas thread-safe.
+ */
+public class PlanningVehicule {
+
+    private final TreeMap<LocalDate, LocalDate> periodes = new TreeMap<>();
+
+    /**
+     * Indique si la période [debut, fin] ne chevauche aucune période occupée
+     */
+    public boolean estLibre(LocalDate debut, LocalDate fin) {
+        Map.Entry<LocalDate, LocalDate> precedente = periodes.floorEntry(fin);
+        return precedente == null || precedente.getValue().isBefore(debut);
+    }
+
+    /**
+     * Marque la période [debut, fin] comme occupée
+     */
+    public void occuper(LocalDate debut, LocalDate fin) {
+        LocalDate nouveauDebut = debut;
+        LocalDate nouvelleFin = fin;
+
+        Map.Entry<LocalDate, LocalDate> precedente = periodes.floorEntry(debut);
+        if (precedente != null && !precedente.getValue().isBefore(debut)) {
+            nouveauDebut = precedente.getKey();
+            nouvelleFin = max(nouvelleFin, precedente.getValue());
+            periodes.remove(precedente.getKey());
+        }
+
+        Map.Entry<LocalDate, LocalDate> suivante = periodes.ceilingEntry(debut);
+        while (suivante != null && !suivante.getKey().isAfter(nouvelleFin)) {
+            nouvelleFin = max(nouvelleFin, suivante.getValue());
+            periodes.remove(suivante.getKey());
+            suivante = periodes.ceilingEntry(debut);
+        }
+
+        periodes.put(nouveauDebut, nouvelleFin);
+    }
+
+    /**
+     * Nombre de périodes disjointes
+     */
+    public int taille() {
+        return periodes.size();
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,27 @@
+package com.BFB.automobile.business.planning;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.data.Contrat;
+
+/**
+ * Issue d'une demande de contrat au sein d'un lot
+ *
+ * @param index Position de la demande dans le lot (à partir de 0)
+ * @param contrat Le contrat créé (null si la demande est rejetée)
+ * @param code Code d'erreur du rejet (null si la demande est acceptée)
+ * @param message Message explicatif du rejet
+ */
+public record ResultatReservation(int index, Contrat contrat, String code, String message) {
+
+    public static ResultatReservation acceptee(int index, Contrat contrat) {
+        return new ResultatReservation(index, contrat, null, null);
+    }
+
+    public static ResultatReservation rejetee(int index, BusinessException e) {
+        return new ResultatReservation(index, null, e.getCode(), e.getMessage());
+    }
+
+    public boolean estAcceptee() {
+        return contrat != null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.BFB.automobile.business.recherche;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Une page de résultats de recherche, avec le nombre total de correspondances par type d'entité
+ *
+ * @param total Nombre total de documents correspondant (tenant compte du filtre de type)
+ * @param page Numéro de la page (à partir de 0)
+ * @param taille Taille de la page
+ * @param facettes Nombre de correspondances par type d'entité (indépendant du filtre de type)
+ * @param resultats Les résultats de la page, par pertinence décroissante
+ */
+public record PageRecherche(long total,
+                            int page,
+                            int taille,
+                            Map<TypeEntite, Long> facettes,
+                            List<ResultatRecherche> resultats) {
+}
@@ -0,0 +1,396 @@
+package com.BFB.automobile.business.recherche;
+
+import com.BFB.automobile.business.event.ClientEvent;
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.data.Client;
+import com.BFB.automobile.data.Contrat;
+import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.data.repository.ClientRepository;
+import com.BFB.automobile.data.repository.ContratRepository;
+import com.BFB.automobile.data.repository.VehiculeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Index Lucene embarqué (sur disque local) pour la recherche plein texte
+ *
+ * Champs indexés :
+ * - Client : nom, prénom, adresse
+ * - Véhicule : marque, modèle, motorisation, couleur
+ * - Contrat : commentaire
+ *
+ * L'index est mis à jour de manière asynchrone, après validation de la transaction,
+ * à partir des événements publiés par les services. Toutes les écritures passent par
+ * l'exécuteur mono-thread "rechercheExecutor" : les événements d'une même entité
+ * sont donc appliqués dans l'ordre. Il est reconstruit entièrement au démarrage,
+ * ou seulement s'il est vide quand la base survit aux redémarrages (profil "persistant").
+ */
+@Component
+public class RechercheIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RechercheIndex.class);
+
+    private static final String CHAMP_CLE = "cle";
+    private static final String CHAMP_TYPE = "type";
+    private static final String CHAMP_ID = "id";
+    private static final String CHAMP_LIBELLE = "libelle";
+
+    /**
+     * Champs interrogés et leur poids dans le calcul de pertinence
+     */
+    private static final Map<String, Float> POIDS_CHAMPS = Map.of(
+        "nom", 3f,
+        "prenom", 2f,
+        "adresse", 1f,
+        "marque", 2f,
+        "modele", 2f,
+        "motorisation", 1f,
+        "couleur", 1f,
+        "commentaire", 1f);
+
+    private static final int TAILLE_LOT_RECONSTRUCTION = 1000;
+
+    private final Path repertoire;
+    private final ClientRepository clientRepository;
+    private final VehiculeRepository vehiculeRepository;
+    private final ContratRepository contratRepository;
+    private final boolean reconstruireAuDemarrage;
+    private final Analyzer analyseur = new AnalyseurTexte();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @Autowired
+    public RechercheIndex(@Value("${bfb.recherche.index.repertoire}") String repertoire,
+                          ClientRepository clientRepository,
+                          VehiculeRepository vehiculeRepository,
+                          ContratRepository contratRepository,
+                          @Value("${bfb.recherche.index.reconstruire-au-demarrage:true}") boolean reconstruireAuDemarrage) {
+        this.repertoire = Path.of(repertoire);
+        this.clientRepository = clientRepository;
+        this.vehiculeRepository = vehiculeRepository;
+        this.contratRepository = contratRepository;
+        this.reconstruireAuDemarrage = reconstruireAuDemarrage;
+    }
+
+    @PostConstruct
+    public void ouvrir() throws IOException {
+        Files.createDirectories(repertoire);
+        directory = FSDirectory.open(repertoire);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyseur)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void fermer() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @Async("rechercheExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruireAuDemarrage() {
+        if (reconstruireAuDemarrage || writer.getDocStats().numDocs == 0) {
+            reconstruire();
+        }
+    }
+
+    /**
+     * Planifie la reconstruction complète de l'index sur l'exécuteur d'indexation
+     */
+    @Async("rechercheExecutor")
+    public void planifierReconstruction() {
+        reconstruire();
+    }
+
+    @Async("rechercheExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surClient(ClientEvent event) {
+        Document document = documentClient(event.client());
+        if (document == null) {
+            supprimer(TypeEntite.CLIENT, event.client().getId());
+        } else {
+            ecrire(document);
+        }
+    }
+
+    @Async("rechercheExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surVehicule(VehiculeEvent event) {
+        if (event.type() == VehiculeEvent.Type.SUPPRIME) {
+            supprimer(TypeEntite.VEHICULE, event.vehicule().getId());
+        } else {
+            ecrire(documentVehicule(event.vehicule()));
+        }
+    }
+
+    @Async("rechercheExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surContrat(ContratEvent event) {
+        if (event.commentaire() == null || event.commentaire().isBlank()) {
+            supprimer(TypeEntite.CONTRAT, event.contratId());
+        } else {
+            ecrire(documentContrat(event.contratId(), event.commentaire(),
+                event.dateDebut() + " → " + event.dateFin()));
+        }
+    }
+
+    /**
+     * Rend les modifications durables sur disque (les recherches les voient dès le rafraîchissement)
+     */
+    @Scheduled(fixedDelayString = "${bfb.recherche.index.delai-commit-ms:5000}")
+    public void valider() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.error("Échec de la validation de l'index de recherche", e);
+        }
+    }
+
+    /**
+     * Reconstruit l'index à partir de la base, par lots
+     */
+    public void reconstruire() {
+        long debut = System.nanoTime();
+        try {
+            writer.deleteAll();
+            long documents = indexerParLots(clientRepository::findAll, this::documentClient)
+                + indexerParLots(vehiculeRepository::findAll, this::documentVehicule)
+                + indexerParLots(contratRepository::findAll, this::documentContrat);
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            log.info("Index de recherche reconstruit : {} documents en {} ms",
+                documents, (System.nanoTime() - debut) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Échec de la reconstruction de l'index de recherche", e);
+        }
+    }
+
+    /**
+     * Recherche plein texte paginée, avec comptage par type d'entité
+     *
+     * @param texte Texte recherché (syntaxe simple : "phrase exacte", préfixe*, -exclusion)
+     * @param filtre Type d'entité à retenir (null = tous)
+     * @param page Numéro de page (à partir de 0)
+     * @param taille Taille de page
+     */
+    public PageRecherche rechercher(String texte, TypeEntite filtre, int page, int taille) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyseur, POIDS_CHAMPS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query requete = parser.parse(texte);
+
+        Map<TypeEntite, Long> facettes = new EnumMap<>(TypeEntite.class);
+        if (requete == null) {
+            for (TypeEntite type : TypeEntite.values()) {
+                facettes.put(type, 0L);
+            }
+            return new PageRecherche(0, page, taille, facettes, List.of());
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                for (TypeEntite type : TypeEntite.values()) {
+                    facettes.put(type, (long) searcher.count(filtrerParType(requete, type)));
+                }
+                long total = filtre != null
+                    ? facettes.get(filtre)
+                    : facettes.values().stream().mapToLong(Long::longValue).sum();
+
+                Query requeteFinale = filtre != null ? filtrerParType(requete, filtre) : requete;
+                // (page + 1) * taille borné par RechercheService
+                TopDocs top = searcher.search(requeteFinale, Math.max(1, Math.multiplyExact(page + 1, taille)));
+                StoredFields champsStockes = searcher.storedFields();
+
+                List<ResultatRecherche> resultats = new ArrayList<>(taille);
+                for (int i = page * taille; i < top.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = top.scoreDocs[i];
+                    Document document = champsStockes.document(scoreDoc.doc);
+                    resultats.add(new ResultatRecherche(
+                        TypeEntite.valueOf(document.get(CHAMP_TYPE)),
+                        document.getField(CHAMP_ID).numericValue().longValue(),
+                        document.get(CHAMP_LIBELLE),
+                        scoreDoc.score));
+                }
+                return new PageRecherche(total, page, taille, facettes, resultats);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Échec de la recherche plein texte", e);
+        }
+    }
+
+    private <T> long indexerParLots(Function<PageRequest, Page<T>> chargement,
+                                    Function<T, Document> conversion) throws IOException {
+        long documents = 0;
+        Page<T> lot;
+        int numero = 0;
+        do {
+            lot = chargement.apply(PageRequest.of(numero++, TAILLE_LOT_RECONSTRUCTION, Sort.by("id")));
+            for (T entite : lot) {
+                Document document = conversion.apply(entite);
+                if (document != null) {
+                    writer.addDocument(document);
+                    documents++;
+                }
+            }
+        } while (lot.hasNext());
+        return documents;
+    }
+
+    private void ecrire(Document document) {
+        try {
+            writer.updateDocument(new Term(CHAMP_CLE, document.get(CHAMP_CLE)), document);
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Échec de l'indexation du document {}", document.get(CHAMP_CLE), e);
+        }
+    }
+
+    private void supprimer(TypeEntite type, Long id) {
+        try {
+            writer.deleteDocuments(new Term(CHAMP_CLE, cle(type, id)));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Échec de la suppression du document {}", cle(type, id), e);
+        }
+    }
+
+    /**
+     * Document d'un client, ou null pour un client désactivé : il n'apparaît plus dans les recherches
+     */
+    private Document documentClient(Client client) {
+        if (!Boolean.TRUE.equals(client.getActif())) {
+            return null;
+        }
+        Document document = nouveauDocument(TypeEntite.CLIENT, client.getId(),
+            client.getNom() + " " + client.getPrenom());
+        ajouterTexte(document, "nom", client.getNom());
+        ajouterTexte(document, "prenom", client.getPrenom());
+        ajouterTexte(document, "adresse", client.getAdresse());
+        return document;
+    }
+
+    private Document documentVehicule(Vehicule vehicule) {
+        Document document = nouveauDocument(TypeEntite.VEHICULE, vehicule.getId(),
+            vehicule.getMarque() + " " + vehicule.getModele() + " - " + vehicule.getImmatriculation());
+        ajouterTexte(document, "marque", vehicule.getMarque());
+        ajouterTexte(document, "modele", vehicule.getModele());
+        ajouterTexte(document, "motorisation", vehicule.getMotorisation());
+        ajouterTexte(document, "couleur", vehicule.getCouleur());
+        return document;
+    }
+
+    private Document documentContrat(Contrat contrat) {
+        if (contrat.getCommentaire() == null || contrat.getCommentaire().isBlank()) {
+            return null;
+        }
+        return documentContrat(contrat.getId(), contrat.getCommentaire(),
+            contrat.getDateDebut() + " → " + contrat.getDateFin());
+    }
+
+    private Document documentContrat(Long id, String commentaire, String periode) {
+        Document document = nouveauDocument(TypeEntite.CONTRAT, id, "Contrat n°" + id + " (" + periode + ")");
+        ajouterTexte(document, "commentaire", commentaire);
+        return document;
+    }
+
+    private static Document nouveauDocument(TypeEntite type, Long id, String libelle) {
+        Document document = new Document();
+        document.add(new StringField(CHAMP_CLE, cle(type, id), Field.Store.YES));
+        document.add(new StringField(CHAMP_TYPE, type.name(), Field.Store.YES));
+        document.add(new StoredField(CHAMP_ID, id));
+        document.add(new StoredField(CHAMP_LIBELLE, libelle));
+        return document;
+    }
+
+    private static void ajouterTexte(Document document, String champ, String valeur) {
+        if (valeur != null) {
+            document.add(new TextField(champ, valeur, Field.Store.NO));
+        }
+    }
+
+    private static Query filtrerParType(Query requete, TypeEntite type) {
+        return new BooleanQuery.Builder()
+            .add(requete, BooleanClause.Occur.MUST)
+            .add(new TermQuery(new Term(CHAMP_TYPE, type.name())), BooleanClause.Occur.FILTER)
+            .build();
+    }
+
+    private static String cle(TypeEntite type, Long id) {
+        return type.name() + ":" + id;
+    }
+
+    /**
+     * Découpage standard, minuscules et suppression des accents ("Citroën" = "citroen")
+     */
+    private static final class AnalyseurTexte extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String champ) {
+            StandardTokenizer source = new StandardTokenizer();
+            TokenStream flux = new ASCIIFoldingFilter(new LowerCaseFilter(source));
+            return new TokenStreamComponents(source, flux);
+        }
+
+        @Override
+        protected TokenStream normalize(String champ, TokenStream entree) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(entree));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.BFB.automobile.business.recherche;
+
+/**
+ * Un document trouvé par la recherche plein texte
+ *
+ * @param type Type de l'entité trouvée
+ * @param id Identifiant de l'entité
+ * @param libelle Libellé d'affichage
+ * @param score Pertinence calculée par Lucene (BM25)
+ */
+public record ResultatRecherche(TypeEntite type, Long id, String libelle, float score) {
+}
@@ -0,0 +1,10 @@
+package com.BFB.automobile.business.recherche;
+
+/**
+ * Types d'entités présents dans l'index de recherche (sert aussi de facette)
+ */
+public enum TypeEntite {
+    CLIENT,
+    VEHICULE,
+    CONTRAT
+}
@@ -1,16 +1,29 @@
 package com.BFB.automobile.business.service;
 
+import com.BFB.automobile.business.event.ClientEvent;
 import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.importation.ImportateurEnMasse;
+import com.BFB.automobile.business.importation.LigneImport;
+import com.BFB.automobile.business.importation.RapportImport;
+import com.BFB.automobile.business.importation.StrategieImport;
+import com.BFB.automobile.business.suggestion.Suggestion;
+import com.BFB.automobile.business.suggestion.SuggestionIndex;
 import com.BFB.automobile.data.Client;
 import com.BFB.automobile.data.repository.ClientRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service métier pour la gestion des clients
@@ -33,16 +46,26 @@ import java.util.Optional;
  */
 @Service
 @Transactional
+@Timed("bfb.service")
 public class ClientService {
     
     private final ClientRepository clientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SuggestionIndex suggestionIndex;
+    private final ImportateurEnMasse importateur;
     
     /**
      * Injection par constructeur recommandée (immutabilité + testabilité)
      */
     @Autowired
-    public ClientService(ClientRepository clientRepository) {
+    public ClientService(ClientRepository clientRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         SuggestionIndex suggestionIndex,
+                         ImportateurEnMasse importateur) {
         this.clientRepository = clientRepository;
+        this.eventPublisher = eventPublisher;
+        this.suggestionIndex = suggestionIndex;
+        this.importateur = importateur;
     }
     
     /**
@@ -66,15 +89,12 @@ public class ClientService {
                 "Ce numéro de permis est déjà utilisé par un autre client");
         }
         
-        // Validation de l'âge minimum (18 ans)
-        if (client.getDateNaissance().isAfter(LocalDate.now().minusYears(18))) {
-            throw new BusinessException(
-                "AGE_INSUFFISANT",
-                "Le client doit avoir au moins 18 ans pour louer un véhicule");
-        }
+        verifierAgeMinimum(client);
         
         try {
-            return clientRepository.save(client);
+            Client clientCree = clientRepository.save(client);
+            eventPublisher.publishEvent(new ClientEvent(ClientEvent.Type.CREE, clientCree));
+            return clientCree;
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException(
                 "ERREUR_CREATION_CLIENT",
@@ -111,7 +131,9 @@ public class ClientService {
         clientExistant.setAdresse(clientModifie.getAdresse());
         
         try {
-            return clientRepository.save(clientExistant);
+            Client clientMisAJour = clientRepository.save(clientExistant);
+            eventPublisher.publishEvent(new ClientEvent(ClientEvent.Type.MODIFIE, clientMisAJour));
+            return clientMisAJour;
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException(
                 "ERREUR_MISE_A_JOUR_CLIENT",
@@ -130,6 +152,7 @@ public class ClientService {
         
         client.setActif(false);
         clientRepository.save(client);
+        eventPublisher.publishEvent(new ClientEvent(ClientEvent.Type.DESACTIVE, client));
     }
     
     /**
@@ -182,4 +205,80 @@ public class ClientService {
     public Optional<Client> rechercherParNumeroPermis(String numeroPermis) {
         return clientRepository.findByNumeroPermis(numeroPermis);
     }
+    
+    /**
+     * Autocomplétion : clients actifs dont le nom ou le numéro de permis commence par la saisie
+     * (servie depuis l'index en mémoire, sans transaction ni accès base)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Suggestion> suggererClients(String saisie, int limite) {
+        return suggestionIndex.suggererClients(saisie, limite);
+    }
+    
+    /**
+     * Import en masse de clients (mêmes règles que la création unitaire)
+     * 
+     * Chaque lot est validé dans sa propre transaction : un import interrompu
+     * conserve les lots déjà enregistrés.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RapportImport importerClients(Iterator<LigneImport<Client>> lignes) {
+        return importateur.importer(lignes, new StrategieImport<>() {
+            
+            @Override
+            public Set<String> chargerClesExistantes() {
+                Set<String> cles = new HashSet<>();
+                for (Object[] ligne : clientRepository.findClesUnicite()) {
+                    cles.add(clePermis((String) ligne[0]));
+                    cles.add(cleIdentite((String) ligne[1], (String) ligne[2], (LocalDate) ligne[3]));
+                }
+                return cles;
+            }
+            
+            @Override
+            public List<String> cles(Client client) {
+                return List.of(
+                    cleIdentite(client.getNom(), client.getPrenom(), client.getDateNaissance()),
+                    clePermis(client.getNumeroPermis()));
+            }
+            
+            @Override
+            public void verifier(Client client) {
+                verifierAgeMinimum(client);
+            }
+            
+            @Override
+            public String codeDoublon(String cle) {
+                return cle.startsWith("permis:") ? "NUMERO_PERMIS_EXISTE" : "CLIENT_EXISTE_DEJA";
+            }
+            
+            @Override
+            public void enregistrer(List<Client> lot) {
+                // Identifiants éventuellement fournis par le fichier ignorés : toujours des créations
+                lot.forEach(client -> client.setId(null));
+                for (Client client : clientRepository.saveAll(lot)) {
+                    eventPublisher.publishEvent(new ClientEvent(ClientEvent.Type.CREE, client));
+                }
+            }
+        });
+    }
+    
+    /**
+     * Règle : le client doit avoir au moins 18 ans pour louer un véhicule
+     */
+    private void verifierAgeMinimum(Client client) {
+        if (client.getDateNaissance().isAfter(LocalDate.now().minusYears(18))) {
+            throw new BusinessException(
+                "AGE_INSUFFISANT",
+                "Le client doit avoir au moins 18 ans pour louer un véhicule");
+        }
+    }
+    
+    private static String clePermis(String numeroPermis) {
+        return "permis:" + numeroPermis;
+    }
+    
+    private static String cleIdentite(String nom, String prenom, LocalDate dateNaissance) {
+        return "identite:" + nom + "|" + prenom + "|" + dateNaissance;
+    }
 }
@@ -1,17 +1,37 @@
 package com.BFB.automobile.business.service;
 
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
 import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.planning.PlanningVehicule;
+import com.BFB.automobile.business.planning.ResultatReservation;
+import com.BFB.automobile.business.validation.ContratValidationChain;
 import com.BFB.automobile.data.*;
 import com.BFB.automobile.data.repository.ClientRepository;
 import com.BFB.automobile.data.repository.ContratRepository;
 import com.BFB.automobile.data.repository.VehiculeRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
 
 /**
  * Service métier pour la gestion des contrats de location
@@ -22,92 +42,192 @@ import java.util.List;
  */
 @Service
 @Transactional
+@Timed("bfb.service")
 public class ContratService {
     
+    /** Nombre maximal de demandes acceptées dans un lot */
+    public static final int TAILLE_MAX_LOT = 500;
+    
+    /** Taille maximale d'une page d'historique */
+    public static final int TAILLE_PAGE_HISTORIQUE_MAX = 500;
+    
     private final ContratRepository contratRepository;
     private final ClientRepository clientRepository;
     private final VehiculeRepository vehiculeRepository;
+    private final ContratValidationChain validationChain;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
     
     @Autowired
     public ContratService(ContratRepository contratRepository,
                          ClientRepository clientRepository,
-                         VehiculeRepository vehiculeRepository) {
+                         VehiculeRepository vehiculeRepository,
+                         ContratValidationChain validationChain,
+                         ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry) {
         this.contratRepository = contratRepository;
         this.clientRepository = clientRepository;
         this.vehiculeRepository = vehiculeRepository;
+        this.validationChain = validationChain;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
     }
     
     /**
      * Crée un nouveau contrat de location avec toutes les validations
+     * 
+     * Une fois le client et le véhicule chargés, les règles métier (dates, client actif,
+     * véhicule louable, disponibilité sur la période) sont appliquées par la chaîne de validation.
      */
     public Contrat creerContrat(Contrat contrat) {
-        // Validation 1 : Le client existe et est actif
-        Client client = clientRepository.findById(contrat.getClient().getId())
-            .orElseThrow(() -> new BusinessException(
-                "CLIENT_NON_TROUVE",
-                "Le client spécifié n'existe pas"));
+        Client client = clientRepository.findById(contrat.getClient().getId()).orElse(null);
+        Vehicule vehicule = vehiculeRepository.findById(contrat.getVehicule().getId()).orElse(null);
+        verifierExistence(client, vehicule);
         
-        if (!client.getActif()) {
-            throw new BusinessException(
-                "CLIENT_INACTIF",
-                "Le client n'est pas actif");
-        }
+        // Réattacher les entités gérées
+        contrat.setClient(client);
+        contrat.setVehicule(vehicule);
+        validationChain.valider(contrat);
         
-        // Validation 2 : Le véhicule existe
-        Vehicule vehicule = vehiculeRepository.findById(contrat.getVehicule().getId())
-            .orElseThrow(() -> new BusinessException(
-                "VEHICULE_NON_TROUVE",
-                "Le véhicule spécifié n'existe pas"));
+        // Si le contrat commence aujourd'hui, le mettre directement en cours
+        if (contrat.getDateDebut().equals(LocalDate.now())) {
+            contrat.setEtat(EtatContrat.EN_COURS);
+            changerEtatVehicule(vehicule, EtatVehicule.EN_LOCATION);
+        }
         
-        // Règle : Les véhicules en panne ne peuvent pas être loués
-        if (vehicule.estEnPanne()) {
+        Contrat contratCree = contratRepository.save(contrat);
+        eventPublisher.publishEvent(ContratEvent.de(ContratEvent.Type.CREE, contratCree, null));
+        return contratCree;
+    }
+    
+    /**
+     * Crée un lot de contrats en une seule transaction
+     * 
+     * Chaque demande passe par les handlers en mémoire de la chaîne de validation (dates,
+     * durée, client, véhicule), comme dans creerContrat ; une demande rejetée n'empêche pas
+     * la création des autres. La disponibilité n'est pas vérifiée par la chaîne, qui ferait
+     * une requête par demande : les réservations existantes des véhicules concernés sont
+     * chargées en une requête, puis chaque demande est comparée aux périodes déjà occupées
+     * (en base ou par une demande acceptée plus tôt dans le lot). Le chevauchement avec un
+     * autre contrat du même client n'est pas vérifié.
+     * 
+     * @return Un résultat par demande, dans l'ordre du lot
+     */
+    public List<ResultatReservation> creerContrats(List<Contrat> demandes) {
+        if (demandes.isEmpty()) {
+            throw new BusinessException("LOT_VIDE", "Le lot ne contient aucun contrat");
+        }
+        if (demandes.size() > TAILLE_MAX_LOT) {
             throw new BusinessException(
-                "VEHICULE_EN_PANNE",
-                "Ce véhicule est en panne et ne peut pas être loué");
+                "LOT_TROP_VOLUMINEUX",
+                "Un lot ne peut pas dépasser " + TAILLE_MAX_LOT + " contrats");
         }
         
-        // Validation 3 : Les dates sont cohérentes
-        if (contrat.getDateDebut().isAfter(contrat.getDateFin())) {
-            throw new BusinessException(
-                "DATES_INCOHERENTES",
-                "La date de début doit être antérieure à la date de fin");
+        Set<Long> clientIds = demandes.stream().filter(Objects::nonNull)
+            .map(Contrat::getClient).filter(Objects::nonNull)
+            .map(Client::getId).filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> vehiculeIds = demandes.stream().filter(Objects::nonNull)
+            .map(Contrat::getVehicule).filter(Objects::nonNull)
+            .map(Vehicule::getId).filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        
+        Map<Long, Client> clients = clientRepository.findAllById(clientIds).stream()
+            .collect(Collectors.toMap(Client::getId, Function.identity()));
+        Map<Long, Vehicule> vehicules = vehiculeRepository.findAllById(vehiculeIds).stream()
+            .collect(Collectors.toMap(Vehicule::getId, Function.identity()));
+        Map<Long, PlanningVehicule> plannings = chargerPlannings(demandes, vehicules.keySet());
+        
+        List<ResultatReservation> resultats = new ArrayList<>(demandes.size());
+        List<Contrat> acceptes = new ArrayList<>();
+        for (int i = 0; i < demandes.size(); i++) {
+            Contrat contrat = demandes.get(i);
+            try {
+                if (contrat == null || contrat.getClient() == null || contrat.getVehicule() == null
+                        || contrat.getDateDebut() == null || contrat.getDateFin() == null) {
+                    throw new BusinessException(
+                        "VALIDATION_ERROR",
+                        "Client, véhicule, date de début et date de fin sont obligatoires");
+                }
+                Client client = clients.get(contrat.getClient().getId());
+                Vehicule vehicule = vehicules.get(contrat.getVehicule().getId());
+                verifierExistence(client, vehicule);
+                contrat.setId(null);
+                contrat.setClient(client);
+                contrat.setVehicule(vehicule);
+                validationChain.validerEnMemoire(contrat);
+                
+                PlanningVehicule planning = plannings.computeIfAbsent(vehicule.getId(), id -> new PlanningVehicule());
+                if (!planning.estLibre(contrat.getDateDebut(), contrat.getDateFin())) {
+                    throw new BusinessException(
+                        "VEHICULE_DEJA_LOUE",
+                        "Ce véhicule est déjà loué sur cette période");
+                }
+                planning.occuper(contrat.getDateDebut(), contrat.getDateFin());
+                
+                if (contrat.getDateDebut().equals(LocalDate.now())) {
+                    contrat.setEtat(EtatContrat.EN_COURS);
+                    changerEtatVehicule(vehicule, EtatVehicule.EN_LOCATION);
+                } else {
+                    contrat.setEtat(EtatContrat.EN_ATTENTE);
+                }
+                acceptes.add(contrat);
+                resultats.add(ResultatReservation.acceptee(i, contrat));
+            } catch (BusinessException e) {
+                resultats.add(ResultatReservation.rejetee(i, e));
+            }
         }
         
-        if (contrat.getDateDebut().isBefore(LocalDate.now())) {
+        // Identifiants issus de la séquence : inserts groupés en un seul aller-retour par paquet
+        for (Contrat contratCree : contratRepository.saveAll(acceptes)) {
+            eventPublisher.publishEvent(ContratEvent.de(ContratEvent.Type.CREE, contratCree, null));
+        }
+        return resultats;
+    }
+    
+    /**
+     * @param client Le client demandé, null s'il n'existe pas
+     * @param vehicule Le véhicule demandé, null s'il n'existe pas
+     */
+    private void verifierExistence(Client client, Vehicule vehicule) {
+        if (client == null) {
             throw new BusinessException(
-                "DATE_DEBUT_PASSEE",
-                "La date de début ne peut pas être dans le passé");
+                "CLIENT_NON_TROUVE",
+                "Le client spécifié n'existe pas");
         }
         
-        // Règle : Un véhicule ne peut être loué que par un seul client sur une période donnée
-        List<Contrat> contratsConflictuels = contratRepository.findContratsConflictuels(
-            vehicule.getId(),
-            contrat.getDateDebut(),
-            contrat.getDateFin()
-        );
-        
-        if (!contratsConflictuels.isEmpty()) {
+        if (vehicule == null) {
             throw new BusinessException(
-                "VEHICULE_DEJA_LOUE",
-                "Ce véhicule est déjà loué sur cette période");
+                "VEHICULE_NON_TROUVE",
+                "Le véhicule spécifié n'existe pas");
         }
-        
-        // Réattacher les entités gérées
-        contrat.setClient(client);
-        contrat.setVehicule(vehicule);
-        
-        // Si le contrat commence aujourd'hui, le mettre directement en cours
-        if (contrat.getDateDebut().equals(LocalDate.now())) {
-            contrat.setEtat(EtatContrat.EN_COURS);
-            vehicule.setEtat(EtatVehicule.EN_LOCATION);
-            vehiculeRepository.save(vehicule);
+    }
+    
+    /**
+     * Charge en une requête les périodes réservées des véhicules sur la fenêtre couverte par le lot
+     */
+    private Map<Long, PlanningVehicule> chargerPlannings(List<Contrat> demandes, Set<Long> vehiculeIds) {
+        Map<Long, PlanningVehicule> plannings = new HashMap<>();
+        LocalDate debutFenetre = demandes.stream().filter(Objects::nonNull).map(Contrat::getDateDebut)
+            .filter(Objects::nonNull).min(LocalDate::compareTo).orElse(null);
+        LocalDate finFenetre = demandes.stream().filter(Objects::nonNull).map(Contrat::getDateFin)
+            .filter(Objects::nonNull).max(LocalDate::compareTo).orElse(null);
+        if (vehiculeIds.isEmpty() || debutFenetre == null || finFenetre == null) {
+            return plannings;
         }
-        
-        return contratRepository.save(contrat);
+        for (Object[] periode : contratRepository.findPeriodesReservees(vehiculeIds, debutFenetre, finFenetre)) {
+            plannings.computeIfAbsent((Long) periode[0], id -> new PlanningVehicule())
+                .occuper((LocalDate) periode[1], (LocalDate) periode[2]);
+        }
+        return plannings;
     }
     
     /**
      * Met à jour un contrat existant
+     * 
+     * Le contrat modifié repasse par toute la chaîne de validation, comme à la création :
+     * une modification est refusée si la nouvelle date de début est passée, si le client a
+     * été désactivé ou si le véhicule est tombé en panne depuis la réservation.
      */
     public Contrat mettreAJourContrat(Long id, Contrat contratModifie) {
         Contrat contratExistant = contratRepository.findById(id)
@@ -122,33 +242,24 @@ public class ContratService {
                 "Seuls les contrats en attente peuvent être modifiés");
         }
         
-        // Vérifier les nouvelles dates
-        if (contratModifie.getDateDebut().isAfter(contratModifie.getDateFin())) {
-            throw new BusinessException(
-                "DATES_INCOHERENTES",
-                "La date de début doit être antérieure à la date de fin");
-        }
-        
-        // Vérifier la disponibilité du véhicule sur les nouvelles dates
-        List<Contrat> contratsConflictuels = contratRepository.findContratsConflictuels(
-            contratExistant.getVehicule().getId(),
-            contratModifie.getDateDebut(),
-            contratModifie.getDateFin()
-        ).stream()
-            .filter(c -> !c.getId().equals(id)) // Exclure le contrat actuel
-            .toList();
-        
-        if (!contratsConflictuels.isEmpty()) {
-            throw new BusinessException(
-                "VEHICULE_DEJA_LOUE",
-                "Ce véhicule est déjà loué sur cette période");
-        }
+        // Mêmes règles qu'à la création, le contrat modifié ne se bloquant pas lui-même
+        Contrat candidat = Contrat.builder()
+                .client(contratExistant.getClient())
+                .vehicule(contratExistant.getVehicule())
+                .dateDebut(contratModifie.getDateDebut())
+                .dateFin(contratModifie.getDateFin())
+                .build();
+        candidat.setId(id);
+        validationChain.valider(candidat);
         
         contratExistant.setDateDebut(contratModifie.getDateDebut());
         contratExistant.setDateFin(contratModifie.getDateFin());
         contratExistant.setCommentaire(contratModifie.getCommentaire());
         
-        return contratRepository.save(contratExistant);
+        Contrat contratMisAJour = contratRepository.save(contratExistant);
+        eventPublisher.publishEvent(ContratEvent.de(
+            ContratEvent.Type.MODIFIE, contratMisAJour, contratMisAJour.getEtat()));
+        return contratMisAJour;
     }
     
     /**
@@ -167,16 +278,14 @@ public class ContratService {
                 "Ce contrat ne peut pas être annulé (déjà terminé ou annulé)");
         }
         
-        contrat.setEtat(EtatContrat.ANNULE);
         contrat.setCommentaire(motif);
         
         // Si le véhicule était en location pour ce contrat, le remettre disponible
         if (contrat.getVehicule().getEtat() == EtatVehicule.EN_LOCATION) {
-            contrat.getVehicule().setEtat(EtatVehicule.DISPONIBLE);
-            vehiculeRepository.save(contrat.getVehicule());
+            changerEtatVehicule(contrat.getVehicule(), EtatVehicule.DISPONIBLE);
         }
         
-        return contratRepository.save(contrat);
+        return changerEtatContrat(contrat, EtatContrat.ANNULE);
     }
     
     /**
@@ -195,14 +304,10 @@ public class ContratService {
                 "Seuls les contrats en cours ou en retard peuvent être terminés");
         }
         
-        contrat.setEtat(EtatContrat.TERMINE);
-        
         // Remettre le véhicule disponible
-        Vehicule vehicule = contrat.getVehicule();
-        vehicule.setEtat(EtatVehicule.DISPONIBLE);
-        vehiculeRepository.save(vehicule);
+        changerEtatVehicule(contrat.getVehicule(), EtatVehicule.DISPONIBLE);
         
-        return contratRepository.save(contrat);
+        return changerEtatContrat(contrat, EtatContrat.TERMINE);
     }
     
     /**
@@ -214,66 +319,82 @@ public class ContratService {
         LocalDate aujourdhui = LocalDate.now();
         
         // 1. Démarrer les contrats qui doivent commencer aujourd'hui
-        demarrerContratsAujourdhui(aujourdhui);
+        mesurerPhase("demarrage", () -> demarrerContratsAujourdhui(aujourdhui));
         
         // 2. Marquer les contrats en retard
-        marquerContratsEnRetard(aujourdhui);
+        mesurerPhase("retards", () -> marquerContratsEnRetard(aujourdhui));
         
         // 3. Annuler les contrats bloqués par des retards
-        annulerContratsBloquesParRetard(aujourdhui);
+        mesurerPhase("annulations", () -> annulerContratsBloquesParRetard(aujourdhui));
+    }
+    
+    /**
+     * Chronomètre une phase du traitement automatique et comptabilise les contrats modifiés
+     * (métriques bfb.job.etats.phase et bfb.job.etats.lignes, étiquetées par phase)
+     */
+    private void mesurerPhase(String phase, IntSupplier traitement) {
+        Timer.Sample debut = Timer.start(meterRegistry);
+        int lignes = traitement.getAsInt();
+        debut.stop(meterRegistry.timer("bfb.job.etats.phase", "phase", phase));
+        meterRegistry.counter("bfb.job.etats.lignes", "phase", phase).increment(lignes);
     }
     
     /**
      * Démarre les contrats qui doivent commencer aujourd'hui
+     * 
+     * @return le nombre de contrats modifiés
      */
-    private void demarrerContratsAujourdhui(LocalDate aujourdhui) {
+    private int demarrerContratsAujourdhui(LocalDate aujourdhui) {
         List<Contrat> contratsADemarrer = contratRepository
             .findContratsADemarrerAujourdhui(aujourdhui);
         
         for (Contrat contrat : contratsADemarrer) {
             // Vérifier que le véhicule est disponible
             if (contrat.getVehicule().estDisponible()) {
-                contrat.setEtat(EtatContrat.EN_COURS);
-                contrat.getVehicule().setEtat(EtatVehicule.EN_LOCATION);
-                vehiculeRepository.save(contrat.getVehicule());
-                contratRepository.save(contrat);
+                changerEtatVehicule(contrat.getVehicule(), EtatVehicule.EN_LOCATION);
+                changerEtatContrat(contrat, EtatContrat.EN_COURS);
             } else {
                 // Le véhicule n'est pas disponible, annuler le contrat
-                contrat.setEtat(EtatContrat.ANNULE);
                 contrat.setCommentaire(
                     "Contrat annulé automatiquement : véhicule non disponible");
-                contratRepository.save(contrat);
+                changerEtatContrat(contrat, EtatContrat.ANNULE);
             }
         }
+        return contratsADemarrer.size();
     }
     
     /**
      * Règle : Si un client ne ramène pas le véhicule avant la date de fin,
      * le contrat doit passer au statut "en retard"
+     * 
+     * @return le nombre de contrats modifiés
      */
-    private void marquerContratsEnRetard(LocalDate aujourdhui) {
+    private int marquerContratsEnRetard(LocalDate aujourdhui) {
         List<Contrat> contratsEnRetard = contratRepository
             .findContratsEnRetard(aujourdhui);
         
         for (Contrat contrat : contratsEnRetard) {
-            contrat.setEtat(EtatContrat.EN_RETARD);
             contrat.setCommentaire(
                 "Contrat en retard depuis le " + contrat.getDateFin());
-            contratRepository.save(contrat);
+            changerEtatContrat(contrat, EtatContrat.EN_RETARD);
         }
+        return contratsEnRetard.size();
     }
     
     /**
      * Règle : Si un retard empêche le démarrage du contrat suivant,
      * celui-ci doit passer au statut "annulé"
+     * 
+     * @return le nombre de contrats modifiés
      */
-    private void annulerContratsBloquesParRetard(LocalDate aujourdhui) {
+    private int annulerContratsBloquesParRetard(LocalDate aujourdhui) {
         // Trouver tous les contrats qui devraient commencer aujourd'hui ou avant
         List<Contrat> contratsEnAttente = contratRepository
             .findByEtat(EtatContrat.EN_ATTENTE).stream()
             .filter(c -> !c.getDateDebut().isAfter(aujourdhui))
             .toList();
         
+        int annules = 0;
         for (Contrat contrat : contratsEnAttente) {
             Vehicule vehicule = contrat.getVehicule();
             
@@ -284,12 +405,36 @@ public class ContratService {
                 .toList();
             
             if (!contratsEnRetardPourCeVehicule.isEmpty()) {
-                contrat.setEtat(EtatContrat.ANNULE);
                 contrat.setCommentaire(
                     "Contrat annulé automatiquement : véhicule bloqué par un retard");
-                contratRepository.save(contrat);
+                changerEtatContrat(contrat, EtatContrat.ANNULE);
+                annules++;
             }
         }
+        return annules;
+    }
+    
+    /**
+     * Applique une transition d'état au contrat, l'enregistre et publie l'événement correspondant
+     */
+    private Contrat changerEtatContrat(Contrat contrat, EtatContrat nouvelEtat) {
+        EtatContrat ancienEtat = contrat.getEtat();
+        contrat.setEtat(nouvelEtat);
+        Contrat contratModifie = contratRepository.save(contrat);
+        eventPublisher.publishEvent(ContratEvent.de(
+            ContratEvent.Type.ETAT_CHANGE, contratModifie, ancienEtat));
+        return contratModifie;
+    }
+    
+    /**
+     * Applique une transition d'état au véhicule, l'enregistre et publie l'événement correspondant
+     */
+    private void changerEtatVehicule(Vehicule vehicule, EtatVehicule nouvelEtat) {
+        EtatVehicule ancienEtat = vehicule.getEtat();
+        vehicule.setEtat(nouvelEtat);
+        vehiculeRepository.save(vehicule);
+        eventPublisher.publishEvent(new VehiculeEvent(
+            VehiculeEvent.Type.ETAT_CHANGE, vehicule, ancienEtat));
     }
     
     /**
@@ -312,19 +457,28 @@ public class ContratService {
     }
     
     /**
-     * Récupère tous les contrats d'un client
+     * Une page de l'historique d'un client (contrats courants et archivés, du plus récent au plus ancien)
      */
     @Transactional(readOnly = true)
-    public List<Contrat> obtenirContratsParClient(Long clientId) {
-        return contratRepository.findByClientIdOrderByDateDebutDesc(clientId);
+    public Page<Contrat> obtenirHistoriqueClient(Long clientId, int page, int taille) {
+        return contratRepository.findHistoriqueClient(clientId, pageHistorique(page, taille));
     }
     
     /**
-     * Récupère tous les contrats d'un véhicule
+     * Une page de l'historique d'un véhicule (contrats courants et archivés, du plus récent au plus ancien)
      */
     @Transactional(readOnly = true)
-    public List<Contrat> obtenirContratsParVehicule(Long vehiculeId) {
-        return contratRepository.findByVehiculeIdOrderByDateDebutDesc(vehiculeId);
+    public Page<Contrat> obtenirHistoriqueVehicule(Long vehiculeId, int page, int taille) {
+        return contratRepository.findHistoriqueVehicule(vehiculeId, pageHistorique(page, taille));
+    }
+    
+    private static Pageable pageHistorique(int page, int taille) {
+        if (page < 0 || taille < 1 || taille > TAILLE_PAGE_HISTORIQUE_MAX) {
+            throw new BusinessException(
+                "PAGINATION_INVALIDE",
+                "La page doit être positive et la taille comprise entre 1 et " + TAILLE_PAGE_HISTORIQUE_MAX);
+        }
+        return PageRequest.of(page, taille);
     }
     
     /**
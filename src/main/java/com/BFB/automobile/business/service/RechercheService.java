@@ -0,0 +1,60 @@
+package com.BFB.automobile.business.service;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.recherche.PageRecherche;
+import com.BFB.automobile.business.recherche.RechercheIndex;
+import com.BFB.automobile.business.recherche.TypeEntite;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service métier pour la recherche plein texte sur les clients, véhicules et contrats
+ * Valide les paramètres puis interroge l'index Lucene (aucun accès à la base)
+ */
+@Service
+public class RechercheService {
+    
+    private static final int TAILLE_PAGE_MAX = 100;
+    
+    /** Rang maximal d'un résultat : l'index classe (page + 1) * taille résultats pour servir une page */
+    private static final int RESULTATS_MAX = 10_000;
+    
+    private final RechercheIndex rechercheIndex;
+    
+    @Autowired
+    public RechercheService(RechercheIndex rechercheIndex) {
+        this.rechercheIndex = rechercheIndex;
+    }
+    
+    /**
+     * Recherche classée par pertinence, paginée et filtrable par type d'entité
+     */
+    public PageRecherche rechercher(String texte, TypeEntite type, int page, int taille) {
+        if (texte == null || texte.isBlank()) {
+            throw new BusinessException(
+                "RECHERCHE_VIDE",
+                "Le texte à rechercher est obligatoire");
+        }
+        
+        if (page < 0 || taille < 1 || taille > TAILLE_PAGE_MAX) {
+            throw new BusinessException(
+                "PAGINATION_INVALIDE",
+                "La page doit être positive et la taille comprise entre 1 et " + TAILLE_PAGE_MAX);
+        }
+        
+        if ((page + 1L) * taille > RESULTATS_MAX) {
+            throw new BusinessException(
+                "PAGINATION_INVALIDE",
+                "Seuls les " + RESULTATS_MAX + " premiers résultats sont consultables : affinez la recherche");
+        }
+        
+        return rechercheIndex.rechercher(texte, type, page, taille);
+    }
+    
+    /**
+     * Déclenche la reconstruction complète de l'index (traitement asynchrone)
+     */
+    public void reconstruireIndex() {
+        rechercheIndex.planifierReconstruction();
+    }
+}
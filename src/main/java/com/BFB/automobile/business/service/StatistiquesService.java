@@ -0,0 +1,69 @@
+package com.BFB.automobile.business.service;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.statistiques.CompteursEtats;
+import com.BFB.automobile.business.statistiques.EtatsFlotte;
+import com.BFB.automobile.business.statistiques.OccupationFlotte;
+import com.BFB.automobile.business.statistiques.Utilisation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Service métier pour les statistiques de la flotte et des contrats
+ * Lit les compteurs et l'instantané d'occupation maintenus en mémoire (aucun accès à la base)
+ */
+@Service
+public class StatistiquesService {
+    
+    /** Période maximale d'un calcul d'occupation */
+    public static final int PERIODE_MAX_JOURS = 3660;
+    
+    private final CompteursEtats compteursEtats;
+    private final OccupationFlotte occupationFlotte;
+    
+    @Autowired
+    public StatistiquesService(CompteursEtats compteursEtats, OccupationFlotte occupationFlotte) {
+        this.compteursEtats = compteursEtats;
+        this.occupationFlotte = occupationFlotte;
+    }
+    
+    /**
+     * Nombre de véhicules et de contrats par état
+     */
+    public EtatsFlotte obtenirEtats() {
+        return compteursEtats.instantane();
+    }
+    
+    /**
+     * Taux d'occupation sur la période [debut, fin], par véhicule, par modèle ou par mois
+     *
+     * @param regroupement "vehicule", "modele" ou "mois" (sans distinction de casse)
+     */
+    public Utilisation obtenirUtilisation(LocalDate debut, LocalDate fin, String regroupement) {
+        if (debut.isAfter(fin)) {
+            throw new BusinessException(
+                "DATES_INCOHERENTES",
+                "La date de début doit être antérieure à la date de fin");
+        }
+        if (ChronoUnit.DAYS.between(debut, fin) >= PERIODE_MAX_JOURS) {
+            throw new BusinessException(
+                "PERIODE_TROP_LONGUE",
+                "La période ne peut pas dépasser " + PERIODE_MAX_JOURS + " jours");
+        }
+        return occupationFlotte.calculer(debut, fin, lireRegroupement(regroupement));
+    }
+    
+    private static Utilisation.Regroupement lireRegroupement(String regroupement) {
+        try {
+            return Utilisation.Regroupement.valueOf(regroupement.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(
+                "REGROUPEMENT_INVALIDE",
+                "Regroupement inconnu : " + regroupement + " (vehicule, modele ou mois)");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.BFB.automobile.business.service;
+
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.synchronisation.Changements;
+import com.BFB.automobile.data.Client;
+import com.BFB.automobile.data.Contrat;
+import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.data.repository.ClientRepository;
+import com.BFB.automobile.data.repository.ContratRepository;
+import com.BFB.automobile.data.repository.VehiculeRepository;
+import com.BFB.automobile.data.routage.LecturePrimaire;
+import com.BFB.automobile.data.sync.SequencesSync;
+import com.BFB.automobile.data.sync.SequencesSync.Changement;
+import com.BFB.automobile.data.sync.SequencesSync.Entite;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Service de synchronisation différentielle des clients hors ligne
+ *
+ * Le client conserve le jeton renvoyé par chaque synchronisation et le présente à la suivante :
+ * seules les lignes modifiées ou supprimées depuis sont lues ({@link SequencesSync}), par pages.
+ * Sans jeton, toutes les lignes sont renvoyées, dans le même format.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed("bfb.service")
+public class SynchronisationService {
+    
+    /** Taille maximale d'une page de changements */
+    public static final int TAILLE_PAGE_MAX = 1000;
+    
+    private final SequencesSync sequencesSync;
+    private final VehiculeRepository vehiculeRepository;
+    private final ClientRepository clientRepository;
+    private final ContratRepository contratRepository;
+    
+    @Autowired
+    public SynchronisationService(SequencesSync sequencesSync,
+                                  VehiculeRepository vehiculeRepository,
+                                  ClientRepository clientRepository,
+                                  ContratRepository contratRepository) {
+        this.sequencesSync = sequencesSync;
+        this.vehiculeRepository = vehiculeRepository;
+        this.clientRepository = clientRepository;
+        this.contratRepository = contratRepository;
+    }
+    
+    /**
+     * Changements postérieurs à un jeton
+     * 
+     * Lecture sur la base principale : le filigrane est relevé sur la principale, une
+     * réplique en retard renverrait une page incomplète sous un jeton qui la couvre.
+     * 
+     * @param jeton Jeton de la synchronisation précédente (null ou vide : tout)
+     * @param taille Nombre maximal de lignes renvoyées
+     */
+    @LecturePrimaire
+    public Changements obtenirChangements(String jeton, int taille) {
+        if (taille < 1 || taille > TAILLE_PAGE_MAX) {
+            throw new BusinessException(
+                "PAGINATION_INVALIDE",
+                "La taille doit être comprise entre 1 et " + TAILLE_PAGE_MAX);
+        }
+        long depuis = lireJeton(jeton);
+        long filigrane = sequencesSync.filigrane();
+        if (depuis >= filigrane) {
+            return new Changements(depuis, true, List.of(), List.of(), List.of(), List.of(), List.of());
+        }
+        
+        List<Changement> changements = sequencesSync.changements(depuis, filigrane, taille);
+        Map<Entite, List<Long>> modifies = new EnumMap<>(Entite.class);
+        Map<Entite, List<Long>> supprimes = new EnumMap<>(Entite.class);
+        for (Changement changement : changements) {
+            (changement.supprime() ? supprimes : modifies)
+                .computeIfAbsent(changement.entite(), e -> new ArrayList<>())
+                .add(changement.id());
+        }
+        
+        boolean termine = changements.size() < taille;
+        return new Changements(
+            termine ? filigrane : changements.get(changements.size() - 1).sequence(),
+            termine,
+            charger(modifies.get(Entite.VEHICULE), vehiculeRepository::findAllById, Vehicule::getId),
+            charger(modifies.get(Entite.CLIENT), clientRepository::findAllById, Client::getId),
+            charger(modifies.get(Entite.CONTRAT), contratRepository::findAllAvecClientEtVehicule, Contrat::getId),
+            supprimes.getOrDefault(Entite.VEHICULE, List.of()),
+            supprimes.getOrDefault(Entite.CONTRAT, List.of()));
+    }
+    
+    /**
+     * Garde trace des véhicules supprimés, dans la transaction de la suppression
+     */
+    @EventListener
+    @Transactional
+    public void surVehicule(VehiculeEvent event) {
+        if (event.type() == VehiculeEvent.Type.SUPPRIME) {
+            sequencesSync.supprimes(Entite.VEHICULE, List.of(event.vehicule().getId()));
+        }
+    }
+    
+    private long lireJeton(String jeton) {
+        if (jeton == null || jeton.isBlank()) {
+            return 0;
+        }
+        long depuis;
+        try {
+            depuis = Long.parseLong(jeton.trim());
+        } catch (NumberFormatException e) {
+            depuis = -1;
+        }
+        if (depuis < 0 || depuis > sequencesSync.derniereValeur()) {
+            throw new BusinessException(
+                "JETON_INVALIDE",
+                "Jeton de synchronisation inconnu : synchronisation complète nécessaire (sans jeton)");
+        }
+        return depuis;
+    }
+    
+    /**
+     * Charge les entités modifiées, dans l'ordre de leur modification
+     */
+    private static <T> List<T> charger(List<Long> ids, Function<List<Long>, List<T>> lecture,
+                                       Function<T, Long> identifiant) {
+        if (ids == null) {
+            return List.of();
+        }
+        Map<Long, Integer> rangs = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rangs.put(ids.get(i), i);
+        }
+        List<T> entites = new ArrayList<>(lecture.apply(ids));
+        entites.sort(Comparator.comparing(entite -> rangs.get(identifiant.apply(entite))));
+        return entites;
+    }
+}
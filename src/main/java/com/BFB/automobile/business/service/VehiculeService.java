@@ -1,19 +1,33 @@
 package com.BFB.automobile.business.service;
 
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
 import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.importation.ImportateurEnMasse;
+import com.BFB.automobile.business.importation.LigneImport;
+import com.BFB.automobile.business.importation.RapportImport;
+import com.BFB.automobile.business.importation.StrategieImport;
+import com.BFB.automobile.business.suggestion.Suggestion;
+import com.BFB.automobile.business.suggestion.SuggestionIndex;
 import com.BFB.automobile.data.Contrat;
 import com.BFB.automobile.data.EtatContrat;
 import com.BFB.automobile.data.EtatVehicule;
 import com.BFB.automobile.data.Vehicule;
 import com.BFB.automobile.data.repository.ContratRepository;
 import com.BFB.automobile.data.repository.VehiculeRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service métier pour la gestion des véhicules
@@ -25,16 +39,26 @@ import java.util.Optional;
  */
 @Service
 @Transactional
+@Timed("bfb.service")
 public class VehiculeService {
     
     private final VehiculeRepository vehiculeRepository;
     private final ContratRepository contratRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SuggestionIndex suggestionIndex;
+    private final ImportateurEnMasse importateur;
     
     @Autowired
     public VehiculeService(VehiculeRepository vehiculeRepository, 
-                          ContratRepository contratRepository) {
+                          ContratRepository contratRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          SuggestionIndex suggestionIndex,
+                          ImportateurEnMasse importateur) {
         this.vehiculeRepository = vehiculeRepository;
         this.contratRepository = contratRepository;
+        this.eventPublisher = eventPublisher;
+        this.suggestionIndex = suggestionIndex;
+        this.importateur = importateur;
     }
     
     /**
@@ -49,7 +73,9 @@ public class VehiculeService {
         }
         
         try {
-            return vehiculeRepository.save(vehicule);
+            Vehicule vehiculeCree = vehiculeRepository.save(vehicule);
+            eventPublisher.publishEvent(new VehiculeEvent(VehiculeEvent.Type.CREE, vehiculeCree, null));
+            return vehiculeCree;
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException(
                 "ERREUR_CREATION_VEHICULE",
@@ -83,7 +109,10 @@ public class VehiculeService {
         vehiculeExistant.setImmatriculation(vehiculeModifie.getImmatriculation());
         vehiculeExistant.setDateAcquisition(vehiculeModifie.getDateAcquisition());
         
-        return vehiculeRepository.save(vehiculeExistant);
+        Vehicule vehiculeMisAJour = vehiculeRepository.save(vehiculeExistant);
+        eventPublisher.publishEvent(new VehiculeEvent(
+            VehiculeEvent.Type.MODIFIE, vehiculeMisAJour, vehiculeMisAJour.getEtat()));
+        return vehiculeMisAJour;
     }
     
     /**
@@ -105,7 +134,10 @@ public class VehiculeService {
             annulerContratsEnAttente(vehicule);
         }
         
-        return vehiculeRepository.save(vehicule);
+        Vehicule vehiculeModifie = vehiculeRepository.save(vehicule);
+        eventPublisher.publishEvent(new VehiculeEvent(
+            VehiculeEvent.Type.ETAT_CHANGE, vehiculeModifie, ancienEtat));
+        return vehiculeModifie;
     }
     
     /**
@@ -116,10 +148,13 @@ public class VehiculeService {
             .findContratsEnAttenteByVehicule(vehicule.getId());
         
         for (Contrat contrat : contratsEnAttente) {
+            EtatContrat ancienEtat = contrat.getEtat();
             contrat.setEtat(EtatContrat.ANNULE);
             contrat.setCommentaire(
                 "Contrat annulé automatiquement : véhicule déclaré en panne");
             contratRepository.save(contrat);
+            eventPublisher.publishEvent(ContratEvent.de(
+                ContratEvent.Type.ETAT_CHANGE, contrat, ancienEtat));
         }
     }
     
@@ -203,5 +238,65 @@ public class VehiculeService {
         }
         
         vehiculeRepository.delete(vehicule);
+        eventPublisher.publishEvent(new VehiculeEvent(
+            VehiculeEvent.Type.SUPPRIME, vehicule, vehicule.getEtat()));
+    }
+    
+    /**
+     * Autocomplétion : véhicules dont l'immatriculation, la marque ou le modèle commence par la saisie
+     * (servie depuis l'index en mémoire, sans transaction ni accès base)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Suggestion> suggererVehicules(String saisie, int limite) {
+        return suggestionIndex.suggererVehicules(saisie, limite);
+    }
+    
+    /**
+     * Import en masse de véhicules (unicité de l'immatriculation)
+     * 
+     * Chaque lot est validé dans sa propre transaction : un import interrompu
+     * conserve les lots déjà enregistrés.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RapportImport importerVehicules(Iterator<LigneImport<Vehicule>> lignes) {
+        return importateur.importer(lignes, new StrategieImport<>() {
+            
+            @Override
+            public Set<String> chargerClesExistantes() {
+                Set<String> cles = new HashSet<>();
+                for (String immatriculation : vehiculeRepository.findAllImmatriculations()) {
+                    cles.add(cleImmatriculation(immatriculation));
+                }
+                return cles;
+            }
+            
+            @Override
+            public List<String> cles(Vehicule vehicule) {
+                return List.of(cleImmatriculation(vehicule.getImmatriculation()));
+            }
+            
+            @Override
+            public void verifier(Vehicule vehicule) {
+                // Aucune règle au-delà des contraintes de l'entité et de l'unicité
+            }
+            
+            @Override
+            public String codeDoublon(String cle) {
+                return "IMMATRICULATION_EXISTE";
+            }
+            
+            @Override
+            public void enregistrer(List<Vehicule> lot) {
+                // Identifiants éventuellement fournis par le fichier ignorés : toujours des créations
+                lot.forEach(vehicule -> vehicule.setId(null));
+                for (Vehicule vehicule : vehiculeRepository.saveAll(lot)) {
+                    eventPublisher.publishEvent(new VehiculeEvent(VehiculeEvent.Type.CREE, vehicule, null));
+                }
+            }
+        });
+    }
+    
+    private static String cleImmatriculation(String immatriculation) {
+        return "immatriculation:" + immatriculation;
     }
 }
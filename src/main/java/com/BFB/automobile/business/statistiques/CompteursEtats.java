@@ -0,0 +1,202 @@
+package com.BFB.automobile.business.statistiques;
+
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.business.journal.JournalTransitions;
+import com.BFB.automobile.data.EtatContrat;
+import com.BFB.automobile.data.EtatVehicule;
+import com.BFB.automobile.data.routage.LecturePrimaire;
+import com.BFB.automobile.data.repository.ContratArchiveRepository;
+import com.BFB.automobile.data.repository.ContratRepository;
+import com.BFB.automobile.data.repository.VehiculeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nombre de véhicules et de contrats par état, maintenu en mémoire
+ *
+ * Les compteurs sont initialisés au démarrage par un COUNT par état, puis tenus à jour
+ * à partir des événements publiés par les services, une fois la transaction validée.
+ * Un LongAdder par état : les mises à jour concurrentes ne se bloquent pas et la lecture
+ * ne coûte qu'une somme par état, quel que soit le volume en base.
+ *
+ * Un recalage périodique sur la base corrige les écarts éventuels (écriture hors
+ * services, transition validée pendant un recalage précédent...). Les compteurs sont donc
+ * exacts à un cycle de recalage près, pas à chaque instant.
+ *
+ * Avec le journal des transitions (bfb.journal.actif), chaque recalage y laisse un cliché
+ * des compteurs, et le démarrage repart du dernier cliché et des transitions qui le
+ * suivent au lieu de compter les tables.
+ */
+@Component
+public class CompteursEtats implements JournalTransitions.Projection {
+
+    private static final Logger log = LoggerFactory.getLogger(CompteursEtats.class);
+
+    private final VehiculeRepository vehiculeRepository;
+    private final ContratRepository contratRepository;
+    private final ContratArchiveRepository contratArchiveRepository;
+    private final ObjectProvider<JournalTransitions> journal;
+
+    private final Map<EtatVehicule, LongAdder> vehicules = compteurs(EtatVehicule.class);
+    private final Map<EtatContrat, LongAdder> contrats = compteurs(EtatContrat.class);
+
+    private volatile Instant derniereReconciliation;
+
+    @Autowired
+    public CompteursEtats(VehiculeRepository vehiculeRepository,
+                          ContratRepository contratRepository,
+                          ContratArchiveRepository contratArchiveRepository,
+                          ObjectProvider<JournalTransitions> journal) {
+        this.vehiculeRepository = vehiculeRepository;
+        this.contratRepository = contratRepository;
+        this.contratArchiveRepository = contratArchiveRepository;
+        this.journal = journal;
+    }
+
+    /**
+     * Initialise les compteurs au démarrage : à partir du journal s'il contient un cliché,
+     * sinon par un recalage sur la base
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    @LecturePrimaire
+    public void demarrer() {
+        JournalTransitions transitions = journal.getIfAvailable();
+        if (transitions != null) {
+            try {
+                long rejouees = transitions.rejouer(this);
+                if (rejouees >= 0) {
+                    log.info("Compteurs d'états restaurés depuis le journal ({} transitions rejouées)", rejouees);
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Journal des transitions illisible, recalage sur la base", e);
+            }
+        }
+        reconcilier();
+    }
+
+    /**
+     * Recale les compteurs sur la base à intervalle régulier
+     *
+     * Chaque compteur est ajusté de l'écart constaté plutôt que remis à zéro. L'ajustement
+     * n'est pas atomique : une transition validée entre le COUNT et l'ajustement peut être
+     * perdue ou comptée deux fois. Le compteur reste alors décalé d'autant jusqu'au recalage
+     * suivant, qui le corrige. L'écart doit être mesuré sur les données à jour : lecture sur la
+     * base principale. Les contrats archivés restent comptés dans leur état final.
+     */
+    @Scheduled(initialDelayString = "${bfb.stats.reconciliation.delai-ms:300000}",
+               fixedDelayString = "${bfb.stats.reconciliation.delai-ms:300000}")
+    @Transactional(readOnly = true)
+    @LecturePrimaire
+    public void reconcilier() {
+        for (EtatVehicule etat : EtatVehicule.values()) {
+            LongAdder compteur = vehicules.get(etat);
+            compteur.add(vehiculeRepository.countByEtat(etat) - compteur.sum());
+        }
+        for (EtatContrat etat : EtatContrat.values()) {
+            LongAdder compteur = contrats.get(etat);
+            long total = contratRepository.countByEtat(etat) + contratArchiveRepository.countByEtat(etat);
+            compteur.add(total - compteur.sum());
+        }
+        derniereReconciliation = Instant.now();
+        journal.ifAvailable(transitions -> transitions.cliche(instantane()));
+    }
+
+    /**
+     * Repart d'un cliché du journal, en ajustant chaque compteur de l'écart comme au recalage
+     */
+    @Override
+    public void restaurer(EtatsFlotte cliche) {
+        vehicules.forEach((etat, compteur) -> compteur.add(cliche.vehicules().getOrDefault(etat, 0L) - compteur.sum()));
+        contrats.forEach((etat, compteur) -> compteur.add(cliche.contrats().getOrDefault(etat, 0L) - compteur.sum()));
+        derniereReconciliation = cliche.derniereReconciliation();
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surVehicule(VehiculeEvent event) {
+        EtatVehicule etat = event.vehicule().getEtat();
+        switch (event.type()) {
+            case CREE -> incrementer(vehicules, etat);
+            case SUPPRIME -> decrementer(vehicules, event.ancienEtat() != null ? event.ancienEtat() : etat);
+            case MODIFIE, ETAT_CHANGE -> deplacer(vehicules, event.ancienEtat(), etat);
+        }
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surContrat(ContratEvent event) {
+        if (event.type() == ContratEvent.Type.CREE) {
+            incrementer(contrats, event.nouvelEtat());
+        } else {
+            deplacer(contrats, event.ancienEtat(), event.nouvelEtat());
+        }
+    }
+
+    /**
+     * Copie des compteurs courants
+     */
+    public EtatsFlotte instantane() {
+        return new EtatsFlotte(sommes(vehicules, EtatVehicule.class), sommes(contrats, EtatContrat.class),
+            derniereReconciliation);
+    }
+
+    public long vehicules(EtatVehicule etat) {
+        return vehicules.get(etat).sum();
+    }
+
+    public long contrats(EtatContrat etat) {
+        return contrats.get(etat).sum();
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> compteurs(Class<E> type) {
+        Map<E, LongAdder> compteurs = new EnumMap<>(type);
+        for (E etat : type.getEnumConstants()) {
+            compteurs.put(etat, new LongAdder());
+        }
+        // Jamais modifiée après construction : lectures concurrentes sans verrou
+        return Collections.unmodifiableMap(compteurs);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> sommes(Map<E, LongAdder> compteurs, Class<E> type) {
+        Map<E, Long> sommes = new EnumMap<>(type);
+        compteurs.forEach((etat, compteur) -> sommes.put(etat, compteur.sum()));
+        return sommes;
+    }
+
+    private static <E extends Enum<E>> void incrementer(Map<E, LongAdder> compteurs, E etat) {
+        if (etat != null) {
+            compteurs.get(etat).increment();
+        }
+    }
+
+    private static <E extends Enum<E>> void decrementer(Map<E, LongAdder> compteurs, E etat) {
+        if (etat != null) {
+            compteurs.get(etat).decrement();
+        }
+    }
+
+    private static <E extends Enum<E>> void deplacer(Map<E, LongAdder> compteurs, E ancien, E nouveau) {
+        if (ancien != nouveau) {
+            decrementer(compteurs, ancien);
+            incrementer(compteurs, nouveau);
+        }
+    }
+}
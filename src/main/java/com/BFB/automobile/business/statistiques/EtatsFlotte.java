@@ -0,0 +1,19 @@
+package com.BFB.automobile.business.statistiques;
+
+import com.BFB.automobile.data.EtatContrat;
+import com.BFB.automobile.data.EtatVehicule;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Instantané des compteurs d'états
+ *
+ * @param vehicules Nombre de véhicules par état
+ * @param contrats Nombre de contrats par état
+ * @param derniereReconciliation Date du dernier recalage sur la base (null avant le premier)
+ */
+public record EtatsFlotte(Map<EtatVehicule, Long> vehicules,
+                          Map<EtatContrat, Long> contrats,
+                          Instant derniereReconciliation) {
+}
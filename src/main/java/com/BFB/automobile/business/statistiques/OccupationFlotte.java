@@ -0,0 +1,526 @@
+package com.BFB.automobile.business.statistiques;
+
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.business.statistiques.Utilisation.Ligne;
+import com.BFB.automobile.business.statistiques.Utilisation.Regroupement;
+import com.BFB.automobile.data.EtatContrat;
+import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.data.routage.LecturePrimaire;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Occupation des véhicules calculée sur un instantané en colonnes des périodes de location
+ *
+ * Chaque véhicule a sa colonne : débuts et fins des contrats en jours epoch (int[]), triés
+ * par début, plus leurs identifiants. Un contrat n'y coûte que 16 octets, sans objet ni
+ * date : 10 millions de contrats tiennent en 160 Mo et se parcourent séquentiellement.
+ * Un calcul ({@link #calculer}) répartit les véhicules entre les threads d'un pool fork-join ;
+ * pour chaque véhicule, une recherche dichotomique saute les contrats finis avant la période.
+ *
+ * Sont comptés les contrats non annulés, archives comprises, bornes incluses ; un contrat en
+ * retard compte jusqu'à sa date de fin prévue. Les jours disponibles d'un véhicule courent à
+ * partir de sa date d'acquisition.
+ *
+ * L'instantané est construit au démarrage, puis tenu à jour à partir des événements publiés
+ * par les services une fois la transaction validée : un événement remplace la colonne d'un
+ * seul véhicule par une copie modifiée, les calculs en cours lisent l'ancienne. Une
+ * reconstruction périodique corrige les écarts (écritures hors services) ; les événements
+ * reçus pendant qu'elle lit la base sont réappliqués au nouvel instantané.
+ */
+@Component
+public class OccupationFlotte {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupationFlotte.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+
+    private volatile Map<Long, Colonne> colonnes = new ConcurrentHashMap<>();
+    private volatile Instant derniereReconstruction;
+
+    /** Événements reçus pendant une reconstruction (accès sous verrou sur this) */
+    private final List<Object> pendants = new ArrayList<>();
+    private boolean enReconstruction;
+
+    private final Object reconstruction = new Object();
+
+    @Autowired
+    public OccupationFlotte(JdbcTemplate jdbcTemplate, @Qualifier("utilisationPool") ForkJoinPool pool) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pool = pool;
+    }
+
+    /**
+     * Reconstruit l'instantané à partir de la base : au démarrage, puis à intervalle régulier.
+     * Lecture sur la base principale, pour ne pas revenir sur des événements déjà appliqués.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${bfb.utilisation.reconstruction-ms:3600000}",
+               fixedDelayString = "${bfb.utilisation.reconstruction-ms:3600000}")
+    @Transactional(readOnly = true)
+    @LecturePrimaire
+    public void reconstruire() {
+        remplacer(chargement -> {
+            jdbcTemplate.query("SELECT id, marque, modele, date_acquisition FROM vehicules",
+                (RowCallbackHandler) rs -> chargement.vehicule(rs.getLong(1), rs.getString(2), rs.getString(3),
+                    rs.getObject(4, LocalDate.class)));
+            jdbcTemplate.query("SELECT id, vehicule_id, date_debut, date_fin FROM contrats WHERE etat <> 'ANNULE' "
+                    + "UNION ALL SELECT id, vehicule_id, date_debut, date_fin FROM contrats_archive"
+                    + " WHERE etat = 'TERMINE'",
+                (RowCallbackHandler) rs -> chargement.contrat(rs.getLong(1), rs.getLong(2),
+                    rs.getObject(3, LocalDate.class), rs.getObject(4, LocalDate.class)));
+        });
+    }
+
+    /**
+     * Remplace l'instantané par celui que remplit la source, puis lui réapplique les
+     * événements reçus entre-temps
+     */
+    public void remplacer(Consumer<Chargement> source) {
+        synchronized (reconstruction) {
+            synchronized (this) {
+                enReconstruction = true;
+            }
+            long debut = System.nanoTime();
+            Chargement chargement = new Chargement();
+            Map<Long, Colonne> nouvelles;
+            try {
+                source.accept(chargement);
+                nouvelles = chargement.terminer();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    enReconstruction = false;
+                    pendants.clear();
+                }
+                throw e;
+            }
+            synchronized (this) {
+                pendants.forEach(event -> appliquer(nouvelles, event));
+                pendants.clear();
+                colonnes = nouvelles;
+                enReconstruction = false;
+            }
+            derniereReconstruction = Instant.now();
+            log.info("Instantané d'occupation reconstruit : {} véhicules, {} contrats en {} ms",
+                nouvelles.size(), chargement.contrats, (System.nanoTime() - debut) / 1_000_000);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surContrat(ContratEvent event) {
+        if (event.contratId() != null && event.vehiculeId() != null
+                && event.dateDebut() != null && event.dateFin() != null) {
+            recevoir(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surVehicule(VehiculeEvent event) {
+        if (event.type() != VehiculeEvent.Type.ETAT_CHANGE && event.vehicule().getId() != null) {
+            recevoir(event);
+        }
+    }
+
+    /**
+     * Jours loués et jours disponibles sur la période [debut, fin], par groupe
+     */
+    public Utilisation calculer(LocalDate debut, LocalDate fin, Regroupement regroupement) {
+        Colonne[] vehicules = colonnes.values().toArray(Colonne[]::new);
+        int premierJour = (int) debut.toEpochDay();
+        int dernierJour = (int) fin.toEpochDay();
+
+        // Rang du groupe de chaque véhicule, ou bornes des mois (début de chaque mois, puis du suivant)
+        int[] groupes = new int[vehicules.length];
+        int[] mois = null;
+        List<Ligne> modeles = new ArrayList<>();
+        int nombreGroupes;
+        switch (regroupement) {
+            case VEHICULE -> {
+                Arrays.sort(vehicules, Comparator.comparingLong(Colonne::vehiculeId));
+                Arrays.setAll(groupes, i -> i);
+                nombreGroupes = vehicules.length;
+            }
+            case MODELE -> {
+                Arrays.sort(vehicules, Comparator.comparing(Colonne::marque).thenComparing(Colonne::modele));
+                Map<String, Integer> rangs = new LinkedHashMap<>();
+                for (int i = 0; i < vehicules.length; i++) {
+                    Colonne c = vehicules[i];
+                    groupes[i] = rangs.computeIfAbsent(c.marque() + '\u0000' + c.modele(), cle -> {
+                        modeles.add(new Ligne(null, c.marque(), c.modele(), null, 0, 0));
+                        return modeles.size() - 1;
+                    });
+                }
+                nombreGroupes = modeles.size();
+            }
+            default -> {
+                YearMonth premier = YearMonth.from(debut);
+                nombreGroupes = (int) premier.until(YearMonth.from(fin), ChronoUnit.MONTHS) + 1;
+                mois = new int[nombreGroupes + 1];
+                for (int m = 0; m <= nombreGroupes; m++) {
+                    mois[m] = (int) premier.plusMonths(m).atDay(1).toEpochDay();
+                }
+            }
+        }
+
+        long[] cumuls = pool.invoke(new Agregation(vehicules, groupes, mois, premierJour, dernierJour,
+            regroupement == Regroupement.VEHICULE ? new long[2 * nombreGroupes] : null, nombreGroupes,
+            0, vehicules.length, Math.max(16, vehicules.length / (pool.getParallelism() * 8))));
+
+        List<Ligne> lignes = new ArrayList<>();
+        for (int g = 0; g < nombreGroupes; g++) {
+            long loues = cumuls[2 * g];
+            long disponibles = cumuls[2 * g + 1];
+            if (disponibles == 0) {
+                continue;
+            }
+            lignes.add(switch (regroupement) {
+                case VEHICULE -> new Ligne(vehicules[g].vehiculeId(), vehicules[g].marque(), vehicules[g].modele(),
+                    null, loues, disponibles);
+                case MODELE -> new Ligne(null, modeles.get(g).marque(), modeles.get(g).modele(), null,
+                    loues, disponibles);
+                case MOIS -> new Ligne(null, null, null, YearMonth.from(debut).plusMonths(g), loues, disponibles);
+            });
+        }
+        return new Utilisation(debut, fin, regroupement, lignes, derniereReconstruction);
+    }
+
+    public Instant derniereReconstruction() {
+        return derniereReconstruction;
+    }
+
+    private void recevoir(Object event) {
+        Map<Long, Colonne> cible;
+        synchronized (this) {
+            if (enReconstruction) {
+                pendants.add(event);
+            }
+            cible = colonnes;
+        }
+        appliquer(cible, event);
+    }
+
+    /** Application idempotente : un événement réappliqué après reconstruction ne change rien */
+    private static void appliquer(Map<Long, Colonne> cible, Object event) {
+        if (event instanceof ContratEvent contrat) {
+            int debut = (int) contrat.dateDebut().toEpochDay();
+            int fin = (int) contrat.dateFin().toEpochDay();
+            cible.computeIfPresent(contrat.vehiculeId(), (id, colonne) -> contrat.nouvelEtat() == EtatContrat.ANNULE
+                ? colonne.sansContrat(contrat.contratId())
+                : colonne.avecContrat(contrat.contratId(), debut, fin));
+        } else if (event instanceof VehiculeEvent vehiculeEvent) {
+            Vehicule vehicule = vehiculeEvent.vehicule();
+            if (vehiculeEvent.type() == VehiculeEvent.Type.SUPPRIME) {
+                cible.remove(vehicule.getId());
+            } else {
+                int acquisition = jour(vehicule.getDateAcquisition());
+                cible.merge(vehicule.getId(),
+                    Colonne.vide(vehicule.getId(), vehicule.getMarque(), vehicule.getModele(), acquisition),
+                    (ancienne, vide) -> ancienne.avecVehicule(vehicule.getMarque(), vehicule.getModele(), acquisition));
+            }
+        }
+    }
+
+    /**
+     * Cumule les jours loués et disponibles d'un véhicule dans ses groupes
+     */
+    private static void cumuler(Colonne colonne, int groupe, int[] mois, int premierJour, int dernierJour,
+                                long[] cumuls) {
+        int ouverture = Math.max(premierJour, colonne.acquisition());
+        if (ouverture <= dernierJour) {
+            repartir(ouverture, dernierJour, groupe, mois, cumuls, 1);
+        }
+
+        int[] debuts = colonne.debuts();
+        int[] fins = colonne.fins();
+        // Les contrats commençant plus de dureeMax jours avant la période ne peuvent pas la chevaucher
+        int k = premierNonInferieur(debuts, premierJour - colonne.dureeMax());
+        int couvert = premierJour - 1;
+        for (; k < debuts.length && debuts[k] <= dernierJour; k++) {
+            // Jours déjà comptés (contrats qui se chevauchent) ignorés
+            int a = Math.max(debuts[k], couvert + 1);
+            int b = Math.min(fins[k], dernierJour);
+            if (a <= b) {
+                repartir(a, b, groupe, mois, cumuls, 0);
+            }
+            couvert = Math.max(couvert, fins[k]);
+        }
+    }
+
+    /**
+     * Ajoute les jours [a, b] au groupe, ou à chacun des mois qu'ils couvrent
+     *
+     * @param rang 0 pour les jours loués, 1 pour les jours disponibles
+     */
+    private static void repartir(int a, int b, int groupe, int[] mois, long[] cumuls, int rang) {
+        if (mois == null) {
+            cumuls[2 * groupe + rang] += b - a + 1;
+            return;
+        }
+        int m = Arrays.binarySearch(mois, a);
+        if (m < 0) {
+            m = -m - 2;
+        }
+        while (a <= b) {
+            int finMois = Math.min(b, mois[m + 1] - 1);
+            cumuls[2 * m + rang] += finMois - a + 1;
+            a = finMois + 1;
+            m++;
+        }
+    }
+
+    private static int premierNonInferieur(int[] valeurs, int cible) {
+        int bas = 0;
+        int haut = valeurs.length;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (valeurs[milieu] < cible) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+
+    private static int jour(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : Integer.MIN_VALUE;
+    }
+
+    /**
+     * Cumul d'une tranche de véhicules : deux valeurs par groupe (jours loués, jours disponibles).
+     * Avec un tableau partagé (un groupe par véhicule), chaque tranche écrit ses propres cases ;
+     * sinon chaque tranche a ses cumuls, additionnés en remontant.
+     */
+    private static final class Agregation extends RecursiveTask<long[]> {
+
+        private final Colonne[] vehicules;
+        private final int[] groupes;
+        private final int[] mois;
+        private final int premierJour;
+        private final int dernierJour;
+        private final long[] partage;
+        private final int nombreGroupes;
+        private final int de;
+        private final int a;
+        private final int seuil;
+
+        Agregation(Colonne[] vehicules, int[] groupes, int[] mois, int premierJour, int dernierJour,
+                   long[] partage, int nombreGroupes, int de, int a, int seuil) {
+            this.vehicules = vehicules;
+            this.groupes = groupes;
+            this.mois = mois;
+            this.premierJour = premierJour;
+            this.dernierJour = dernierJour;
+            this.partage = partage;
+            this.nombreGroupes = nombreGroupes;
+            this.de = de;
+            this.a = a;
+            this.seuil = seuil;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (a - de <= seuil) {
+                long[] cumuls = partage != null ? partage : new long[2 * nombreGroupes];
+                for (int i = de; i < a; i++) {
+                    cumuler(vehicules[i], groupes[i], mois, premierJour, dernierJour, cumuls);
+                }
+                return cumuls;
+            }
+            int milieu = (de + a) >>> 1;
+            Agregation gauche = tranche(de, milieu);
+            gauche.fork();
+            long[] droite = tranche(milieu, a).compute();
+            long[] cumuls = gauche.join();
+            if (partage == null) {
+                for (int g = 0; g < cumuls.length; g++) {
+                    cumuls[g] += droite[g];
+                }
+            }
+            return cumuls;
+        }
+
+        private Agregation tranche(int debut, int fin) {
+            return new Agregation(vehicules, groupes, mois, premierJour, dernierJour, partage, nombreGroupes,
+                debut, fin, seuil);
+        }
+    }
+
+    /**
+     * Colonne d'un véhicule, jamais modifiée une fois publiée : une modification en fait une copie
+     *
+     * @param acquisition Jour d'acquisition (Integer.MIN_VALUE si inconnu)
+     * @param contrats Identifiants des contrats
+     * @param debuts Premiers jours des contrats, triés
+     * @param fins Derniers jours des contrats (inclus)
+     * @param dureeMax Plus grand écart fin - début des contrats de la colonne
+     */
+    record Colonne(long vehiculeId, String marque, String modele, int acquisition,
+                   long[] contrats, int[] debuts, int[] fins, int dureeMax) {
+
+        static Colonne vide(long vehiculeId, String marque, String modele, int acquisition) {
+            return new Colonne(vehiculeId, marque, modele, acquisition, new long[0], new int[0], new int[0], 0);
+        }
+
+        Colonne avecVehicule(String marque, String modele, int acquisition) {
+            return new Colonne(vehiculeId, marque, modele, acquisition, contrats, debuts, fins, dureeMax);
+        }
+
+        Colonne avecContrat(long contrat, int debut, int fin) {
+            Colonne sans = sansContrat(contrat);
+            int n = sans.contrats.length;
+            int rang = premierNonInferieur(sans.debuts, debut);
+            long[] nouveauxContrats = new long[n + 1];
+            int[] nouveauxDebuts = new int[n + 1];
+            int[] nouvellesFins = new int[n + 1];
+            inserer(sans.contrats, nouveauxContrats, rang, n);
+            inserer(sans.debuts, nouveauxDebuts, rang, n);
+            inserer(sans.fins, nouvellesFins, rang, n);
+            nouveauxContrats[rang] = contrat;
+            nouveauxDebuts[rang] = debut;
+            nouvellesFins[rang] = fin;
+            return new Colonne(vehiculeId, marque, modele, acquisition, nouveauxContrats, nouveauxDebuts,
+                nouvellesFins, Math.max(sans.dureeMax, fin - debut));
+        }
+
+        /** La durée maximale est conservée : une borne trop large ne fait que lire quelques contrats de plus */
+        Colonne sansContrat(long contrat) {
+            int rang = -1;
+            for (int i = 0; i < contrats.length && rang < 0; i++) {
+                if (contrats[i] == contrat) {
+                    rang = i;
+                }
+            }
+            if (rang < 0) {
+                return this;
+            }
+            return new Colonne(vehiculeId, marque, modele, acquisition, retirer(contrats, rang),
+                retirer(debuts, rang), retirer(fins, rang), dureeMax);
+        }
+
+        private static void inserer(Object source, Object destination, int rang, int n) {
+            System.arraycopy(source, 0, destination, 0, rang);
+            System.arraycopy(source, rang, destination, rang + 1, n - rang);
+        }
+
+        private static long[] retirer(long[] valeurs, int rang) {
+            long[] copie = new long[valeurs.length - 1];
+            System.arraycopy(valeurs, 0, copie, 0, rang);
+            System.arraycopy(valeurs, rang + 1, copie, rang, copie.length - rang);
+            return copie;
+        }
+
+        private static int[] retirer(int[] valeurs, int rang) {
+            int[] copie = new int[valeurs.length - 1];
+            System.arraycopy(valeurs, 0, copie, 0, rang);
+            System.arraycopy(valeurs, rang + 1, copie, rang, copie.length - rang);
+            return copie;
+        }
+    }
+
+    /**
+     * Construction d'un instantané : véhicules et contrats dans n'importe quel ordre, les
+     * contrats d'un véhicule inconnu sont ignorés. Non thread-safe.
+     */
+    public static final class Chargement {
+
+        private final Map<Long, Colonne> vehicules = new HashMap<>();
+        private final Map<Long, Tampon> tampons = new HashMap<>();
+        private long contrats;
+
+        public void vehicule(long id, String marque, String modele, LocalDate dateAcquisition) {
+            vehicules.put(id, Colonne.vide(id, marque, modele, jour(dateAcquisition)));
+        }
+
+        public void contrat(long id, long vehiculeId, LocalDate dateDebut, LocalDate dateFin) {
+            tampons.computeIfAbsent(vehiculeId, v -> new Tampon())
+                .ajouter(id, (int) dateDebut.toEpochDay(), (int) dateFin.toEpochDay());
+        }
+
+        private Map<Long, Colonne> terminer() {
+            Map<Long, Colonne> colonnes = new ConcurrentHashMap<>(vehicules.size() * 4 / 3 + 1);
+            vehicules.forEach((id, vide) -> {
+                Tampon tampon = tampons.get(id);
+                Colonne colonne = tampon != null ? tampon.colonne(vide) : vide;
+                contrats += colonne.contrats().length;
+                colonnes.put(id, colonne);
+            });
+            return colonnes;
+        }
+    }
+
+    /**
+     * Contrats d'un véhicule en cours de chargement, dans l'ordre de lecture
+     */
+    private static final class Tampon {
+
+        private long[] contrats = new long[16];
+        private int[] debuts = new int[16];
+        private int[] fins = new int[16];
+        private int taille;
+
+        void ajouter(long contrat, int debut, int fin) {
+            if (taille == contrats.length) {
+                contrats = Arrays.copyOf(contrats, taille * 2);
+                debuts = Arrays.copyOf(debuts, taille * 2);
+                fins = Arrays.copyOf(fins, taille * 2);
+            }
+            contrats[taille] = contrat;
+            debuts[taille] = debut;
+            fins[taille] = fin;
+            taille++;
+        }
+
+        /**
+         * Colonne triée par début : tri des paires (début, rang) codées sur un long
+         */
+        Colonne colonne(Colonne vide) {
+            long[] cles = new long[taille];
+            for (int i = 0; i < taille; i++) {
+                cles[i] = ((long) debuts[i] << 32) | i;
+            }
+            Arrays.sort(cles);
+            long[] triesContrats = new long[taille];
+            int[] triesDebuts = new int[taille];
+            int[] triesFins = new int[taille];
+            int dureeMax = 0;
+            for (int i = 0; i < taille; i++) {
+                int rang = (int) cles[i];
+                triesContrats[i] = contrats[rang];
+                triesDebuts[i] = debuts[rang];
+                triesFins[i] = fins[rang];
+                dureeMax = Math.max(dureeMax, fins[rang] - debuts[rang]);
+            }
+            return new Colonne(vide.vehiculeId(), vide.marque(), vide.modele(), vide.acquisition(),
+                triesContrats, triesDebuts, triesFins, dureeMax);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.BFB.automobile.business.statistiques;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Occupation de la flotte sur une période, par groupe
+ *
+ * @param debut Premier jour de la période
+ * @param fin Dernier jour de la période (inclus)
+ * @param regroupement Critère de regroupement des lignes
+ * @param lignes Une ligne par groupe ayant au moins un jour disponible sur la période
+ * @param cliche Date de la dernière reconstruction de l'instantané (null avant la première)
+ */
+public record Utilisation(LocalDate debut,
+                          LocalDate fin,
+                          Regroupement regroupement,
+                          List<Ligne> lignes,
+                          Instant cliche) {
+
+    public enum Regroupement {
+        VEHICULE,
+        MODELE,
+        MOIS
+    }
+
+    /**
+     * @param vehiculeId Identifiant du véhicule (regroupement VEHICULE)
+     * @param marque Marque (regroupements VEHICULE et MODELE)
+     * @param modele Modèle (regroupements VEHICULE et MODELE)
+     * @param mois Mois (regroupement MOIS)
+     * @param joursLoues Jours couverts par un contrat
+     * @param joursDisponibles Jours où les véhicules faisaient partie de la flotte
+     */
+    public record Ligne(Long vehiculeId,
+                        String marque,
+                        String modele,
+                        YearMonth mois,
+                        long joursLoues,
+                        long joursDisponibles) {
+    }
+
+    public long joursLoues() {
+        return lignes.stream().mapToLong(Ligne::joursLoues).sum();
+    }
+
+    public long joursDisponibles() {
+        return lignes.stream().mapToLong(Ligne::joursDisponibles).sum();
+    }
+}
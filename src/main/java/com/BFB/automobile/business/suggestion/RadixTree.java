@@ -0,0 +1,189 @@
+package com.BFB.automobile.business.suggestion;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Arbre préfixe compressé (radix tree) associant des clés textuelles à des valeurs
+ *
+ * Chaque arête porte une chaîne (et non un seul caractère) : un nœud sans valeur
+ * ne possède jamais un unique enfant, la profondeur reste donc bornée par le nombre
+ * de bifurcations et non par la longueur des clés.
+ *
+ * Une même clé peut porter plusieurs valeurs et une même valeur plusieurs clés.
+ * Cette classe n'est pas thread-safe : la synchronisation est à la charge de l'appelant.
+ *
+ * @param <V> Type des valeurs indexées
+ */
+public class RadixTree<V> {
+
+    private static final class Noeud<V> {
+        private String etiquette;
+        private final TreeMap<Character, Noeud<V>> enfants = new TreeMap<>();
+        private final Set<V> valeurs = new LinkedHashSet<>(2);
+
+        private Noeud(String etiquette) {
+            this.etiquette = etiquette;
+        }
+    }
+
+    private final Noeud<V> racine = new Noeud<>("");
+    private int taille;
+
+    /**
+     * Associe une valeur à une clé
+     */
+    public void inserer(String cle, V valeur) {
+        Noeud<V> noeud = racine;
+        int position = 0;
+
+        while (position < cle.length()) {
+            char premier = cle.charAt(position);
+            Noeud<V> enfant = noeud.enfants.get(premier);
+
+            if (enfant == null) {
+                Noeud<V> feuille = new Noeud<>(cle.substring(position));
+                feuille.valeurs.add(valeur);
+                noeud.enfants.put(premier, feuille);
+                taille++;
+                return;
+            }
+
+            int commun = longueurPrefixeCommun(enfant.etiquette, cle, position);
+            if (commun < enfant.etiquette.length()) {
+                // Découpage de l'arête au point de divergence
+                Noeud<V> intermediaire = new Noeud<>(enfant.etiquette.substring(0, commun));
+                enfant.etiquette = enfant.etiquette.substring(commun);
+                intermediaire.enfants.put(enfant.etiquette.charAt(0), enfant);
+                noeud.enfants.put(premier, intermediaire);
+                enfant = intermediaire;
+            }
+
+            noeud = enfant;
+            position += commun;
+        }
+
+        if (noeud.valeurs.add(valeur)) {
+            taille++;
+        }
+    }
+
+    /**
+     * Retire l'association entre une clé et une valeur
+     *
+     * @return true si l'association existait
+     */
+    public boolean supprimer(String cle, V valeur) {
+        List<Noeud<V>> chemin = new ArrayList<>();
+        Noeud<V> noeud = racine;
+        int position = 0;
+        chemin.add(noeud);
+
+        while (position < cle.length()) {
+            Noeud<V> enfant = noeud.enfants.get(cle.charAt(position));
+            if (enfant == null || !cle.startsWith(enfant.etiquette, position)) {
+                return false;
+            }
+            position += enfant.etiquette.length();
+            noeud = enfant;
+            chemin.add(noeud);
+        }
+
+        if (!noeud.valeurs.remove(valeur)) {
+            return false;
+        }
+        taille--;
+
+        // Élagage des nœuds devenus vides et recompression des arêtes
+        for (int i = chemin.size() - 1; i > 0; i--) {
+            Noeud<V> courant = chemin.get(i);
+            Noeud<V> parent = chemin.get(i - 1);
+            if (!courant.valeurs.isEmpty()) {
+                break;
+            }
+            if (courant.enfants.isEmpty()) {
+                parent.enfants.remove(courant.etiquette.charAt(0));
+                continue;
+            }
+            if (courant.enfants.size() == 1) {
+                Noeud<V> unique = courant.enfants.firstEntry().getValue();
+                unique.etiquette = courant.etiquette + unique.etiquette;
+                parent.enfants.put(unique.etiquette.charAt(0), unique);
+            }
+            break;
+        }
+        return true;
+    }
+
+    /**
+     * Retourne au plus {@code limite} valeurs distinctes dont une clé commence par le préfixe.
+     * Les valeurs sont renvoyées dans l'ordre lexicographique de leurs clés.
+     */
+    public List<V> rechercherParPrefixe(String prefixe, int limite) {
+        if (limite <= 0) {
+            return List.of();
+        }
+
+        Noeud<V> noeud = racine;
+        int position = 0;
+        while (position < prefixe.length()) {
+            Noeud<V> enfant = noeud.enfants.get(prefixe.charAt(position));
+            if (enfant == null) {
+                return List.of();
+            }
+            int restant = Math.min(enfant.etiquette.length(), prefixe.length() - position);
+            if (!enfant.etiquette.regionMatches(0, prefixe, position, restant)) {
+                return List.of();
+            }
+            position += restant;
+            noeud = enfant;
+        }
+
+        Set<V> resultats = new LinkedHashSet<>();
+        Deque<Noeud<V>> aParcourir = new ArrayDeque<>();
+        aParcourir.push(noeud);
+        while (!aParcourir.isEmpty() && resultats.size() < limite) {
+            Noeud<V> courant = aParcourir.pop();
+            for (V valeur : courant.valeurs) {
+                resultats.add(valeur);
+                if (resultats.size() == limite) {
+                    break;
+                }
+            }
+            for (Noeud<V> enfant : courant.enfants.descendingMap().values()) {
+                aParcourir.push(enfant);
+            }
+        }
+        return new ArrayList<>(resultats);
+    }
+
+    /**
+     * Nombre d'associations (clé, valeur) présentes dans l'arbre
+     */
+    public int taille() {
+        return taille;
+    }
+
+    /**
+     * Vide l'arbre
+     */
+    public void vider() {
+        racine.enfants.clear();
+        racine.valeurs.clear();
+        taille = 0;
+    }
+
+    private static int longueurPrefixeCommun(String etiquette, String cle, int position) {
+        int max = Math.min(etiquette.length(), cle.length() - position);
+        int i = 0;
+        while (i < max && etiquette.charAt(i) == cle.charAt(position + i)) {
+            i++;
+        }
+        return i;
+    }
+}
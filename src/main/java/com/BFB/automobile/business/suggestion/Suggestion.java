@@ -0,0 +1,7 @@
+package com.BFB.automobile.business.suggestion;
+
+/**
+ * Résultat d'autocomplétion : l'identifiant de l'entité et son libellé d'affichage
+ */
+public record Suggestion(Long id, String libelle) {
+}
@@ -0,0 +1,206 @@
+package com.BFB.automobile.business.suggestion;
+
+import com.BFB.automobile.business.event.ClientEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.data.Client;
+import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.data.repository.ClientRepository;
+import com.BFB.automobile.data.repository.VehiculeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index en mémoire pour l'autocomplétion des véhicules et des clients
+ *
+ * Les véhicules sont indexés par immatriculation, marque, modèle et "marque modèle",
+ * les clients actifs par nom, "nom prénom" et numéro de permis.
+ * Les clés sont normalisées (minuscules, sans accents, sans séparateurs) :
+ * "ab-123" et "AB 123" trouvent tous deux "AB-123-CD".
+ *
+ * L'index est chargé au démarrage puis maintenu incrémentalement à partir des
+ * événements publiés par les services, une fois la transaction validée.
+ */
+@Component
+public class SuggestionIndex {
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIQUE = Pattern.compile("[^a-z0-9]+");
+
+    private final ClientRepository clientRepository;
+    private final VehiculeRepository vehiculeRepository;
+
+    private final Catalogue vehicules = new Catalogue();
+    private final Catalogue clients = new Catalogue();
+
+    @Autowired
+    public SuggestionIndex(ClientRepository clientRepository,
+                           VehiculeRepository vehiculeRepository) {
+        this.clientRepository = clientRepository;
+        this.vehiculeRepository = vehiculeRepository;
+    }
+
+    /**
+     * Construit l'index complet à partir de la base au démarrage de l'application
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void charger() {
+        vehicules.vider();
+        vehiculeRepository.findAll().forEach(this::indexerVehicule);
+
+        clients.vider();
+        clientRepository.findByActifTrue().forEach(this::indexerClient);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surVehicule(VehiculeEvent event) {
+        if (event.type() == VehiculeEvent.Type.SUPPRIME) {
+            vehicules.retirer(event.vehicule().getId());
+        } else {
+            indexerVehicule(event.vehicule());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surClient(ClientEvent event) {
+        Client client = event.client();
+        if (Boolean.TRUE.equals(client.getActif())) {
+            indexerClient(client);
+        } else {
+            clients.retirer(client.getId());
+        }
+    }
+
+    /**
+     * Véhicules dont l'immatriculation, la marque ou le modèle commence par la saisie
+     */
+    public List<Suggestion> suggererVehicules(String saisie, int limite) {
+        return vehicules.rechercher(normaliser(saisie), limite);
+    }
+
+    /**
+     * Clients actifs dont le nom ou le numéro de permis commence par la saisie
+     */
+    public List<Suggestion> suggererClients(String saisie, int limite) {
+        return clients.rechercher(normaliser(saisie), limite);
+    }
+
+    private void indexerVehicule(Vehicule vehicule) {
+        String libelle = vehicule.getMarque() + " " + vehicule.getModele()
+            + " - " + vehicule.getImmatriculation();
+        vehicules.indexer(vehicule.getId(), libelle, List.of(
+            vehicule.getImmatriculation(),
+            vehicule.getMarque(),
+            vehicule.getModele(),
+            vehicule.getMarque() + vehicule.getModele()));
+    }
+
+    private void indexerClient(Client client) {
+        String libelle = client.getNom() + " " + client.getPrenom()
+            + " (" + client.getNumeroPermis() + ")";
+        clients.indexer(client.getId(), libelle, List.of(
+            client.getNom(),
+            client.getNom() + client.getPrenom(),
+            client.getNumeroPermis()));
+    }
+
+    /**
+     * Normalise une clé ou une saisie : minuscules, accents et séparateurs supprimés
+     */
+    static String normaliser(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String sansAccents = DIACRITIQUES.matcher(
+            Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIQUE.matcher(sansAccents.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    /**
+     * Arbre radix et entrées courantes d'un type d'entité, protégés par un verrou lecture/écriture
+     */
+    private static final class Catalogue {
+
+        private record Entree(Suggestion suggestion, List<String> cles) {}
+
+        private final RadixTree<Suggestion> arbre = new RadixTree<>();
+        private final Map<Long, Entree> entrees = new HashMap<>();
+        private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+        void indexer(Long id, String libelle, List<String> clesBrutes) {
+            List<String> cles = new ArrayList<>(clesBrutes.size());
+            for (String cle : clesBrutes) {
+                String normalisee = normaliser(cle);
+                if (!normalisee.isEmpty() && !cles.contains(normalisee)) {
+                    cles.add(normalisee);
+                }
+            }
+            Entree nouvelle = new Entree(new Suggestion(id, libelle), cles);
+
+            verrou.writeLock().lock();
+            try {
+                retirerSansVerrou(id);
+                entrees.put(id, nouvelle);
+                for (String cle : cles) {
+                    arbre.inserer(cle, nouvelle.suggestion());
+                }
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        }
+
+        void retirer(Long id) {
+            verrou.writeLock().lock();
+            try {
+                retirerSansVerrou(id);
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        }
+
+        void vider() {
+            verrou.writeLock().lock();
+            try {
+                arbre.vider();
+                entrees.clear();
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        }
+
+        List<Suggestion> rechercher(String prefixe, int limite) {
+            if (prefixe.isEmpty()) {
+                return List.of();
+            }
+            verrou.readLock().lock();
+            try {
+                return arbre.rechercherParPrefixe(prefixe, limite);
+            } finally {
+                verrou.readLock().unlock();
+            }
+        }
+
+        private void retirerSansVerrou(Long id) {
+            Entree ancienne = entrees.remove(id);
+            if (ancienne != null) {
+                for (String cle : ancienne.cles()) {
+                    arbre.supprimer(cle, ancienne.suggestion());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.BFB.automobile.business.synchronisation;
+
+import com.BFB.automobile.data.Client;
+import com.BFB.automobile.data.Contrat;
+import com.BFB.automobile.data.Vehicule;
+
+import java.util.List;
+
+/**
+ * Page de changements depuis une position de synchronisation
+ *
+ * @param jeton Position à renvoyer à la prochaine synchronisation
+ * @param termine false si d'autres changements attendent déjà au-delà du jeton
+ * @param vehicules Véhicules créés ou modifiés (état courant)
+ * @param clients Clients créés ou modifiés (état courant)
+ * @param contrats Contrats créés ou modifiés (état courant)
+ * @param vehiculesSupprimes Identifiants des véhicules supprimés
+ * @param contratsSupprimes Identifiants des contrats archivés
+ */
+public record Changements(long jeton,
+                          boolean termine,
+                          List<Vehicule> vehicules,
+                          List<Client> clients,
+                          List<Contrat> contrats,
+                          List<Long> vehiculesSupprimes,
+                          List<Long> contratsSupprimes) {
+}
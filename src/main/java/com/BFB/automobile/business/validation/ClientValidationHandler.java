@@ -33,8 +33,10 @@ public class ClientValidationHandler extends ValidationHandler {
                 "CLIENT_NON_PERSISTE",
                 "Le client doit être enregistré en base de données");
         }
-        
-        // Passer au handler suivant
-        validerSuivant(contrat);
+    }
+    
+    @Override
+    public int cout() {
+        return COUT_MEMOIRE;
     }
 }
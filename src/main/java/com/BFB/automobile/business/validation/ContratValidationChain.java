@@ -1,49 +1,142 @@
 package com.BFB.automobile.business.validation;
 
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.data.Contrat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Configuration de la chaîne de validation pour les contrats
  * Définit l'ordre d'exécution des validations
  * 
  * CHAIN OF RESPONSIBILITY PATTERN : Cette classe configure la chaîne de handlers
- * qui vont valider un contrat. Chaque handler effectue une validation spécifique
- * et passe au suivant si tout est OK.
+ * qui vont valider un contrat. Chaque handler effectue une validation spécifique ;
+ * le contrat passe au suivant si tout est OK, la chaîne s'arrête au premier rejet.
+ * 
+ * La chaîne est construite une seule fois, à la création du bean, sous forme d'une
+ * liste immuable : les handlers (singletons) ne sont plus recâblés à chaque appel,
+ * ce qui supprime toute écriture partagée entre requêtes concurrentes.
  * 
- * Ordre des validations :
+ * Les handlers sont triés par coût déclaré, les vérifications en mémoire passant
+ * avant celles qui interrogent la base (ordre de déclaration en cas d'égalité). L'ordre
+ * ne suit pas les durées mesurées : il fixe aussi quel rejet l'emporte quand un contrat
+ * enfreint plusieurs règles, et ne doit pas varier avec la charge.
  * 1. DateValidationHandler - Vérifie les dates
  * 2. ClientValidationHandler - Vérifie le client
  * 3. VehiculeValidationHandler - Vérifie le véhicule
- * 4. DisponibiliteValidationHandler - Vérifie les chevauchements
+ * 4. DisponibiliteValidationHandler - Vérifie les chevauchements (requêtes)
+ * 
+ * Chaque handler est mesuré par un Timer bfb.validation.handler (durée et nombre d'exécutions)
+ * et un Counter bfb.validation.rejets, étiquetés du nom du handler ; statistiques() en
+ * donne un instantané.
+ * 
+ * Les handlers s'exécutent en séquence sur le thread appelant, dans sa transaction.
+ * Pas de répartition sur un exécuteur : le seul handler coûteux (DisponibiliteValidationHandler)
+ * regroupe déjà les vérifications véhicule et client en une requête, il n'y a donc rien
+ * à exécuter simultanément, et un handler lancé sur un autre thread ne verrait pas les
+ * écritures non validées de l'appelant.
  */
 @Component
 public class ContratValidationChain {
     
-    @Autowired
-    private DateValidationHandler dateHandler;
+    private final List<Maillon> maillons;
     
     @Autowired
-    private ClientValidationHandler clientHandler;
+    public ContratValidationChain(DateValidationHandler dateHandler,
+                                  ClientValidationHandler clientHandler,
+                                  VehiculeValidationHandler vehiculeHandler,
+                                  DisponibiliteValidationHandler disponibiliteHandler,
+                                  MeterRegistry meterRegistry) {
+        this(List.of(dateHandler, clientHandler, vehiculeHandler, disponibiliteHandler), meterRegistry);
+    }
     
-    @Autowired
-    private VehiculeValidationHandler vehiculeHandler;
+    ContratValidationChain(List<ValidationHandler> handlers, MeterRegistry meterRegistry) {
+        List<ValidationHandler> tries = new ArrayList<>(handlers);
+        // Tri stable : l'ordre de déclaration départage les handlers de même coût
+        tries.sort(Comparator.comparingInt(ValidationHandler::cout));
+        this.maillons = tries.stream().map(handler -> Maillon.de(handler, meterRegistry)).toList();
+    }
     
-    @Autowired
-    private DisponibiliteValidationHandler disponibiliteHandler;
+    /**
+     * Fait passer le contrat dans toute la chaîne
+     * 
+     * @throws BusinessException au premier handler qui rejette le contrat
+     */
+    public void valider(Contrat contrat) {
+        for (Maillon maillon : maillons) {
+            maillon.valider(contrat);
+        }
+    }
     
     /**
-     * Construit et retourne la chaîne de validation complète
+     * Fait passer le contrat dans les seuls handlers qui ne consultent pas la base
+     * (dates, client, véhicule), pour les traitements qui vérifient eux-mêmes la disponibilité
      * 
-     * @return Le premier handler de la chaîne
+     * @throws BusinessException au premier handler qui rejette le contrat
      */
-    public ValidationHandler getChain() {
-        // Configuration de la chaîne : date → client → vehicule → disponibilite
-        dateHandler
-            .setNext(clientHandler)
-            .setNext(vehiculeHandler)
-            .setNext(disponibiliteHandler);
+    public void validerEnMemoire(Contrat contrat) {
+        for (Maillon maillon : maillons) {
+            if (maillon.handler().cout() < ValidationHandler.COUT_BASE_DE_DONNEES) {
+                maillon.valider(contrat);
+            }
+        }
+    }
+    
+    /**
+     * Handlers dans leur ordre d'exécution
+     */
+    public List<ValidationHandler> getHandlers() {
+        return maillons.stream().map(Maillon::handler).toList();
+    }
+    
+    /**
+     * Mesures cumulées de chaque handler, dans l'ordre d'exécution
+     */
+    public List<StatistiquesValidation> statistiques() {
+        return maillons.stream().map(Maillon::statistiques).toList();
+    }
+    
+    /**
+     * Un handler et ses mesures
+     */
+    private record Maillon(ValidationHandler handler, Timer duree, Counter rejets) {
+        
+        static Maillon de(ValidationHandler handler, MeterRegistry meterRegistry) {
+            String nom = handler.getClass().getSimpleName();
+            return new Maillon(handler,
+                Timer.builder("bfb.validation.handler")
+                    .description("Durée de chaque handler de la chaîne de validation des contrats")
+                    .tag("handler", nom)
+                    .register(meterRegistry),
+                Counter.builder("bfb.validation.rejets")
+                    .description("Contrats rejetés par chaque handler de la chaîne de validation")
+                    .tag("handler", nom)
+                    .register(meterRegistry));
+        }
+        
+        void valider(Contrat contrat) {
+            long debut = System.nanoTime();
+            try {
+                handler.valider(contrat);
+            } catch (BusinessException e) {
+                rejets.increment();
+                throw e;
+            } finally {
+                duree.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+            }
+        }
         
-        return dateHandler;
+        StatistiquesValidation statistiques() {
+            return new StatistiquesValidation(handler.getClass().getSimpleName(),
+                duree.count(), (long) rejets.count(), (long) duree.totalTime(TimeUnit.NANOSECONDS));
+        }
     }
 }
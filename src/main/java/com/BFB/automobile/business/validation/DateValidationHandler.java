@@ -19,14 +19,14 @@ public class DateValidationHandler extends ValidationHandler {
         // Vérifier que dateDebut < dateFin
         if (contrat.getDateDebut().isAfter(contrat.getDateFin())) {
             throw new BusinessException(
-                "DATE_INVALIDE",
-                "La date de début doit être avant la date de fin");
+                "DATES_INCOHERENTES",
+                "La date de début doit être antérieure à la date de fin");
         }
         
         // Vérifier que dateDebut >= aujourd'hui (pas de location rétroactive)
         if (contrat.getDateDebut().isBefore(LocalDate.now())) {
             throw new BusinessException(
-                "DATE_PASSEE",
+                "DATE_DEBUT_PASSEE",
                 "La date de début ne peut pas être dans le passé");
         }
         
@@ -39,8 +39,10 @@ public class DateValidationHandler extends ValidationHandler {
                 "DUREE_EXCESSIVE",
                 "La durée de location ne peut pas dépasser 365 jours");
         }
-        
-        // Passer au handler suivant
-        validerSuivant(contrat);
+    }
+    
+    @Override
+    public int cout() {
+        return COUT_MEMOIRE;
     }
 }
@@ -2,51 +2,60 @@ package com.BFB.automobile.business.validation;
 
 import com.BFB.automobile.business.exception.BusinessException;
 import com.BFB.automobile.data.Contrat;
+import com.BFB.automobile.data.routage.LecturePrimaire;
 import com.BFB.automobile.data.repository.ContratRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 /**
  * Handler de validation de la disponibilité d'un contrat
  * Vérifie qu'il n'y a pas de chevauchement avec d'autres contrats
+ * 
+ * Les deux vérifications (véhicule et client) sont faites par une seule requête
+ * d'existence qui ne renvoie qu'un masque de bits. Un contrat déjà enregistré
+ * (modification de dates) n'entre pas en conflit avec lui-même.
+ * 
+ * Vérification décisive pour la réservation : toujours sur la base principale,
+ * jamais sur une réplique en retard.
  */
 @Component
+@LecturePrimaire
 public class DisponibiliteValidationHandler extends ValidationHandler {
     
+    private final ContratRepository contratRepository;
+    
     @Autowired
-    private ContratRepository contratRepository;
+    public DisponibiliteValidationHandler(ContratRepository contratRepository) {
+        this.contratRepository = contratRepository;
+    }
     
     @Override
     public void valider(Contrat contrat) {
-        // Vérifier qu'il n'y a pas de contrats actifs pour le même véhicule sur la même période
-        List<Contrat> contratsConflictuels = contratRepository.findContratsConflictuels(
+        int conflits = contratRepository.existeConflits(
+            contrat.getId(),
             contrat.getVehicule().getId(),
+            contrat.getClient().getId(),
             contrat.getDateDebut(),
             contrat.getDateFin()
         );
         
-        if (!contratsConflictuels.isEmpty()) {
+        // Vérifier qu'il n'y a pas de contrats actifs pour le même véhicule sur la même période
+        if ((conflits & ContratRepository.CONFLIT_VEHICULE) != 0) {
             throw new BusinessException(
                 "VEHICULE_DEJA_LOUE",
                 "Ce véhicule est déjà réservé ou en location pour la période demandée");
         }
         
         // Vérifier que le client n'a pas déjà un contrat actif sur la période
-        List<Contrat> contratsClientSurPeriode = contratRepository.findContratsClientSurPeriode(
-            contrat.getClient().getId(),
-            contrat.getDateDebut(),
-            contrat.getDateFin()
-        );
-        
-        if (!contratsClientSurPeriode.isEmpty()) {
+        if ((conflits & ContratRepository.CONFLIT_CLIENT) != 0) {
             throw new BusinessException(
                 "CLIENT_DEJA_CONTRAT",
                 "Ce client a déjà un contrat actif sur cette période");
         }
-        
-        // Passer au handler suivant
-        validerSuivant(contrat);
+    }
+    
+    @Override
+    public int cout() {
+        return COUT_BASE_DE_DONNEES;
     }
 }
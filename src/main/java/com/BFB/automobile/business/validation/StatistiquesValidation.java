@@ -0,0 +1,19 @@
+package com.BFB.automobile.business.validation;
+
+/**
+ * Instantané des mesures d'un handler de la chaîne de validation
+ *
+ * @param handler Nom du handler
+ * @param executions Nombre de validations effectuées
+ * @param rejets Nombre de validations ayant rejeté le contrat
+ * @param dureeTotaleNanos Temps cumulé passé dans le handler
+ */
+public record StatistiquesValidation(String handler, long executions, long rejets, long dureeTotaleNanos) {
+
+    /**
+     * Durée moyenne d'une validation en microsecondes
+     */
+    public double dureeMoyenneMicros() {
+        return executions == 0 ? 0 : dureeTotaleNanos / 1000.0 / executions;
+    }
+}
@@ -4,21 +4,18 @@ import com.BFB.automobile.data.Contrat;
 
 /**
  * Classe abstraite pour la chaîne de validation de contrats
+ * 
+ * Les handlers sont des singletons partagés entre les requêtes : ils ne portent
+ * aucun état et ne connaissent pas leur successeur. L'enchaînement est assuré par
+ * ContratValidationChain, qui fixe l'ordre une fois pour toutes au démarrage.
  */
 public abstract class ValidationHandler {
     
-    protected ValidationHandler next;
+    /** Coût d'une vérification purement en mémoire */
+    public static final int COUT_MEMOIRE = 1;
     
-    /**
-     * Définit le prochain handler dans la chaîne
-     * 
-     * @param handler Le prochain handler
-     * @return Le handler passé en paramètre (pour chaînage fluent)
-     */
-    public ValidationHandler setNext(ValidationHandler handler) {
-        this.next = handler;
-        return handler;
-    }
+    /** Coût d'une vérification nécessitant un accès à la base */
+    public static final int COUT_BASE_DE_DONNEES = 100;
     
     /**
      * Méthode abstraite de validation à implémenter par chaque handler concret
@@ -29,13 +26,7 @@ public abstract class ValidationHandler {
     public abstract void valider(Contrat contrat);
     
     /**
-     * Passe la validation au handler suivant dans la chaîne
-     * 
-     * @param contrat Le contrat à valider
+     * Coût relatif de la validation : les handlers les moins coûteux sont exécutés en premier
      */
-    protected void validerSuivant(Contrat contrat) {
-        if (next != null) {
-            next.valider(contrat);
-        }
-    }
+    public abstract int cout();
 }
@@ -7,7 +7,8 @@ import org.springframework.stereotype.Component;
 
 /**
  * Handler de validation du véhicule d'un contrat
- * Vérifie que le véhicule est disponible pour la location
+ * Vérifie que le véhicule peut être loué : seuls les véhicules en panne sont refusés,
+ * la disponibilité sur la période relevant de DisponibiliteValidationHandler
  */
 @Component
 public class VehiculeValidationHandler extends ValidationHandler {
@@ -21,12 +22,11 @@ public class VehiculeValidationHandler extends ValidationHandler {
                 "Le véhicule ne peut pas être null");
         }
         
-        // Vérifier que le véhicule est disponible
-        if (contrat.getVehicule().getEtat() != EtatVehicule.DISPONIBLE) {
+        // Règle : Les véhicules en panne ne peuvent pas être loués
+        if (contrat.getVehicule().getEtat() == EtatVehicule.EN_PANNE) {
             throw new BusinessException(
-                "VEHICULE_INDISPONIBLE",
-                "Le véhicule doit être disponible pour être loué. État actuel : " 
-                    + contrat.getVehicule().getEtat().getLibelle());
+                "VEHICULE_EN_PANNE",
+                "Ce véhicule est en panne et ne peut pas être loué");
         }
         
         // Vérifier que le véhicule a bien un ID (est persisté)
@@ -35,8 +35,10 @@ public class VehiculeValidationHandler extends ValidationHandler {
                 "VEHICULE_NON_PERSISTE",
                 "Le véhicule doit être enregistré en base de données");
         }
-        
-        // Passer au handler suivant
-        validerSuivant(contrat);
+    }
+    
+    @Override
+    public int cout() {
+        return COUT_MEMOIRE;
     }
 }
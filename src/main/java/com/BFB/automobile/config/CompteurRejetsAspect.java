@@ -0,0 +1,41 @@
+package com.BFB.automobile.config;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compte les BusinessException qui sortent des services, par code d'erreur
+ * (métrique bfb.rejets.metier), quel que soit l'appelant : API, tâche planifiée...
+ * 
+ * Les compteurs sont mémorisés par code pour éviter une recherche dans le registre
+ * à chaque rejet.
+ */
+@Aspect
+@Component
+public class CompteurRejetsAspect {
+    
+    private final MeterRegistry registry;
+    private final Map<String, Counter> compteurs = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public CompteurRejetsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+    
+    @AfterThrowing(pointcut = "within(com.BFB.automobile.business.service..*)", throwing = "rejet")
+    public void compter(BusinessException rejet) {
+        compteurs.computeIfAbsent(rejet.getCode(), code -> Counter.builder("bfb.rejets.metier")
+                .description("Rejets métier par code d'erreur")
+                .tag("code", code)
+                .register(registry))
+            .increment();
+    }
+}
@@ -0,0 +1,152 @@
+package com.BFB.automobile.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration des exécuteurs dédiés aux traitements asynchrones
+ * Chaque usage a son propre pool borné pour ne pas concurrencer les requêtes HTTP
+ *
+ * En mode threads virtuels (Java 21+, spring.threads.virtual.enabled=true), les mêmes
+ * exécuteurs sont déclarés sur des threads virtuels, avec les mêmes bornes.
+ */
+@Configuration
+public class ExecutorsConfig {
+    
+    /**
+     * Exécuteur d'indexation plein texte : un seul thread pour appliquer les mises à jour
+     * dans l'ordre. File bornée : si l'indexation prend du retard, le thread appelant attend
+     * une place dans la file (contre-pression plutôt que perte de mises à jour). Il n'indexe
+     * jamais lui-même : deux écritures simultanées casseraient l'ordre des mises à jour.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor rechercheExecutor() {
+        ThreadPoolTaskExecutor executor = nouvelExecuteurRecherche();
+        executor.setThreadNamePrefix("recherche-");
+        return executor;
+    }
+    
+    /**
+     * Indexation en mode threads virtuels : toujours un seul thread et la même file, pour
+     * conserver l'ordre des mises à jour ; seul le thread est virtuel.
+     */
+    @Bean(name = "rechercheExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ThreadPoolTaskExecutor rechercheExecutorVirtuel() {
+        ThreadPoolTaskExecutor executor = nouvelExecuteurRecherche();
+        executor.setThreadFactory(new VirtualThreadTaskExecutor("recherche-").getVirtualThreadFactory());
+        return executor;
+    }
+    
+    /**
+     * Exécuteur des lectures lourdes (listes et historiques de contrats) servies en asynchrone.
+     * Pool et file bornés : une fois saturé, la demande est refusée (503) plutôt que
+     * d'occuper un thread Tomcat, pour que les lectures ponctuelles restent servies.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor lectureExecutor(@Value("${bfb.lecture.threads:4}") int threads,
+                                                  @Value("${bfb.lecture.file:50}") int file) {
+        ThreadPoolTaskExecutor executor = nouvelExecuteurLecture(threads, file);
+        executor.setThreadNamePrefix("lecture-");
+        return executor;
+    }
+    
+    /**
+     * Lectures lourdes en mode threads virtuels : mêmes bornes, threads virtuels
+     */
+    @Bean(name = "lectureExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ThreadPoolTaskExecutor lectureExecutorVirtuel(@Value("${bfb.lecture.threads:4}") int threads,
+                                                         @Value("${bfb.lecture.file:50}") int file) {
+        ThreadPoolTaskExecutor executor = nouvelExecuteurLecture(threads, file);
+        executor.setThreadFactory(new VirtualThreadTaskExecutor("lecture-").getVirtualThreadFactory());
+        return executor;
+    }
+    
+    /**
+     * Exécuteur d'envoi du flux d'événements (GET /api/events). Au plus une tâche en file par
+     * abonné : file dimensionnée au nombre maximal d'abonnés. Un envoi bloqué sur un client
+     * lent n'occupe qu'un thread, jusqu'au délai d'écriture de Tomcat.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor evenementsExecutor(@Value("${bfb.evenements.threads:8}") int threads,
+                                                     @Value("${bfb.evenements.abonnes-max:5000}") int abonnesMax) {
+        ThreadPoolTaskExecutor executor = nouvelExecuteurLecture(threads, abonnesMax);
+        executor.setThreadNamePrefix("evenements-");
+        return executor;
+    }
+    
+    /**
+     * Envoi du flux d'événements en mode threads virtuels : mêmes bornes, threads virtuels
+     */
+    @Bean(name = "evenementsExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ThreadPoolTaskExecutor evenementsExecutorVirtuel(@Value("${bfb.evenements.threads:8}") int threads,
+                                                            @Value("${bfb.evenements.abonnes-max:5000}") int abonnesMax) {
+        ThreadPoolTaskExecutor executor = nouvelExecuteurLecture(threads, abonnesMax);
+        executor.setThreadFactory(new VirtualThreadTaskExecutor("evenements-").getVirtualThreadFactory());
+        return executor;
+    }
+    
+    /**
+     * Pool fork-join des calculs d'occupation de la flotte (GET /api/stats/utilisation).
+     * Calcul en mémoire sans attente : parallélisme borné au nombre de cœurs qu'on lui
+     * consacre, pour ne pas priver les requêtes HTTP, et pas de variante en threads virtuels.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool utilisationPool(@Value("${bfb.utilisation.parallelisme:4}") int parallelisme) {
+        return new ForkJoinPool(parallelisme, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("utilisation-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+    
+    private static ThreadPoolTaskExecutor nouvelExecuteurRecherche() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10_000);
+        executor.setRejectedExecutionHandler(ExecutorsConfig::attendrePlaceDansLaFile);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+    
+    private static ThreadPoolTaskExecutor nouvelExecuteurLecture(int threads, int file) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(file);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+    
+    /**
+     * File pleine : bloque l'appelant jusqu'à ce qu'une place se libère, sans changer l'ordre
+     */
+    static void attendrePlaceDansLaFile(Runnable tache, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Exécuteur arrêté");
+        }
+        try {
+            pool.getQueue().put(tache);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrompu en attente d'une place dans la file", e);
+        }
+    }
+}
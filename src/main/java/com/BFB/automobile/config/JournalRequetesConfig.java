@@ -0,0 +1,42 @@
+package com.BFB.automobile.config;
+
+import com.BFB.automobile.data.jdbc.JdbcJournalise;
+import com.BFB.automobile.data.jdbc.JournalRequetes;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Journal des requêtes SQL lentes (bfb.sql.journal.*), en remplacement du log de chaque requête
+ *
+ * La DataSource est enveloppée dès sa création : toutes les requêtes (JPA, JdbcTemplate, Flyway)
+ * passent par les proxies de {@link JdbcJournalise}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bfb.sql.journal.actif", havingValue = "true", matchIfMissing = true)
+public class JournalRequetesConfig {
+
+    /**
+     * Méthode statique : un BeanPostProcessor est créé avant les autres beans, il ne doit
+     * pas obliger sa configuration à l'être aussi. Les réglages sont donc lus dans l'environnement.
+     */
+    @Bean
+    public static BeanPostProcessor journalRequetesPostProcessor(Environment environment) {
+        JournalRequetes journal = new JournalRequetes(
+            environment.getProperty("bfb.sql.journal.seuil-ms", Long.class, 100L),
+            environment.getProperty("bfb.sql.journal.echantillonnage", Double.class, 0.0),
+            environment.getProperty("bfb.sql.journal.parametres", Boolean.class, false));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource
+                    ? JdbcJournalise.envelopper(dataSource, journal)
+                    : bean;
+            }
+        };
+    }
+}
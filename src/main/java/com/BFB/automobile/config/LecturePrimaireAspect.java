@@ -0,0 +1,28 @@
+package com.BFB.automobile.config;
+
+import com.BFB.automobile.data.routage.LecturePrimaire;
+import com.BFB.automobile.data.routage.RoutageDataSource;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exécute les méthodes {@link LecturePrimaire} sur la base principale quand le routage
+ * lecture/écriture est actif (sans effet sinon)
+ */
+@Aspect
+@Component
+public class LecturePrimaireAspect {
+
+    @Around("@annotation(com.BFB.automobile.data.routage.LecturePrimaire)"
+        + " || @within(com.BFB.automobile.data.routage.LecturePrimaire)")
+    public Object surPrimaire(ProceedingJoinPoint point) throws Throwable {
+        boolean precedent = RoutageDataSource.forcerPrimaire();
+        try {
+            return point.proceed();
+        } finally {
+            RoutageDataSource.retablir(precedent);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.BFB.automobile.config;
+
+import com.BFB.automobile.business.statistiques.CompteursEtats;
+import com.BFB.automobile.data.EtatContrat;
+import com.BFB.automobile.data.EtatVehicule;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration des métriques Micrometer (exposées sur /actuator/prometheus)
+ * 
+ * - bfb.service : durée de chaque méthode publique des services (@Timed sur la classe),
+ *   étiquetée par classe, méthode et exception éventuelle
+ * - bfb.rejets.metier : nombre de BusinessException par code (voir CompteurRejetsAspect)
+ * - bfb.vehicules / bfb.contrats : nombre de véhicules et de contrats par état,
+ *   lus dans les compteurs en mémoire (voir CompteursEtats)
+ * - bfb.job.etats.phase / bfb.job.etats.lignes : durée et nombre de contrats traités
+ *   par phase du traitement nocturne des états
+ */
+@Configuration
+public class MetriquesConfig {
+    
+    /**
+     * Active @Timed sur les beans Spring
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+    
+    /**
+     * Jauges de la flotte et des contrats par état
+     */
+    @Bean
+    public MeterBinder jaugesEtats(CompteursEtats compteursEtats) {
+        return registry -> {
+            for (EtatVehicule etat : EtatVehicule.values()) {
+                Gauge.builder("bfb.vehicules", compteursEtats, compteurs -> compteurs.vehicules(etat))
+                    .description("Nombre de véhicules par état")
+                    .tag("etat", etat.name())
+                    .register(registry);
+            }
+            for (EtatContrat etat : EtatContrat.values()) {
+                Gauge.builder("bfb.contrats", compteursEtats, compteurs -> compteurs.contrats(etat))
+                    .description("Nombre de contrats par état")
+                    .tag("etat", etat.name())
+                    .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.BFB.automobile.config;
+
+import com.BFB.automobile.data.routage.BattementReplique;
+import com.BFB.automobile.data.routage.ReplicationLocale;
+import com.BFB.automobile.data.routage.RoutageDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Routage lecture/écriture (bfb.routage.*) : deux pools, base principale (spring.datasource.*)
+ * et réplique (bfb.routage.replique.*), derrière une seule DataSource ({@link RoutageDataSource})
+ *
+ * Les deux pools reprennent les réglages spring.datasource.hikari.*. Avec
+ * bfb.routage.replication-locale, les écritures de la base principale sont rejouées
+ * sur la réplique ({@link ReplicationLocale}) : deux bases H2 suffisent pour les essais.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bfb.routage.actif", havingValue = "true")
+public class RoutageConfig {
+
+    @Bean
+    public RoutageDataSource dataSource(DataSourceProperties proprietes,
+                                        Environment environment,
+                                        MeterRegistry registry,
+                                        @Value("${bfb.routage.replique.url}") String urlReplique,
+                                        @Value("${bfb.routage.replique.username:sa}") String utilisateurReplique,
+                                        @Value("${bfb.routage.replique.password:}") String motDePasseReplique,
+                                        @Value("${bfb.routage.retard-max-ms:2000}") long retardMaxMs,
+                                        @Value("${bfb.routage.replication-locale:false}") boolean replicationLocale,
+                                        @Value("${bfb.routage.replication-delai-ms:0}") long delaiReplicationMs) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primaire = pool("primaire", proprietes.determineUrl(), proprietes.determineUsername(),
+            proprietes.determinePassword(), binder, registry);
+        HikariDataSource replique = pool("replique", urlReplique, utilisateurReplique, motDePasseReplique,
+            binder, registry);
+
+        if (!replicationLocale) {
+            return new RoutageDataSource(primaire, replique, retardMaxMs, primaire, replique);
+        }
+        ReplicationLocale replication = new ReplicationLocale(replique, delaiReplicationMs);
+        return new RoutageDataSource(replication.envelopper(primaire), replique, retardMaxMs,
+            replication, primaire, replique);
+    }
+
+    /**
+     * La DataSource exposée est enveloppée par le journal des requêtes : on retrouve le routage par unwrap
+     */
+    @Bean
+    public BattementReplique battementReplique(DataSource dataSource) throws SQLException {
+        return new BattementReplique(dataSource.unwrap(RoutageDataSource.class));
+    }
+
+    /**
+     * Jauge bfb.replique.retard : dernier retard mesuré de la réplique (NaN si inconnu)
+     */
+    @Bean
+    public MeterBinder jaugeRetardReplique(DataSource dataSource) throws SQLException {
+        RoutageDataSource routage = dataSource.unwrap(RoutageDataSource.class);
+        return registry -> Gauge.builder("bfb.replique.retard", routage,
+                r -> r.getRetardMs() == Long.MAX_VALUE ? Double.NaN : r.getRetardMs())
+            .description("Retard de la réplique en millisecondes")
+            .baseUnit("milliseconds")
+            .register(registry);
+    }
+
+    private static HikariDataSource pool(String nom, String url, String utilisateur, String motDePasse,
+                                         Binder binder, MeterRegistry registry) {
+        HikariDataSource pool = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(url)
+            .username(utilisateur)
+            .password(motDePasse)
+            .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(nom);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        return pool;
+    }
+}
@@ -0,0 +1,100 @@
+package com.BFB.automobile.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Sauvegarde à chaud de la base H2 sur disque (profil "persistant")
+ *
+ * - POST /actuator/sauvegarde : archive ZIP cohérente de la base, sans arrêter l'application
+ *   (commande BACKUP de H2 : les écritures concurrentes continuent pendant la copie)
+ * - GET /actuator/sauvegarde : sauvegardes présentes, de la plus récente à la plus ancienne
+ *
+ * Non exposé par défaut : à ajouter à management.endpoints.web.exposure.include
+ * uniquement derrière un actuator protégé.
+ *
+ * Restauration, application arrêtée : java -cp h2.jar org.h2.tools.Restore -file &lt;archive&gt; -dir &lt;répertoire de la base&gt;
+ */
+@Component
+@Profile("persistant")
+@Endpoint(id = "sauvegarde")
+public class SauvegardeEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(SauvegardeEndpoint.class);
+    private static final DateTimeFormatter HORODATAGE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path repertoire;
+
+    @Autowired
+    public SauvegardeEndpoint(JdbcTemplate jdbcTemplate,
+                              @Value("${bfb.sauvegarde.repertoire}") String repertoire) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.repertoire = Path.of(repertoire);
+    }
+
+    @WriteOperation
+    public Sauvegarde sauvegarder() throws IOException {
+        Files.createDirectories(repertoire);
+        Path archive = repertoire.resolve("bfb_automobile-" + LocalDateTime.now().format(HORODATAGE) + ".zip")
+            .toAbsolutePath();
+
+        long debut = System.nanoTime();
+        jdbcTemplate.execute("BACKUP TO '" + archive.toString().replace("'", "''") + "'");
+        long dureeMs = (System.nanoTime() - debut) / 1_000_000;
+
+        Sauvegarde sauvegarde = decrire(archive);
+        log.info("Sauvegarde {} : {} octets en {} ms", archive.getFileName(), sauvegarde.taille(), dureeMs);
+        return sauvegarde;
+    }
+
+    @ReadOperation
+    public List<Sauvegarde> lister() throws IOException {
+        if (!Files.isDirectory(repertoire)) {
+            return List.of();
+        }
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            return fichiers
+                .filter(f -> f.getFileName().toString().endsWith(".zip"))
+                .map(this::decrire)
+                .sorted(Comparator.comparing(Sauvegarde::date).reversed())
+                .toList();
+        }
+    }
+
+    private Sauvegarde decrire(Path archive) {
+        try {
+            return new Sauvegarde(archive.getFileName().toString(), Files.size(archive),
+                Files.getLastModifiedTime(archive).toInstant());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param fichier Nom de l'archive dans le répertoire des sauvegardes
+     * @param taille Taille de l'archive en octets
+     * @param date Date de fin de la sauvegarde
+     */
+    public record Sauvegarde(String fichier, long taille, Instant date) {
+    }
+}
@@ -25,7 +25,8 @@ import java.util.Objects;
 public class Client {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_seq")
+    @SequenceGenerator(name = "client_seq", sequenceName = "clients_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Le nom est obligatoire")
@@ -8,12 +8,16 @@ import java.util.Objects;
 /**
  * Entité Contrat - Représente un contrat de location liant un client à un véhicule
  * Gère les différents états du cycle de vie d'une location
+ * 
+ * Identifiant issu d'une séquence réservée par blocs de 50 (optimiseur pooled) :
+ * contrairement à IDENTITY, Hibernate connaît l'id avant l'INSERT et peut
+ * regrouper les insertions en lots JDBC (hibernate.jdbc.batch_size).
  */
 @Entity
 @Table(name = "contrats",
     indexes = {
-        @Index(name = "idx_contrat_client", columnList = "client_id"),
-        @Index(name = "idx_contrat_vehicule", columnList = "vehicule_id"),
+        @Index(name = "idx_contrat_client", columnList = "client_id, date_fin"),
+        @Index(name = "idx_contrat_vehicule", columnList = "vehicule_id, date_fin"),
         @Index(name = "idx_contrat_dates", columnList = "date_debut, date_fin"),
         @Index(name = "idx_contrat_etat", columnList = "etat")
     }
@@ -21,7 +25,8 @@ import java.util.Objects;
 public class Contrat {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contrat_seq")
+    @SequenceGenerator(name = "contrat_seq", sequenceName = "contrats_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "La date de début est obligatoire")
@@ -0,0 +1,116 @@
+package com.BFB.automobile.data;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Entité ContratArchive - Contrat terminé ou annulé déplacé hors de la table contrats
+ *
+ * Mêmes colonnes et même identifiant que le contrat d'origine, plus la date d'archivage.
+ * Les lignes sont écrites en SQL par l'archivage (ArchivageContrats) et jamais modifiées :
+ * l'entité ne sert qu'à créer la table et à la compter. Les historiques la relisent,
+ * réunie à contrats, sous forme de Contrat (ContratRepository.findHistoriqueClient...).
+ */
+@Entity
+@Immutable
+@Table(name = "contrats_archive",
+    indexes = {
+        @Index(name = "idx_archive_client", columnList = "client_id, date_debut"),
+        @Index(name = "idx_archive_vehicule", columnList = "vehicule_id, date_debut")
+    }
+)
+public class ContratArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "date_debut", nullable = false)
+    private LocalDate dateDebut;
+
+    @Column(name = "date_fin", nullable = false)
+    private LocalDate dateFin;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EtatContrat etat;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "client_id", nullable = false)
+    private Client client;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "vehicule_id", nullable = false)
+    private Vehicule vehicule;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDate dateCreation;
+
+    @Column(name = "date_modification")
+    private LocalDate dateModification;
+
+    @Column(length = 1000)
+    private String commentaire;
+
+    @Column(name = "date_archivage", nullable = false)
+    private LocalDate dateArchivage;
+
+    protected ContratArchive() {
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getDateDebut() {
+        return dateDebut;
+    }
+
+    public LocalDate getDateFin() {
+        return dateFin;
+    }
+
+    public EtatContrat getEtat() {
+        return etat;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public Vehicule getVehicule() {
+        return vehicule;
+    }
+
+    public LocalDate getDateCreation() {
+        return dateCreation;
+    }
+
+    public LocalDate getDateModification() {
+        return dateModification;
+    }
+
+    public String getCommentaire() {
+        return commentaire;
+    }
+
+    public LocalDate getDateArchivage() {
+        return dateArchivage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ContratArchive archive = (ContratArchive) o;
+        return Objects.equals(id, archive.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,102 @@
+package com.BFB.automobile.data;
+
+import jakarta.persistence.*;
+
+/**
+ * Entité EvenementSortant - Changement d'état d'un véhicule ou d'un contrat à diffuser
+ *
+ * Boîte d'envoi (outbox) : la ligne est écrite dans la transaction qui modifie le véhicule
+ * ou le contrat, et n'existe donc que si la modification est validée. Le flux d'événements
+ * (GET /api/events) relit la table dans l'ordre des identifiants, qui sert aussi de
+ * position de reprise (Last-Event-ID).
+ *
+ * Identifiant IDENTITY, attribué à l'insertion : contrairement aux séquences par blocs des
+ * autres entités, il croît dans l'ordre des écritures.
+ */
+@Entity
+@Table(name = "evenements_sortants",
+    indexes = @Index(name = "idx_evenement_instant", columnList = "instant")
+)
+public class EvenementSortant {
+
+    public enum Categorie {
+        VEHICULE,
+        CONTRAT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Date d'écriture, en millisecondes depuis l'epoch */
+    @Column(nullable = false)
+    private long instant;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Categorie categorie;
+
+    /** Nature de la modification (type de l'événement métier : CREE, ETAT_CHANGE...) */
+    @Column(nullable = false, length = 20)
+    private String nature;
+
+    @Column(name = "entite_id", nullable = false)
+    private Long entiteId;
+
+    @Column(name = "ancien_etat", length = 20)
+    private String ancienEtat;
+
+    @Column(length = 20)
+    private String etat;
+
+    /** Véhicule loué, pour un contrat */
+    @Column(name = "vehicule_id")
+    private Long vehiculeId;
+
+    protected EvenementSortant() {
+    }
+
+    public EvenementSortant(Categorie categorie, String nature, Long entiteId,
+                            String ancienEtat, String etat, Long vehiculeId) {
+        this.instant = System.currentTimeMillis();
+        this.categorie = categorie;
+        this.nature = nature;
+        this.entiteId = entiteId;
+        this.ancienEtat = ancienEtat;
+        this.etat = etat;
+        this.vehiculeId = vehiculeId;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public long getInstant() {
+        return instant;
+    }
+
+    public Categorie getCategorie() {
+        return categorie;
+    }
+
+    public String getNature() {
+        return nature;
+    }
+
+    public Long getEntiteId() {
+        return entiteId;
+    }
+
+    public String getAncienEtat() {
+        return ancienEtat;
+    }
+
+    public String getEtat() {
+        return etat;
+    }
+
+    public Long getVehiculeId() {
+        return vehiculeId;
+    }
+}
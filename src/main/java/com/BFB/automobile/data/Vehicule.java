@@ -20,7 +20,8 @@ import java.util.Objects;
 public class Vehicule {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicule_seq")
+    @SequenceGenerator(name = "vehicule_seq", sequenceName = "vehicules_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "La marque est obligatoire")
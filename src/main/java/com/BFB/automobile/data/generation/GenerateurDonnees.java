@@ -0,0 +1,234 @@
+package com.BFB.automobile.data.generation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Génère un jeu de données volumineux et reproductible à la place de data.sql (profil "bulk-data")
+ *
+ * Les lignes sont produites par H2 lui-même (INSERT ... SELECT FROM SYSTEM_RANGE) par tranches
+ * de {@value #TAILLE_TRANCHE} : aucune entité n'est instanciée et rien ne transite par JDBC
+ * ligne à ligne. Chaque valeur dérive du numéro de ligne et de la graine par hachage
+ * multiplicatif : deux exécutions avec les mêmes paramètres produisent la même base.
+ *
+ * Répartition :
+ * - Clients : noms et villes courants, naissances entre 1950 et 2004, 3 % inactifs
+ * - Véhicules : modèles courants, immatriculations uniques au format AA-000-AA
+ * - Contrats : chaque véhicule enchaîne des créneaux de même durée, sans chevauchement,
+ *   5 % dans le futur. Un même client n'a jamais deux contrats sur un même créneau.
+ *   Passés : TERMINE (quelques ANNULE, quelques EN_RETARD récents), en cours : EN_COURS,
+ *   futurs : EN_ATTENTE (quelques ANNULE)
+ * - États des véhicules déduits des contrats (EN_LOCATION), 3 % des autres EN_PANNE
+ *   avec leurs contrats en attente annulés, comme le ferait le service
+ *
+ * Les index secondaires des contrats sont supprimés pendant le chargement puis recréés.
+ * Une base déjà peuplée (profil "persistant") est laissée telle quelle.
+ */
+@Component
+@Profile("bulk-data")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class GenerateurDonnees implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerateurDonnees.class);
+
+    static final int TAILLE_TRANCHE = 500_000;
+
+    /** Combinaisons nom × prénom × jour de naissance (20 × 20 × 20 089 jours de 1950 à 2004) */
+    static final int IDENTITES = 20 * 20 * 20_089;
+
+    /**
+     * Hachage multiplicatif (Knuth) du numéro de ligne X, d'un sel et de la graine : les 20 bits
+     * de poids fort d'un produit sur 32 bits, entier dans [0, 1048576). BITAND et la division
+     * coûtent plusieurs fois moins cher à H2 qu'un MOD par un grand nombre premier.
+     */
+    private static final String HASH = "(BITAND(X * 2654435761 + %d, 4294967295) / 4096)";
+
+    private static final String NOMS = "ARRAY['Martin','Bernard','Thomas','Petit','Robert','Richard','Durand','Dubois',"
+        + "'Moreau','Laurent','Simon','Michel','Lefebvre','Leroy','Roux','David','Bertrand','Morel','Fournier','Girard']";
+    private static final String PRENOMS = "ARRAY['Jean','Marie','Pierre','Sophie','Thomas','Camille','Nicolas','Julie',"
+        + "'Lucas','Emma','Hugo','Léa','Louis','Chloé','Paul','Manon','Jules','Sarah','Arthur','Inès']";
+    private static final String VILLES = "ARRAY['75001 Paris','69001 Lyon','13001 Marseille','31000 Toulouse',"
+        + "'06000 Nice','44000 Nantes','67000 Strasbourg','34000 Montpellier','33000 Bordeaux','59000 Lille']";
+    private static final String RUES = "ARRAY['rue de la Paix','avenue Victor Hugo','boulevard Pasteur',"
+        + "'place de la Mairie','rue des Écoles','avenue Jean Jaurès','rue du Moulin','chemin des Vignes']";
+    private static final String MARQUES = "ARRAY['Peugeot','Renault','Citroën','Volkswagen','Toyota','Ford','Opel',"
+        + "'Dacia','Fiat','Tesla']";
+    private static final String MODELES = "ARRAY['208','Clio','C3','Golf','Yaris','Fiesta','Corsa','Sandero','500',"
+        + "'Model 3']";
+    private static final String MOTORISATIONS = "ARRAY['Essence','Diesel','Hybride','Électrique']";
+    private static final String COULEURS = "ARRAY['Blanc','Noir','Gris','Rouge','Bleu','Argent','Vert']";
+    private static final String INDEX_CONTRATS = "idx_contrat_client, idx_contrat_vehicule, idx_contrat_dates, idx_contrat_etat";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int nbClients;
+    private final int nbVehicules;
+    private final long nbContrats;
+    private final int historiqueJours;
+    private final long graine;
+
+    @Autowired
+    public GenerateurDonnees(JdbcTemplate jdbcTemplate,
+                             @Value("${bfb.donnees.clients:100000}") int nbClients,
+                             @Value("${bfb.donnees.vehicules:10000}") int nbVehicules,
+                             @Value("${bfb.donnees.contrats:1000000}") long nbContrats,
+                             @Value("${bfb.donnees.historique-jours:3650}") int historiqueJours,
+                             @Value("${bfb.donnees.graine:42}") long graine) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nbClients = nbClients;
+        this.nbVehicules = nbVehicules;
+        this.nbContrats = nbContrats;
+        this.historiqueJours = historiqueJours;
+        this.graine = graine;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Base conservée d'un démarrage à l'autre (profil "persistant") : déjà générée
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clients", Long.class) > 0) {
+            log.info("Base déjà peuplée : génération des données ignorée");
+            return;
+        }
+        long debut = System.nanoTime();
+        genererClients();
+        genererVehicules();
+        genererContrats();
+        deduireEtats();
+        recalerSequences();
+
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        long lignes = nbClients + nbVehicules + nbContrats;
+        log.info("Données générées : {} clients, {} véhicules, {} contrats en {} s ({} lignes/s)",
+            nbClients, nbVehicules, nbContrats, String.format("%.1f", secondes), Math.round(lignes / secondes));
+    }
+
+    /**
+     * L'identité (nom, prénom, date de naissance) est unique en base : elle est tirée d'une
+     * permutation de X sur l'ensemble des {@value #IDENTITES} combinaisons, donc sans doublon.
+     */
+    private void genererClients() {
+        if (nbClients > IDENTITES) {
+            throw new IllegalStateException("Au plus " + IDENTITES + " clients peuvent être générés");
+        }
+        String identite = "MOD((X - 1) * 1000003 + " + graine + ", " + IDENTITES + ")";
+        String sql = "INSERT INTO clients (id, nom, prenom, date_naissance, numero_permis, adresse, date_creation, actif) "
+            + "SELECT X, "
+            + NOMS + "[1 + MOD(" + identite + ", 20)], "
+            + PRENOMS + "[1 + MOD(" + identite + " / 20, 20)], "
+            + "DATEADD(DAY, " + identite + " / 400, DATE '1950-01-01'), "
+            + "'P' || LPAD(X, 11, '0'), "
+            + "(1 + MOD(X, 150)) || ' ' || " + RUES + "[1 + MOD(" + hash(4) + ", 8)] || ', ' || "
+            + VILLES + "[1 + MOD(" + hash(5) + ", 10)], "
+            + "DATEADD(DAY, -MOD(" + hash(6) + ", " + historiqueJours + "), CURRENT_DATE), "
+            + "MOD(" + hash(7) + ", 100) >= 3 "
+            + "FROM SYSTEM_RANGE(?, ?)";
+        inserer(sql, nbClients);
+    }
+
+    private void genererVehicules() {
+        // Immatriculation : 4 lettres issues de X / 1000 en base 26 et 3 chiffres issus de X
+        String lettres = "CHAR(65 + MOD(X / 1000 / %d, 26))";
+        String sql = "INSERT INTO vehicules (id, marque, modele, motorisation, couleur, immatriculation, date_acquisition, etat) "
+            + "SELECT X, "
+            + MARQUES + "[1 + MOD(" + hash(1) + ", 10)], "
+            + MODELES + "[1 + MOD(" + hash(1) + ", 10)], "
+            + MOTORISATIONS + "[1 + MOD(" + hash(2) + ", 4)], "
+            + COULEURS + "[1 + MOD(" + hash(3) + ", 7)], "
+            + String.format(lettres, 17576) + " || " + String.format(lettres, 676) + " || '-' || "
+            + "LPAD(MOD(X, 1000), 3, '0') || '-' || " + String.format(lettres, 26) + " || " + String.format(lettres, 1) + ", "
+            + "DATEADD(DAY, -MOD(" + hash(4) + ", 2920), CURRENT_DATE), "
+            + "'DISPONIBLE' "
+            + "FROM SYSTEM_RANGE(?, ?)";
+        inserer(sql, nbVehicules);
+    }
+
+    /**
+     * Contrat X : véhicule v = X mod M, créneau s = X / M. Les créneaux sont communs à toute
+     * la flotte, le client (v + s * 7919) mod N est donc unique sur chaque créneau tant que M <= N.
+     *
+     * Les dates sont calculées en jours relatifs à aujourd'hui dans des tables dérivées, pour
+     * que chaque tirage ne soit évalué qu'une fois par ligne. Les clés étrangères ne sont pas
+     * contrôlées pendant le chargement : elles sont valides par construction (1 <= v <= M,
+     * 1 <= client <= N), et leur contrôle ligne à ligne triplerait la durée de l'insertion.
+     */
+    private void genererContrats() {
+        long creneaux = (nbContrats + nbVehicules - 1) / nbVehicules;
+        long futurs = Math.max(1, creneaux / 20);
+        int duree = (int) Math.max(2, Math.min(30, historiqueJours / creneaux));
+        if (nbVehicules > nbClients) {
+            log.warn("Plus de véhicules que de clients : un client peut avoir deux contrats simultanés");
+        }
+
+        String creneau = "((X - 1) / " + nbVehicules + ")";
+        String sql = "INSERT INTO contrats (id, date_debut, date_fin, etat, client_id, vehicule_id, date_creation) "
+            + "SELECT X, DATEADD(DAY, DEBUT, CURRENT_DATE), DATEADD(DAY, FIN, CURRENT_DATE), "
+            + "CASE WHEN FIN < 0 THEN "
+            + "       CASE WHEN TIRAGE < 5 THEN 'ANNULE' "
+            + "            WHEN TIRAGE < 8 AND FIN >= -7 THEN 'EN_RETARD' ELSE 'TERMINE' END "
+            + "     WHEN DEBUT <= 0 THEN 'EN_COURS' "
+            + "     WHEN TIRAGE < 8 THEN 'ANNULE' ELSE 'EN_ATTENTE' END, "
+            + "1 + MOD(MOD(X - 1, " + nbVehicules + ") + " + creneau + " * 7919, " + nbClients + "), "
+            + "1 + MOD(X - 1, " + nbVehicules + "), "
+            + "DATEADD(DAY, LEAST(0, DEBUT - ANTICIPATION), CURRENT_DATE) "
+            + "FROM (SELECT X, DEBUT, DEBUT + MOD(" + hash(2) + ", " + (duree - 1) + ") FIN, "
+            + "             MOD(" + hash(3) + ", 100) TIRAGE, MOD(" + hash(4) + ", 30) ANTICIPATION "
+            + "      FROM (SELECT X, (" + creneau + " - " + (creneaux - futurs) + ") * " + duree
+            + " + MOD(" + hash(1) + ", 2) DEBUT FROM SYSTEM_RANGE(?, ?)))";
+
+        jdbcTemplate.execute("DROP INDEX IF EXISTS " + INDEX_CONTRATS.replace(", ", "; DROP INDEX IF EXISTS "));
+        jdbcTemplate.execute("ALTER TABLE contrats SET REFERENTIAL_INTEGRITY FALSE");
+        inserer(sql, nbContrats);
+        jdbcTemplate.execute("ALTER TABLE contrats SET REFERENTIAL_INTEGRITY TRUE NOCHECK");
+        jdbcTemplate.execute("CREATE INDEX idx_contrat_client ON contrats (client_id, date_fin)");
+        jdbcTemplate.execute("CREATE INDEX idx_contrat_vehicule ON contrats (vehicule_id, date_fin)");
+        jdbcTemplate.execute("CREATE INDEX idx_contrat_dates ON contrats (date_debut, date_fin)");
+        jdbcTemplate.execute("CREATE INDEX idx_contrat_etat ON contrats (etat)");
+    }
+
+    /**
+     * Applique aux véhicules les règles que les services maintiennent en fonctionnement normal
+     */
+    private void deduireEtats() {
+        jdbcTemplate.update("UPDATE vehicules SET etat = 'EN_LOCATION' WHERE id IN "
+            + "(SELECT vehicule_id FROM contrats WHERE etat IN ('EN_COURS', 'EN_RETARD'))");
+        jdbcTemplate.update("UPDATE vehicules SET etat = 'EN_PANNE' WHERE etat = 'DISPONIBLE' "
+            + "AND MOD(BITAND(id * 2654435761 + " + graine + ", 4294967295) / 4096, 100) < 3");
+        jdbcTemplate.update("UPDATE contrats SET etat = 'ANNULE', "
+            + "commentaire = 'Contrat annulé automatiquement : véhicule déclaré en panne' "
+            + "WHERE etat = 'EN_ATTENTE' AND vehicule_id IN (SELECT id FROM vehicules WHERE etat = 'EN_PANNE')");
+    }
+
+    /**
+     * Place les séquences au-delà des identifiants générés (optimiseur "pooled" d'Hibernate)
+     */
+    private void recalerSequences() {
+        recalerSequence("clients_seq", nbClients);
+        recalerSequence("vehicules_seq", nbVehicules);
+        recalerSequence("contrats_seq", nbContrats);
+    }
+
+    private void recalerSequence(String sequence, long dernierId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (dernierId + 100));
+    }
+
+    /**
+     * Exécute l'insertion par tranches de SYSTEM_RANGE, chacune validée séparément
+     */
+    private void inserer(String sql, long lignes) {
+        for (long premier = 1; premier <= lignes; premier += TAILLE_TRANCHE) {
+            jdbcTemplate.update(sql, premier, Math.min(lignes, premier + TAILLE_TRANCHE - 1));
+        }
+    }
+
+    private String hash(int sel) {
+        return String.format(HASH, sel * 40503L + graine);
+    }
+}
@@ -0,0 +1,212 @@
+package com.BFB.automobile.data.jdbc;
+
+import com.BFB.automobile.data.jdbc.JournalRequetes.RequeteJournalisee;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Wrapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Proxies JDBC mesurant chaque exécution de requête pour le {@link JournalRequetes}
+ *
+ * DataSource → Connection → Statement : le texte SQL est mémorisé à la préparation, les valeurs
+ * des setXxx(index, valeur) au fil de l'eau. Chaque execute* est chronométré ; si le journal
+ * retient la requête, elle est publiée avec le nombre de lignes modifiées, ou pour un SELECT
+ * à la fermeture du ResultSet, qui n'est enveloppé (pour compter les lignes lues) que dans ce cas.
+ * Un ResultSet jamais fermé explicitement est publié à la fermeture du Statement, ou à sa
+ * réexécution (qui ferme le ResultSet précédent).
+ */
+public final class JdbcJournalise {
+
+    private static final Set<String> EXECUTIONS = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private JdbcJournalise() {
+    }
+
+    public static DataSource envelopper(DataSource dataSource, JournalRequetes journal) {
+        return proxy(DataSource.class, dataSource, (cible, methode, args) -> {
+            Object resultat = invoquer(cible, methode, args);
+            return resultat instanceof Connection connexion
+                ? connexion(connexion, journal)
+                : resultat;
+        });
+    }
+
+    private static Connection connexion(Connection connexion, JournalRequetes journal) {
+        return proxy(Connection.class, connexion, (cible, methode, args) -> {
+            Object resultat = invoquer(cible, methode, args);
+            if (resultat instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String texte ? texte : null;
+                return statement(statement, sql, journal);
+            }
+            return resultat;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Statement statement(Statement statement, String sql, JournalRequetes journal) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+            : statement instanceof PreparedStatement ? PreparedStatement.class
+            : Statement.class;
+        return proxy((Class<Statement>) type, statement, new ExecutionHandler(sql, journal));
+    }
+
+    /**
+     * État d'un Statement : texte préparé et valeurs liées depuis la dernière exécution
+     */
+    private static final class ExecutionHandler implements Handler<Statement> {
+
+        private final String sqlPrepare;
+        private final JournalRequetes journal;
+        private final List<Object> parametres = new ArrayList<>();
+        private Lecture lecture;
+
+        ExecutionHandler(String sqlPrepare, JournalRequetes journal) {
+            this.sqlPrepare = sqlPrepare;
+            this.journal = journal;
+        }
+
+        @Override
+        public Object invoquer(Statement cible, Method methode, Object[] args) throws Throwable {
+            String nom = methode.getName();
+            if (nom.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                lier(index, nom.equals("setNull") ? null : args[1]);
+            } else if (nom.equals("clearParameters")) {
+                parametres.clear();
+            }
+            if (nom.equals("close")) {
+                terminerLecture();
+            }
+            if (!EXECUTIONS.contains(nom)) {
+                return JdbcJournalise.invoquer(cible, methode, args);
+            }
+            terminerLecture();
+
+            long debut = System.nanoTime();
+            Object resultat = JdbcJournalise.invoquer(cible, methode, args);
+            long duree = System.nanoTime() - debut;
+            if (!journal.retenir(duree)) {
+                return resultat;
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String texte ? texte : sqlPrepare;
+            String appelant = journal.appelant();
+            List<Object> valeurs = Collections.unmodifiableList(new ArrayList<>(parametres));
+            if (resultat instanceof ResultSet resultSet) {
+                lecture = new Lecture(lignes -> journal.journaliser(
+                    new RequeteJournalisee(sql, valeurs, lignes, duree, appelant)));
+                return lecture.envelopper(resultSet);
+            }
+            journal.journaliser(new RequeteJournalisee(sql, valeurs, lignes(resultat, cible), duree, appelant));
+            return resultat;
+        }
+
+        private void terminerLecture() {
+            if (lecture != null) {
+                lecture.publier();
+                lecture = null;
+            }
+        }
+
+        private void lier(int index, Object valeur) {
+            while (parametres.size() < index) {
+                parametres.add(null);
+            }
+            parametres.set(index - 1, valeur);
+        }
+
+        private static long lignes(Object resultat, Statement statement) throws Exception {
+            if (resultat instanceof Number nombre) {
+                return nombre.longValue();
+            }
+            if (resultat instanceof int[] lot) {
+                return Arrays.stream(lot).filter(n -> n > 0).asLongStream().sum();
+            }
+            if (resultat instanceof long[] lot) {
+                return Arrays.stream(lot).filter(n -> n > 0).sum();
+            }
+            if (Boolean.FALSE.equals(resultat)) {
+                return statement.getLargeUpdateCount();
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Lignes lues d'un ResultSet, publiées une seule fois : à sa fermeture ou à celle de son Statement
+     */
+    private static final class Lecture {
+
+        private final LongConsumer publication;
+        private long lues;
+        private boolean publiee;
+
+        Lecture(LongConsumer publication) {
+            this.publication = publication;
+        }
+
+        ResultSet envelopper(ResultSet resultSet) {
+            return proxy(ResultSet.class, resultSet, (cible, methode, args) -> {
+                Object resultat = invoquer(cible, methode, args);
+                switch (methode.getName()) {
+                    case "next" -> {
+                        if (Boolean.TRUE.equals(resultat)) {
+                            lues++;
+                        }
+                    }
+                    case "close" -> publier();
+                    default -> {
+                    }
+                }
+                return resultat;
+            });
+        }
+
+        void publier() {
+            if (!publiee) {
+                publiee = true;
+                publication.accept(lues);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler<T> {
+        Object invoquer(T cible, Method methode, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T cible, Handler<? super T> handler) {
+        InvocationHandler invocation = (proxy, methode, args) -> {
+            // unwrap / isWrapperFor : les appelants qui cherchent l'objet natif l'obtiennent directement
+            if (methode.getDeclaringClass() == Wrapper.class) {
+                return invoquer(cible, methode, args);
+            }
+            return handler.invoquer(cible, methode, args);
+        };
+        return (T) Proxy.newProxyInstance(JdbcJournalise.class.getClassLoader(), new Class<?>[] {type}, invocation);
+    }
+
+    private static Object invoquer(Object cible, Method methode, Object[] args) throws Throwable {
+        try {
+            return methode.invoke(cible, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.BFB.automobile.data.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Journal des requêtes SQL lentes ou échantillonnées, alimenté par les proxies JDBC ({@link JdbcJournalise})
+ *
+ * Une requête est journalisée si son exécution dépasse le seuil, ou sinon avec la probabilité
+ * d'échantillonnage. La décision est prise après l'exécution, à partir de sa seule durée :
+ * les requêtes écartées ne coûtent que la mesure du temps et la mémorisation des paramètres.
+ * Le texte n'est formaté, et l'appelant recherché dans la pile, que pour les requêtes retenues.
+ *
+ * Les valeurs liées contiennent des données personnelles (nom, permis, adresse des clients) :
+ * par défaut seul leur type est écrit, les valeurs ne le sont qu'à la demande (débogage).
+ *
+ * Le logger est relié à un appender asynchrone (logback-spring.xml) : le thread de la requête
+ * dépose l'événement dans une file sans attendre l'écriture.
+ */
+public class JournalRequetes {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalRequetes.class);
+
+    private static final String PAQUET_REPOSITORIES = "com.BFB.automobile.data.repository";
+    private static final String PAQUET_APPLICATION = "com.BFB.automobile";
+    private static final int LONGUEUR_MAX_PARAMETRE = 100;
+
+    private static final StackWalker PILE = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final long seuilNanos;
+    private final double echantillonnage;
+    private final boolean parametresVisibles;
+
+    /**
+     * @param seuilMs Durée à partir de laquelle une requête est toujours journalisée
+     * @param echantillonnage Part des autres requêtes journalisées, entre 0 et 1
+     * @param parametresVisibles Écrire les valeurs liées plutôt que leur seul type
+     */
+    public JournalRequetes(long seuilMs, double echantillonnage, boolean parametresVisibles) {
+        this.seuilNanos = TimeUnit.MILLISECONDS.toNanos(seuilMs);
+        this.echantillonnage = echantillonnage;
+        this.parametresVisibles = parametresVisibles;
+    }
+
+    /**
+     * Indique si une requête exécutée en dureeNanos doit être journalisée
+     */
+    public boolean retenir(long dureeNanos) {
+        return dureeNanos >= seuilNanos
+            || (echantillonnage > 0 && ThreadLocalRandom.current().nextDouble() < echantillonnage);
+    }
+
+    /**
+     * Recherche la méthode de repository à l'origine de la requête (à appeler sur le thread de la requête)
+     */
+    public String appelant() {
+        return PILE.walk(frames -> frames
+            .map(this::decrireFrame)
+            .flatMap(Optional::stream)
+            .findFirst())
+            .orElse("?");
+    }
+
+    public void journaliser(RequeteJournalisee requete) {
+        if (log.isInfoEnabled()) {
+            log.info("{} ({} ms, {} lignes) {} : {} | paramètres {}",
+                requete.dureeNanos() >= seuilNanos ? "Requête lente" : "Requête échantillonnée",
+                TimeUnit.NANOSECONDS.toMillis(requete.dureeNanos()),
+                requete.lignes() < 0 ? "?" : requete.lignes(),
+                requete.appelant(),
+                requete.sql(),
+                formater(requete.parametres()));
+        }
+    }
+
+    /**
+     * Les repositories Spring Data sont des proxies JDK : leur frame porte le nom de la méthode
+     * appelée mais la classe du proxy, dont on retrouve l'interface de repository.
+     * À défaut (chargement paresseux, flush à la validation, JdbcTemplate), première classe
+     * de l'application hors de ce paquet.
+     */
+    private Optional<String> decrireFrame(StackWalker.StackFrame frame) {
+        Class<?> classe = frame.getDeclaringClass();
+        if (Proxy.isProxyClass(classe)) {
+            return Arrays.stream(classe.getInterfaces())
+                .filter(i -> i.getPackageName().equals(PAQUET_REPOSITORIES))
+                .findFirst()
+                .map(i -> i.getSimpleName() + "." + frame.getMethodName());
+        }
+        if (classe.getPackageName().startsWith(PAQUET_APPLICATION)
+                && !classe.getPackageName().equals(JournalRequetes.class.getPackageName())) {
+            return Optional.of(nomSimple(classe) + "." + frame.getMethodName());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Nom de la classe sans le suffixe des sous-classes générées (proxies Hibernate, CGLIB)
+     */
+    private static String nomSimple(Class<?> classe) {
+        String nom = classe.getSimpleName();
+        int suffixe = nom.indexOf('$');
+        return suffixe > 0 ? nom.substring(0, suffixe) : nom;
+    }
+
+    String formater(List<Object> parametres) {
+        return parametres.stream()
+            .map(p -> {
+                if (!parametresVisibles) {
+                    return p == null ? "null" : p.getClass().getSimpleName();
+                }
+                String texte = String.valueOf(p);
+                return texte.length() > LONGUEUR_MAX_PARAMETRE
+                    ? texte.substring(0, LONGUEUR_MAX_PARAMETRE) + "…"
+                    : texte;
+            })
+            .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    /**
+     * @param sql Texte de la requête
+     * @param parametres Valeurs liées, dans l'ordre des paramètres (dernier jeu pour un lot)
+     * @param lignes Lignes lues ou modifiées, -1 si inconnu
+     * @param dureeNanos Durée d'exécution
+     * @param appelant Méthode de repository (ou classe applicative) à l'origine de la requête
+     */
+    public record RequeteJournalisee(String sql,
+                                     List<Object> parametres,
+                                     long lignes,
+                                     long dureeNanos,
+                                     String appelant) {
+    }
+}
@@ -0,0 +1,244 @@
+package com.BFB.automobile.data.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal binaire en ajout seul, découpé en segments de taille fixe projetés en mémoire
+ *
+ * Chaque segment est un fichier segment-NNNNNN.journal préalloué et projeté (mmap) : un ajout
+ * n'est qu'une copie en mémoire, sans appel système. Le système écrit les pages sur disque ;
+ * {@link #synchroniser()} force l'écriture (à la rotation, à la fermeture et à intervalle
+ * régulier). Un arrêt brutal du processus ne perd rien, un arrêt du système peut perdre
+ * les ajouts postérieurs à la dernière synchronisation.
+ *
+ * Format : en-tête de 8 octets (signature, version), puis des enregistrements alignés sur
+ * 8 octets : longueur (int), CRC32C du contenu (int), contenu. La longueur est écrite en
+ * dernier : une longueur nulle marque la fin des données. À l'ouverture, le dernier segment
+ * est relu jusqu'au premier enregistrement incomplet ou dont la somme de contrôle est fausse ;
+ * la suite, écriture interrompue, est effacée.
+ *
+ * Un point de reprise ({@link #ajouterPointDeReprise}) rend inutiles les enregistrements
+ * précédents : une fois écrit sur disque, les segments clos sont supprimés, et le journal
+ * ne grossit plus qu'entre deux points de reprise.
+ *
+ * Les ajouts sont sérialisés ; la lecture d'un segment clos peut se faire en parallèle.
+ */
+public final class JournalSegmente implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalSegmente.class);
+
+    private static final int SIGNATURE = 0x42464A54;
+    private static final int VERSION = 1;
+    private static final int ENTETE = 8;
+    private static final int ENTETE_ENREGISTREMENT = 8;
+    private static final Pattern NOM_SEGMENT = Pattern.compile("segment-(\\d{6})\\.journal");
+
+    /**
+     * Reçoit les enregistrements lus, dans l'ordre d'écriture
+     */
+    @FunctionalInterface
+    public interface Lecteur {
+        /**
+         * @param contenu Contenu de l'enregistrement (lecture seule, valide pendant l'appel)
+         */
+        void lire(ByteBuffer contenu);
+    }
+
+    private final Path repertoire;
+    private final int tailleSegment;
+    private final List<Path> segments = new ArrayList<>();
+
+    private MappedByteBuffer courant;
+    private int position;
+
+    /**
+     * @param repertoire Répertoire des segments, créé au besoin
+     * @param tailleSegment Taille d'un segment en octets
+     */
+    public JournalSegmente(Path repertoire, int tailleSegment) throws IOException {
+        if (tailleSegment < 4096 || tailleSegment % 8 != 0) {
+            throw new IllegalArgumentException("Taille de segment invalide : " + tailleSegment);
+        }
+        this.repertoire = repertoire;
+        this.tailleSegment = tailleSegment;
+        Files.createDirectories(repertoire);
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            fichiers.filter(f -> NOM_SEGMENT.matcher(f.getFileName().toString()).matches())
+                .sorted()
+                .forEach(segments::add);
+        }
+        if (segments.isEmpty()) {
+            nouveauSegment();
+        } else {
+            reprendre(segments.get(segments.size() - 1));
+        }
+    }
+
+    /**
+     * Ajoute un enregistrement (contenu restant du tampon), en changeant de segment s'il est plein
+     */
+    public synchronized void ajouter(ByteBuffer contenu) throws IOException {
+        int longueur = contenu.remaining();
+        int taille = aligner(ENTETE_ENREGISTREMENT + longueur);
+        if (longueur == 0 || taille > tailleSegment - ENTETE) {
+            throw new IllegalArgumentException("Enregistrement de " + longueur + " octets hors limites");
+        }
+        if (position + taille > courant.capacity()) {
+            courant.force();
+            nouveauSegment();
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(contenu.duplicate());
+        courant.put(position + ENTETE_ENREGISTREMENT, contenu, contenu.position(), longueur);
+        courant.putInt(position + 4, (int) crc.getValue());
+        courant.putInt(position, longueur);
+        position += taille;
+    }
+
+    /**
+     * Ajoute un enregistrement qui remplace tous les précédents, force son écriture sur disque,
+     * puis supprime les segments clos (tous sauf le courant, qui le contient)
+     *
+     * @return Le nombre de segments supprimés
+     */
+    public synchronized int ajouterPointDeReprise(ByteBuffer contenu) throws IOException {
+        ajouter(contenu);
+        // Le point de reprise doit survivre à un arrêt du système avant d'effacer ce qu'il remplace
+        courant.force();
+        int supprimes = 0;
+        while (segments.size() > 1) {
+            Files.deleteIfExists(segments.get(0));
+            segments.remove(0);
+            supprimes++;
+        }
+        return supprimes;
+    }
+
+    /**
+     * Nombre de segments, le dernier étant celui en cours d'écriture
+     */
+    public synchronized int segments() {
+        return segments.size();
+    }
+
+    /**
+     * Relit les enregistrements d'un segment, dans l'ordre d'écriture
+     *
+     * @param segment Rang du segment, de 0 à segments() - 1
+     */
+    public void lire(int segment, Lecteur lecteur) throws IOException {
+        ByteBuffer donnees;
+        synchronized (this) {
+            if (segment == segments.size() - 1) {
+                donnees = courant.duplicate().limit(position);
+            } else {
+                donnees = projeter(segments.get(segment), FileChannel.MapMode.READ_ONLY);
+            }
+        }
+        parcourir(donnees, lecteur);
+    }
+
+    /**
+     * Force l'écriture sur disque des ajouts du segment courant
+     */
+    public synchronized void synchroniser() {
+        courant.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        courant.force();
+    }
+
+    /**
+     * Parcourt les enregistrements valides et renvoie la position qui suit le dernier
+     */
+    private static int parcourir(ByteBuffer donnees, Lecteur lecteur) {
+        int pos = ENTETE;
+        CRC32C crc = new CRC32C();
+        while (pos + ENTETE_ENREGISTREMENT <= donnees.limit()) {
+            int longueur = donnees.getInt(pos);
+            if (longueur <= 0 || pos + ENTETE_ENREGISTREMENT + longueur > donnees.limit()) {
+                break;
+            }
+            ByteBuffer contenu = donnees.slice(pos + ENTETE_ENREGISTREMENT, longueur).asReadOnlyBuffer();
+            crc.reset();
+            crc.update(contenu.duplicate());
+            if ((int) crc.getValue() != donnees.getInt(pos + 4)) {
+                break;
+            }
+            if (lecteur != null) {
+                lecteur.lire(contenu);
+            }
+            pos += aligner(ENTETE_ENREGISTREMENT + longueur);
+        }
+        return pos;
+    }
+
+    private void reprendre(Path fichier) throws IOException {
+        courant = projeter(fichier, FileChannel.MapMode.READ_WRITE);
+        if (courant.getInt(0) != SIGNATURE || courant.getInt(4) != VERSION) {
+            throw new IOException("Segment de journal illisible : " + fichier);
+        }
+        position = parcourir(courant, null);
+        // Au-delà : zéros, ou écriture interrompue à effacer
+        if (position + 4 <= courant.capacity() && courant.getInt(position) != 0) {
+            log.warn("Journal {} : enregistrement incomplet ou altéré à la position {}, ignoré", fichier, position);
+            for (int pos = position; pos + 8 <= courant.capacity(); pos += 8) {
+                courant.putLong(pos, 0);
+            }
+            courant.force();
+        }
+    }
+
+    private void nouveauSegment() throws IOException {
+        int numero = segments.isEmpty() ? 1 : numero(segments.get(segments.size() - 1)) + 1;
+        Path fichier = repertoire.resolve(String.format("segment-%06d.journal", numero));
+        courant = projeter(fichier, FileChannel.MapMode.READ_WRITE);
+        courant.putInt(0, SIGNATURE);
+        courant.putInt(4, VERSION);
+        position = ENTETE;
+        segments.add(fichier);
+    }
+
+    private MappedByteBuffer projeter(Path fichier, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+            ? new StandardOpenOption[] {StandardOpenOption.READ}
+            : new StandardOpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE};
+        // La projection reste valide une fois le canal fermé
+        try (FileChannel canal = FileChannel.open(fichier, options)) {
+            // Un segment existant garde sa taille, même si la taille configurée a changé
+            long taille = mode == FileChannel.MapMode.READ_ONLY ? canal.size() : Math.max(canal.size(), tailleSegment);
+            return canal.map(mode, 0, taille);
+        }
+    }
+
+    private static int numero(Path fichier) {
+        Matcher m = NOM_SEGMENT.matcher(fichier.getFileName().toString());
+        if (!m.matches()) {
+            throw new IllegalStateException(fichier.toString());
+        }
+        return Integer.parseInt(m.group(1));
+    }
+
+    private static int aligner(int taille) {
+        return (taille + 7) & ~7;
+    }
+}
@@ -62,4 +62,11 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     List<Client> searchByNomAndPrenom(
         @Param("nom") String nom, 
         @Param("prenom") String prenom);
+    
+    /**
+     * Clés d'unicité de tous les clients (numéro de permis, nom, prénom, date de naissance)
+     * chargées en une seule requête pour l'import en masse
+     */
+    @Query("SELECT c.numeroPermis, c.nom, c.prenom, c.dateNaissance FROM Client c")
+    List<Object[]> findClesUnicite();
 }
@@ -0,0 +1,18 @@
+package com.BFB.automobile.data.repository;
+
+import com.BFB.automobile.data.ContratArchive;
+import com.BFB.automobile.data.EtatContrat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository des contrats archivés (lecture seule)
+ */
+@Repository
+public interface ContratArchiveRepository extends JpaRepository<ContratArchive, Long> {
+
+    /**
+     * Compte le nombre de contrats archivés par état
+     */
+    long countByEtat(EtatContrat etat);
+}
@@ -4,12 +4,15 @@ import com.BFB.automobile.data.Contrat;
 import com.BFB.automobile.data.EtatContrat;
 import com.BFB.automobile.data.Vehicule;
 import com.BFB.automobile.data.Client;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -39,6 +42,42 @@ public interface ContratRepository extends JpaRepository<Contrat, Long> {
      */
     List<Contrat> findByVehiculeIdOrderByDateDebutDesc(Long vehiculeId);
     
+    /** Colonnes communes aux tables contrats et contrats_archive */
+    String COLONNES = "id, date_debut, date_fin, etat, client_id, vehicule_id, " +
+                      "commentaire, date_creation, date_modification";
+    
+    /**
+     * Historique complet d'un client : contrats courants et archivés, du plus récent au plus ancien
+     * 
+     * Les lignes archivées sont relues comme des Contrat (mêmes colonnes, identifiants
+     * distincts) : à n'utiliser que dans une transaction en lecture seule.
+     */
+    @Query(value = "SELECT " + COLONNES + " FROM contrats WHERE client_id = :clientId " +
+           "UNION ALL SELECT " + COLONNES + " FROM contrats_archive WHERE client_id = :clientId " +
+           "ORDER BY date_debut DESC, id DESC",
+           countQuery = "SELECT (SELECT COUNT(*) FROM contrats WHERE client_id = :clientId) + " +
+           "(SELECT COUNT(*) FROM contrats_archive WHERE client_id = :clientId)",
+           nativeQuery = true)
+    Page<Contrat> findHistoriqueClient(@Param("clientId") Long clientId, Pageable pageable);
+    
+    /**
+     * Historique complet d'un véhicule : contrats courants et archivés, du plus récent au plus ancien
+     * (mêmes précautions que findHistoriqueClient)
+     */
+    @Query(value = "SELECT " + COLONNES + " FROM contrats WHERE vehicule_id = :vehiculeId " +
+           "UNION ALL SELECT " + COLONNES + " FROM contrats_archive WHERE vehicule_id = :vehiculeId " +
+           "ORDER BY date_debut DESC, id DESC",
+           countQuery = "SELECT (SELECT COUNT(*) FROM contrats WHERE vehicule_id = :vehiculeId) + " +
+           "(SELECT COUNT(*) FROM contrats_archive WHERE vehicule_id = :vehiculeId)",
+           nativeQuery = true)
+    Page<Contrat> findHistoriqueVehicule(@Param("vehiculeId") Long vehiculeId, Pageable pageable);
+    
+    /**
+     * Contrats par identifiants, avec leur client et leur véhicule (en une requête)
+     */
+    @Query("SELECT c FROM Contrat c JOIN FETCH c.client JOIN FETCH c.vehicule WHERE c.id IN :ids")
+    List<Contrat> findAllAvecClientEtVehicule(@Param("ids") Collection<Long> ids);
+    
     /**
      * Recherche par état
      */
@@ -62,6 +101,50 @@ public interface ContratRepository extends JpaRepository<Contrat, Long> {
         @Param("dateDebut") LocalDate dateDebut,
         @Param("dateFin") LocalDate dateFin);
     
+    /** Bit positionné par existeConflits si le véhicule est déjà réservé sur la période */
+    int CONFLIT_VEHICULE = 1;
+    
+    /** Bit positionné par existeConflits si le client a déjà un contrat sur la période */
+    int CONFLIT_CLIENT = 2;
+    
+    /**
+     * Vérifie en un seul aller-retour la disponibilité du véhicule et du client sur une période
+     * (exclut les contrats annulés et terminés)
+     * 
+     * Chaque EXISTS s'appuie sur l'index de sa clé étrangère et s'arrête à la première
+     * ligne trouvée : aucun contrat n'est chargé.
+     * 
+     * @param contratId Contrat à ignorer (celui en cours de modification), null à la création
+     * @return Combinaison de CONFLIT_VEHICULE et CONFLIT_CLIENT (0 si aucun conflit)
+     */
+    @Query(value = "SELECT " +
+           "CASE WHEN EXISTS (SELECT 1 FROM contrats c WHERE c.vehicule_id = :vehiculeId " +
+           "  AND c.etat NOT IN ('ANNULE', 'TERMINE') AND c.id <> COALESCE(:contratId, -1) " +
+           "  AND c.date_debut <= :dateFin AND c.date_fin >= :dateDebut) THEN 1 ELSE 0 END + " +
+           "CASE WHEN EXISTS (SELECT 1 FROM contrats c WHERE c.client_id = :clientId " +
+           "  AND c.etat NOT IN ('ANNULE', 'TERMINE') AND c.id <> COALESCE(:contratId, -1) " +
+           "  AND c.date_debut <= :dateFin AND c.date_fin >= :dateDebut) THEN 2 ELSE 0 END",
+           nativeQuery = true)
+    int existeConflits(
+        @Param("contratId") Long contratId,
+        @Param("vehiculeId") Long vehiculeId,
+        @Param("clientId") Long clientId,
+        @Param("dateDebut") LocalDate dateDebut,
+        @Param("dateFin") LocalDate dateFin);
+    
+    /**
+     * Périodes réservées (véhicule, début, fin) de plusieurs véhicules sur une fenêtre
+     * (exclut les contrats annulés et terminés), en une seule requête
+     */
+    @Query("SELECT c.vehicule.id, c.dateDebut, c.dateFin FROM Contrat c " +
+           "WHERE c.vehicule.id IN :vehiculeIds " +
+           "AND c.etat NOT IN ('ANNULE', 'TERMINE') " +
+           "AND c.dateDebut <= :finFenetre AND c.dateFin >= :debutFenetre")
+    List<Object[]> findPeriodesReservees(
+        @Param("vehiculeIds") Collection<Long> vehiculeIds,
+        @Param("debutFenetre") LocalDate debutFenetre,
+        @Param("finFenetre") LocalDate finFenetre);
+    
     /**
      * Trouve les contrats en attente pour un véhicule spécifique
      */
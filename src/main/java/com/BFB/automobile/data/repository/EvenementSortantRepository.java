@@ -0,0 +1,36 @@
+package com.BFB.automobile.data.repository;
+
+import com.BFB.automobile.data.EvenementSortant;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository de la boîte d'envoi des événements
+ */
+@Repository
+public interface EvenementSortantRepository extends JpaRepository<EvenementSortant, Long> {
+
+    /**
+     * Événements postérieurs à une position, dans l'ordre d'écriture
+     */
+    List<EvenementSortant> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    @Query("SELECT MIN(e.id) FROM EvenementSortant e")
+    Long premierId();
+
+    @Query("SELECT MAX(e.id) FROM EvenementSortant e")
+    Long dernierId();
+
+    /**
+     * Supprime les événements écrits avant une date (en millisecondes depuis l'epoch)
+     */
+    @Modifying
+    @Query("DELETE FROM EvenementSortant e WHERE e.instant < :limite")
+    int supprimerAvant(@Param("limite") long limite);
+}
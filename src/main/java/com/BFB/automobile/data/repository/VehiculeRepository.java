@@ -60,4 +60,10 @@ public interface VehiculeRepository extends JpaRepository<Vehicule, Long> {
      * Compte le nombre de véhicules par état
      */
     long countByEtat(EtatVehicule etat);
+    
+    /**
+     * Toutes les immatriculations (pour l'import en masse)
+     */
+    @Query("SELECT v.immatriculation FROM Vehicule v")
+    List<String> findAllImmatriculations();
 }
@@ -0,0 +1,42 @@
+package com.BFB.automobile.data.routage;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Mesure du retard de la réplique par battement
+ *
+ * À chaque battement, l'heure courante est écrite sur la base principale, puis relue
+ * sur la réplique : l'écart avec l'heure de la dernière valeur répliquée est le retard.
+ * Une réplique synchrone mesure 0, une réplique asynchrone à jour environ une période
+ * de battement ; une réplique arrêtée voit son retard croître jusqu'à dépasser le seuil,
+ * et les lectures repassent sur la base principale.
+ */
+public class BattementReplique {
+
+    static final String TABLE = "replication_battement";
+
+    private final RoutageDataSource routage;
+    private final JdbcTemplate primaire;
+    private final JdbcTemplate replique;
+
+    public BattementReplique(RoutageDataSource routage) {
+        this.routage = routage;
+        this.primaire = new JdbcTemplate(routage.getPrimaire());
+        this.replique = new JdbcTemplate(routage.getReplique());
+        primaire.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (id INT PRIMARY KEY, instant BIGINT NOT NULL)");
+    }
+
+    @Scheduled(fixedDelayString = "${bfb.routage.battement-ms:500}")
+    public void battre() {
+        long maintenant = System.currentTimeMillis();
+        try {
+            primaire.update("MERGE INTO " + TABLE + " KEY (id) VALUES (1, ?)", maintenant);
+            Long repliquee = replique.queryForObject("SELECT MAX(instant) FROM " + TABLE, Long.class);
+            routage.enregistrerRetard(repliquee == null ? Long.MAX_VALUE : Math.max(0, maintenant - repliquee));
+        } catch (DataAccessException e) {
+            routage.enregistrerRetard(Long.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.BFB.automobile.data.routage;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lecture qui doit voir les dernières écritures : exécutée sur la base principale même
+ * dans une transaction en lecture seule (voir {@link RoutageDataSource})
+ *
+ * La connexion est choisie à la première requête de la transaction : l'annotation doit
+ * porter sur la méthode qui ouvre la transaction, ou sur un appelant.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LecturePrimaire {
+}
@@ -0,0 +1,307 @@
+package com.BFB.automobile.data.routage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Wrapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Réplication asynchrone, par instructions, d'une base H2 vers une autre (essais locaux du routage)
+ *
+ * Les connexions de la base principale sont enveloppées : chaque écriture exécutée avec succès
+ * (INSERT, UPDATE, DELETE, MERGE, DDL) est mémorisée avec ses paramètres, puis publiée à la
+ * validation de la transaction (aussitôt en auto-commit) et abandonnée à son annulation.
+ * Un thread unique rejoue les transactions publiées sur la réplique, dans l'ordre, après
+ * le délai éventuel : la réplique a le retard d'une vraie réplique asynchrone.
+ *
+ * Limites, acceptables pour des essais : les valeurs non déterministes calculées par la base
+ * (séquences, RAND) ne sont pas reproduites à l'identique, l'annulation partielle
+ * (savepoint) n'est pas suivie et seule la base vidée au démarrage peut être répliquée.
+ */
+public final class ReplicationLocale implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationLocale.class);
+
+    private static final Pattern ECRITURE = Pattern.compile(
+        "^\\s*(INSERT|UPDATE|DELETE|MERGE|CREATE|ALTER|DROP|TRUNCATE)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final DataSource replique;
+    private final long delaiMs;
+    private final ExecutorService applicateur = Executors.newSingleThreadExecutor(tache -> {
+        Thread thread = new Thread(tache, "replication-locale");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Publie les transactions dans l'ordre où elles sont validées */
+    private final ReentrantLock publication = new ReentrantLock();
+
+    /**
+     * @param replique Base rejouant les écritures
+     * @param delaiMs Délai minimal entre la validation sur la base principale et l'application sur la réplique
+     */
+    public ReplicationLocale(DataSource replique, long delaiMs) {
+        this.replique = replique;
+        this.delaiMs = delaiMs;
+    }
+
+    public DataSource envelopper(DataSource primaire) {
+        return proxy(DataSource.class, primaire, (cible, methode, args) -> {
+            Object resultat = invoquer(cible, methode, args);
+            return resultat instanceof Connection connexion ? new Transaction(connexion).proxy : resultat;
+        });
+    }
+
+    /**
+     * Attend que les transactions déjà publiées soient appliquées sur la réplique
+     */
+    public void attendre() throws InterruptedException {
+        try {
+            applicateur.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        applicateur.shutdown();
+        if (!applicateur.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Réplication locale arrêtée avant d'avoir appliqué toutes les transactions");
+            applicateur.shutdownNow();
+        }
+    }
+
+    private void publier(List<Ecriture> ecritures) {
+        if (ecritures.isEmpty()) {
+            return;
+        }
+        List<Ecriture> transaction = List.copyOf(ecritures);
+        long validee = System.currentTimeMillis();
+        applicateur.execute(() -> appliquer(transaction, validee));
+    }
+
+    private void appliquer(List<Ecriture> transaction, long validee) {
+        try {
+            long attente = validee + delaiMs - System.currentTimeMillis();
+            if (attente > 0) {
+                Thread.sleep(attente);
+            }
+            try (Connection connexion = replique.getConnection()) {
+                connexion.setAutoCommit(false);
+                for (Ecriture ecriture : transaction) {
+                    ecriture.rejouer(connexion);
+                }
+                connexion.commit();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Réplication locale : transaction non appliquée sur la réplique ({})", transaction.get(0).sql(), e);
+        }
+    }
+
+    /**
+     * Écritures d'une connexion depuis la dernière validation
+     */
+    private final class Transaction {
+
+        private final Connection proxy;
+        private final List<Ecriture> enAttente = new ArrayList<>();
+        private boolean autoCommit;
+
+        Transaction(Connection connexion) throws SQLException {
+            this.autoCommit = connexion.getAutoCommit();
+            this.proxy = proxy(Connection.class, connexion, this::invoquerConnexion);
+        }
+
+        private Object invoquerConnexion(Connection cible, Method methode, Object[] args) throws Throwable {
+            switch (methode.getName()) {
+                case "commit" -> {
+                    publication.lock();
+                    try {
+                        Object resultat = invoquer(cible, methode, args);
+                        publier(enAttente);
+                        return resultat;
+                    } finally {
+                        enAttente.clear();
+                        publication.unlock();
+                    }
+                }
+                case "rollback" -> {
+                    if (args == null) {
+                        enAttente.clear();
+                    }
+                    return invoquer(cible, methode, args);
+                }
+                case "setAutoCommit" -> {
+                    boolean active = (Boolean) args[0];
+                    if (!active || autoCommit) {
+                        autoCommit = active;
+                        return invoquer(cible, methode, args);
+                    }
+                    // Passer en auto-commit valide la transaction en cours
+                    publication.lock();
+                    try {
+                        Object resultat = invoquer(cible, methode, args);
+                        publier(enAttente);
+                        autoCommit = true;
+                        return resultat;
+                    } finally {
+                        enAttente.clear();
+                        publication.unlock();
+                    }
+                }
+                case "close" -> {
+                    enAttente.clear();
+                    return invoquer(cible, methode, args);
+                }
+                default -> {
+                    Object resultat = invoquer(cible, methode, args);
+                    if (resultat instanceof CallableStatement) {
+                        return resultat;
+                    }
+                    if (resultat instanceof PreparedStatement statement) {
+                        return proxy(PreparedStatement.class, statement, new Execution((String) args[0]));
+                    }
+                    if (resultat instanceof Statement statement) {
+                        return proxy(Statement.class, statement, new Execution(null));
+                    }
+                    return resultat;
+                }
+            }
+        }
+
+        private void executee(List<Ecriture> ecritures) {
+            if (ecritures.isEmpty()) {
+                return;
+            }
+            if (autoCommit) {
+                publication.lock();
+                try {
+                    publier(ecritures);
+                } finally {
+                    publication.unlock();
+                }
+            } else {
+                enAttente.addAll(ecritures);
+            }
+        }
+
+        /**
+         * Paramètres liés et lot en cours d'un Statement
+         */
+        private final class Execution implements Handler<Statement> {
+
+            private final String sqlPrepare;
+            private final List<Liaison> liaisons = new ArrayList<>();
+            private final List<Ecriture> lot = new ArrayList<>();
+
+            Execution(String sqlPrepare) {
+                this.sqlPrepare = sqlPrepare;
+            }
+
+            @Override
+            public Object invoquer(Statement cible, Method methode, Object[] args) throws Throwable {
+                String nom = methode.getName();
+                Object resultat = ReplicationLocale.invoquer(cible, methode, args);
+                boolean texteFourni = args != null && args.length > 0 && args[0] instanceof String;
+                String sql = texteFourni ? (String) args[0] : sqlPrepare;
+                switch (nom) {
+                    case "clearParameters" -> liaisons.clear();
+                    case "addBatch" -> ajouter(lot, sql, !texteFourni);
+                    case "clearBatch" -> lot.clear();
+                    case "executeBatch", "executeLargeBatch" -> {
+                        executee(new ArrayList<>(lot));
+                        lot.clear();
+                    }
+                    case "execute", "executeUpdate", "executeLargeUpdate", "executeQuery" -> {
+                        List<Ecriture> ecriture = new ArrayList<>(1);
+                        ajouter(ecriture, sql, !texteFourni);
+                        executee(ecriture);
+                    }
+                    default -> {
+                        if (nom.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            liaisons.add(new Liaison(methode, args.clone()));
+                        }
+                    }
+                }
+                return resultat;
+            }
+
+            private void ajouter(List<Ecriture> ecritures, String sql, boolean preparee) {
+                if (sql != null && ECRITURE.matcher(sql).find()) {
+                    ecritures.add(new Ecriture(sql, preparee ? List.copyOf(liaisons) : null));
+                }
+            }
+        }
+    }
+
+    /**
+     * Appel setXxx(index, valeur...) à rejouer sur le PreparedStatement de la réplique
+     */
+    private record Liaison(Method methode, Object[] args) {
+    }
+
+    /**
+     * Écriture à rejouer : texte SQL, et paramètres liés s'il s'agit d'une requête préparée
+     */
+    private record Ecriture(String sql, List<Liaison> liaisons) {
+
+        void rejouer(Connection connexion) throws Exception {
+            if (liaisons == null) {
+                try (Statement statement = connexion.createStatement()) {
+                    statement.execute(sql);
+                }
+                return;
+            }
+            try (PreparedStatement statement = connexion.prepareStatement(sql)) {
+                for (Liaison liaison : liaisons) {
+                    liaison.methode().invoke(statement, liaison.args());
+                }
+                statement.execute();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler<T> {
+        Object invoquer(T cible, Method methode, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T cible, Handler<? super T> handler) {
+        InvocationHandler invocation = (proxy, methode, args) -> {
+            if (methode.getDeclaringClass() == Wrapper.class) {
+                return invoquer(cible, methode, args);
+            }
+            return handler.invoquer(cible, methode, args);
+        };
+        return (T) Proxy.newProxyInstance(ReplicationLocale.class.getClassLoader(), new Class<?>[] {type}, invocation);
+    }
+
+    private static Object invoquer(Object cible, Method methode, Object[] args) throws Throwable {
+        try {
+            return methode.invoke(cible, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
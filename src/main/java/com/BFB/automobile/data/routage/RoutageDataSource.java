@@ -0,0 +1,127 @@
+package com.BFB.automobile.data.routage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataSource aiguillant les transactions en lecture seule vers la réplique,
+ * et tout le reste (écritures, requêtes hors transaction) vers la base principale
+ *
+ * La connexion n'est réellement obtenue qu'à la première requête (LazyConnectionDataSourceProxy) :
+ * au début de la transaction, Spring n'a pas encore indiqué qu'elle est en lecture seule.
+ *
+ * La réplique n'est utilisée que si son retard, mesuré par {@link BattementReplique},
+ * reste sous le seuil toléré ; tant qu'il est inconnu (démarrage, réplique injoignable),
+ * les lectures restent sur la base principale. Les lectures marquées {@link LecturePrimaire}
+ * (vérifications de conflits, recalage des compteurs) n'y vont jamais.
+ */
+public class RoutageDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutageDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMAIRE_FORCEE = ThreadLocal.withInitial(() -> false);
+
+    enum Cible { PRIMAIRE, REPLIQUE }
+
+    private final DataSource primaire;
+    private final DataSource replique;
+    private final long retardMaxMs;
+    private final List<AutoCloseable> ressources;
+
+    private volatile long retardMs = Long.MAX_VALUE;
+
+    /**
+     * @param primaire Base principale (écritures et lectures exigeant les dernières données)
+     * @param replique Réplique en lecture seule
+     * @param retardMaxMs Retard de la réplique au-delà duquel les lectures repassent sur la base principale
+     * @param ressources Fermées dans l'ordre à la fermeture (réplication, pools)
+     */
+    public RoutageDataSource(DataSource primaire, DataSource replique, long retardMaxMs, AutoCloseable... ressources) {
+        this.primaire = primaire;
+        this.replique = replique;
+        this.retardMaxMs = retardMaxMs;
+        this.ressources = List.of(ressources);
+
+        Aiguillage aiguillage = new Aiguillage();
+        aiguillage.setTargetDataSources(Map.of(Cible.PRIMAIRE, primaire, Cible.REPLIQUE, replique));
+        aiguillage.setDefaultTargetDataSource(primaire);
+        aiguillage.afterPropertiesSet();
+        setTargetDataSource(aiguillage);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Force la base principale pour les connexions obtenues par ce thread
+     *
+     * @return L'état précédent, à rendre à {@link #retablir(boolean)}
+     */
+    public static boolean forcerPrimaire() {
+        boolean precedent = PRIMAIRE_FORCEE.get();
+        PRIMAIRE_FORCEE.set(true);
+        return precedent;
+    }
+
+    public static void retablir(boolean precedent) {
+        PRIMAIRE_FORCEE.set(precedent);
+    }
+
+    /**
+     * Dernier retard mesuré de la réplique (Long.MAX_VALUE si inconnu)
+     */
+    public void enregistrerRetard(long retardMs) {
+        boolean utilisable = retardMs <= retardMaxMs;
+        if (utilisable != (this.retardMs <= retardMaxMs)) {
+            log.info(utilisable
+                ? "Réplique à jour (retard {} ms) : lectures en lecture seule aiguillées vers la réplique"
+                : "Réplique en retard ou injoignable ({} ms) : lectures repliées sur la base principale",
+                retardMs == Long.MAX_VALUE ? "?" : retardMs);
+        }
+        this.retardMs = retardMs;
+    }
+
+    public long getRetardMs() {
+        return retardMs;
+    }
+
+    public DataSource getPrimaire() {
+        return primaire;
+    }
+
+    public DataSource getReplique() {
+        return replique;
+    }
+
+    Cible cibleCourante() {
+        boolean lectureSeule = TransactionSynchronizationManager.isActualTransactionActive()
+            && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return lectureSeule && !PRIMAIRE_FORCEE.get() && retardMs <= retardMaxMs
+            ? Cible.REPLIQUE
+            : Cible.PRIMAIRE;
+    }
+
+    @Override
+    public void close() {
+        for (AutoCloseable ressource : ressources) {
+            try {
+                ressource.close();
+            } catch (Exception e) {
+                log.warn("Fermeture impossible : {}", ressource, e);
+            }
+        }
+    }
+
+    private final class Aiguillage extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return cibleCourante();
+        }
+    }
+}
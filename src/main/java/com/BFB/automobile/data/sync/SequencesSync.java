@@ -0,0 +1,190 @@
+package com.BFB.automobile.data.sync;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Séquence de modification des véhicules, clients et contrats, pour la synchronisation
+ * des clients hors ligne (GET /api/sync)
+ *
+ * Chaque ligne de vehicules, clients et contrats porte une colonne sequence_sync, tirée de
+ * la séquence sync_seq par la base à l'insertion (DEFAULT) et à chaque modification
+ * (ON UPDATE) : les écritures JPA comme les traitements en SQL (états de nuit, génération)
+ * la tiennent à jour sans y penser. Les suppressions (véhicules supprimés, contrats archivés)
+ * laissent une trace datée de la même séquence dans suppressions_sync. Les changements
+ * postérieurs à une position se lisent alors par les index sur sequence_sync, en proportion
+ * de ce qui a changé.
+ *
+ * Une valeur tirée par une transaction encore ouverte peut être validée après des valeurs
+ * plus grandes : les lectures s'arrêtent au filigrane. Chaque relevé note la valeur de la
+ * séquence, puis les sessions qui ont des écritures non validées (INFORMATION_SCHEMA.SESSIONS) :
+ * toute transaction détenant une valeur inférieure en fait partie. Le relevé devient le
+ * filigrane quand aucune de ces sessions n'a plus d'écriture en cours, quelle que soit la durée
+ * de leurs transactions. Une session occupée à chaque relevé retarde le filigrane, sans qu'une
+ * ligne soit jamais sautée. La lecture de toutes les sessions demande un utilisateur
+ * administrateur de la base (sa).
+ *
+ * Les colonnes ne sont pas mappées sur les entités (les historiques relisent contrats sous
+ * forme de Contrat avec les seules colonnes communes à l'archive) ; le schéma est complété
+ * au démarrage, ou par la migration V5 avec le profil "persistant".
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SequencesSync {
+
+    public static final String SEQUENCE = "sync_seq";
+    public static final String SUPPRESSIONS = "suppressions_sync";
+
+    public enum Entite {
+        VEHICULE("vehicules"),
+        CLIENT("clients"),
+        CONTRAT("contrats");
+
+        private final String table;
+
+        Entite(String table) {
+            this.table = table;
+        }
+    }
+
+    /**
+     * Ligne modifiée ou supprimée
+     *
+     * @param sequence Valeur de la séquence à la dernière modification
+     */
+    public record Changement(Entite entite, long id, long sequence, boolean supprime) {
+    }
+
+    private static final String BRANCHE =
+        "(SELECT '%s' AS entite, id, sequence_sync, FALSE AS supprime FROM %s " +
+        "WHERE sequence_sync > :depuis AND sequence_sync <= :jusqua ORDER BY sequence_sync LIMIT :nombre)";
+
+    private static final String BRANCHE_SUPPRESSIONS =
+        "(SELECT entite, entite_id, sequence_sync, TRUE FROM " + SUPPRESSIONS + " " +
+        "WHERE sequence_sync > :depuis AND sequence_sync <= :jusqua ORDER BY sequence_sync LIMIT :nombre)";
+
+    /** Chaque branche est limitée et lue par son index : on ne trie que 4 x nombre lignes */
+    private static final String CHANGEMENTS = String.join(" UNION ALL ",
+            BRANCHE.formatted(Entite.VEHICULE, Entite.VEHICULE.table),
+            BRANCHE.formatted(Entite.CLIENT, Entite.CLIENT.table),
+            BRANCHE.formatted(Entite.CONTRAT, Entite.CONTRAT.table),
+            BRANCHE_SUPPRESSIONS)
+        + " ORDER BY sequence_sync LIMIT :nombre";
+
+    private static final String SUPPRESSION =
+        "INSERT INTO " + SUPPRESSIONS + " (entite, entite_id) VALUES (?, ?)";
+
+    private static final String SESSIONS_EN_COURS =
+        "SELECT SESSION_ID FROM INFORMATION_SCHEMA.SESSIONS WHERE CONTAINS_UNCOMMITTED AND SESSION_ID <> SESSION_ID()";
+
+    /**
+     * @param sessions Sessions qui avaient des écritures non validées au moment du relevé
+     */
+    private record Releve(long valeur, Set<Integer> sessions) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /** Relevés dont des transactions sont encore ouvertes, du plus ancien au plus récent */
+    private final Deque<Releve> releves = new ArrayDeque<>();
+
+    private volatile long filigrane;
+    private volatile long derniereValeur;
+
+    @Autowired
+    public SequencesSync(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        assurerSchema();
+        // Au démarrage, aucune transaction n'est ouverte : premier relevé utilisable aussitôt
+        derniereValeur = valeurCourante() - 1;
+        filigrane = derniereValeur;
+    }
+
+    /**
+     * Relève la séquence ; le plus récent relevé dont toutes les transactions sont terminées
+     * devient le filigrane
+     */
+    @Scheduled(fixedDelayString = "${bfb.sync.releve-ms:1000}")
+    public synchronized void relever() {
+        // Valeur lue avant les sessions : une transaction qui détient une valeur inférieure
+        // a déjà écrit, elle apparaît donc parmi les sessions en cours
+        derniereValeur = valeurCourante() - 1;
+        Set<Integer> enCours = new HashSet<>(jdbcTemplate.queryForList(SESSIONS_EN_COURS, Integer.class));
+        releves.addLast(new Releve(derniereValeur, enCours));
+        while (!releves.isEmpty() && Collections.disjoint(releves.getFirst().sessions(), enCours)) {
+            filigrane = releves.removeFirst().valeur();
+        }
+    }
+
+    /**
+     * Plus grande valeur dont toutes les transactions sont réputées terminées
+     */
+    public long filigrane() {
+        return filigrane;
+    }
+
+    /**
+     * Plus grande valeur déjà relevée : une position au-delà ne vient pas de cette base
+     */
+    public long derniereValeur() {
+        return derniereValeur;
+    }
+
+    /**
+     * Lignes modifiées ou supprimées dans l'intervalle ]depuis, jusqua], dans l'ordre de la séquence
+     */
+    public List<Changement> changements(long depuis, long jusqua, int nombre) {
+        return namedParameterJdbcTemplate.query(CHANGEMENTS, new MapSqlParameterSource()
+                .addValue("depuis", depuis)
+                .addValue("jusqua", jusqua)
+                .addValue("nombre", nombre),
+            (rs, i) -> new Changement(Entite.valueOf(rs.getString(1)), rs.getLong(2), rs.getLong(3), rs.getBoolean(4)));
+    }
+
+    /**
+     * Enregistre des suppressions, dans la transaction en cours
+     */
+    public void supprimes(Entite entite, Collection<Long> ids) {
+        jdbcTemplate.batchUpdate(SUPPRESSION, ids, ids.size(), (ps, id) -> {
+            ps.setString(1, entite.name());
+            ps.setLong(2, id);
+        });
+    }
+
+    private long valeurCourante() {
+        return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + SEQUENCE, Long.class);
+    }
+
+    /**
+     * Complète le schéma s'il ne l'est pas déjà (schéma généré par Hibernate)
+     */
+    private void assurerSchema() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE);
+        for (Entite entite : Entite.values()) {
+            jdbcTemplate.execute("ALTER TABLE " + entite.table + " ADD COLUMN IF NOT EXISTS sequence_sync BIGINT " +
+                "DEFAULT NEXT VALUE FOR " + SEQUENCE + " ON UPDATE NEXT VALUE FOR " + SEQUENCE);
+            jdbcTemplate.update("UPDATE " + entite.table + " SET sequence_sync = NEXT VALUE FOR " + SEQUENCE +
+                " WHERE sequence_sync IS NULL");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + entite.table + "_sync ON " + entite.table + " (sequence_sync)");
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + SUPPRESSIONS + " (" +
+            "sequence_sync BIGINT DEFAULT NEXT VALUE FOR " + SEQUENCE + " PRIMARY KEY, " +
+            "entite VARCHAR(20) NOT NULL, " +
+            "entite_id BIGINT NOT NULL)");
+    }
+}
@@ -2,14 +2,19 @@ package com.BFB.automobile.presentation.controller;
 
 import com.BFB.automobile.business.service.ClientService;
 import com.BFB.automobile.data.Client;
+import com.BFB.automobile.presentation.dto.RapportImportDTO;
+import com.BFB.automobile.presentation.dto.SuggestionDTO;
 import com.BFB.automobile.presentation.dto.ClientDTO;
+import com.BFB.automobile.presentation.importation.LecteurImport;
 import com.BFB.automobile.presentation.mapper.ClientMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,17 +28,22 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*") // À configurer selon les besoins de sécurité
 public class ClientController {
     
+    private static final int LIMITE_MAX_SUGGESTIONS = 50;
+    
     private final ClientService clientService;
     private final ClientMapper clientMapper;
+    private final LecteurImport lecteurImport;
     
     /**
      * Injection par constructeur (immutabilité + testabilité)
      * Spring injecte automatiquement les dépendances (beans Singleton)
      */
     @Autowired
-    public ClientController(ClientService clientService, ClientMapper clientMapper) {
+    public ClientController(ClientService clientService, ClientMapper clientMapper,
+                            LecteurImport lecteurImport) {
         this.clientService = clientService;
         this.clientMapper = clientMapper;
+        this.lecteurImport = lecteurImport;
     }
     
     /**
@@ -63,6 +73,34 @@ public class ClientController {
         return ResponseEntity.ok(dtos);
     }
     
+    /**
+     * GET /api/clients/suggest?q= - Autocomplétion par préfixe (nom ou numéro de permis)
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggerer(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        List<SuggestionDTO> dtos = clientService.suggererClients(q, Math.min(limite, LIMITE_MAX_SUGGESTIONS)).stream()
+                .map(suggestion -> new SuggestionDTO(suggestion.id(), suggestion.libelle()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(dtos);
+    }
+    
+    /**
+     * POST /api/clients/import - Import en masse depuis un fichier CSV (en-tête obligatoire)
+     * ou NDJSON transmis tel quel dans le corps de la requête
+     * Mêmes règles que la création unitaire (unicité identité et numéro de permis, 18 ans minimum) ;
+     * les lignes rejetées sont détaillées dans le rapport, les autres sont importées
+     */
+    @PostMapping(value = "/import", consumes = {LecteurImport.TEXT_CSV, LecteurImport.APPLICATION_NDJSON})
+    public ResponseEntity<RapportImportDTO> importer(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String typeContenu,
+            InputStream corps) {
+        RapportImportDTO rapport = RapportImportDTO.de(clientService.importerClients(
+            lecteurImport.lire(corps, typeContenu, ClientDTO.class, clientMapper::toEntity)));
+        return ResponseEntity.ok(rapport);
+    }
+    
     /**
      * GET /api/clients/{id} - Récupère un client par son ID
      */
@@ -4,74 +4,84 @@ import com.BFB.automobile.business.service.ContratService;
 import com.BFB.automobile.data.Contrat;
 import com.BFB.automobile.data.EtatContrat;
 import com.BFB.automobile.presentation.dto.ContratDTO;
+import com.BFB.automobile.presentation.dto.PageContratsDTO;
+import com.BFB.automobile.presentation.dto.ResultatReservationDTO;
+import com.BFB.automobile.presentation.lecture.LecturesAsynchrones;
 import com.BFB.automobile.presentation.mapper.ContratMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
  * Contrôleur REST pour la gestion des contrats de location
  * Expose les endpoints de l'API pour les opérations sur les contrats
+ *
+ * Les listes et historiques, potentiellement longs, sont servis en asynchrone
+ * sur l'exécuteur de lecture ({@link LecturesAsynchrones})
  */
 @RestController
 @RequestMapping("/api/contrats")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = ContratController.EN_TETE_TOTAL)
 public class ContratController {
     
+    /** En-tête portant le nombre total de contrats d'une liste limitée à une page */
+    static final String EN_TETE_TOTAL = "X-Total-Count";
+    
     private final ContratService contratService;
     private final ContratMapper contratMapper;
+    private final LecturesAsynchrones lectures;
     
     @Autowired
     public ContratController(ContratService contratService, 
-                            ContratMapper contratMapper) {
+                            ContratMapper contratMapper,
+                            LecturesAsynchrones lectures) {
         this.contratService = contratService;
         this.contratMapper = contratMapper;
+        this.lectures = lectures;
     }
     
     /**
      * GET /api/contrats - Récupère tous les contrats
      * Paramètres optionnels : etat, clientId, vehiculeId
+     * Avec clientId ou vehiculeId : historique (archives comprises) du plus récent au plus ancien,
+     * limité à une page (page 0 par défaut, taille 500 par défaut et au plus), total dans X-Total-Count
      */
     @GetMapping
-    public ResponseEntity<List<ContratDTO>> obtenirTousLesContrats(
+    public CompletableFuture<ResponseEntity<List<ContratDTO>>> obtenirTousLesContrats(
             @RequestParam(required = false) EtatContrat etat,
             @RequestParam(required = false) Long clientId,
-            @RequestParam(required = false) Long vehiculeId) {
-        
-        List<Contrat> contrats;
-        
-        if (clientId != null) {
-            contrats = contratService.obtenirContratsParClient(clientId);
-        } else if (vehiculeId != null) {
-            contrats = contratService.obtenirContratsParVehicule(vehiculeId);
-        } else if (etat != null) {
-            contrats = contratService.obtenirContratsParEtat(etat);
-        } else {
-            contrats = contratService.obtenirTousLesContrats();
-        }
+            @RequestParam(required = false) Long vehiculeId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "500") int taille) {
         
-        List<ContratDTO> dtos = contrats.stream()
-                .map(contratMapper::toDTO)
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(dtos);
+        return lectures.lire(() -> {
+            if (clientId != null) {
+                return versListe(contratService.obtenirHistoriqueClient(clientId, page, taille));
+            }
+            if (vehiculeId != null) {
+                return versListe(contratService.obtenirHistoriqueVehicule(vehiculeId, page, taille));
+            }
+            
+            List<Contrat> contrats = etat != null
+                ? contratService.obtenirContratsParEtat(etat)
+                : contratService.obtenirTousLesContrats();
+            return ResponseEntity.ok(versDTOs(contrats));
+        });
     }
     
     /**
      * GET /api/contrats/actifs - Récupère tous les contrats actifs
      */
     @GetMapping("/actifs")
-    public ResponseEntity<List<ContratDTO>> obtenirContratsActifs() {
-        List<Contrat> contrats = contratService.obtenirContratsActifs();
-        List<ContratDTO> dtos = contrats.stream()
-                .map(contratMapper::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public CompletableFuture<ResponseEntity<List<ContratDTO>>> obtenirContratsActifs() {
+        return lectures.lire(() -> ResponseEntity.ok(versDTOs(contratService.obtenirContratsActifs())));
     }
     
     /**
@@ -84,29 +94,55 @@ public class ContratController {
     }
     
     /**
-     * GET /api/contrats/client/{clientId} - Récupère tous les contrats d'un client
+     * GET /api/contrats/client/{clientId} - Contrats d'un client
+     * Même liste que GET /api/contrats?clientId=, limitée à une page (total dans X-Total-Count)
      */
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<List<ContratDTO>> obtenirContratsParClient(
-            @PathVariable Long clientId) {
-        List<Contrat> contrats = contratService.obtenirContratsParClient(clientId);
-        List<ContratDTO> dtos = contrats.stream()
-                .map(contratMapper::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public CompletableFuture<ResponseEntity<List<ContratDTO>>> obtenirContratsParClient(
+            @PathVariable Long clientId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "500") int taille) {
+        return lectures.lire(() -> versListe(contratService.obtenirHistoriqueClient(clientId, page, taille)));
     }
     
     /**
-     * GET /api/contrats/vehicule/{vehiculeId} - Récupère tous les contrats d'un véhicule
+     * GET /api/contrats/vehicule/{vehiculeId} - Contrats d'un véhicule
+     * Même liste que GET /api/contrats?vehiculeId=, limitée à une page (total dans X-Total-Count)
      */
     @GetMapping("/vehicule/{vehiculeId}")
-    public ResponseEntity<List<ContratDTO>> obtenirContratsParVehicule(
-            @PathVariable Long vehiculeId) {
-        List<Contrat> contrats = contratService.obtenirContratsParVehicule(vehiculeId);
-        List<ContratDTO> dtos = contrats.stream()
-                .map(contratMapper::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public CompletableFuture<ResponseEntity<List<ContratDTO>>> obtenirContratsParVehicule(
+            @PathVariable Long vehiculeId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "500") int taille) {
+        return lectures.lire(() -> versListe(contratService.obtenirHistoriqueVehicule(vehiculeId, page, taille)));
+    }
+    
+    /**
+     * GET /api/contrats/client/{clientId}/historique - Historique paginé des contrats d'un client
+     * Contrats courants et archivés, du plus récent au plus ancien
+     * Paramètres optionnels : page (0 par défaut), taille (50 par défaut, 500 au plus)
+     */
+    @GetMapping("/client/{clientId}/historique")
+    public CompletableFuture<ResponseEntity<PageContratsDTO>> obtenirHistoriqueClient(
+            @PathVariable Long clientId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int taille) {
+        return lectures.lire(() -> ResponseEntity.ok(versPage(
+                contratService.obtenirHistoriqueClient(clientId, page, taille))));
+    }
+    
+    /**
+     * GET /api/contrats/vehicule/{vehiculeId}/historique - Historique paginé des contrats d'un véhicule
+     * Contrats courants et archivés, du plus récent au plus ancien
+     * Paramètres optionnels : page (0 par défaut), taille (50 par défaut, 500 au plus)
+     */
+    @GetMapping("/vehicule/{vehiculeId}/historique")
+    public CompletableFuture<ResponseEntity<PageContratsDTO>> obtenirHistoriqueVehicule(
+            @PathVariable Long vehiculeId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int taille) {
+        return lectures.lire(() -> ResponseEntity.ok(versPage(
+                contratService.obtenirHistoriqueVehicule(vehiculeId, page, taille))));
     }
     
     /**
@@ -121,6 +157,23 @@ public class ContratController {
                 .body(contratMapper.toDTO(contratCree));
     }
     
+    /**
+     * POST /api/contrats/batch - Crée un lot de contrats (500 au plus)
+     * Chaque demande est acceptée ou rejetée individuellement ; le résultat
+     * indique pour chacune le contrat créé ou le motif du rejet
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ResultatReservationDTO>> creerContrats(
+            @RequestBody List<ContratDTO> contratDTOs) {
+        List<Contrat> demandes = contratDTOs.stream()
+                .map(contratMapper::toEntity)
+                .collect(Collectors.toList());
+        List<ResultatReservationDTO> resultats = contratService.creerContrats(demandes).stream()
+                .map(contratMapper::toDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(resultats);
+    }
+    
     /**
      * PUT /api/contrats/{id} - Met à jour un contrat existant
      */
@@ -162,4 +215,21 @@ public class ContratController {
         contratService.traiterChangementsEtatAutomatiques();
         return ResponseEntity.ok("Traitement des changements d'état effectué avec succès");
     }
+    
+    private List<ContratDTO> versDTOs(List<Contrat> contrats) {
+        return contrats.stream()
+                .map(contratMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+    
+    private ResponseEntity<List<ContratDTO>> versListe(Page<Contrat> page) {
+        return ResponseEntity.ok()
+                .header(EN_TETE_TOTAL, String.valueOf(page.getTotalElements()))
+                .body(versDTOs(page.getContent()));
+    }
+    
+    private PageContratsDTO versPage(Page<Contrat> page) {
+        return new PageContratsDTO(page.getTotalElements(), page.getNumber(), page.getSize(),
+                versDTOs(page.getContent()));
+    }
 }
@@ -0,0 +1,34 @@
+package com.BFB.automobile.presentation.controller;
+
+import com.BFB.automobile.presentation.flux.DiffusionEvenements;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Contrôleur du flux d'événements (Server-Sent Events)
+ * Remplace l'interrogation répétée des listes par les écrans d'agence
+ */
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EvenementController {
+    
+    private final DiffusionEvenements diffusionEvenements;
+    
+    @Autowired
+    public EvenementController(DiffusionEvenements diffusionEvenements) {
+        this.diffusionEvenements = diffusionEvenements;
+    }
+    
+    /**
+     * GET /api/events - Flux des changements d'état des véhicules et des contrats
+     * Événements "vehicule" et "contrat" ; "resynchroniser" si le client doit recharger ses listes.
+     * À la reconnexion, le navigateur renvoie Last-Event-ID et reçoit les événements manqués.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suivre(@RequestHeader(value = "Last-Event-ID", required = false) Long dernierRecu) {
+        return diffusionEvenements.inscrire(dernierRecu);
+    }
+}
@@ -1,44 +1,91 @@
 package com.BFB.automobile.presentation.controller;
 
 import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.presentation.dto.ErreurReponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Gestionnaire global des exceptions pour les contrôleurs REST
  * Transforme les exceptions en réponses HTTP appropriées
+ * 
+ * Les erreurs métier sont le cas le plus fréquent (rejets de réservation) : leur corps
+ * JSON, hors horodatage, est sérialisé une seule fois par couple (code, message) puis
+ * réutilisé. Seul l'horodatage est écrit à chaque réponse.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     
+    /** Nombre maximal de corps mis en cache (les messages contenant un identifiant varient) */
+    static final int TAILLE_MAX_CACHE = 1024;
+    
+    private static final byte[] DEBUT_CORPS = "{\"timestamp\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FIN_HORODATAGE = "\",".getBytes(StandardCharsets.US_ASCII);
+    
+    private final ObjectWriter writer;
+    private final Map<CleCorps, byte[]> corpsMetier = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public GlobalExceptionHandler(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(ErreurReponse.class)
+            .without(SerializationFeature.INDENT_OUTPUT);
+    }
+    
     /**
      * Gère les exceptions métier personnalisées
      */
     @ExceptionHandler(BusinessException.class)
-    public ResponseEntity<Map<String, Object>> handleBusinessException(BusinessException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        body.put("error", "Erreur métier");
-        body.put("code", ex.getCode());
-        body.put("message", ex.getMessage());
+    public ResponseEntity<byte[]> handleBusinessException(BusinessException ex) {
+        CleCorps cle = new CleCorps(ex.getCode(), ex.getMessage());
+        byte[] suite = corpsMetier.get(cle);
+        if (suite == null) {
+            suite = serialiserSansHorodatage(cle);
+            if (corpsMetier.size() < TAILLE_MAX_CACHE) {
+                corpsMetier.putIfAbsent(cle, suite);
+            }
+        }
         
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        byte[] horodatage = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            .getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream corps = new ByteArrayOutputStream(
+            DEBUT_CORPS.length + horodatage.length + FIN_HORODATAGE.length + suite.length);
+        corps.writeBytes(DEBUT_CORPS);
+        corps.writeBytes(horodatage);
+        corps.writeBytes(FIN_HORODATAGE);
+        corps.writeBytes(suite);
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(corps.toByteArray());
     }
     
     /**
      * Gère les erreurs de validation des DTOs
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, Object>> handleValidationExceptions(
+    public ResponseEntity<ErreurReponse> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
@@ -47,26 +94,55 @@ public class GlobalExceptionHandler {
             errors.put(fieldName, errorMessage);
         });
         
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        body.put("error", "Erreur de validation");
-        body.put("errors", errors);
-        
+        ErreurReponse body = new ErreurReponse(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(),
+            "Erreur de validation", null, null, errors);
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
     
+    /**
+     * Lectures asynchrones refusées (exécuteur de lecture saturé) ou trop longues, abonnés
+     * au flux d'événements trop nombreux : le client peut réessayer plus tard
+     */
+    @ExceptionHandler({RejectedExecutionException.class, TimeoutException.class, AsyncRequestTimeoutException.class})
+    public ResponseEntity<ErreurReponse> handleLectureIndisponible(Exception ex) {
+        String message;
+        if (ex instanceof TaskRejectedException) {
+            message = "Trop de lectures en cours";
+        } else if (ex instanceof RejectedExecutionException) {
+            message = ex.getMessage();
+        } else {
+            message = "Délai de lecture dépassé";
+        }
+        ErreurReponse body = new ErreurReponse(LocalDateTime.now(), HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Service indisponible", null, message, null);
+        return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    
     /**
      * Gère toutes les autres exceptions non prévues
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        body.put("error", "Erreur interne du serveur");
-        body.put("message", ex.getMessage());
-        
+    public ResponseEntity<ErreurReponse> handleGenericException(Exception ex) {
+        ErreurReponse body = new ErreurReponse(LocalDateTime.now(), HttpStatus.INTERNAL_SERVER_ERROR.value(),
+            "Erreur interne du serveur", null, ex.getMessage(), null);
         return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+    
+    /**
+     * Sérialise le corps sans horodatage et retire l'accolade ouvrante :
+     * {"status":400,...} devient "status":400,...} à concaténer après l'horodatage
+     */
+    private byte[] serialiserSansHorodatage(CleCorps cle) {
+        try {
+            byte[] json = writer.writeValueAsBytes(new ErreurReponse(null, HttpStatus.BAD_REQUEST.value(),
+                "Erreur métier", cle.code(), cle.message(), null));
+            byte[] suite = new byte[json.length - 1];
+            System.arraycopy(json, 1, suite, 0, suite.length);
+            return suite;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation de l'erreur impossible", e);
+        }
+    }
+    
+    private record CleCorps(String code, String message) {}
 }
@@ -0,0 +1,62 @@
+package com.BFB.automobile.presentation.controller;
+
+import com.BFB.automobile.business.recherche.PageRecherche;
+import com.BFB.automobile.business.recherche.TypeEntite;
+import com.BFB.automobile.business.service.RechercheService;
+import com.BFB.automobile.presentation.dto.RechercheDTO;
+import com.BFB.automobile.presentation.dto.ResultatRechercheDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.stream.Collectors;
+
+/**
+ * Contrôleur REST pour la recherche plein texte
+ * Recherche classée sur les clients, véhicules et commentaires de contrats
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class RechercheController {
+    
+    private final RechercheService rechercheService;
+    
+    @Autowired
+    public RechercheController(RechercheService rechercheService) {
+        this.rechercheService = rechercheService;
+    }
+    
+    /**
+     * GET /api/search?q= - Recherche plein texte
+     * Paramètres optionnels : type (CLIENT, VEHICULE, CONTRAT), page, taille
+     */
+    @GetMapping
+    public ResponseEntity<RechercheDTO> rechercher(
+            @RequestParam String q,
+            @RequestParam(required = false) TypeEntite type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int taille) {
+        PageRecherche resultat = rechercheService.rechercher(q, type, page, taille);
+        
+        RechercheDTO dto = new RechercheDTO();
+        dto.setTotal(resultat.total());
+        dto.setPage(resultat.page());
+        dto.setTaille(resultat.taille());
+        dto.setFacettes(resultat.facettes());
+        dto.setResultats(resultat.resultats().stream()
+                .map(r -> new ResultatRechercheDTO(r.type(), r.id(), r.libelle(), r.score()))
+                .collect(Collectors.toList()));
+        
+        return ResponseEntity.ok(dto);
+    }
+    
+    /**
+     * POST /api/search/reindex - Reconstruit l'index à partir de la base (asynchrone)
+     */
+    @PostMapping("/reindex")
+    public ResponseEntity<Void> reconstruireIndex() {
+        rechercheService.reconstruireIndex();
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.BFB.automobile.presentation.controller;
+
+import com.BFB.automobile.business.service.StatistiquesService;
+import com.BFB.automobile.business.statistiques.EtatsFlotte;
+import com.BFB.automobile.business.statistiques.Utilisation;
+import com.BFB.automobile.presentation.dto.EtatsFlotteDTO;
+import com.BFB.automobile.presentation.dto.LigneUtilisationDTO;
+import com.BFB.automobile.presentation.dto.UtilisationDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Contrôleur REST pour les statistiques (tableaux de bord)
+ */
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+public class StatistiquesController {
+    
+    private final StatistiquesService statistiquesService;
+    
+    @Autowired
+    public StatistiquesController(StatistiquesService statistiquesService) {
+        this.statistiquesService = statistiquesService;
+    }
+    
+    /**
+     * GET /api/stats/etats - Nombre de véhicules et de contrats par état
+     */
+    @GetMapping("/etats")
+    public ResponseEntity<EtatsFlotteDTO> obtenirEtats() {
+        EtatsFlotte etats = statistiquesService.obtenirEtats();
+        return ResponseEntity.ok(new EtatsFlotteDTO(
+                etats.vehicules(), etats.contrats(), etats.derniereReconciliation()));
+    }
+    
+    /**
+     * GET /api/stats/utilisation?debut=2025-01-01&fin=2025-12-31&groupBy=modele
+     * Taux d'occupation (jours loués / jours disponibles) par véhicule, par modèle ou par mois
+     */
+    @GetMapping("/utilisation")
+    public ResponseEntity<UtilisationDTO> obtenirUtilisation(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin,
+            @RequestParam(defaultValue = "vehicule") String groupBy) {
+        Utilisation utilisation = statistiquesService.obtenirUtilisation(debut, fin, groupBy);
+        List<LigneUtilisationDTO> lignes = utilisation.lignes().stream()
+                .map(l -> new LigneUtilisationDTO(l.vehiculeId(), l.marque(), l.modele(),
+                        l.mois() != null ? l.mois().toString() : null,
+                        l.joursLoues(), l.joursDisponibles(), taux(l.joursLoues(), l.joursDisponibles())))
+                .toList();
+        return ResponseEntity.ok(new UtilisationDTO(
+                utilisation.debut(), utilisation.fin(), utilisation.regroupement().name().toLowerCase(Locale.ROOT),
+                utilisation.joursLoues(), utilisation.joursDisponibles(),
+                taux(utilisation.joursLoues(), utilisation.joursDisponibles()), lignes, utilisation.cliche()));
+    }
+    
+    /** Taux arrondi à 4 décimales */
+    private static double taux(long joursLoues, long joursDisponibles) {
+        return joursDisponibles == 0 ? 0 : Math.round(joursLoues * 10_000.0 / joursDisponibles) / 10_000.0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.BFB.automobile.presentation.controller;
+
+import com.BFB.automobile.business.service.SynchronisationService;
+import com.BFB.automobile.business.synchronisation.Changements;
+import com.BFB.automobile.presentation.dto.SynchronisationDTO;
+import com.BFB.automobile.presentation.lecture.LecturesAsynchrones;
+import com.BFB.automobile.presentation.mapper.ClientMapper;
+import com.BFB.automobile.presentation.mapper.ContratMapper;
+import com.BFB.automobile.presentation.mapper.VehiculeMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Contrôleur REST de la synchronisation différentielle des clients hors ligne (tablettes)
+ * Servi sur l'exécuteur de lecture ({@link LecturesAsynchrones})
+ */
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+public class SynchronisationController {
+    
+    private final SynchronisationService synchronisationService;
+    private final VehiculeMapper vehiculeMapper;
+    private final ClientMapper clientMapper;
+    private final ContratMapper contratMapper;
+    private final LecturesAsynchrones lectures;
+    
+    @Autowired
+    public SynchronisationController(SynchronisationService synchronisationService,
+                                     VehiculeMapper vehiculeMapper,
+                                     ClientMapper clientMapper,
+                                     ContratMapper contratMapper,
+                                     LecturesAsynchrones lectures) {
+        this.synchronisationService = synchronisationService;
+        this.vehiculeMapper = vehiculeMapper;
+        this.clientMapper = clientMapper;
+        this.contratMapper = contratMapper;
+        this.lectures = lectures;
+    }
+    
+    /**
+     * GET /api/sync?since={jeton}&taille=500 - Véhicules, clients et contrats modifiés ou supprimés
+     * depuis le jeton de la synchronisation précédente (sans jeton : tout)
+     * Rappeler avec le jeton renvoyé tant que termine est faux.
+     */
+    @GetMapping
+    public CompletableFuture<ResponseEntity<SynchronisationDTO>> synchroniser(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int taille) {
+        return lectures.lire(() -> ResponseEntity.ok(versDTO(synchronisationService.obtenirChangements(since, taille))));
+    }
+    
+    private SynchronisationDTO versDTO(Changements changements) {
+        return new SynchronisationDTO(
+                String.valueOf(changements.jeton()),
+                changements.termine(),
+                changements.vehicules().stream().map(vehiculeMapper::toDTO).toList(),
+                changements.clients().stream().map(clientMapper::toDTO).toList(),
+                changements.contrats().stream().map(contratMapper::toDTO).toList(),
+                changements.vehiculesSupprimes(),
+                changements.contratsSupprimes());
+    }
+}
@@ -3,14 +3,19 @@ package com.BFB.automobile.presentation.controller;
 import com.BFB.automobile.business.service.VehiculeService;
 import com.BFB.automobile.data.EtatVehicule;
 import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.presentation.dto.RapportImportDTO;
+import com.BFB.automobile.presentation.dto.SuggestionDTO;
 import com.BFB.automobile.presentation.dto.VehiculeDTO;
+import com.BFB.automobile.presentation.importation.LecteurImport;
 import com.BFB.automobile.presentation.mapper.VehiculeMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,14 +28,19 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class VehiculeController {
     
+    private static final int LIMITE_MAX_SUGGESTIONS = 50;
+    
     private final VehiculeService vehiculeService;
     private final VehiculeMapper vehiculeMapper;
+    private final LecteurImport lecteurImport;
     
     @Autowired
     public VehiculeController(VehiculeService vehiculeService, 
-                             VehiculeMapper vehiculeMapper) {
+                             VehiculeMapper vehiculeMapper,
+                             LecteurImport lecteurImport) {
         this.vehiculeService = vehiculeService;
         this.vehiculeMapper = vehiculeMapper;
+        this.lecteurImport = lecteurImport;
     }
     
     /**
@@ -72,6 +82,34 @@ public class VehiculeController {
         return ResponseEntity.ok(dtos);
     }
     
+    /**
+     * GET /api/vehicules/suggest?q= - Autocomplétion par préfixe (immatriculation, marque ou modèle)
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggerer(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        List<SuggestionDTO> dtos = vehiculeService.suggererVehicules(q, Math.min(limite, LIMITE_MAX_SUGGESTIONS)).stream()
+                .map(suggestion -> new SuggestionDTO(suggestion.id(), suggestion.libelle()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(dtos);
+    }
+    
+    /**
+     * POST /api/vehicules/import - Import en masse depuis un fichier CSV (en-tête obligatoire)
+     * ou NDJSON transmis tel quel dans le corps de la requête
+     * Mêmes règles que la création unitaire (unicité de l'immatriculation) ;
+     * les lignes rejetées sont détaillées dans le rapport, les autres sont importées
+     */
+    @PostMapping(value = "/import", consumes = {LecteurImport.TEXT_CSV, LecteurImport.APPLICATION_NDJSON})
+    public ResponseEntity<RapportImportDTO> importer(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String typeContenu,
+            InputStream corps) {
+        RapportImportDTO rapport = RapportImportDTO.de(vehiculeService.importerVehicules(
+            lecteurImport.lire(corps, typeContenu, VehiculeDTO.class, vehiculeMapper::toEntity)));
+        return ResponseEntity.ok(rapport);
+    }
+    
     /**
      * GET /api/vehicules/{id} - Récupère un véhicule par son ID
      */
@@ -0,0 +1,30 @@
+package com.BFB.automobile.presentation.dto;
+
+/**
+ * DTO pour une ligne rejetée lors d'un import en masse
+ */
+public class ErreurImportDTO {
+    
+    private long ligne;
+    private String code;
+    private String message;
+    
+    // Constructeurs
+    public ErreurImportDTO() {}
+    
+    public ErreurImportDTO(long ligne, String code, String message) {
+        this.ligne = ligne;
+        this.code = code;
+        this.message = message;
+    }
+    
+    // Getters et Setters
+    public long getLigne() { return ligne; }
+    public void setLigne(long ligne) { this.ligne = ligne; }
+    
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
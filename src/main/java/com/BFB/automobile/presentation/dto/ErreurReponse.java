@@ -0,0 +1,25 @@
+package com.BFB.automobile.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Corps des réponses d'erreur de l'API
+ *
+ * @param timestamp Date et heure de l'erreur
+ * @param status Code HTTP
+ * @param error Catégorie de l'erreur
+ * @param code Code métier (erreurs métier uniquement)
+ * @param message Message explicatif
+ * @param errors Erreurs par champ (erreurs de validation uniquement)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ErreurReponse(LocalDateTime timestamp,
+                            int status,
+                            String error,
+                            String code,
+                            String message,
+                            Map<String, String> errors) {
+}
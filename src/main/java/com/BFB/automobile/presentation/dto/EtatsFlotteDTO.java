@@ -0,0 +1,37 @@
+package com.BFB.automobile.presentation.dto;
+
+import com.BFB.automobile.data.EtatContrat;
+import com.BFB.automobile.data.EtatVehicule;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * DTO pour le nombre de véhicules et de contrats par état
+ */
+public class EtatsFlotteDTO {
+    
+    private Map<EtatVehicule, Long> vehicules;
+    private Map<EtatContrat, Long> contrats;
+    private Instant derniereReconciliation;
+    
+    // Constructeurs
+    public EtatsFlotteDTO() {}
+    
+    public EtatsFlotteDTO(Map<EtatVehicule, Long> vehicules, Map<EtatContrat, Long> contrats,
+                          Instant derniereReconciliation) {
+        this.vehicules = vehicules;
+        this.contrats = contrats;
+        this.derniereReconciliation = derniereReconciliation;
+    }
+    
+    // Getters et Setters
+    public Map<EtatVehicule, Long> getVehicules() { return vehicules; }
+    public void setVehicules(Map<EtatVehicule, Long> vehicules) { this.vehicules = vehicules; }
+    
+    public Map<EtatContrat, Long> getContrats() { return contrats; }
+    public void setContrats(Map<EtatContrat, Long> contrats) { this.contrats = contrats; }
+    
+    public Instant getDerniereReconciliation() { return derniereReconciliation; }
+    public void setDerniereReconciliation(Instant derniereReconciliation) { this.derniereReconciliation = derniereReconciliation; }
+}
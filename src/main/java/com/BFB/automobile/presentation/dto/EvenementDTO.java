@@ -0,0 +1,53 @@
+package com.BFB.automobile.presentation.dto;
+
+import java.time.Instant;
+
+/**
+ * DTO d'un changement d'état diffusé par le flux d'événements (GET /api/events)
+ */
+public class EvenementDTO {
+    
+    private String categorie;
+    private String nature;
+    private Long id;
+    private String ancienEtat;
+    private String etat;
+    private Long vehiculeId;
+    private Instant instant;
+    
+    // Constructeurs
+    public EvenementDTO() {}
+    
+    public EvenementDTO(String categorie, String nature, Long id, String ancienEtat, String etat,
+                        Long vehiculeId, Instant instant) {
+        this.categorie = categorie;
+        this.nature = nature;
+        this.id = id;
+        this.ancienEtat = ancienEtat;
+        this.etat = etat;
+        this.vehiculeId = vehiculeId;
+        this.instant = instant;
+    }
+    
+    // Getters et Setters
+    public String getCategorie() { return categorie; }
+    public void setCategorie(String categorie) { this.categorie = categorie; }
+    
+    public String getNature() { return nature; }
+    public void setNature(String nature) { this.nature = nature; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getAncienEtat() { return ancienEtat; }
+    public void setAncienEtat(String ancienEtat) { this.ancienEtat = ancienEtat; }
+    
+    public String getEtat() { return etat; }
+    public void setEtat(String etat) { this.etat = etat; }
+    
+    public Long getVehiculeId() { return vehiculeId; }
+    public void setVehiculeId(Long vehiculeId) { this.vehiculeId = vehiculeId; }
+    
+    public Instant getInstant() { return instant; }
+    public void setInstant(Instant instant) { this.instant = instant; }
+}
@@ -0,0 +1,55 @@
+package com.BFB.automobile.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * DTO pour l'occupation d'un groupe (véhicule, modèle ou mois) sur la période demandée
+ * Seuls les champs du regroupement demandé sont renseignés
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LigneUtilisationDTO {
+    
+    private Long vehiculeId;
+    private String marque;
+    private String modele;
+    private String mois;
+    private long joursLoues;
+    private long joursDisponibles;
+    private double taux;
+    
+    // Constructeurs
+    public LigneUtilisationDTO() {}
+    
+    public LigneUtilisationDTO(Long vehiculeId, String marque, String modele, String mois,
+                               long joursLoues, long joursDisponibles, double taux) {
+        this.vehiculeId = vehiculeId;
+        this.marque = marque;
+        this.modele = modele;
+        this.mois = mois;
+        this.joursLoues = joursLoues;
+        this.joursDisponibles = joursDisponibles;
+        this.taux = taux;
+    }
+    
+    // Getters et Setters
+    public Long getVehiculeId() { return vehiculeId; }
+    public void setVehiculeId(Long vehiculeId) { this.vehiculeId = vehiculeId; }
+    
+    public String getMarque() { return marque; }
+    public void setMarque(String marque) { this.marque = marque; }
+    
+    public String getModele() { return modele; }
+    public void setModele(String modele) { this.modele = modele; }
+    
+    public String getMois() { return mois; }
+    public void setMois(String mois) { this.mois = mois; }
+    
+    public long getJoursLoues() { return joursLoues; }
+    public void setJoursLoues(long joursLoues) { this.joursLoues = joursLoues; }
+    
+    public long getJoursDisponibles() { return joursDisponibles; }
+    public void setJoursDisponibles(long joursDisponibles) { this.joursDisponibles = joursDisponibles; }
+    
+    public double getTaux() { return taux; }
+    public void setTaux(double taux) { this.taux = taux; }
+}
@@ -0,0 +1,37 @@
+package com.BFB.automobile.presentation.dto;
+
+import java.util.List;
+
+/**
+ * DTO pour une page d'historique de contrats (contrats courants et archivés)
+ */
+public class PageContratsDTO {
+    
+    private long total;
+    private int page;
+    private int taille;
+    private List<ContratDTO> contrats;
+    
+    // Constructeurs
+    public PageContratsDTO() {}
+    
+    public PageContratsDTO(long total, int page, int taille, List<ContratDTO> contrats) {
+        this.total = total;
+        this.page = page;
+        this.taille = taille;
+        this.contrats = contrats;
+    }
+    
+    // Getters et Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    
+    public int getTaille() { return taille; }
+    public void setTaille(int taille) { this.taille = taille; }
+    
+    public List<ContratDTO> getContrats() { return contrats; }
+    public void setContrats(List<ContratDTO> contrats) { this.contrats = contrats; }
+}
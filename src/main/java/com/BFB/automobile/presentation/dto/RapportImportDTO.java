@@ -0,0 +1,48 @@
+package com.BFB.automobile.presentation.dto;
+
+import com.BFB.automobile.business.importation.RapportImport;
+
+import java.util.List;
+
+/**
+ * DTO pour le bilan d'un import en masse de clients ou de véhicules
+ */
+public class RapportImportDTO {
+    
+    private long lignesLues;
+    private long lignesImportees;
+    private long lignesRejetees;
+    private List<ErreurImportDTO> erreurs;
+    private boolean erreursTronquees;
+    
+    // Constructeurs
+    public RapportImportDTO() {}
+    
+    public static RapportImportDTO de(RapportImport rapport) {
+        RapportImportDTO dto = new RapportImportDTO();
+        dto.setLignesLues(rapport.lignesLues());
+        dto.setLignesImportees(rapport.lignesImportees());
+        dto.setLignesRejetees(rapport.lignesRejetees());
+        dto.setErreurs(rapport.erreurs().stream()
+            .map(erreur -> new ErreurImportDTO(erreur.ligne(), erreur.code(), erreur.message()))
+            .toList());
+        dto.setErreursTronquees(rapport.erreursTronquees());
+        return dto;
+    }
+    
+    // Getters et Setters
+    public long getLignesLues() { return lignesLues; }
+    public void setLignesLues(long lignesLues) { this.lignesLues = lignesLues; }
+    
+    public long getLignesImportees() { return lignesImportees; }
+    public void setLignesImportees(long lignesImportees) { this.lignesImportees = lignesImportees; }
+    
+    public long getLignesRejetees() { return lignesRejetees; }
+    public void setLignesRejetees(long lignesRejetees) { this.lignesRejetees = lignesRejetees; }
+    
+    public List<ErreurImportDTO> getErreurs() { return erreurs; }
+    public void setErreurs(List<ErreurImportDTO> erreurs) { this.erreurs = erreurs; }
+    
+    public boolean isErreursTronquees() { return erreursTronquees; }
+    public void setErreursTronquees(boolean erreursTronquees) { this.erreursTronquees = erreursTronquees; }
+}
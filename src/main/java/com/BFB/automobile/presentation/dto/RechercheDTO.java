@@ -0,0 +1,38 @@
+package com.BFB.automobile.presentation.dto;
+
+import com.BFB.automobile.business.recherche.TypeEntite;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO pour une page de résultats de recherche plein texte
+ * Les facettes donnent le nombre de correspondances par type d'entité
+ */
+public class RechercheDTO {
+    
+    private long total;
+    private int page;
+    private int taille;
+    private Map<TypeEntite, Long> facettes;
+    private List<ResultatRechercheDTO> resultats;
+    
+    // Constructeurs
+    public RechercheDTO() {}
+    
+    // Getters et Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    
+    public int getTaille() { return taille; }
+    public void setTaille(int taille) { this.taille = taille; }
+    
+    public Map<TypeEntite, Long> getFacettes() { return facettes; }
+    public void setFacettes(Map<TypeEntite, Long> facettes) { this.facettes = facettes; }
+    
+    public List<ResultatRechercheDTO> getResultats() { return resultats; }
+    public void setResultats(List<ResultatRechercheDTO> resultats) { this.resultats = resultats; }
+}
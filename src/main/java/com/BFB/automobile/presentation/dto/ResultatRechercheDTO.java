@@ -0,0 +1,37 @@
+package com.BFB.automobile.presentation.dto;
+
+import com.BFB.automobile.business.recherche.TypeEntite;
+
+/**
+ * DTO pour un résultat de la recherche plein texte
+ */
+public class ResultatRechercheDTO {
+    
+    private TypeEntite type;
+    private Long id;
+    private String libelle;
+    private float score;
+    
+    // Constructeurs
+    public ResultatRechercheDTO() {}
+    
+    public ResultatRechercheDTO(TypeEntite type, Long id, String libelle, float score) {
+        this.type = type;
+        this.id = id;
+        this.libelle = libelle;
+        this.score = score;
+    }
+    
+    // Getters et Setters
+    public TypeEntite getType() { return type; }
+    public void setType(TypeEntite type) { this.type = type; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getLibelle() { return libelle; }
+    public void setLibelle(String libelle) { this.libelle = libelle; }
+    
+    public float getScore() { return score; }
+    public void setScore(float score) { this.score = score; }
+}
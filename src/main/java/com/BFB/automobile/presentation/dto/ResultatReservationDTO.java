@@ -0,0 +1,32 @@
+package com.BFB.automobile.presentation.dto;
+
+/**
+ * DTO pour l'issue d'une demande au sein d'un lot de contrats
+ */
+public class ResultatReservationDTO {
+    
+    private int index;
+    private String statut;
+    private ContratDTO contrat;
+    private String code;
+    private String message;
+    
+    // Constructeurs
+    public ResultatReservationDTO() {}
+    
+    // Getters et Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public String getStatut() { return statut; }
+    public void setStatut(String statut) { this.statut = statut; }
+    
+    public ContratDTO getContrat() { return contrat; }
+    public void setContrat(ContratDTO contrat) { this.contrat = contrat; }
+    
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
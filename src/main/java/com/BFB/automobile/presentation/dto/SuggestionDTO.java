@@ -0,0 +1,25 @@
+package com.BFB.automobile.presentation.dto;
+
+/**
+ * DTO pour les résultats d'autocomplétion (clients et véhicules)
+ */
+public class SuggestionDTO {
+    
+    private Long id;
+    private String libelle;
+    
+    // Constructeurs
+    public SuggestionDTO() {}
+    
+    public SuggestionDTO(Long id, String libelle) {
+        this.id = id;
+        this.libelle = libelle;
+    }
+    
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getLibelle() { return libelle; }
+    public void setLibelle(String libelle) { this.libelle = libelle; }
+}
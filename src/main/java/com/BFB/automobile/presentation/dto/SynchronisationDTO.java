@@ -0,0 +1,53 @@
+package com.BFB.automobile.presentation.dto;
+
+import java.util.List;
+
+/**
+ * DTO pour une page de synchronisation différentielle (GET /api/sync)
+ */
+public class SynchronisationDTO {
+    
+    private String jeton;
+    private boolean termine;
+    private List<VehiculeDTO> vehicules;
+    private List<ClientDTO> clients;
+    private List<ContratDTO> contrats;
+    private List<Long> vehiculesSupprimes;
+    private List<Long> contratsSupprimes;
+    
+    // Constructeurs
+    public SynchronisationDTO() {}
+    
+    public SynchronisationDTO(String jeton, boolean termine, List<VehiculeDTO> vehicules, List<ClientDTO> clients,
+                              List<ContratDTO> contrats, List<Long> vehiculesSupprimes, List<Long> contratsSupprimes) {
+        this.jeton = jeton;
+        this.termine = termine;
+        this.vehicules = vehicules;
+        this.clients = clients;
+        this.contrats = contrats;
+        this.vehiculesSupprimes = vehiculesSupprimes;
+        this.contratsSupprimes = contratsSupprimes;
+    }
+    
+    // Getters et Setters
+    public String getJeton() { return jeton; }
+    public void setJeton(String jeton) { this.jeton = jeton; }
+    
+    public boolean isTermine() { return termine; }
+    public void setTermine(boolean termine) { this.termine = termine; }
+    
+    public List<VehiculeDTO> getVehicules() { return vehicules; }
+    public void setVehicules(List<VehiculeDTO> vehicules) { this.vehicules = vehicules; }
+    
+    public List<ClientDTO> getClients() { return clients; }
+    public void setClients(List<ClientDTO> clients) { this.clients = clients; }
+    
+    public List<ContratDTO> getContrats() { return contrats; }
+    public void setContrats(List<ContratDTO> contrats) { this.contrats = contrats; }
+    
+    public List<Long> getVehiculesSupprimes() { return vehiculesSupprimes; }
+    public void setVehiculesSupprimes(List<Long> vehiculesSupprimes) { this.vehiculesSupprimes = vehiculesSupprimes; }
+    
+    public List<Long> getContratsSupprimes() { return contratsSupprimes; }
+    public void setContratsSupprimes(List<Long> contratsSupprimes) { this.contratsSupprimes = contratsSupprimes; }
+}
@@ -0,0 +1,60 @@
+package com.BFB.automobile.presentation.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO pour l'occupation de la flotte sur une période (GET /api/stats/utilisation)
+ */
+public class UtilisationDTO {
+    
+    private LocalDate debut;
+    private LocalDate fin;
+    private String groupBy;
+    private long joursLoues;
+    private long joursDisponibles;
+    private double taux;
+    private List<LigneUtilisationDTO> lignes;
+    private Instant cliche;
+    
+    // Constructeurs
+    public UtilisationDTO() {}
+    
+    public UtilisationDTO(LocalDate debut, LocalDate fin, String groupBy, long joursLoues, long joursDisponibles,
+                          double taux, List<LigneUtilisationDTO> lignes, Instant cliche) {
+        this.debut = debut;
+        this.fin = fin;
+        this.groupBy = groupBy;
+        this.joursLoues = joursLoues;
+        this.joursDisponibles = joursDisponibles;
+        this.taux = taux;
+        this.lignes = lignes;
+        this.cliche = cliche;
+    }
+    
+    // Getters et Setters
+    public LocalDate getDebut() { return debut; }
+    public void setDebut(LocalDate debut) { this.debut = debut; }
+    
+    public LocalDate getFin() { return fin; }
+    public void setFin(LocalDate fin) { this.fin = fin; }
+    
+    public String getGroupBy() { return groupBy; }
+    public void setGroupBy(String groupBy) { this.groupBy = groupBy; }
+    
+    public long getJoursLoues() { return joursLoues; }
+    public void setJoursLoues(long joursLoues) { this.joursLoues = joursLoues; }
+    
+    public long getJoursDisponibles() { return joursDisponibles; }
+    public void setJoursDisponibles(long joursDisponibles) { this.joursDisponibles = joursDisponibles; }
+    
+    public double getTaux() { return taux; }
+    public void setTaux(double taux) { this.taux = taux; }
+    
+    public List<LigneUtilisationDTO> getLignes() { return lignes; }
+    public void setLignes(List<LigneUtilisationDTO> lignes) { this.lignes = lignes; }
+    
+    public Instant getCliche() { return cliche; }
+    public void setCliche(Instant cliche) { this.cliche = cliche; }
+}
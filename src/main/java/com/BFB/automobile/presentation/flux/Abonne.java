@@ -0,0 +1,144 @@
+package com.BFB.automobile.presentation.flux;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Abonné au flux d'événements : connexion SSE et tampon borné des événements à envoyer
+ *
+ * Les événements sont déposés par le thread de diffusion, sans attente, et envoyés par
+ * l'exécuteur du flux : au plus une tâche d'envoi par abonné à la fois, qui vide le tampon
+ * par paquets. Un abonné lent ne retient donc que son propre tampon.
+ *
+ * Tant que le tampon n'est pas vide, un nouvel événement sur la même entité remplace le
+ * précédent (fusion) : un abonné en retard reçoit le dernier état de chaque entité plutôt
+ * que toutes les étapes. Si le tampon déborde malgré la fusion, il est vidé et remplacé par
+ * un unique événement "resynchroniser" : le client recharge ses listes.
+ */
+final class Abonne {
+
+    /** Nombre d'événements envoyés par tâche avant de laisser la place aux autres abonnés */
+    private static final int PAQUET = 64;
+
+    static final String RESYNCHRONISER = "resynchroniser";
+    private static final String BATTEMENT = "battement";
+
+    private final SseEmitter emetteur;
+    private final Executor executor;
+    private final int capacite;
+    private final Runnable surFusion;
+
+    private final Map<String, Set<DataWithMediaType>> enAttente = new LinkedHashMap<>();
+    private boolean planifie;
+    private boolean ferme;
+
+    /**
+     * @param capacite Nombre maximal d'événements en attente d'envoi
+     * @param surFusion Appelé à chaque événement remplacé par un plus récent
+     */
+    Abonne(SseEmitter emetteur, Executor executor, int capacite, Runnable surFusion) {
+        this.emetteur = emetteur;
+        this.executor = executor;
+        this.capacite = capacite;
+        this.surFusion = surFusion;
+    }
+
+    SseEmitter getEmetteur() {
+        return emetteur;
+    }
+
+    /**
+     * Dépose un événement, déjà sérialisé, à envoyer
+     *
+     * @param cle Entité concernée : un événement plus récent sur la même clé remplace celui-ci
+     */
+    synchronized void offrir(String cle, Set<DataWithMediaType> evenement) {
+        if (ferme) {
+            return;
+        }
+        // Retiré puis remis : l'événement fusionné prend sa place dans l'ordre des identifiants
+        if (enAttente.remove(cle) != null) {
+            surFusion.run();
+        } else if (enAttente.size() >= capacite) {
+            enAttente.clear();
+            enAttente.put(RESYNCHRONISER, SseEmitter.event().name(RESYNCHRONISER).data("").build());
+        }
+        enAttente.put(cle, evenement);
+        planifier();
+    }
+
+    /**
+     * Demande au client de recharger ses listes (reprise impossible)
+     */
+    synchronized void resynchroniser() {
+        enAttente.clear();
+        enAttente.put(RESYNCHRONISER, SseEmitter.event().name(RESYNCHRONISER).data("").build());
+        planifier();
+    }
+
+    /**
+     * Envoie un commentaire si rien n'est en attente : garde la connexion ouverte à travers
+     * les proxys et détecte les clients partis (l'écriture échoue)
+     */
+    synchronized void battre() {
+        if (!ferme && enAttente.isEmpty()) {
+            enAttente.put(BATTEMENT, SseEmitter.event().comment(BATTEMENT).build());
+            planifier();
+        }
+    }
+
+    synchronized void fermer() {
+        ferme = true;
+        enAttente.clear();
+    }
+
+    private void planifier() {
+        if (!planifie) {
+            planifie = true;
+            try {
+                executor.execute(this::envoyer);
+            } catch (RejectedExecutionException e) {
+                planifie = false;
+                fermer();
+                emetteur.completeWithError(e);
+            }
+        }
+    }
+
+    private void envoyer() {
+        for (int i = 0; i < PAQUET; i++) {
+            Set<DataWithMediaType> evenement;
+            synchronized (this) {
+                Iterator<Set<DataWithMediaType>> suivant = enAttente.values().iterator();
+                if (ferme || !suivant.hasNext()) {
+                    planifie = false;
+                    return;
+                }
+                evenement = suivant.next();
+                suivant.remove();
+            }
+            try {
+                emetteur.send(evenement);
+            } catch (IOException | IllegalStateException e) {
+                // Client parti : l'émetteur se termine et le retire de la diffusion
+                fermer();
+                emetteur.completeWithError(e);
+                return;
+            }
+        }
+        synchronized (this) {
+            planifie = false;
+            if (!enAttente.isEmpty()) {
+                planifier();
+            }
+        }
+    }
+}
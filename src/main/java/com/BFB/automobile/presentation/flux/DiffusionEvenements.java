@@ -0,0 +1,261 @@
+package com.BFB.automobile.presentation.flux;
+
+import com.BFB.automobile.business.evenement.BoiteEnvoi;
+import com.BFB.automobile.data.EvenementSortant;
+import com.BFB.automobile.presentation.dto.EvenementDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diffusion des changements d'état aux abonnés du flux SSE (GET /api/events)
+ *
+ * Un seul relais lit la boîte d'envoi ({@link BoiteEnvoi}) à intervalle court et dépose
+ * chaque événement, sérialisé une fois pour tous, dans le tampon de chaque abonné
+ * ({@link Abonne}) ; l'envoi se fait sur l'exécuteur "evenementsExecutor".
+ *
+ * Les identifiants de la boîte d'envoi sont attribués à l'écriture, mais une transaction
+ * peut valider après une autre plus récente : un identifiant manquant n'est sauté (transaction
+ * annulée) qu'après delai-trou-ms comptés depuis le passage du relais qui l'a constaté. L'instant
+ * des événements ne sert pas ici : il est fixé à la publication, et une transaction longue
+ * écrit des événements déjà anciens.
+ *
+ * Reprise : un client qui se reconnecte avec Last-Event-ID reçoit les événements qu'il a
+ * manqués, relus dans la boîte d'envoi, puis le flux en direct. La relecture se fait hors du
+ * verrou du relais ; seul le passage au direct (la fin du rattrapage et l'ajout aux abonnés)
+ * l'exclut : aucun événement n'est perdu ni reçu deux fois entre les deux. Si la position
+ * est antérieure à la rétention, le client reçoit "resynchroniser".
+ */
+@Component
+public class DiffusionEvenements {
+
+    private static final Logger log = LoggerFactory.getLogger(DiffusionEvenements.class);
+
+    private static final int LOT = 500;
+
+    /** Relectures hors verrou avant de finir le rattrapage sous le verrou */
+    private static final int PASSES_RATTRAPAGE = 3;
+
+    private final BoiteEnvoi boiteEnvoi;
+    private final Executor executor;
+    private final ObjectWriter writer;
+    private final int capacite;
+    private final int abonnesMax;
+    private final long delaiConnexionMs;
+    private final long delaiTrouMs;
+    private final Counter fusionnes;
+
+    private final Set<Abonne> abonnes = ConcurrentHashMap.newKeySet();
+
+    /** Dernier événement déposé chez les abonnés ; modifié sous le verrou de l'instance */
+    private volatile long dernierDiffuse;
+
+    /** Identifiant manquant attendu par le relais (0 : aucun) et instant où il a été constaté */
+    private long trouAttendu;
+    private long trouConstateNanos;
+
+    /**
+     * @param capacite Nombre maximal d'événements en attente par abonné
+     * @param abonnesMax Nombre maximal d'abonnés simultanés (au-delà : 503)
+     * @param delaiConnexionMs Durée d'une connexion, que le client renouvelle avec Last-Event-ID
+     * @param delaiTrouMs Attente maximale d'un identifiant manquant
+     */
+    @Autowired
+    public DiffusionEvenements(BoiteEnvoi boiteEnvoi,
+                               @Qualifier("evenementsExecutor") Executor executor,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${bfb.evenements.tampon:256}") int capacite,
+                               @Value("${bfb.evenements.abonnes-max:5000}") int abonnesMax,
+                               @Value("${bfb.evenements.delai-connexion-ms:1800000}") long delaiConnexionMs,
+                               @Value("${bfb.evenements.delai-trou-ms:2000}") long delaiTrouMs) {
+        this.boiteEnvoi = boiteEnvoi;
+        this.executor = executor;
+        this.writer = objectMapper.writerFor(EvenementDTO.class).without(SerializationFeature.INDENT_OUTPUT);
+        this.capacite = capacite;
+        this.abonnesMax = abonnesMax;
+        this.delaiConnexionMs = delaiConnexionMs;
+        this.delaiTrouMs = delaiTrouMs;
+        this.fusionnes = Counter.builder("bfb.evenements.fusionnes")
+            .description("Événements remplacés par un plus récent chez un abonné en retard")
+            .register(meterRegistry);
+        Gauge.builder("bfb.evenements.abonnes", abonnes, Set::size)
+            .description("Nombre d'abonnés au flux d'événements")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Les abonnés reçoivent les événements écrits après le démarrage
+     */
+    @PostConstruct
+    public synchronized void initialiser() {
+        dernierDiffuse = boiteEnvoi.dernierId();
+    }
+
+    /**
+     * Inscrit un abonné
+     *
+     * @param dernierRecu Identifiant du dernier événement reçu (Last-Event-ID), null pour une
+     *                    première connexion
+     * @throws RejectedExecutionException Nombre maximal d'abonnés atteint
+     */
+    public SseEmitter inscrire(Long dernierRecu) {
+        return inscrire(dernierRecu, new SseEmitter(delaiConnexionMs));
+    }
+
+    SseEmitter inscrire(Long dernierRecu, SseEmitter emetteur) {
+        if (abonnes.size() >= abonnesMax) {
+            throw new RejectedExecutionException("Trop d'abonnés au flux d'événements");
+        }
+        Abonne abonne = new Abonne(emetteur, executor, capacite, fusionnes::increment);
+        emetteur.onCompletion(() -> retirer(abonne));
+        emetteur.onTimeout(() -> retirer(abonne));
+        emetteur.onError(e -> retirer(abonne));
+
+        Long position = dernierRecu;
+        long diffuse = dernierDiffuse;
+        if (position != null && position != diffuse) {
+            Long premier = boiteEnvoi.premierId();
+            if (position > diffuse || premier == null || position < premier - 1) {
+                abonne.resynchroniser();
+                position = null;
+            }
+        }
+        // Rattrapage hors du verrou : le relais continue de diffuser pendant la lecture
+        for (int passe = 0; position != null && passe < PASSES_RATTRAPAGE; passe++) {
+            long cible = dernierDiffuse;
+            if (position == cible) {
+                break;
+            }
+            position = rattraper(abonne, position, cible);
+        }
+        synchronized (this) {
+            // Reste diffusé pendant la dernière relecture : au plus quelques passages du relais
+            if (position != null && position != dernierDiffuse) {
+                rattraper(abonne, position, dernierDiffuse);
+            }
+            abonnes.add(abonne);
+        }
+        return emetteur;
+    }
+
+    /**
+     * Dépose chez les abonnés les événements écrits depuis le dernier passage
+     */
+    @Scheduled(fixedDelayString = "${bfb.evenements.relais-ms:200}")
+    public synchronized void relayer() {
+        List<EvenementSortant> lot;
+        do {
+            lot = boiteEnvoi.suivants(dernierDiffuse, LOT);
+            for (EvenementSortant evenement : lot) {
+                if (evenement.getId() != dernierDiffuse + 1 && attendre(dernierDiffuse + 1)) {
+                    // Transaction antérieure pas encore validée : on l'attend
+                    return;
+                }
+                Set<DataWithMediaType> contenu = serialiser(evenement);
+                String cle = cle(evenement);
+                for (Abonne abonne : abonnes) {
+                    abonne.offrir(cle, contenu);
+                }
+                dernierDiffuse = evenement.getId();
+            }
+        } while (lot.size() == LOT);
+    }
+
+    /**
+     * Maintient les connexions inactives et détecte les clients partis
+     */
+    @Scheduled(fixedDelayString = "${bfb.evenements.battement-ms:15000}")
+    public void battre() {
+        abonnes.forEach(Abonne::battre);
+    }
+
+    public int abonnes() {
+        return abonnes.size();
+    }
+
+    /**
+     * @return true tant que l'identifiant manquant reste attendu, false s'il faut le sauter
+     */
+    private boolean attendre(long manquant) {
+        long maintenant = System.nanoTime();
+        if (trouAttendu != manquant) {
+            trouAttendu = manquant;
+            trouConstateNanos = maintenant;
+            return true;
+        }
+        if (maintenant - trouConstateNanos < TimeUnit.MILLISECONDS.toNanos(delaiTrouMs)) {
+            return true;
+        }
+        log.warn("Événement {} absent depuis plus de {} ms : sauté", manquant, delaiTrouMs);
+        return false;
+    }
+
+    /**
+     * Dépose chez l'abonné les événements postérieurs à position, jusqu'à cible incluse
+     *
+     * @return cible, nouvelle position de l'abonné
+     */
+    private long rattraper(Abonne abonne, long position, long cible) {
+        long lu = position;
+        List<EvenementSortant> lot;
+        do {
+            lot = boiteEnvoi.suivants(lu, LOT);
+            for (EvenementSortant evenement : lot) {
+                if (evenement.getId() > cible) {
+                    return cible;
+                }
+                abonne.offrir(cle(evenement), serialiser(evenement));
+                lu = evenement.getId();
+            }
+        } while (lot.size() == LOT);
+        return cible;
+    }
+
+    private void retirer(Abonne abonne) {
+        abonne.fermer();
+        abonnes.remove(abonne);
+    }
+
+    private Set<DataWithMediaType> serialiser(EvenementSortant evenement) {
+        EvenementDTO dto = new EvenementDTO(evenement.getCategorie().name(), evenement.getNature(),
+            evenement.getEntiteId(), evenement.getAncienEtat(), evenement.getEtat(),
+            evenement.getVehiculeId(), Instant.ofEpochMilli(evenement.getInstant()));
+        try {
+            return SseEmitter.event()
+                .id(String.valueOf(evenement.getId()))
+                .name(evenement.getCategorie().name().toLowerCase())
+                .data(writer.writeValueAsString(dto))
+                .build();
+        } catch (JsonProcessingException e) {
+            log.error("Événement {} non sérialisable", evenement.getId(), e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String cle(EvenementSortant evenement) {
+        return evenement.getCategorie().name() + ':' + evenement.getEntiteId();
+    }
+}
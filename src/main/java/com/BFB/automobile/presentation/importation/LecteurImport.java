@@ -0,0 +1,224 @@
+package com.BFB.automobile.presentation.importation;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.importation.LigneImport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Lecture en flux d'un fichier d'import (CSV ou NDJSON) transmis dans le corps de la requête
+ *
+ * Le corps est lu ligne par ligne, à la demande de l'itérateur : seule la ligne courante
+ * est en mémoire. Chaque ligne est convertie en DTO par Jackson (mêmes formats que l'API
+ * JSON : dates ISO, énumérations par nom) puis en entité par le mapper.
+ *
+ * - CSV : première ligne = en-tête portant les noms des propriétés du DTO,
+ *   séparateur virgule, valeurs éventuellement entre guillemets ("" pour un guillemet)
+ * - NDJSON : un objet JSON par ligne
+ *
+ * Une ligne illisible ne stoppe pas la lecture : elle est signalée dans le rapport.
+ */
+@Component
+public class LecteurImport {
+
+    public static final String TEXT_CSV = "text/csv";
+    public static final String APPLICATION_NDJSON = MediaType.APPLICATION_NDJSON_VALUE;
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public LecteurImport(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Ouvre la lecture du corps selon son type de contenu
+     */
+    public <D, E> Iterator<LigneImport<E>> lire(InputStream corps, String typeContenu,
+                                                Class<D> typeDto, Function<D, E> versEntite) {
+        BufferedReader lecteur = new BufferedReader(new InputStreamReader(corps, StandardCharsets.UTF_8));
+        MediaType type = MediaType.parseMediaType(typeContenu);
+        if (type.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))) {
+            return new Lignes<>(lecteur, new ConvertisseurCsv<>(typeDto, versEntite), true);
+        }
+        if (type.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            return new Lignes<>(lecteur, new ConvertisseurNdjson<>(typeDto, versEntite), false);
+        }
+        throw new BusinessException("FORMAT_IMPORT_INVALIDE",
+            "Formats acceptés : " + TEXT_CSV + ", " + APPLICATION_NDJSON);
+    }
+
+    /**
+     * Conversion d'une ligne de texte en entité
+     */
+    private interface Convertisseur<E> {
+        void entete(String ligne);
+        E convertir(String ligne) throws Exception;
+    }
+
+    private final class ConvertisseurNdjson<D, E> implements Convertisseur<E> {
+        private final Class<D> typeDto;
+        private final Function<D, E> versEntite;
+
+        ConvertisseurNdjson(Class<D> typeDto, Function<D, E> versEntite) {
+            this.typeDto = typeDto;
+            this.versEntite = versEntite;
+        }
+
+        @Override
+        public void entete(String ligne) {
+        }
+
+        @Override
+        public E convertir(String ligne) throws JsonProcessingException {
+            return versEntite.apply(objectMapper.readValue(ligne, typeDto));
+        }
+    }
+
+    private final class ConvertisseurCsv<D, E> implements Convertisseur<E> {
+        private final Class<D> typeDto;
+        private final Function<D, E> versEntite;
+        private List<String> colonnes;
+
+        ConvertisseurCsv(Class<D> typeDto, Function<D, E> versEntite) {
+            this.typeDto = typeDto;
+            this.versEntite = versEntite;
+        }
+
+        @Override
+        public void entete(String ligne) {
+            colonnes = decouper(ligne).stream().map(String::trim).toList();
+        }
+
+        @Override
+        public E convertir(String ligne) {
+            List<String> valeurs = decouper(ligne);
+            if (valeurs.size() != colonnes.size()) {
+                throw new IllegalArgumentException(
+                    colonnes.size() + " colonnes attendues, " + valeurs.size() + " trouvées");
+            }
+            Map<String, String> champs = new LinkedHashMap<>();
+            for (int i = 0; i < colonnes.size(); i++) {
+                String valeur = valeurs.get(i);
+                champs.put(colonnes.get(i), valeur.isEmpty() ? null : valeur);
+            }
+            return versEntite.apply(objectMapper.convertValue(champs, typeDto));
+        }
+    }
+
+    /**
+     * Découpe une ligne CSV (RFC 4180, sans saut de ligne dans les valeurs)
+     */
+    static List<String> decouper(String ligne) {
+        List<String> valeurs = new ArrayList<>();
+        StringBuilder courante = new StringBuilder();
+        boolean entreGuillemets = false;
+        for (int i = 0; i < ligne.length(); i++) {
+            char c = ligne.charAt(i);
+            if (entreGuillemets) {
+                if (c == '"' && i + 1 < ligne.length() && ligne.charAt(i + 1) == '"') {
+                    courante.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreGuillemets = false;
+                } else {
+                    courante.append(c);
+                }
+            } else if (c == '"') {
+                entreGuillemets = true;
+            } else if (c == ',') {
+                valeurs.add(courante.toString());
+                courante.setLength(0);
+            } else {
+                courante.append(c);
+            }
+        }
+        if (entreGuillemets) {
+            throw new IllegalArgumentException("Guillemet non fermé");
+        }
+        valeurs.add(courante.toString());
+        return valeurs;
+    }
+
+    /**
+     * Itérateur paresseux sur les lignes non vides du corps
+     */
+    private static final class Lignes<E> implements Iterator<LigneImport<E>> {
+        private final BufferedReader lecteur;
+        private final Convertisseur<E> convertisseur;
+        private boolean enteteAttendue;
+        private long numero;
+        private String suivante;
+
+        Lignes(BufferedReader lecteur, Convertisseur<E> convertisseur, boolean avecEntete) {
+            this.lecteur = lecteur;
+            this.convertisseur = convertisseur;
+            this.enteteAttendue = avecEntete;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (suivante == null) {
+                    String ligne = lecteur.readLine();
+                    if (ligne == null) {
+                        return false;
+                    }
+                    numero++;
+                    if (ligne.isBlank()) {
+                        continue;
+                    }
+                    if (enteteAttendue) {
+                        convertisseur.entete(ligne.startsWith("\uFEFF") ? ligne.substring(1) : ligne);
+                        enteteAttendue = false;
+                        continue;
+                    }
+                    suivante = ligne;
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public LigneImport<E> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String ligne = suivante;
+            suivante = null;
+            try {
+                return LigneImport.valide(numero, convertisseur.convertir(ligne));
+            } catch (Exception e) {
+                return LigneImport.illisible(numero, message(e));
+            }
+        }
+
+        private static String message(Exception e) {
+            String message = e.getMessage();
+            if (message == null) {
+                return e.getClass().getSimpleName();
+            }
+            int finPremiereLigne = message.indexOf('\n');
+            return finPremiereLigne < 0 ? message : message.substring(0, finPremiereLigne);
+        }
+    }
+}
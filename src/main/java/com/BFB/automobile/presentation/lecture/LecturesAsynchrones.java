@@ -0,0 +1,56 @@
+package com.BFB.automobile.presentation.lecture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Exécution des lectures lourdes (listes, historiques) hors des threads Tomcat
+ *
+ * Le contrôleur renvoie un CompletableFuture : le thread de la requête est rendu à Tomcat
+ * pendant que la lecture s'exécute sur l'exécuteur borné "lectureExecutor".
+ * La lecture et la conversion en DTO (qui charge les associations paresseuses) se font
+ * dans une même transaction en lecture seule ; seule la sérialisation JSON revient
+ * sur un thread Tomcat.
+ *
+ * Deux bornes :
+ * - Exécuteur saturé : TaskRejectedException, levée immédiatement (503)
+ * - Délai dépassé : le futur échoue en TimeoutException (503) ; la transaction porte le
+ *   même délai, que Hibernate applique aux requêtes : la lecture abandonnée ne garde
+ *   pas son thread au-delà
+ */
+@Component
+public class LecturesAsynchrones {
+
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final long delaiMs;
+
+    @Autowired
+    public LecturesAsynchrones(@Qualifier("lectureExecutor") Executor executor,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${bfb.lecture.delai-ms:10000}") long delaiMs) {
+        this.executor = executor;
+        this.delaiMs = delaiMs;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout((int) TimeUnit.MILLISECONDS.toSeconds(delaiMs + 999));
+    }
+
+    /**
+     * Lance la lecture sur l'exécuteur de lecture, dans une transaction en lecture seule
+     */
+    public <T> CompletableFuture<T> lire(Supplier<T> lecture) {
+        return CompletableFuture
+            .supplyAsync(() -> transactionTemplate.execute(status -> lecture.get()), executor)
+            .orTimeout(delaiMs, TimeUnit.MILLISECONDS);
+    }
+}
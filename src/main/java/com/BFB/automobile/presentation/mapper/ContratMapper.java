@@ -1,9 +1,11 @@
 package com.BFB.automobile.presentation.mapper;
 
+import com.BFB.automobile.business.planning.ResultatReservation;
 import com.BFB.automobile.data.Client;
 import com.BFB.automobile.data.Contrat;
 import com.BFB.automobile.data.Vehicule;
 import com.BFB.automobile.presentation.dto.ContratDTO;
+import com.BFB.automobile.presentation.dto.ResultatReservationDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -74,4 +76,18 @@ public class ContratMapper {
         
         return contrat;
     }
+    
+    public ResultatReservationDTO toDTO(ResultatReservation resultat) {
+        ResultatReservationDTO dto = new ResultatReservationDTO();
+        dto.setIndex(resultat.index());
+        if (resultat.estAcceptee()) {
+            dto.setStatut("CREE");
+            dto.setContrat(toDTO(resultat.contrat()));
+        } else {
+            dto.setStatut("REJETE");
+            dto.setCode(resultat.code());
+            dto.setMessage(resultat.message());
+        }
+        return dto;
+    }
 }
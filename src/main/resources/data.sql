@@ -36,6 +36,8 @@ INSERT INTO contrats (id, date_debut, date_fin, etat, client_id, vehicule_id, da
 (4, '2024-12-10', '2024-12-20', 'EN_ATTENTE', 4, 3, '2024-11-17', 'Location pour déménagement');
 
 -- Séquences pour les IDs auto-générés
-ALTER TABLE clients ALTER COLUMN id RESTART WITH 6;
-ALTER TABLE vehicules ALTER COLUMN id RESTART WITH 8;
-ALTER TABLE contrats ALTER COLUMN id RESTART WITH 5;
+-- Allocation par blocs de 50 : la valeur de séquence V réserve les ids [V - 49, V].
+-- Redémarrer à 100 fait donc commencer les nouveaux ids à 51, après les données ci-dessus.
+ALTER SEQUENCE clients_seq RESTART WITH 100;
+ALTER SEQUENCE vehicules_seq RESTART WITH 100;
+ALTER SEQUENCE contrats_seq RESTART WITH 100;
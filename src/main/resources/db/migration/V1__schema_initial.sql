@@ -0,0 +1,53 @@
+-- Schéma initial de BFB Automobile (profil "persistant")
+-- Identique à celui que génère Hibernate depuis les entités, vérifié au démarrage (ddl-auto=validate)
+
+CREATE SEQUENCE clients_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE vehicules_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE contrats_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE clients (
+    id BIGINT NOT NULL,
+    nom VARCHAR(100) NOT NULL,
+    prenom VARCHAR(100) NOT NULL,
+    date_naissance DATE NOT NULL,
+    numero_permis VARCHAR(50) NOT NULL,
+    adresse VARCHAR(500) NOT NULL,
+    date_creation DATE NOT NULL,
+    actif BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_client_permis UNIQUE (numero_permis),
+    CONSTRAINT uk_client_identity UNIQUE (nom, prenom, date_naissance)
+);
+
+CREATE TABLE vehicules (
+    id BIGINT NOT NULL,
+    marque VARCHAR(100) NOT NULL,
+    modele VARCHAR(100) NOT NULL,
+    motorisation VARCHAR(100) NOT NULL,
+    couleur VARCHAR(50) NOT NULL,
+    immatriculation VARCHAR(20) NOT NULL,
+    date_acquisition DATE NOT NULL,
+    etat VARCHAR(20) NOT NULL CHECK (etat IN ('DISPONIBLE', 'EN_LOCATION', 'EN_PANNE')),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_vehicule_immatriculation UNIQUE (immatriculation)
+);
+
+CREATE TABLE contrats (
+    id BIGINT NOT NULL,
+    date_debut DATE NOT NULL,
+    date_fin DATE NOT NULL,
+    etat VARCHAR(20) NOT NULL CHECK (etat IN ('EN_ATTENTE', 'EN_COURS', 'TERMINE', 'EN_RETARD', 'ANNULE')),
+    client_id BIGINT NOT NULL,
+    vehicule_id BIGINT NOT NULL,
+    commentaire VARCHAR(1000),
+    date_creation DATE NOT NULL,
+    date_modification DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_contrat_client FOREIGN KEY (client_id) REFERENCES clients,
+    CONSTRAINT fk_contrat_vehicule FOREIGN KEY (vehicule_id) REFERENCES vehicules
+);
+
+CREATE INDEX idx_contrat_client ON contrats (client_id, date_fin);
+CREATE INDEX idx_contrat_vehicule ON contrats (vehicule_id, date_fin);
+CREATE INDEX idx_contrat_dates ON contrats (date_debut, date_fin);
+CREATE INDEX idx_contrat_etat ON contrats (etat);
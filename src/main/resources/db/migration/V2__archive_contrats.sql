@@ -0,0 +1,21 @@
+-- Archive des contrats terminés ou annulés (ArchivageContrats) : mêmes colonnes que contrats,
+-- plus la date d'archivage
+
+CREATE TABLE contrats_archive (
+    id BIGINT NOT NULL,
+    date_debut DATE NOT NULL,
+    date_fin DATE NOT NULL,
+    etat VARCHAR(20) NOT NULL CHECK (etat IN ('EN_ATTENTE', 'EN_COURS', 'TERMINE', 'EN_RETARD', 'ANNULE')),
+    client_id BIGINT NOT NULL,
+    vehicule_id BIGINT NOT NULL,
+    commentaire VARCHAR(1000),
+    date_creation DATE NOT NULL,
+    date_modification DATE,
+    date_archivage DATE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_archive_client FOREIGN KEY (client_id) REFERENCES clients,
+    CONSTRAINT fk_archive_vehicule FOREIGN KEY (vehicule_id) REFERENCES vehicules
+);
+
+CREATE INDEX idx_archive_client ON contrats_archive (client_id, date_debut);
+CREATE INDEX idx_archive_vehicule ON contrats_archive (vehicule_id, date_debut);
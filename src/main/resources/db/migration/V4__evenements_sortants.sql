@@ -0,0 +1,16 @@
+-- Boîte d'envoi du flux d'événements (BoiteEnvoi) : écrite dans la transaction de chaque
+-- changement d'état, relue dans l'ordre des identifiants par GET /api/events
+
+CREATE TABLE evenements_sortants (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    instant BIGINT NOT NULL,
+    categorie VARCHAR(20) NOT NULL CHECK (categorie IN ('VEHICULE', 'CONTRAT')),
+    nature VARCHAR(20) NOT NULL,
+    entite_id BIGINT NOT NULL,
+    ancien_etat VARCHAR(20),
+    etat VARCHAR(20),
+    vehicule_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_evenement_instant ON evenements_sortants (instant);
@@ -0,0 +1,23 @@
+-- Synchronisation différentielle (SequencesSync) : séquence de modification tenue par la base
+-- sur vehicules, clients et contrats, et trace des suppressions
+
+CREATE SEQUENCE sync_seq;
+
+ALTER TABLE vehicules ADD COLUMN sequence_sync BIGINT DEFAULT NEXT VALUE FOR sync_seq ON UPDATE NEXT VALUE FOR sync_seq;
+ALTER TABLE clients ADD COLUMN sequence_sync BIGINT DEFAULT NEXT VALUE FOR sync_seq ON UPDATE NEXT VALUE FOR sync_seq;
+ALTER TABLE contrats ADD COLUMN sequence_sync BIGINT DEFAULT NEXT VALUE FOR sync_seq ON UPDATE NEXT VALUE FOR sync_seq;
+
+UPDATE vehicules SET sequence_sync = NEXT VALUE FOR sync_seq WHERE sequence_sync IS NULL;
+UPDATE clients SET sequence_sync = NEXT VALUE FOR sync_seq WHERE sequence_sync IS NULL;
+UPDATE contrats SET sequence_sync = NEXT VALUE FOR sync_seq WHERE sequence_sync IS NULL;
+
+CREATE INDEX idx_vehicules_sync ON vehicules (sequence_sync);
+CREATE INDEX idx_clients_sync ON clients (sequence_sync);
+CREATE INDEX idx_contrats_sync ON contrats (sequence_sync);
+
+CREATE TABLE suppressions_sync (
+    sequence_sync BIGINT DEFAULT NEXT VALUE FOR sync_seq,
+    entite VARCHAR(20) NOT NULL,
+    entite_id BIGINT NOT NULL,
+    PRIMARY KEY (sequence_sync)
+);
@@ -3,7 +3,7 @@ package com.BFB.automobile;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "bfb.recherche.index.repertoire=target/index-recherche-${random.uuid}")
 class AutomobileApplicationTests {
 
 	@Test
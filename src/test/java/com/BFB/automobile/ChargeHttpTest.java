@@ -0,0 +1,290 @@
+package com.BFB.automobile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test de charge HTTP de bout en bout (application démarrée sur un port aléatoire)
+ *
+ * Peuple une flotte par les endpoints d'import, puis des clients concurrents rejouent
+ * un mélange pondéré de réservations, consultations de disponibilité, listes et
+ * changements d'état. Chaque endpoint a son histogramme HDR de latence et ses
+ * compteurs de succès, de rejets métier (4xx) et d'erreurs (5xx, échecs réseau).
+ *
+ * Les clients fonctionnent en boucle fermée (chacun attend sa réponse avant de renvoyer) :
+ * à saturation, le débit plafonne et les percentiles ne comptent pas l'attente des
+ * requêtes qui auraient dû partir entre-temps.
+ *
+ * Exclu de "mvn test" : mvn test -Pcharge
+ * Paramètres : -Dbfb.charge.clients=64 -Dbfb.charge.duree=30 -Dbfb.charge.prechauffage=5 (secondes)
+ *              -Dbfb.charge.vehicules=200 -Dbfb.charge.conducteurs=500
+ *              -Dbfb.charge.mix=reservation=40,disponibilite=30,liste=20,changement_etat=10
+ */
+@Tag("charge")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "bfb.recherche.index.repertoire=target/index-recherche-${random.uuid}",
+    "spring.jpa.show-sql=false",
+    "logging.level.root=WARN"
+})
+class ChargeHttpTest {
+
+    private static final long LATENCE_MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    /**
+     * Scénarios rejoués, identifiés dans -Dbfb.charge.mix par leur nom en minuscules
+     */
+    enum Scenario {
+        RESERVATION("POST  /api/contrats"),
+        DISPONIBILITE("GET   /api/vehicules/disponibles"),
+        LISTE("GET   /api/contrats?vehiculeId="),
+        CHANGEMENT_ETAT("PATCH /api/contrats/{id}/annuler");
+
+        private final String libelle;
+
+        Scenario(String libelle) {
+            this.libelle = libelle;
+        }
+    }
+
+    /**
+     * Résultats d'un scénario, alimentés par tous les clients
+     */
+    private static final class Mesures {
+        private final Histogram latences = new ConcurrentHistogram(LATENCE_MAX_MICROS, 3);
+        private final LongAdder succes = new LongAdder();
+        private final LongAdder rejets = new LongAdder();
+        private final LongAdder erreurs = new LongAdder();
+
+        long total() {
+            return succes.sum() + rejets.sum() + erreurs.sum();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Queue<Long> contratsCrees = new ConcurrentLinkedQueue<>();
+    private long[] vehicules;
+    private long[] conducteurs;
+
+    @Test
+    void mesurerDebitEtLatences() throws Exception {
+        int clients = Integer.getInteger("bfb.charge.clients", 64);
+        int duree = Integer.getInteger("bfb.charge.duree", 30);
+        int prechauffage = Integer.getInteger("bfb.charge.prechauffage", 5);
+        Scenario[] tirage = tirage(System.getProperty("bfb.charge.mix",
+                "reservation=40,disponibilite=30,liste=20,changement_etat=10"));
+
+        peupler(Integer.getInteger("bfb.charge.vehicules", 200), Integer.getInteger("bfb.charge.conducteurs", 500));
+
+        executer(clients, prechauffage, tirage);
+        Map<Scenario, Mesures> mesures = executer(clients, duree, tirage);
+
+        afficher(mesures, clients, duree);
+        long erreurs = mesures.values().stream().mapToLong(m -> m.erreurs.sum()).sum();
+        assertEquals(0, erreurs, "Aucune requête ne doit échouer en 5xx ou sur le réseau");
+    }
+
+    /**
+     * Lance les clients pendant la durée donnée et agrège leurs mesures par scénario
+     */
+    private Map<Scenario, Mesures> executer(int clients, int secondes, Scenario[] tirage) throws InterruptedException {
+        Map<Scenario, Mesures> mesures = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            mesures.put(scenario, new Mesures());
+        }
+        long fin = System.nanoTime() + TimeUnit.SECONDS.toNanos(secondes);
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            pool.execute(() -> {
+                ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+                while (System.nanoTime() < fin) {
+                    Scenario scenario = tirage[aleatoire.nextInt(tirage.length)];
+                    HttpRequest requete = requete(scenario, aleatoire);
+                    if (requete == null) {
+                        scenario = Scenario.RESERVATION;
+                        requete = requete(scenario, aleatoire);
+                    }
+                    envoyer(scenario, requete, mesures.get(scenario));
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(secondes + 60L, TimeUnit.SECONDS);
+        return mesures;
+    }
+
+    private void envoyer(Scenario scenario, HttpRequest requete, Mesures mesures) {
+        long debut = System.nanoTime();
+        try {
+            HttpResponse<String> reponse = http.send(requete, HttpResponse.BodyHandlers.ofString());
+            mesures.latences.recordValue(Math.min(LATENCE_MAX_MICROS, (System.nanoTime() - debut) / 1_000));
+            int statut = reponse.statusCode();
+            if (statut < 300) {
+                mesures.succes.increment();
+                if (scenario == Scenario.RESERVATION) {
+                    contratsCrees.add(objectMapper.readTree(reponse.body()).get("id").asLong());
+                }
+            } else if (statut < 500) {
+                mesures.rejets.increment();
+            } else {
+                mesures.erreurs.increment();
+            }
+        } catch (Exception e) {
+            mesures.erreurs.increment();
+        }
+    }
+
+    /**
+     * Construit la requête d'un scénario, ou null s'il n'a rien à traiter
+     * (changement d'état sans contrat créé)
+     */
+    private HttpRequest requete(Scenario scenario, ThreadLocalRandom aleatoire) {
+        switch (scenario) {
+            case RESERVATION -> {
+                LocalDate debut = LocalDate.now().plusDays(1 + aleatoire.nextInt(365));
+                String corps = "{\"clientId\":" + conducteurs[aleatoire.nextInt(conducteurs.length)]
+                        + ",\"vehiculeId\":" + vehicules[aleatoire.nextInt(vehicules.length)]
+                        + ",\"dateDebut\":\"" + debut + "\",\"dateFin\":\"" + debut.plusDays(1 + aleatoire.nextInt(7)) + "\"}";
+                return construire("/api/contrats").header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(corps)).build();
+            }
+            case DISPONIBILITE -> {
+                return construire("/api/vehicules/disponibles").GET().build();
+            }
+            case LISTE -> {
+                return construire("/api/contrats?vehiculeId=" + vehicules[aleatoire.nextInt(vehicules.length)]).GET().build();
+            }
+            case CHANGEMENT_ETAT -> {
+                Long id = contratsCrees.poll();
+                return id == null ? null : construire("/api/contrats/" + id + "/annuler")
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+            }
+            default -> throw new IllegalStateException(scenario.name());
+        }
+    }
+
+    private HttpRequest.Builder construire(String chemin) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + chemin))
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    /**
+     * Importe la flotte et les conducteurs (NDJSON) puis relève leurs identifiants
+     */
+    private void peupler(int nbVehicules, int nbConducteurs) throws Exception {
+        String flotte = IntStream.range(0, nbVehicules)
+                .mapToObj(i -> "{\"marque\":\"Marque" + (i % 10) + "\",\"modele\":\"Modele" + i + "\","
+                        + "\"motorisation\":\"Essence\",\"couleur\":\"Gris\",\"immatriculation\":\"CH-" + i + "\","
+                        + "\"dateAcquisition\":\"2022-01-01\"}")
+                .collect(Collectors.joining("\n"));
+        String permis = IntStream.range(0, nbConducteurs)
+                .mapToObj(i -> "{\"nom\":\"Nom" + i + "\",\"prenom\":\"Prenom" + i + "\","
+                        + "\"dateNaissance\":\"" + LocalDate.of(1970, 1, 1).plusDays(i) + "\","
+                        + "\"numeroPermis\":\"CH" + i + "\",\"adresse\":\"Adresse " + i + "\"}")
+                .collect(Collectors.joining("\n"));
+        importer("/api/vehicules/import", flotte);
+        importer("/api/clients/import", permis);
+
+        vehicules = identifiants("/api/vehicules/disponibles");
+        conducteurs = identifiants("/api/clients");
+    }
+
+    private void importer(String chemin, String ndjson) throws Exception {
+        HttpResponse<String> reponse = http.send(construire(chemin)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson)).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, reponse.statusCode(), reponse.body());
+    }
+
+    private long[] identifiants(String chemin) throws Exception {
+        HttpResponse<String> reponse = http.send(construire(chemin).GET().build(), HttpResponse.BodyHandlers.ofString());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode noeud : objectMapper.readTree(reponse.body())) {
+            ids.add(noeud.get("id").asLong());
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Table de tirage : chaque scénario y figure autant de fois que son poids
+     */
+    private static Scenario[] tirage(String mix) {
+        List<Scenario> tirage = new ArrayList<>();
+        for (String element : mix.split(",")) {
+            String[] poids = element.trim().split("=");
+            Scenario scenario = Scenario.valueOf(poids[0].trim().toUpperCase(Locale.ROOT));
+            for (int i = 0; i < Integer.parseInt(poids[1].trim()); i++) {
+                tirage.add(scenario);
+            }
+        }
+        return tirage.toArray(new Scenario[0]);
+    }
+
+    private static void afficher(Map<Scenario, Mesures> mesures, int clients, int secondes) {
+        System.out.printf("%n[charge] %d clients pendant %d s (latences en ms)%n", clients, secondes);
+        System.out.printf("[charge] %-36s %9s %8s %7s %7s %7s %7s %8s %7s %7s%n",
+                "endpoint", "requêtes", "req/s", "p50", "p90", "p99", "p99.9", "max", "4xx", "erreurs");
+        Histogram global = new Histogram(LATENCE_MAX_MICROS, 3);
+        long requetes = 0;
+        long rejets = 0;
+        long erreurs = 0;
+        for (Scenario scenario : Scenario.values()) {
+            Mesures m = mesures.get(scenario);
+            global.add(m.latences);
+            requetes += m.total();
+            rejets += m.rejets.sum();
+            erreurs += m.erreurs.sum();
+            afficherLigne(scenario.libelle, m.latences, m.total(), m.rejets.sum(), m.erreurs.sum(), secondes);
+        }
+        afficherLigne("total", global, requetes, rejets, erreurs, secondes);
+    }
+
+    private static void afficherLigne(String libelle, Histogram latences, long requetes, long rejets, long erreurs, int secondes) {
+        System.out.printf("[charge] %-36s %9d %8.0f %7.2f %7.2f %7.2f %7.2f %8.2f %6.1f%% %6.2f%%%n",
+                libelle, requetes, requetes / (double) secondes,
+                latences.getValueAtPercentile(50) / 1e3, latences.getValueAtPercentile(90) / 1e3,
+                latences.getValueAtPercentile(99) / 1e3, latences.getValueAtPercentile(99.9) / 1e3,
+                latences.getMaxValue() / 1e3,
+                requetes == 0 ? 0 : 100.0 * rejets / requetes, requetes == 0 ? 0 : 100.0 * erreurs / requetes);
+    }
+}
@@ -0,0 +1,93 @@
+package com.BFB.automobile;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark du temps de démarrage (jusqu'à l'application prête) sur une base persistante volumineuse
+ *
+ * Au premier lancement, la base est créée par Flyway puis peuplée par le profil "bulk-data"
+ * (clients et véhicules dans les proportions par défaut du générateur). Elle est conservée
+ * ensuite : les lancements suivants ne mesurent que les redémarrages.
+ *
+ * Exclu de "mvn test" : mvn test -Pbenchmark -Dtest=DemarrageBenchmarkTest
+ * Base : -Dbfb.bench.base=target/bench-base (défaut), -Dbfb.bench.contrats=1000000 (défaut,
+ * environ 20 000 000 pour une base de 5 Go, taille jamais mesurée), -Dbfb.bench.demarrages=5
+ */
+@Tag("benchmark")
+class DemarrageBenchmarkTest {
+
+    @Test
+    void mesurerTempsDemarrage() throws IOException {
+        Path base = Path.of(System.getProperty("bfb.bench.base", "target/bench-base")).toAbsolutePath();
+        long nbContrats = Long.getLong("bfb.bench.contrats", 1_000_000L);
+        int nbDemarrages = Integer.getInteger("bfb.bench.demarrages", 5);
+
+        if (!Files.exists(base.resolve("bfb_automobile.mv.db"))) {
+            long debut = System.nanoTime();
+            demarrer(base, "persistant,bulk-data",
+                "--bfb.donnees.contrats=" + nbContrats,
+                "--bfb.donnees.vehicules=" + Math.max(1, nbContrats / 100),
+                "--bfb.donnees.clients=" + Math.max(1, nbContrats / 10)).close();
+            System.out.printf("Base générée en %.1f s%n", (System.nanoTime() - debut) / 1e9);
+        }
+
+        long contrats = 0;
+        List<Double> durees = new ArrayList<>();
+        for (int i = 0; i < nbDemarrages; i++) {
+            long debut = System.nanoTime();
+            try (ConfigurableApplicationContext contexte = demarrer(base, "persistant")) {
+                durees.add((System.nanoTime() - debut) / 1e9);
+                contrats = contexte.getBean(JdbcTemplate.class)
+                    .queryForObject("SELECT COUNT(*) FROM contrats", Long.class);
+            }
+        }
+
+        double[] tries = durees.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        System.out.printf("Base : %d contrats, %.2f Go%n", contrats, taille(base) / 1e9);
+        System.out.printf("Démarrage jusqu'à l'application prête (s) : %s%n", durees);
+        System.out.printf("  min %.2f s, médiane %.2f s, max %.2f s%n",
+            tries[0], tries[tries.length / 2], tries[tries.length - 1]);
+        assertEquals(nbDemarrages, durees.size());
+    }
+
+    /**
+     * Démarre l'application complète (serveur web compris) et rend la main une fois prête
+     */
+    private ConfigurableApplicationContext demarrer(Path base, String profils, String... arguments) {
+        String[] communs = {
+            "--server.port=0",
+            "--bfb.persistance.repertoire=" + base,
+            "--bfb.recherche.index.repertoire=" + base.resolve("index-recherche"),
+            "--spring.jpa.show-sql=false",
+            "--logging.level.com.BFB.automobile=INFO",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+        };
+        String[] tous = Stream.concat(Arrays.stream(communs), Arrays.stream(arguments)).toArray(String[]::new);
+        return new SpringApplicationBuilder(AutomobileApplication.class)
+            .profiles(profils.split(","))
+            .run(tous);
+    }
+
+    private long taille(Path base) throws IOException {
+        try (Stream<Path> fichiers = Files.list(base)) {
+            return fichiers.filter(f -> f.getFileName().toString().endsWith(".mv.db"))
+                .mapToLong(f -> f.toFile().length())
+                .sum();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.BFB.automobile.business.archivage;
+
+import com.BFB.automobile.data.*;
+import com.BFB.automobile.data.repository.ContratArchiveRepository;
+import com.BFB.automobile.data.repository.ContratRepository;
+import com.BFB.automobile.data.sync.SequencesSync;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration de l'archivage : déplacement par lots et historique réunissant les deux tables
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.sql.init.mode=never"
+})
+class ArchivageContratsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ContratRepository contratRepository;
+
+    @Autowired
+    private ContratArchiveRepository contratArchiveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ArchivageContrats archivage;
+    private Client client;
+    private Vehicule vehicule;
+
+    @BeforeEach
+    void setUp() {
+        // Lots de 2 contrats : l'archivage de 3 contrats en demande plusieurs
+        archivage = new ArchivageContrats(namedParameterJdbcTemplate, transactionManager,
+                new SequencesSync(jdbcTemplate), new SimpleMeterRegistry(), 90, 2);
+
+        client = Client.builder()
+                .nom("Dupont")
+                .prenom("Jean")
+                .dateNaissance(LocalDate.of(1990, 5, 15))
+                .numeroPermis("567890123")
+                .adresse("10 Rue de la Paix")
+                .actif(true)
+                .build();
+        vehicule = Vehicule.builder()
+                .marque("Peugeot")
+                .modele("308")
+                .motorisation("Diesel")
+                .couleur("Blanc")
+                .immatriculation("KL-012-MN")
+                .dateAcquisition(LocalDate.of(2020, 1, 15))
+                .etat(EtatVehicule.DISPONIBLE)
+                .build();
+        entityManager.persist(client);
+        entityManager.persist(vehicule);
+
+        LocalDate ancien = LocalDate.now().minusYears(1);
+        contrat(ancien, EtatContrat.TERMINE);
+        contrat(ancien.plusDays(10), EtatContrat.ANNULE);
+        contrat(ancien.plusDays(20), EtatContrat.TERMINE);
+        contrat(ancien.plusDays(30), EtatContrat.EN_RETARD);
+        contrat(LocalDate.now().minusDays(20), EtatContrat.TERMINE);
+        entityManager.flush();
+    }
+
+    @Test
+    void archiver_devraitDeplacerLesContratsClosAnciensUniquement() {
+        assertEquals(3, archivage.archiver());
+        entityManager.clear();
+
+        assertEquals(2, contratRepository.count());
+        assertEquals(3, contratArchiveRepository.count());
+        assertEquals(2, contratArchiveRepository.countByEtat(EtatContrat.TERMINE));
+        assertTrue(contratRepository.findAll().stream()
+                .allMatch(c -> c.getEtat() == EtatContrat.EN_RETARD || c.getDateFin().isAfter(LocalDate.now().minusDays(90))));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + SequencesSync.SUPPRESSIONS + " WHERE entite = 'CONTRAT'", Integer.class));
+
+        // Plus rien à archiver
+        assertEquals(0, archivage.archiver());
+    }
+
+    @Test
+    void findHistoriqueClient_devraitReunirContratsCourantsEtArchivesParPage() {
+        List<Long> avant = contratRepository.findHistoriqueClient(client.getId(), PageRequest.of(0, 10))
+                .map(Contrat::getId).getContent();
+        archivage.archiver();
+        entityManager.clear();
+
+        Page<Contrat> premiere = contratRepository.findHistoriqueClient(client.getId(), PageRequest.of(0, 2));
+        Page<Contrat> derniere = contratRepository.findHistoriqueVehicule(vehicule.getId(), PageRequest.of(2, 2));
+
+        assertEquals(5, premiere.getTotalElements());
+        assertEquals(3, premiere.getTotalPages());
+        assertEquals(avant.subList(0, 2), premiere.map(Contrat::getId).getContent());
+        assertEquals(avant.subList(4, 5), derniere.map(Contrat::getId).getContent());
+        assertEquals(EtatContrat.TERMINE, derniere.getContent().get(0).getEtat());
+        assertEquals(client.getId(), derniere.getContent().get(0).getClient().getId());
+    }
+
+    private void contrat(LocalDate debut, EtatContrat etat) {
+        entityManager.persist(Contrat.builder()
+                .client(client)
+                .vehicule(vehicule)
+                .dateDebut(debut)
+                .dateFin(debut.plusDays(5))
+                .etat(etat)
+                .build());
+    }
+}
@@ -0,0 +1,142 @@
+package com.BFB.automobile.business.importation;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.data.Vehicule;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ImportateurEnMasseTest {
+    
+    private ImportateurEnMasse importateur;
+    private StrategieTest strategie;
+    
+    @BeforeEach
+    void setUp() {
+        importateur = new ImportateurEnMasse(
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(importateur, "entityManager", mock(EntityManager.class));
+        strategie = new StrategieTest(Set.of("AB-123-CD"));
+    }
+    
+    @Test
+    void importer_devraitRejeterLignesInvalidesEtDoublons() {
+        List<LigneImport<Vehicule>> lignes = List.of(
+            LigneImport.valide(2, vehicule("AA-001-AA")),
+            LigneImport.valide(3, vehicule("AB-123-CD")),           // déjà en base
+            LigneImport.valide(4, vehicule("AA-001-AA")),           // doublon dans le fichier
+            LigneImport.valide(5, vehicule("")),                    // immatriculation vide
+            LigneImport.illisible(6, "Unexpected character"),
+            LigneImport.valide(7, vehicule("ZZ-999-ZZ")));          // refusée par la stratégie
+        
+        RapportImport rapport = importateur.importer(lignes.iterator(), strategie);
+        
+        assertEquals(6, rapport.lignesLues());
+        assertEquals(1, rapport.lignesImportees());
+        assertEquals(5, rapport.lignesRejetees());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), rapport.erreurs().stream().map(ErreurImport::ligne).toList());
+        assertEquals(List.of("IMMATRICULATION_EXISTE", "IMMATRICULATION_EXISTE", "VALIDATION_ERROR",
+                "LIGNE_ILLISIBLE", "INTERDIT"),
+            rapport.erreurs().stream().map(ErreurImport::code).toList());
+        assertFalse(rapport.erreursTronquees());
+        assertEquals(List.of(1), strategie.taillesLots);
+    }
+    
+    @Test
+    void importer_devraitEnregistrerParLots() {
+        int total = ImportateurEnMasse.TAILLE_LOT * 2 + 10;
+        
+        RapportImport rapport = importateur.importer(LongStream.rangeClosed(1, total)
+            .mapToObj(i -> LigneImport.valide(i, vehicule("IM-" + i)))
+            .iterator(), strategie);
+        
+        assertEquals(total, rapport.lignesImportees());
+        assertEquals(List.of(ImportateurEnMasse.TAILLE_LOT, ImportateurEnMasse.TAILLE_LOT, 10),
+            strategie.taillesLots);
+    }
+    
+    @Test
+    void importer_devraitIsolerLesLignesEnEchecALEnregistrement() {
+        strategie.immatriculationEnConflit = "IM-2";
+        
+        RapportImport rapport = importateur.importer(List.of(
+            LigneImport.valide(1, vehicule("IM-1")),
+            LigneImport.valide(2, vehicule("IM-2")),
+            LigneImport.valide(3, vehicule("IM-3"))).iterator(), strategie);
+        
+        assertEquals(2, rapport.lignesImportees());
+        assertEquals(1, rapport.lignesRejetees());
+        assertEquals("ERREUR_ENREGISTREMENT", rapport.erreurs().get(0).code());
+        assertEquals(2, rapport.erreurs().get(0).ligne());
+    }
+    
+    @Test
+    void importer_devraitTronquerLeDetailDesErreurs() {
+        int total = ImportateurEnMasse.MAX_ERREURS_DETAILLEES + 5;
+        
+        RapportImport rapport = importateur.importer(LongStream.rangeClosed(1, total)
+            .mapToObj(i -> LigneImport.<Vehicule>illisible(i, "illisible"))
+            .iterator(), strategie);
+        
+        assertEquals(total, rapport.lignesRejetees());
+        assertEquals(ImportateurEnMasse.MAX_ERREURS_DETAILLEES, rapport.erreurs().size());
+        assertTrue(rapport.erreursTronquees());
+    }
+    
+    private static Vehicule vehicule(String immatriculation) {
+        return new Vehicule("Peugeot", "308", "Diesel", "Gris", immatriculation, LocalDate.of(2020, 1, 1));
+    }
+    
+    private static final class StrategieTest implements StrategieImport<Vehicule> {
+        private final Set<String> existantes;
+        private final List<Integer> taillesLots = new ArrayList<>();
+        private String immatriculationEnConflit;
+        
+        StrategieTest(Set<String> existantes) {
+            this.existantes = existantes;
+        }
+        
+        @Override
+        public Set<String> chargerClesExistantes() {
+            return existantes;
+        }
+        
+        @Override
+        public List<String> cles(Vehicule vehicule) {
+            return List.of(vehicule.getImmatriculation());
+        }
+        
+        @Override
+        public void verifier(Vehicule vehicule) {
+            if (vehicule.getImmatriculation().startsWith("ZZ")) {
+                throw new BusinessException("INTERDIT", "Immatriculation interdite");
+            }
+        }
+        
+        @Override
+        public String codeDoublon(String cle) {
+            return "IMMATRICULATION_EXISTE";
+        }
+        
+        @Override
+        public void enregistrer(List<Vehicule> lot) {
+            if (lot.stream().anyMatch(v -> v.getImmatriculation().equals(immatriculationEnConflit))) {
+                throw new IllegalStateException("violation de contrainte");
+            }
+            taillesLots.add(lot.size());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.BFB.automobile.business.journal;
+
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.business.statistiques.EtatsFlotte;
+import com.BFB.automobile.data.EtatContrat;
+import com.BFB.automobile.data.EtatVehicule;
+import com.BFB.automobile.data.Vehicule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'écriture et de relecture du journal des transitions
+ */
+class JournalTransitionsTest {
+
+    @TempDir
+    Path repertoire;
+
+    private JournalTransitions journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new JournalTransitions(repertoire.toString(), 1);
+        journal.ouvrir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.fermer();
+    }
+
+    @Test
+    void rejouer_sansCliche_devraitRenvoyerMoinsUn() throws IOException {
+        journal.surContrat(contrat(EtatContrat.EN_ATTENTE, EtatContrat.EN_COURS));
+
+        assertEquals(-1, journal.rejouer(new Enregistreur()));
+    }
+
+    @Test
+    void rejouer_devraitRestaurerLeDernierClicheEtLesTransitionsSuivantes() throws IOException {
+        journal.surContrat(contrat(null, EtatContrat.EN_ATTENTE));
+        journal.cliche(cliche(3));
+        journal.surContrat(contrat(EtatContrat.EN_ATTENTE, EtatContrat.EN_COURS));
+        journal.cliche(cliche(7));
+        journal.surContrat(contrat(EtatContrat.EN_COURS, EtatContrat.TERMINE));
+        journal.surVehicule(new VehiculeEvent(VehiculeEvent.Type.ETAT_CHANGE, vehicule(), EtatVehicule.EN_LOCATION));
+
+        // Réouverture : relecture depuis les fichiers
+        journal.fermer();
+        journal.ouvrir();
+        Enregistreur enregistreur = new Enregistreur();
+        assertEquals(2, journal.rejouer(enregistreur));
+
+        assertEquals(7L, enregistreur.cliche.vehicules().get(EtatVehicule.DISPONIBLE));
+        assertEquals(Instant.ofEpochMilli(1000), enregistreur.cliche.derniereReconciliation());
+        ContratEvent contrat = enregistreur.contrats.get(0);
+        assertEquals(ContratEvent.Type.ETAT_CHANGE, contrat.type());
+        assertEquals(EtatContrat.EN_COURS, contrat.ancienEtat());
+        assertEquals(EtatContrat.TERMINE, contrat.nouvelEtat());
+        assertEquals(LocalDate.of(2025, 3, 1), contrat.dateDebut());
+        assertEquals("Rendu à l'agence", contrat.commentaire());
+        VehiculeEvent vehicule = enregistreur.vehicules.get(0);
+        assertEquals(42L, vehicule.vehicule().getId());
+        assertEquals(EtatVehicule.EN_LOCATION, vehicule.ancienEtat());
+        assertEquals(EtatVehicule.DISPONIBLE, vehicule.vehicule().getEtat());
+    }
+
+    private static ContratEvent contrat(EtatContrat ancien, EtatContrat nouveau) {
+        ContratEvent.Type type = ancien == null ? ContratEvent.Type.CREE : ContratEvent.Type.ETAT_CHANGE;
+        return new ContratEvent(type, 1L, 2L, 42L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 8),
+            ancien, nouveau, "Rendu à l'agence");
+    }
+
+    private static Vehicule vehicule() {
+        Vehicule vehicule = new Vehicule();
+        vehicule.setId(42L);
+        vehicule.setEtat(EtatVehicule.DISPONIBLE);
+        return vehicule;
+    }
+
+    private static EtatsFlotte cliche(long disponibles) {
+        return new EtatsFlotte(Map.of(EtatVehicule.DISPONIBLE, disponibles), Map.of(EtatContrat.EN_COURS, 1L),
+            Instant.ofEpochMilli(1000));
+    }
+
+    private static class Enregistreur implements JournalTransitions.Projection {
+        private EtatsFlotte cliche;
+        private final List<ContratEvent> contrats = new ArrayList<>();
+        private final List<VehiculeEvent> vehicules = new ArrayList<>();
+
+        @Override
+        public void restaurer(EtatsFlotte cliche) {
+            this.cliche = cliche;
+        }
+
+        @Override
+        public void surContrat(ContratEvent event) {
+            contrats.add(event);
+        }
+
+        @Override
+        public void surVehicule(VehiculeEvent event) {
+            vehicules.add(event);
+        }
+    }
+}
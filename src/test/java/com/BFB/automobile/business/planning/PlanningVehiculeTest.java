@@ -0,0 +1,46 @@
+package com.BFB.automobile.business.planning;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanningVehiculeTest {
+    
+    private static final LocalDate J = LocalDate.of(2030, 6, 1);
+    
+    private PlanningVehicule planning;
+    
+    @BeforeEach
+    void setUp() {
+        planning = new PlanningVehicule();
+        planning.occuper(J, J.plusDays(3));
+        planning.occuper(J.plusDays(10), J.plusDays(12));
+    }
+    
+    @Test
+    void estLibre_devraitDetecterChevauchements_bornesIncluses() {
+        assertFalse(planning.estLibre(J.plusDays(3), J.plusDays(5)));
+        assertFalse(planning.estLibre(J.minusDays(2), J));
+        assertFalse(planning.estLibre(J.plusDays(5), J.plusDays(20)));
+        assertFalse(planning.estLibre(J.plusDays(11), J.plusDays(11)));
+    }
+    
+    @Test
+    void estLibre_devraitAccepterPeriodesIntercalees() {
+        assertTrue(planning.estLibre(J.plusDays(4), J.plusDays(9)));
+        assertTrue(planning.estLibre(J.minusDays(5), J.minusDays(1)));
+        assertTrue(planning.estLibre(J.plusDays(13), J.plusDays(30)));
+    }
+    
+    @Test
+    void occuper_devraitFusionnerPeriodesChevauchantes() {
+        planning.occuper(J.plusDays(2), J.plusDays(11));
+        
+        assertEquals(1, planning.taille());
+        assertFalse(planning.estLibre(J.plusDays(12), J.plusDays(12)));
+        assertTrue(planning.estLibre(J.plusDays(13), J.plusDays(13)));
+    }
+}
@@ -0,0 +1,148 @@
+package com.BFB.automobile.business.recherche;
+
+import com.BFB.automobile.business.event.ClientEvent;
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.data.*;
+import com.BFB.automobile.data.repository.ClientRepository;
+import com.BFB.automobile.data.repository.ContratRepository;
+import com.BFB.automobile.data.repository.VehiculeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RechercheIndexTest {
+    
+    @TempDir
+    Path repertoire;
+    
+    @Mock
+    private ClientRepository clientRepository;
+    
+    @Mock
+    private VehiculeRepository vehiculeRepository;
+    
+    @Mock
+    private ContratRepository contratRepository;
+    
+    private RechercheIndex index;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        Client client = Client.builder()
+                .nom("Dupont")
+                .prenom("Jean")
+                .dateNaissance(LocalDate.of(1990, 5, 15))
+                .numeroPermis("123456789")
+                .adresse("10 rue de la Paix, Paris")
+                .build();
+        client.setId(1L);
+        
+        Vehicule vehicule = Vehicule.builder()
+                .marque("Citroën")
+                .modele("C3")
+                .motorisation("1.2 PureTech")
+                .couleur("Rouge")
+                .immatriculation("IJ-789-KL")
+                .dateAcquisition(LocalDate.of(2023, 2, 10))
+                .build();
+        vehicule.setId(3L);
+        
+        Contrat contrat = Contrat.builder()
+                .dateDebut(LocalDate.now().plusDays(1))
+                .dateFin(LocalDate.now().plusDays(5))
+                .commentaire("Déménagement à Paris")
+                .build();
+        contrat.setId(7L);
+        
+        when(clientRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(client)));
+        when(vehiculeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(vehicule)));
+        when(contratRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(contrat)));
+        
+        index = new RechercheIndex(repertoire.toString(), clientRepository, vehiculeRepository, contratRepository, true);
+        index.ouvrir();
+        index.reconstruire();
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        index.fermer();
+    }
+    
+    @Test
+    void rechercher_devraitTrouverToutesLesEntitesAvecFacettes() {
+        PageRecherche resultat = index.rechercher("paris", null, 0, 10);
+        
+        assertEquals(2, resultat.total());
+        assertEquals(1L, resultat.facettes().get(TypeEntite.CLIENT));
+        assertEquals(1L, resultat.facettes().get(TypeEntite.CONTRAT));
+        assertEquals(0L, resultat.facettes().get(TypeEntite.VEHICULE));
+    }
+    
+    @Test
+    void rechercher_devraitIgnorerAccentsEtCasse() {
+        PageRecherche resultat = index.rechercher("CITROEN rouge", null, 0, 10);
+        
+        assertEquals(1, resultat.resultats().size());
+        assertEquals(TypeEntite.VEHICULE, resultat.resultats().get(0).type());
+        assertEquals(3L, resultat.resultats().get(0).id());
+    }
+    
+    @Test
+    void rechercher_devraitFiltrerParTypeEtPaginer() {
+        PageRecherche resultat = index.rechercher("paris", TypeEntite.CONTRAT, 0, 10);
+        assertEquals(1, resultat.total());
+        assertEquals(7L, resultat.resultats().get(0).id());
+        
+        PageRecherche pageSuivante = index.rechercher("paris", null, 1, 1);
+        assertEquals(1, pageSuivante.resultats().size());
+    }
+    
+    @Test
+    void evenements_devraientMettreAJourLIndex() {
+        Vehicule nouveau = Vehicule.builder()
+                .marque("Renault")
+                .modele("Clio")
+                .motorisation("TCe 90")
+                .couleur("Blanc")
+                .immatriculation("EF-456-GH")
+                .dateAcquisition(LocalDate.of(2023, 3, 20))
+                .build();
+        nouveau.setId(2L);
+        
+        index.surVehicule(new VehiculeEvent(VehiculeEvent.Type.CREE, nouveau, null));
+        assertEquals(1, index.rechercher("clio", null, 0, 10).total());
+        
+        index.surVehicule(new VehiculeEvent(VehiculeEvent.Type.SUPPRIME, nouveau, EtatVehicule.DISPONIBLE));
+        assertEquals(0, index.rechercher("clio", null, 0, 10).total());
+        
+        index.surContrat(new ContratEvent(ContratEvent.Type.MODIFIE, 7L, 1L, 3L,
+                LocalDate.now(), LocalDate.now(), EtatContrat.EN_ATTENTE, EtatContrat.EN_ATTENTE, null));
+        assertEquals(0, index.rechercher("demenagement", null, 0, 10).total());
+    }
+    
+    @Test
+    void surClient_desactive_devraitRetirerLeClientDeLIndex() {
+        Client client = Client.builder().nom("Dupont").prenom("Jean").adresse("10 rue de la Paix, Paris").actif(false).build();
+        client.setId(1L);
+        
+        index.surClient(new ClientEvent(ClientEvent.Type.DESACTIVE, client));
+        
+        assertEquals(0L, index.rechercher("dupont", null, 0, 10).total());
+    }
+}
@@ -1,6 +1,8 @@
 package com.BFB.automobile.business.service;
 
 import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.suggestion.Suggestion;
+import com.BFB.automobile.business.suggestion.SuggestionIndex;
 import com.BFB.automobile.data.Client;
 import com.BFB.automobile.data.repository.ClientRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -25,6 +28,12 @@ class ClientServiceTest {
     @Mock
     private ClientRepository clientRepository;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private SuggestionIndex suggestionIndex;
+    
     @InjectMocks
     private ClientService clientService;
     
@@ -149,4 +158,13 @@ class ClientServiceTest {
         assertEquals(1, results.size());
         verify(clientRepository, times(1)).searchByNomAndPrenom("Dupont", "Jean");
     }
+    
+    @Test
+    void suggererClients_devraitInterrogerLIndexSansAccesBase() {
+        List<Suggestion> suggestions = List.of(new Suggestion(1L, "Dupont Jean (123456789)"));
+        when(suggestionIndex.suggererClients("dup", 5)).thenReturn(suggestions);
+        
+        assertEquals(suggestions, clientService.suggererClients("dup", 5));
+        verifyNoInteractions(clientRepository);
+    }
 }
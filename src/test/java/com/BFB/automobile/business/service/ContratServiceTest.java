@@ -1,25 +1,30 @@
 package com.BFB.automobile.business.service;
 
 import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.planning.ResultatReservation;
+import com.BFB.automobile.business.validation.*;
 import com.BFB.automobile.data.*;
 import com.BFB.automobile.data.repository.ClientRepository;
 import com.BFB.automobile.data.repository.ContratRepository;
 import com.BFB.automobile.data.repository.VehiculeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,7 +39,12 @@ class ContratServiceTest {
     @Mock
     private VehiculeRepository vehiculeRepository;
     
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
     private ContratService contratService;
     
     private Client clientActif;
@@ -43,6 +53,15 @@ class ContratServiceTest {
     
     @BeforeEach
     void setUp() {
+        ContratValidationChain validationChain = new ContratValidationChain(
+            new DateValidationHandler(),
+            new ClientValidationHandler(),
+            new VehiculeValidationHandler(),
+            new DisponibiliteValidationHandler(contratRepository),
+            new SimpleMeterRegistry());
+        contratService = new ContratService(contratRepository, clientRepository, vehiculeRepository,
+            validationChain, eventPublisher, meterRegistry);
+        
         clientActif = Client.builder()
                 .nom("Dupont")
                 .prenom("Jean")
@@ -77,8 +96,7 @@ class ContratServiceTest {
     void creerContrat_devraitReussir_avecDonneesValides() {
         when(clientRepository.findById(1L)).thenReturn(Optional.of(clientActif));
         when(vehiculeRepository.findById(1L)).thenReturn(Optional.of(vehiculeDisponible));
-        when(contratRepository.findContratsConflictuels(anyLong(), any(), any()))
-            .thenReturn(Arrays.asList());
+        when(contratRepository.existeConflits(any(), anyLong(), anyLong(), any(), any())).thenReturn(0);
         when(contratRepository.save(any(Contrat.class))).thenReturn(contratValide);
         
         Contrat resultat = contratService.creerContrat(contratValide);
@@ -94,8 +112,7 @@ class ContratServiceTest {
         
         when(clientRepository.findById(1L)).thenReturn(Optional.of(clientActif));
         when(vehiculeRepository.findById(1L)).thenReturn(Optional.of(vehiculeDisponible));
-        when(contratRepository.findContratsConflictuels(anyLong(), any(), any()))
-            .thenReturn(Arrays.asList());
+        when(contratRepository.existeConflits(any(), anyLong(), anyLong(), any(), any())).thenReturn(0);
         when(contratRepository.save(any(Contrat.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(vehiculeRepository.save(any(Vehicule.class))).thenReturn(vehiculeDisponible);
         
@@ -119,6 +136,7 @@ class ContratServiceTest {
     void creerContrat_devraitLeverException_siClientInactif() {
         clientActif.setActif(false);
         when(clientRepository.findById(1L)).thenReturn(Optional.of(clientActif));
+        when(vehiculeRepository.findById(1L)).thenReturn(Optional.of(vehiculeDisponible));
         
         BusinessException exception = assertThrows(BusinessException.class,
             () -> contratService.creerContrat(contratValide));
@@ -179,18 +197,93 @@ class ContratServiceTest {
     
     @Test
     void creerContrat_devraitLeverException_siConflitAvecAutreContrat() {
-        Contrat contratExistant = new Contrat();
-        contratExistant.setId(999L);
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(clientActif));
+        when(vehiculeRepository.findById(1L)).thenReturn(Optional.of(vehiculeDisponible));
+        when(contratRepository.existeConflits(null, 1L, 1L, contratValide.getDateDebut(), contratValide.getDateFin()))
+            .thenReturn(ContratRepository.CONFLIT_VEHICULE);
+        
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> contratService.creerContrat(contratValide));
         
+        assertEquals("VEHICULE_DEJA_LOUE", exception.getCode());
+        verify(contratRepository, never()).findContratsConflictuels(anyLong(), any(), any());
+        verify(contratRepository, never()).save(any(Contrat.class));
+    }
+    
+    @Test
+    void creerContrat_devraitLeverException_siClientDejaSousContrat() {
         when(clientRepository.findById(1L)).thenReturn(Optional.of(clientActif));
         when(vehiculeRepository.findById(1L)).thenReturn(Optional.of(vehiculeDisponible));
-        when(contratRepository.findContratsConflictuels(anyLong(), any(), any()))
-            .thenReturn(Arrays.asList(contratExistant));
+        when(contratRepository.existeConflits(any(), anyLong(), anyLong(), any(), any()))
+            .thenReturn(ContratRepository.CONFLIT_CLIENT);
         
         BusinessException exception = assertThrows(BusinessException.class,
             () -> contratService.creerContrat(contratValide));
         
+        assertEquals("CLIENT_DEJA_CONTRAT", exception.getCode());
+    }
+    
+    @Test
+    void mettreAJourContrat_devraitValiderLesNouvellesDatesSansSeBloquerLuiMeme() {
+        contratValide.setId(7L);
+        LocalDate nouveauDebut = LocalDate.now().plusDays(8);
+        LocalDate nouvelleFin = LocalDate.now().plusDays(12);
+        Contrat modification = Contrat.builder().dateDebut(nouveauDebut).dateFin(nouvelleFin).build();
+        
+        when(contratRepository.findById(7L)).thenReturn(Optional.of(contratValide));
+        when(contratRepository.existeConflits(7L, 1L, 1L, nouveauDebut, nouvelleFin)).thenReturn(0);
+        when(contratRepository.save(any(Contrat.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Contrat resultat = contratService.mettreAJourContrat(7L, modification);
+        
+        assertEquals(nouveauDebut, resultat.getDateDebut());
+        assertEquals(nouvelleFin, resultat.getDateFin());
+        verify(contratRepository, never()).findContratsConflictuels(anyLong(), any(), any());
+    }
+    
+    @Test
+    void mettreAJourContrat_devraitLeverException_siConflitAvecAutreContrat() {
+        contratValide.setId(7L);
+        Contrat modification = Contrat.builder()
+                .dateDebut(LocalDate.now().plusDays(8))
+                .dateFin(LocalDate.now().plusDays(12))
+                .build();
+        
+        when(contratRepository.findById(7L)).thenReturn(Optional.of(contratValide));
+        when(contratRepository.existeConflits(eq(7L), anyLong(), anyLong(), any(), any()))
+            .thenReturn(ContratRepository.CONFLIT_VEHICULE);
+        
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> contratService.mettreAJourContrat(7L, modification));
+        
         assertEquals("VEHICULE_DEJA_LOUE", exception.getCode());
+        verify(contratRepository, never()).save(any(Contrat.class));
+    }
+    
+    @Test
+    void mettreAJourContrat_devraitAppliquerLesReglesDeCreation() {
+        contratValide.setId(7L);
+        LocalDate debut = LocalDate.now().plusDays(8);
+        when(contratRepository.findById(7L)).thenReturn(Optional.of(contratValide));
+        
+        // Nouvelle date de début passée
+        Contrat dansLePasse = Contrat.builder().dateDebut(LocalDate.now().minusDays(1)).dateFin(debut).build();
+        assertEquals("DATE_DEBUT_PASSEE", assertThrows(BusinessException.class,
+            () -> contratService.mettreAJourContrat(7L, dansLePasse)).getCode());
+        
+        // Client désactivé depuis la réservation
+        Contrat modification = Contrat.builder().dateDebut(debut).dateFin(debut.plusDays(4)).build();
+        clientActif.setActif(false);
+        assertEquals("CLIENT_INACTIF", assertThrows(BusinessException.class,
+            () -> contratService.mettreAJourContrat(7L, modification)).getCode());
+        
+        // Véhicule tombé en panne depuis la réservation
+        clientActif.setActif(true);
+        vehiculeDisponible.setEtat(EtatVehicule.EN_PANNE);
+        assertEquals("VEHICULE_EN_PANNE", assertThrows(BusinessException.class,
+            () -> contratService.mettreAJourContrat(7L, modification)).getCode());
+        
+        verify(contratRepository, never()).save(any(Contrat.class));
     }
     
     @Test
@@ -230,4 +323,91 @@ class ContratServiceTest {
         assertEquals(EtatVehicule.DISPONIBLE, vehiculeDisponible.getEtat());
     }
     
-}
\ No newline at end of file
+    @Test
+    void creerContrats_devraitRejeterConflitsEnBaseEtDansLeLot() {
+        LocalDate j5 = LocalDate.now().plusDays(5);
+        Contrat libre = demande(1L, j5, j5.plusDays(2));
+        Contrat chevaucheLeLot = demande(1L, j5.plusDays(2), j5.plusDays(4));
+        Contrat chevaucheLaBase = demande(1L, j5.plusDays(20), j5.plusDays(21));
+        Contrat clientInconnu = demande(1L, j5.plusDays(40), j5.plusDays(41));
+        clientInconnu.getClient().setId(99L);
+        Contrat apresLeLot = demande(1L, j5.plusDays(3), j5.plusDays(4));
+        
+        when(clientRepository.findAllById(any())).thenReturn(List.of(clientActif));
+        when(vehiculeRepository.findAllById(any())).thenReturn(List.of(vehiculeDisponible));
+        when(contratRepository.findPeriodesReservees(any(), any(), any())).thenReturn(List.<Object[]>of(
+            new Object[] {1L, j5.plusDays(18), j5.plusDays(20)}));
+        when(contratRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        List<ResultatReservation> resultats = contratService.creerContrats(
+            List.of(libre, chevaucheLeLot, chevaucheLaBase, clientInconnu, apresLeLot));
+        
+        assertEquals(List.of(true, false, false, false, true),
+            resultats.stream().map(ResultatReservation::estAcceptee).toList());
+        assertEquals("VEHICULE_DEJA_LOUE", resultats.get(1).code());
+        assertEquals("VEHICULE_DEJA_LOUE", resultats.get(2).code());
+        assertEquals("CLIENT_NON_TROUVE", resultats.get(3).code());
+        verify(contratRepository, times(1)).findPeriodesReservees(any(), any(), any());
+        verify(contratRepository, times(1)).saveAll(List.of(libre, apresLeLot));
+        verify(contratRepository, never()).findContratsConflictuels(anyLong(), any(), any());
+    }
+    
+    @Test
+    void creerContrats_devraitAppliquerLesReglesEnMemoireDeLaChaine() {
+        LocalDate j5 = LocalDate.now().plusDays(5);
+        Contrat valide = demande(1L, j5, j5.plusDays(2));
+        Contrat tropLong = demande(1L, j5.plusDays(10), j5.plusDays(10).plusYears(2));
+        Contrat passe = demande(1L, LocalDate.now().minusDays(1), j5.plusDays(1));
+        
+        when(clientRepository.findAllById(any())).thenReturn(List.of(clientActif));
+        when(vehiculeRepository.findAllById(any())).thenReturn(List.of(vehiculeDisponible));
+        when(contratRepository.findPeriodesReservees(any(), any(), any())).thenReturn(List.of());
+        when(contratRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        List<ResultatReservation> resultats = contratService.creerContrats(List.of(valide, tropLong, passe));
+        
+        assertEquals(List.of(true, false, false),
+            resultats.stream().map(ResultatReservation::estAcceptee).toList());
+        assertEquals("DUREE_EXCESSIVE", resultats.get(1).code());
+        assertEquals("DATE_DEBUT_PASSEE", resultats.get(2).code());
+        verify(contratRepository, times(1)).saveAll(List.of(valide));
+        // Disponibilité vérifiée sur le planning chargé, pas par le handler de la chaîne
+        verify(contratRepository, never()).existeConflits(any(), any(), any(), any(), any());
+    }
+    
+    @Test
+    void creerContrats_devraitEchouer_siLotTropVolumineux() {
+        List<Contrat> demandes = java.util.Collections.nCopies(ContratService.TAILLE_MAX_LOT + 1, contratValide);
+        
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> contratService.creerContrats(demandes));
+        assertEquals("LOT_TROP_VOLUMINEUX", exception.getCode());
+    }
+    
+    @Test
+    void traiterChangementsEtatAutomatiques_devraitMesurerChaquePhase() {
+        Contrat contratDuJour = demande(1L, LocalDate.now(), LocalDate.now().plusDays(3));
+        contratDuJour.setVehicule(vehiculeDisponible);
+        contratDuJour.setEtat(EtatContrat.EN_ATTENTE);
+        
+        when(contratRepository.findContratsADemarrerAujourdhui(any())).thenReturn(List.of(contratDuJour));
+        when(contratRepository.findContratsEnRetard(any())).thenReturn(List.of());
+        when(contratRepository.findByEtat(EtatContrat.EN_ATTENTE)).thenReturn(List.of());
+        when(contratRepository.save(any(Contrat.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        contratService.traiterChangementsEtatAutomatiques();
+        
+        assertEquals(1.0, meterRegistry.get("bfb.job.etats.lignes").tag("phase", "demarrage").counter().count());
+        assertEquals(0.0, meterRegistry.get("bfb.job.etats.lignes").tag("phase", "retards").counter().count());
+        assertEquals(3, meterRegistry.get("bfb.job.etats.phase").timers().size());
+        assertEquals(EtatContrat.EN_COURS, contratDuJour.getEtat());
+    }
+    
+    private Contrat demande(Long vehiculeId, LocalDate debut, LocalDate fin) {
+        Client client = new Client();
+        client.setId(clientActif.getId());
+        Vehicule vehicule = new Vehicule();
+        vehicule.setId(vehiculeId);
+        return Contrat.builder().client(client).vehicule(vehicule).dateDebut(debut).dateFin(fin).build();
+    }
+}
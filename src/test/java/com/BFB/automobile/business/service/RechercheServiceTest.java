@@ -0,0 +1,33 @@
+package com.BFB.automobile.business.service;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.recherche.RechercheIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RechercheServiceTest {
+    
+    @Mock
+    private RechercheIndex rechercheIndex;
+    
+    @InjectMocks
+    private RechercheService rechercheService;
+    
+    @Test
+    void rechercher_devraitRefuserUnePageAuDelaDesResultatsConsultables() {
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> rechercheService.rechercher("paris", null, 30_000_000, 100));
+        
+        assertEquals("PAGINATION_INVALIDE", exception.getCode());
+        assertThrows(BusinessException.class, () -> rechercheService.rechercher("paris", null, Integer.MAX_VALUE, 100));
+        verify(rechercheIndex, never()).rechercher(anyString(), any(), anyInt(), anyInt());
+    }
+}
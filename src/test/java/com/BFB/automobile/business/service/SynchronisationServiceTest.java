@@ -0,0 +1,88 @@
+package com.BFB.automobile.business.service;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.synchronisation.Changements;
+import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.data.repository.ClientRepository;
+import com.BFB.automobile.data.repository.ContratRepository;
+import com.BFB.automobile.data.repository.VehiculeRepository;
+import com.BFB.automobile.data.sync.SequencesSync;
+import com.BFB.automobile.data.sync.SequencesSync.Changement;
+import com.BFB.automobile.data.sync.SequencesSync.Entite;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SynchronisationServiceTest {
+    
+    @Mock
+    private SequencesSync sequencesSync;
+    
+    @Mock
+    private VehiculeRepository vehiculeRepository;
+    
+    @Mock
+    private ClientRepository clientRepository;
+    
+    @Mock
+    private ContratRepository contratRepository;
+    
+    @InjectMocks
+    private SynchronisationService synchronisationService;
+    
+    @Test
+    void obtenirChangements_pageComplete_devraitRenvoyerLaDerniereSequenceNonTerminee() {
+        when(sequencesSync.derniereValeur()).thenReturn(100L);
+        when(sequencesSync.filigrane()).thenReturn(90L);
+        when(sequencesSync.changements(10, 90, 2)).thenReturn(List.of(
+            new Changement(Entite.VEHICULE, 2L, 12, false),
+            new Changement(Entite.CONTRAT, 7L, 15, true)));
+        when(vehiculeRepository.findAllById(List.of(2L))).thenReturn(List.of(vehicule(2L)));
+        
+        Changements changements = synchronisationService.obtenirChangements("10", 2);
+        
+        assertEquals(15, changements.jeton());
+        assertFalse(changements.termine());
+        assertEquals(2L, changements.vehicules().get(0).getId());
+        assertEquals(List.of(7L), changements.contratsSupprimes());
+        verifyNoInteractions(clientRepository, contratRepository);
+    }
+    
+    @Test
+    void obtenirChangements_dernierePage_devraitRenvoyerLeFiligrane() {
+        when(sequencesSync.filigrane()).thenReturn(90L);
+        when(sequencesSync.changements(0, 90, 500)).thenReturn(List.of(
+            new Changement(Entite.VEHICULE, 2L, 12, false)));
+        when(vehiculeRepository.findAllById(List.of(2L))).thenReturn(List.of(vehicule(2L)));
+        
+        Changements changements = synchronisationService.obtenirChangements(null, 500);
+        
+        assertEquals(90, changements.jeton());
+        assertTrue(changements.termine());
+    }
+    
+    @Test
+    void obtenirChangements_devraitRefuserUnJetonInconnu() {
+        when(sequencesSync.derniereValeur()).thenReturn(100L);
+        
+        BusinessException exception = assertThrows(BusinessException.class,
+            () -> synchronisationService.obtenirChangements("5000", 500));
+        assertEquals("JETON_INVALIDE", exception.getCode());
+        assertThrows(BusinessException.class, () -> synchronisationService.obtenirChangements("abc", 500));
+        verify(sequencesSync, never()).changements(anyLong(), anyLong(), anyInt());
+    }
+    
+    private static Vehicule vehicule(Long id) {
+        Vehicule vehicule = new Vehicule();
+        vehicule.setId(id);
+        return vehicule;
+    }
+}
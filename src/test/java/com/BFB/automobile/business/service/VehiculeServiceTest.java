@@ -1,18 +1,25 @@
 package com.BFB.automobile.business.service;
 
 import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.importation.ImportateurEnMasse;
+import com.BFB.automobile.business.importation.StrategieImport;
+import com.BFB.automobile.business.suggestion.Suggestion;
+import com.BFB.automobile.business.suggestion.SuggestionIndex;
 import com.BFB.automobile.data.EtatVehicule;
 import com.BFB.automobile.data.Vehicule;
 import com.BFB.automobile.data.repository.VehiculeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +33,15 @@ class VehiculeServiceTest {
     @Mock
     private VehiculeRepository vehiculeRepository;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private ImportateurEnMasse importateur;
+    
+    @Mock
+    private SuggestionIndex suggestionIndex;
+    
     @InjectMocks
     private VehiculeService vehiculeService;
     
@@ -109,4 +125,26 @@ class VehiculeServiceTest {
         assertEquals(1, results.size());
         verify(vehiculeRepository, times(1)).searchByMarqueAndModele("Peugeot", "308");
     }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void importerVehicules_devraitPrefixerLesClesDUnicite() {
+        when(vehiculeRepository.findAllImmatriculations()).thenReturn(List.of("AA-123-BB"));
+        ArgumentCaptor<StrategieImport<Vehicule>> strategie = ArgumentCaptor.forClass(StrategieImport.class);
+        
+        vehiculeService.importerVehicules(Collections.emptyIterator());
+        
+        verify(importateur).importer(any(), strategie.capture());
+        assertEquals(List.of("immatriculation:AA-123-BB"), strategie.getValue().cles(vehiculeValide));
+        assertTrue(strategie.getValue().chargerClesExistantes().contains("immatriculation:AA-123-BB"));
+    }
+    
+    @Test
+    void suggererVehicules_devraitInterrogerLIndexSansAccesBase() {
+        List<Suggestion> suggestions = List.of(new Suggestion(1L, "Peugeot 308 - AA-123-BB"));
+        when(suggestionIndex.suggererVehicules("aa-1", 5)).thenReturn(suggestions);
+        
+        assertEquals(suggestions, vehiculeService.suggererVehicules("aa-1", 5));
+        verifyNoInteractions(vehiculeRepository);
+    }
 }
@@ -0,0 +1,99 @@
+package com.BFB.automobile.business.statistiques;
+
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.business.journal.JournalTransitions;
+import com.BFB.automobile.data.EtatContrat;
+import com.BFB.automobile.data.EtatVehicule;
+import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.data.repository.ContratArchiveRepository;
+import com.BFB.automobile.data.repository.ContratRepository;
+import com.BFB.automobile.data.repository.VehiculeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompteursEtatsTest {
+    
+    @Mock
+    private VehiculeRepository vehiculeRepository;
+    
+    @Mock
+    private ContratRepository contratRepository;
+    
+    @Mock
+    private ContratArchiveRepository contratArchiveRepository;
+    
+    @Mock
+    private ObjectProvider<JournalTransitions> journal;
+    
+    @InjectMocks
+    private CompteursEtats compteursEtats;
+    
+    @BeforeEach
+    void setUp() {
+        when(vehiculeRepository.countByEtat(any())).thenReturn(0L);
+        when(vehiculeRepository.countByEtat(EtatVehicule.DISPONIBLE)).thenReturn(5L);
+        when(contratRepository.countByEtat(any())).thenReturn(0L);
+        when(contratRepository.countByEtat(EtatContrat.EN_ATTENTE)).thenReturn(2L);
+        compteursEtats.reconcilier();
+    }
+    
+    @Test
+    void surVehicule_devraitSuivreCreationTransitionEtSuppression() {
+        compteursEtats.surVehicule(new VehiculeEvent(VehiculeEvent.Type.CREE, vehicule(EtatVehicule.DISPONIBLE), null));
+        compteursEtats.surVehicule(new VehiculeEvent(VehiculeEvent.Type.ETAT_CHANGE,
+            vehicule(EtatVehicule.EN_PANNE), EtatVehicule.DISPONIBLE));
+        compteursEtats.surVehicule(new VehiculeEvent(VehiculeEvent.Type.MODIFIE,
+            vehicule(EtatVehicule.DISPONIBLE), EtatVehicule.DISPONIBLE));
+        compteursEtats.surVehicule(new VehiculeEvent(VehiculeEvent.Type.SUPPRIME,
+            vehicule(EtatVehicule.EN_PANNE), EtatVehicule.EN_PANNE));
+        
+        assertEquals(5, compteursEtats.vehicules(EtatVehicule.DISPONIBLE));
+        assertEquals(0, compteursEtats.vehicules(EtatVehicule.EN_PANNE));
+    }
+    
+    @Test
+    void surContrat_devraitDeplacerLeCompteurAChaqueChangementEtat() {
+        compteursEtats.surContrat(contrat(ContratEvent.Type.CREE, null, EtatContrat.EN_ATTENTE));
+        compteursEtats.surContrat(contrat(ContratEvent.Type.ETAT_CHANGE, EtatContrat.EN_ATTENTE, EtatContrat.EN_COURS));
+        compteursEtats.surContrat(contrat(ContratEvent.Type.MODIFIE, EtatContrat.EN_COURS, EtatContrat.EN_COURS));
+        
+        EtatsFlotte etats = compteursEtats.instantane();
+        assertEquals(2, etats.contrats().get(EtatContrat.EN_ATTENTE));
+        assertEquals(1, etats.contrats().get(EtatContrat.EN_COURS));
+        assertEquals(EtatContrat.values().length, etats.contrats().size());
+        assertNotNull(etats.derniereReconciliation());
+    }
+    
+    @Test
+    void reconcilier_devraitCorrigerLaDerive() {
+        IntStream.range(0, 1000).parallel().forEach(i ->
+            compteursEtats.surContrat(contrat(ContratEvent.Type.CREE, null, EtatContrat.EN_ATTENTE)));
+        assertEquals(1002, compteursEtats.contrats(EtatContrat.EN_ATTENTE));
+        
+        compteursEtats.reconcilier();
+        
+        assertEquals(2, compteursEtats.contrats(EtatContrat.EN_ATTENTE));
+        assertEquals(5, compteursEtats.vehicules(EtatVehicule.DISPONIBLE));
+    }
+    
+    private static Vehicule vehicule(EtatVehicule etat) {
+        return Vehicule.builder().immatriculation("AB-123-CD").etat(etat).build();
+    }
+    
+    private static ContratEvent contrat(ContratEvent.Type type, EtatContrat ancien, EtatContrat nouveau) {
+        return new ContratEvent(type, 1L, 1L, 1L, null, null, ancien, nouveau, null);
+    }
+}
@@ -0,0 +1,132 @@
+package com.BFB.automobile.business.statistiques;
+
+import com.BFB.automobile.business.event.ContratEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.business.statistiques.Utilisation.Ligne;
+import com.BFB.automobile.business.statistiques.Utilisation.Regroupement;
+import com.BFB.automobile.data.EtatContrat;
+import com.BFB.automobile.data.Vehicule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du calcul d'occupation sur un instantané chargé sans base
+ */
+class OccupationFlotteTest {
+    
+    private static final LocalDate JANVIER = LocalDate.of(2025, 1, 1);
+    
+    private ForkJoinPool pool;
+    private OccupationFlotte occupation;
+    
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+        occupation = new OccupationFlotte(null, pool);
+        occupation.remplacer(chargement -> {
+            chargement.vehicule(1L, "Peugeot", "308", LocalDate.of(2020, 1, 1));
+            chargement.vehicule(2L, "Peugeot", "308", LocalDate.of(2025, 1, 16));
+            chargement.vehicule(3L, "Renault", "Clio", LocalDate.of(2020, 1, 1));
+            // Dans le désordre : le chargement trie par date de début
+            chargement.contrat(11L, 1L, LocalDate.of(2025, 1, 25), LocalDate.of(2025, 2, 5));
+            chargement.contrat(10L, 1L, LocalDate.of(2024, 12, 28), LocalDate.of(2025, 1, 10));
+            // Chevauche le contrat 10 : jours comptés une seule fois
+            chargement.contrat(12L, 1L, LocalDate.of(2025, 1, 5), LocalDate.of(2025, 1, 12));
+            chargement.contrat(30L, 3L, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 10));
+            // Véhicule inconnu : ignoré
+            chargement.contrat(40L, 4L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        });
+    }
+    
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+    
+    @Test
+    void calculer_parVehicule_devraitCompterLesJoursLouesEtDisponibles() {
+        Utilisation utilisation = occupation.calculer(JANVIER, LocalDate.of(2025, 1, 31), Regroupement.VEHICULE);
+        
+        assertEquals(List.of(
+            new Ligne(1L, "Peugeot", "308", null, 12 + 7, 31),
+            new Ligne(2L, "Peugeot", "308", null, 0, 16),
+            new Ligne(3L, "Renault", "Clio", null, 0, 31)), utilisation.lignes());
+        assertEquals(19, utilisation.joursLoues());
+        assertNotNull(utilisation.cliche());
+    }
+    
+    @Test
+    void calculer_parMois_devraitRepartirLesContratsACheval() {
+        Utilisation utilisation = occupation.calculer(JANVIER, LocalDate.of(2025, 2, 28), Regroupement.MOIS);
+        
+        assertEquals(List.of(
+            new Ligne(null, null, null, YearMonth.of(2025, 1), 19, 31 + 16 + 31),
+            new Ligne(null, null, null, YearMonth.of(2025, 2), 5 + 10, 28 * 3)), utilisation.lignes());
+    }
+    
+    @Test
+    void calculer_parModele_devraitRegrouperLesVehicules() {
+        Utilisation utilisation = occupation.calculer(JANVIER, LocalDate.of(2025, 2, 28), Regroupement.MODELE);
+        
+        assertEquals(List.of(
+            new Ligne(null, "Peugeot", "308", null, 24, 59 + 44),
+            new Ligne(null, "Renault", "Clio", null, 10, 59)), utilisation.lignes());
+    }
+    
+    @Test
+    void evenements_devraientMettreAJourLInstantane() {
+        occupation.surContrat(contrat(ContratEvent.Type.MODIFIE, 30L, 3L,
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3), EtatContrat.EN_ATTENTE));
+        occupation.surContrat(contrat(ContratEvent.Type.ETAT_CHANGE, 11L, 1L,
+            LocalDate.of(2025, 1, 25), LocalDate.of(2025, 2, 5), EtatContrat.ANNULE));
+        occupation.surVehicule(new VehiculeEvent(VehiculeEvent.Type.SUPPRIME, vehicule(2L, "Peugeot", "308"), null));
+        occupation.surVehicule(new VehiculeEvent(VehiculeEvent.Type.CREE, vehicule(5L, "Citroën", "C3"), null));
+        occupation.surContrat(contrat(ContratEvent.Type.CREE, 50L, 5L,
+            LocalDate.of(2025, 1, 20), LocalDate.of(2025, 1, 21), EtatContrat.EN_ATTENTE));
+        
+        Utilisation utilisation = occupation.calculer(JANVIER, LocalDate.of(2025, 1, 31), Regroupement.VEHICULE);
+        
+        assertEquals(List.of(
+            new Ligne(1L, "Peugeot", "308", null, 12, 31),
+            new Ligne(3L, "Renault", "Clio", null, 3, 31),
+            new Ligne(5L, "Citroën", "C3", null, 2, 31)), utilisation.lignes());
+    }
+    
+    @Test
+    void calculer_devraitCumulerToutesLesTranchesDuPool() {
+        occupation.remplacer(chargement -> {
+            for (long v = 1; v <= 5000; v++) {
+                chargement.vehicule(v, "Peugeot", v % 2 == 0 ? "308" : "208", LocalDate.of(2020, 1, 1));
+                for (int c = 0; c < 12; c++) {
+                    LocalDate debut = JANVIER.plusMonths(c);
+                    chargement.contrat(v * 100 + c, v, debut, debut.plusDays(9));
+                }
+            }
+        });
+        
+        Utilisation utilisation = occupation.calculer(JANVIER, LocalDate.of(2025, 12, 31), Regroupement.MODELE);
+        
+        assertEquals(2, utilisation.lignes().size());
+        assertEquals(5000L * 12 * 10, utilisation.joursLoues());
+        assertEquals(5000L * 365, utilisation.joursDisponibles());
+    }
+    
+    private static ContratEvent contrat(ContratEvent.Type type, Long id, Long vehiculeId,
+                                        LocalDate debut, LocalDate fin, EtatContrat etat) {
+        return new ContratEvent(type, id, 1L, vehiculeId, debut, fin, null, etat, null);
+    }
+    
+    private static Vehicule vehicule(Long id, String marque, String modele) {
+        Vehicule vehicule = Vehicule.builder().marque(marque).modele(modele).dateAcquisition(LocalDate.of(2020, 1, 1)).build();
+        vehicule.setId(id);
+        return vehicule;
+    }
+}
@@ -0,0 +1,63 @@
+package com.BFB.automobile.business.suggestion;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadixTreeTest {
+    
+    private RadixTree<String> arbre;
+    
+    @BeforeEach
+    void setUp() {
+        arbre = new RadixTree<>();
+        arbre.inserer("peugeot", "P308");
+        arbre.inserer("peugeot308", "P308");
+        arbre.inserer("peugeot208", "P208");
+        arbre.inserer("porsche", "911");
+        arbre.inserer("ab123cd", "P308");
+    }
+    
+    @Test
+    void rechercherParPrefixe_devraitRetournerValeursDistinctesEnOrdreLexicographique() {
+        assertEquals(List.of("P308", "P208"), arbre.rechercherParPrefixe("peu", 10));
+        assertEquals(List.of("P208"), arbre.rechercherParPrefixe("peugeot2", 10));
+        assertEquals(List.of("P308", "P208", "911"), arbre.rechercherParPrefixe("p", 10));
+    }
+    
+    @Test
+    void rechercherParPrefixe_devraitRespecterLaLimite() {
+        assertEquals(List.of("P308", "P208"), arbre.rechercherParPrefixe("p", 2));
+        assertTrue(arbre.rechercherParPrefixe("p", 0).isEmpty());
+    }
+    
+    @Test
+    void rechercherParPrefixe_devraitRetournerVide_siAucuneCorrespondance() {
+        assertTrue(arbre.rechercherParPrefixe("renault", 10).isEmpty());
+        assertTrue(arbre.rechercherParPrefixe("peugeox", 10).isEmpty());
+    }
+    
+    @Test
+    void supprimer_devraitRetirerUniquementLAssociation() {
+        assertTrue(arbre.supprimer("peugeot308", "P308"));
+        assertFalse(arbre.supprimer("peugeot308", "P308"));
+        
+        assertEquals(List.of("P308", "P208"), arbre.rechercherParPrefixe("peugeot", 10));
+        assertTrue(arbre.rechercherParPrefixe("peugeot3", 10).isEmpty());
+        assertEquals(4, arbre.taille());
+    }
+    
+    @Test
+    void supprimer_devraitRecompresserLesAretes() {
+        arbre.supprimer("peugeot", "P308");
+        arbre.supprimer("peugeot308", "P308");
+        
+        assertEquals(List.of("P208"), arbre.rechercherParPrefixe("peu", 10));
+        
+        arbre.inserer("peugeot", "P308");
+        assertEquals(List.of("P308", "P208"), arbre.rechercherParPrefixe("peugeot", 10));
+    }
+}
@@ -0,0 +1,149 @@
+package com.BFB.automobile.business.suggestion;
+
+import com.BFB.automobile.business.event.ClientEvent;
+import com.BFB.automobile.business.event.VehiculeEvent;
+import com.BFB.automobile.data.Client;
+import com.BFB.automobile.data.EtatVehicule;
+import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.data.repository.ClientRepository;
+import com.BFB.automobile.data.repository.VehiculeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionIndexTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private VehiculeRepository vehiculeRepository;
+
+    @InjectMocks
+    private SuggestionIndex index;
+
+    private Vehicule peugeot;
+    private Client lefevre;
+
+    @BeforeEach
+    void setUp() {
+        peugeot = Vehicule.builder()
+                .marque("Peugeot")
+                .modele("308")
+                .motorisation("Diesel")
+                .couleur("Blanc")
+                .immatriculation("AB-123-CD")
+                .dateAcquisition(LocalDate.of(2020, 1, 15))
+                .etat(EtatVehicule.DISPONIBLE)
+                .build();
+        peugeot.setId(1L);
+
+        lefevre = Client.builder()
+                .nom("Lefèvre")
+                .prenom("Éloïse")
+                .dateNaissance(LocalDate.of(1990, 5, 15))
+                .numeroPermis("PERMIS-42")
+                .adresse("10 rue de la Paix, 75001 Paris")
+                .actif(true)
+                .build();
+        lefevre.setId(7L);
+    }
+
+    @Test
+    void charger_devraitIndexerLesVehiculesEtLesClientsActifs() {
+        when(vehiculeRepository.findAll()).thenReturn(List.of(peugeot));
+        when(clientRepository.findByActifTrue()).thenReturn(List.of(lefevre));
+
+        index.charger();
+
+        assertEquals(List.of(new Suggestion(1L, "Peugeot 308 - AB-123-CD")),
+            index.suggererVehicules("peu", 10));
+        assertEquals(List.of(new Suggestion(7L, "Lefèvre Éloïse (PERMIS-42)")),
+            index.suggererClients("lef", 10));
+    }
+
+    @Test
+    void suggererVehicules_devraitIgnorerCasseEtSeparateurs() {
+        index.surVehicule(new VehiculeEvent(VehiculeEvent.Type.CREE, peugeot, null));
+
+        assertEquals(1, index.suggererVehicules("ab-123", 10).size());
+        assertEquals(1, index.suggererVehicules("AB 123 c", 10).size());
+        assertEquals(1, index.suggererVehicules("PEUGEOT 30", 10).size());
+        assertEquals(1, index.suggererVehicules("308", 10).size());
+        assertTrue(index.suggererVehicules("ab-124", 10).isEmpty());
+    }
+
+    @Test
+    void suggererClients_devraitIgnorerLesAccents() {
+        index.surClient(new ClientEvent(ClientEvent.Type.CREE, lefevre));
+
+        assertEquals(1, index.suggererClients("lefevre", 10).size());
+        assertEquals(1, index.suggererClients("LEFÈVRE élo", 10).size());
+        assertEquals(1, index.suggererClients("Lefevre Eloise", 10).size());
+        assertEquals(1, index.suggererClients("permis 42", 10).size());
+    }
+
+    @Test
+    void suggerer_devraitRetournerVide_siSaisieSansCaractereSignificatif() {
+        index.surVehicule(new VehiculeEvent(VehiculeEvent.Type.CREE, peugeot, null));
+
+        assertTrue(index.suggererVehicules(" - ", 10).isEmpty());
+        assertTrue(index.suggererVehicules(null, 10).isEmpty());
+    }
+
+    @Test
+    void surVehicule_devraitRemplacerLesClesALaModificationEtRetirerALaSuppression() {
+        index.surVehicule(new VehiculeEvent(VehiculeEvent.Type.CREE, peugeot, null));
+
+        peugeot.setImmatriculation("ZZ-999-ZZ");
+        index.surVehicule(new VehiculeEvent(VehiculeEvent.Type.MODIFIE, peugeot, EtatVehicule.DISPONIBLE));
+
+        assertTrue(index.suggererVehicules("ab123", 10).isEmpty());
+        assertEquals(List.of(new Suggestion(1L, "Peugeot 308 - ZZ-999-ZZ")),
+            index.suggererVehicules("zz", 10));
+        assertEquals(1, index.suggererVehicules("peugeot", 10).size());
+
+        index.surVehicule(new VehiculeEvent(VehiculeEvent.Type.SUPPRIME, peugeot, EtatVehicule.DISPONIBLE));
+
+        assertTrue(index.suggererVehicules("zz", 10).isEmpty());
+        assertTrue(index.suggererVehicules("peugeot", 10).isEmpty());
+    }
+
+    @Test
+    void surClient_devraitRetirerUnClientDesactive() {
+        index.surClient(new ClientEvent(ClientEvent.Type.CREE, lefevre));
+
+        lefevre.setActif(false);
+        index.surClient(new ClientEvent(ClientEvent.Type.DESACTIVE, lefevre));
+
+        assertTrue(index.suggererClients("lefevre", 10).isEmpty());
+        assertTrue(index.suggererClients("permis", 10).isEmpty());
+
+        // Un client réactivé réapparaît
+        lefevre.setActif(true);
+        index.surClient(new ClientEvent(ClientEvent.Type.MODIFIE, lefevre));
+
+        assertEquals(1, index.suggererClients("lefevre", 10).size());
+    }
+
+    @Test
+    void charger_devraitRemplacerLIndexExistant() {
+        index.surClient(new ClientEvent(ClientEvent.Type.CREE, lefevre));
+        when(vehiculeRepository.findAll()).thenReturn(List.of());
+        when(clientRepository.findByActifTrue()).thenReturn(List.of());
+
+        index.charger();
+
+        assertTrue(index.suggererClients("lefevre", 10).isEmpty());
+    }
+}
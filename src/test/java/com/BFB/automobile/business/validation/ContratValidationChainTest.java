@@ -0,0 +1,120 @@
+package com.BFB.automobile.business.validation;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.data.Client;
+import com.BFB.automobile.data.Contrat;
+import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.data.repository.ContratRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContratValidationChainTest {
+    
+    @Mock
+    private ContratRepository contratRepository;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private ContratValidationChain chaine;
+    private Contrat contrat;
+    
+    @BeforeEach
+    void setUp() {
+        DisponibiliteValidationHandler disponibiliteHandler = new DisponibiliteValidationHandler(contratRepository);
+        
+        // Déclaré en premier : doit malgré tout passer après les vérifications en mémoire
+        chaine = new ContratValidationChain(List.of(
+            disponibiliteHandler,
+            new DateValidationHandler(),
+            new ClientValidationHandler(),
+            new VehiculeValidationHandler()), meterRegistry);
+        
+        Client client = new Client();
+        client.setId(1L);
+        Vehicule vehicule = new Vehicule();
+        vehicule.setId(1L);
+        contrat = new Contrat(LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), client, vehicule);
+    }
+    
+    @Test
+    void handlers_devraientEtreTriesParCout() {
+        assertEquals(List.of(DateValidationHandler.class, ClientValidationHandler.class,
+                VehiculeValidationHandler.class, DisponibiliteValidationHandler.class),
+            chaine.getHandlers().stream().map(Object::getClass).toList());
+    }
+    
+    @Test
+    void valider_devraitEviterLaBase_siUneVerificationEnMemoireEchoue() {
+        contrat.setDateDebut(LocalDate.now().minusDays(1));
+        
+        BusinessException exception = assertThrows(BusinessException.class, () -> chaine.valider(contrat));
+        
+        assertEquals("DATE_DEBUT_PASSEE", exception.getCode());
+        verifyNoInteractions(contratRepository);
+        List<StatistiquesValidation> statistiques = chaine.statistiques();
+        assertEquals(1, statistiques.get(0).executions());
+        assertEquals(1, statistiques.get(0).rejets());
+        assertEquals(0, statistiques.get(3).executions());
+    }
+    
+    @Test
+    void valider_devraitPublierDureeEtRejetsParHandler() {
+        contrat.setDateFin(contrat.getDateDebut().plusYears(2));
+        
+        assertThrows(BusinessException.class, () -> chaine.valider(contrat));
+        
+        assertEquals(1, meterRegistry.get("bfb.validation.handler")
+            .tag("handler", "DateValidationHandler").timer().count());
+        assertEquals(1.0, meterRegistry.get("bfb.validation.rejets")
+            .tag("handler", "DateValidationHandler").counter().count());
+        assertEquals(0, meterRegistry.get("bfb.validation.handler")
+            .tag("handler", "DisponibiliteValidationHandler").timer().count());
+        assertEquals(0.0, meterRegistry.get("bfb.validation.rejets")
+            .tag("handler", "DisponibiliteValidationHandler").counter().count());
+    }
+    
+    @Test
+    void valider_devraitExecuterTousLesHandlers_siContratValide() {
+        when(contratRepository.existeConflits(any(), any(), any(), any(), any())).thenReturn(0);
+        
+        chaine.valider(contrat);
+        chaine.valider(contrat);
+        
+        for (StatistiquesValidation statistiques : chaine.statistiques()) {
+            assertEquals(2, statistiques.executions());
+            assertEquals(0, statistiques.rejets());
+        }
+    }
+    
+    @Test
+    void validerEnMemoire_devraitIgnorerLesHandlersQuiInterrogentLaBase() {
+        chaine.validerEnMemoire(contrat);
+        
+        verifyNoInteractions(contratRepository);
+        assertEquals(List.of(1L, 1L, 1L, 0L),
+            chaine.statistiques().stream().map(StatistiquesValidation::executions).toList());
+    }
+    
+    @Test
+    void valider_devraitPrioriserLeConflitVehicule() {
+        when(contratRepository.existeConflits(any(), any(), any(), any(), any()))
+            .thenReturn(ContratRepository.CONFLIT_VEHICULE | ContratRepository.CONFLIT_CLIENT);
+        
+        BusinessException exception = assertThrows(BusinessException.class, () -> chaine.valider(contrat));
+        
+        assertEquals("VEHICULE_DEJA_LOUE", exception.getCode());
+        verify(contratRepository, times(1)).existeConflits(null, 1L, 1L, contrat.getDateDebut(), contrat.getDateFin());
+    }
+}
@@ -0,0 +1,170 @@
+package com.BFB.automobile.business.validation;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.data.*;
+import com.BFB.automobile.data.repository.ContratRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark de latence de DisponibiliteValidationHandler sur une table de contrats volumineuse
+ * 
+ * Compare la requête d'existence combinée aux deux requêtes d'origine
+ * (findContratsConflictuels + findContratsClientSurPeriode, qui chargent les entités).
+ * 
+ * Exclu de "mvn test" : mvn test -Pbenchmark -Dtest=DisponibiliteValidationBenchmarkTest
+ * Volume : -Dbfb.bench.contrats=200000 (valeur par défaut), -Dbfb.bench.validations=20000
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DisponibiliteValidationBenchmarkTest {
+    
+    private static final int NB_CLIENTS = 2_000;
+    private static final int NB_VEHICULES = 1_000;
+    private static final int JOURS_HISTORIQUE = 3_650;
+    private static final int LIGNES_PAR_TRANSACTION = 10_000;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private ContratRepository contratRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Test
+    void mesurerLatenceValidation() {
+        int nbContrats = Integer.getInteger("bfb.bench.contrats", 200_000);
+        int nbValidations = Integer.getInteger("bfb.bench.validations", 20_000);
+        Contrat[] demandes = peupler(nbContrats, nbValidations);
+        
+        DisponibiliteValidationHandler handler = new DisponibiliteValidationHandler(contratRepository);
+        Consumer<Contrat> deuxRequetes = contrat -> {
+            if (!contratRepository.findContratsConflictuels(contrat.getVehicule().getId(),
+                    contrat.getDateDebut(), contrat.getDateFin()).isEmpty()) {
+                throw new BusinessException("VEHICULE_DEJA_LOUE", "");
+            }
+            if (!contratRepository.findContratsClientSurPeriode(contrat.getClient().getId(),
+                    contrat.getDateDebut(), contrat.getDateFin()).isEmpty()) {
+                throw new BusinessException("CLIENT_DEJA_CONTRAT", "");
+            }
+        };
+        
+        // Préchauffage (JIT, plans de requêtes), puis mesures alternées
+        mesurer("préchauffage", deuxRequetes, demandes);
+        mesurer("préchauffage", handler::valider, demandes);
+        long rejetsAvant = mesurer("deux requêtes (entités)", deuxRequetes, demandes);
+        long rejetsApres = mesurer("requête d'existence unique", handler::valider, demandes);
+        
+        assertEquals(rejetsAvant, rejetsApres);
+    }
+    
+    /**
+     * Exécute toutes les validations, chacune dans sa propre transaction en lecture seule
+     * comme lors d'un appel au service, et affiche la latence moyenne
+     * 
+     * @return Nombre de demandes rejetées
+     */
+    private long mesurer(String libelle, Consumer<Contrat> validation, Contrat[] demandes) {
+        transactionTemplate.setReadOnly(true);
+        long rejets = 0;
+        long debut = System.nanoTime();
+        for (Contrat demande : demandes) {
+            Boolean rejet = transactionTemplate.execute(statut -> {
+                try {
+                    validation.accept(demande);
+                    return false;
+                } catch (BusinessException e) {
+                    return true;
+                }
+            });
+            if (Boolean.TRUE.equals(rejet)) {
+                rejets++;
+            }
+        }
+        double micros = (System.nanoTime() - debut) / 1e3 / demandes.length;
+        System.out.printf("[benchmark] %-28s : %8.1f µs/validation (%d rejets sur %d)%n",
+                libelle, micros, rejets, demandes.length);
+        return rejets;
+    }
+    
+    /**
+     * Insère l'historique de contrats et prépare des demandes aléatoires (détachées)
+     */
+    private Contrat[] peupler(int nbContrats, int nbValidations) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        Client[] clients = new Client[NB_CLIENTS];
+        Vehicule[] vehicules = new Vehicule[NB_VEHICULES];
+        
+        em.getTransaction().begin();
+        for (int i = 0; i < NB_CLIENTS; i++) {
+            clients[i] = Client.builder()
+                    .nom("Nom" + i).prenom("Prenom" + i)
+                    .dateNaissance(LocalDate.of(1970, 1, 1).plusDays(i))
+                    .numeroPermis("P" + i).adresse("Adresse " + i)
+                    .build();
+            em.persist(clients[i]);
+        }
+        for (int i = 0; i < NB_VEHICULES; i++) {
+            vehicules[i] = Vehicule.builder()
+                    .marque("Marque" + (i % 10)).modele("Modele" + i)
+                    .motorisation("Essence").couleur("Gris")
+                    .immatriculation("IM-" + i)
+                    .dateAcquisition(LocalDate.of(2015, 1, 1))
+                    .build();
+            em.persist(vehicules[i]);
+        }
+        em.getTransaction().commit();
+        
+        // Historique réparti sur dix ans : majoritairement terminé, le dernier mois encore actif
+        Random aleatoire = new Random(42);
+        LocalDate origine = LocalDate.now().minusDays(JOURS_HISTORIQUE - 30);
+        em.getTransaction().begin();
+        for (int i = 0; i < nbContrats; i++) {
+            int jour = aleatoire.nextInt(JOURS_HISTORIQUE);
+            LocalDate dateDebut = origine.plusDays(jour);
+            em.persist(Contrat.builder()
+                    .client(clients[aleatoire.nextInt(NB_CLIENTS)])
+                    .vehicule(vehicules[aleatoire.nextInt(NB_VEHICULES)])
+                    .dateDebut(dateDebut)
+                    .dateFin(dateDebut.plusDays(1 + aleatoire.nextInt(14)))
+                    .etat(jour < JOURS_HISTORIQUE - 60 ? EtatContrat.TERMINE : EtatContrat.EN_ATTENTE)
+                    .build());
+            if ((i + 1) % LIGNES_PAR_TRANSACTION == 0) {
+                em.getTransaction().commit();
+                em.clear();
+                em.getTransaction().begin();
+            }
+        }
+        em.getTransaction().commit();
+        em.close();
+        
+        Contrat[] demandes = new Contrat[nbValidations];
+        for (int i = 0; i < nbValidations; i++) {
+            LocalDate dateDebut = LocalDate.now().plusDays(aleatoire.nextInt(30));
+            demandes[i] = new Contrat(dateDebut, dateDebut.plusDays(1 + aleatoire.nextInt(7)),
+                    clients[aleatoire.nextInt(NB_CLIENTS)], vehicules[aleatoire.nextInt(NB_VEHICULES)]);
+        }
+        return demandes;
+    }
+}
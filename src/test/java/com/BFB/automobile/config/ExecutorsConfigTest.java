@@ -0,0 +1,70 @@
+package com.BFB.automobile.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires de la politique de saturation de l'exécuteur d'indexation
+ */
+class ExecutorsConfigTest {
+
+    @Test
+    void fileSaturee_devraitFaireAttendreLAppelantSansExecuterLaTacheSurSonThread() throws Exception {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), ExecutorsConfig::attendrePlaceDansLaFile);
+        CountDownLatch debloquer = new CountDownLatch(1);
+        List<String> executions = new CopyOnWriteArrayList<>();
+        try {
+            pool.execute(() -> {
+                attendre(debloquer);
+                executions.add("1 " + Thread.currentThread().getName());
+            });
+            pool.execute(() -> executions.add("2 " + Thread.currentThread().getName()));
+
+            Thread appelant = new Thread(() -> pool.execute(
+                () -> executions.add("3 " + Thread.currentThread().getName())), "appelant");
+            appelant.start();
+            appelant.join(200);
+            // File pleine : l'appelant attend au lieu d'indexer lui-même
+            assertTrue(appelant.isAlive());
+            assertTrue(executions.isEmpty());
+
+            debloquer.countDown();
+            appelant.join(5000);
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+            assertEquals(List.of("1", "2", "3"), executions.stream().map(e -> e.split(" ")[0]).toList());
+            assertTrue(executions.stream().noneMatch(e -> e.endsWith("appelant")));
+        } finally {
+            debloquer.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void executeurArrete_devraitRefuserLaTache() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), ExecutorsConfig::attendrePlaceDansLaFile);
+        pool.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> pool.execute(() -> { }));
+    }
+
+    private static void attendre(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.BFB.automobile.data.generation;
+
+import com.BFB.automobile.data.Client;
+import com.BFB.automobile.data.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration du générateur de données sur une petite base
+ *
+ * Le générateur exécute du DDL (index, intégrité référentielle) : la base de ce contexte
+ * lui est réservée et les tests ne s'exécutent pas dans une transaction annulée.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.sql.init.mode=never",
+    "bfb.donnees.test=generateur"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GenerateurDonneesTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.execute("TRUNCATE TABLE contrats");
+        jdbcTemplate.execute("TRUNCATE TABLE vehicules");
+        jdbcTemplate.execute("TRUNCATE TABLE clients");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        new GenerateurDonnees(jdbcTemplate, 500, 50, 5000, 365, 42).run(null);
+    }
+
+    @Test
+    void run_devraitGenererLesVolumesDemandes() {
+        assertEquals(500, compter("SELECT COUNT(*) FROM clients"));
+        assertEquals(50, compter("SELECT COUNT(*) FROM vehicules"));
+        assertEquals(5000, compter("SELECT COUNT(*) FROM contrats"));
+        assertEquals(0, compter("SELECT COUNT(*) FROM contrats c WHERE NOT EXISTS "
+            + "(SELECT 1 FROM clients k WHERE k.id = c.client_id) "
+            + "OR NOT EXISTS (SELECT 1 FROM vehicules v WHERE v.id = c.vehicule_id)"));
+    }
+
+    @Test
+    void run_devraitRespecterLesReglesMetier() {
+        // Aucun chevauchement de contrats actifs, ni par véhicule ni par client
+        String chevauchements = "SELECT COUNT(*) FROM contrats a JOIN contrats b ON a.%1$s = b.%1$s AND a.id < b.id "
+            + "WHERE a.etat <> 'ANNULE' AND b.etat <> 'ANNULE' "
+            + "AND a.date_debut <= b.date_fin AND b.date_debut <= a.date_fin";
+        assertEquals(0, compter(String.format(chevauchements, "vehicule_id")));
+        assertEquals(0, compter(String.format(chevauchements, "client_id")));
+
+        // Un véhicule est en location si et seulement s'il a un contrat en cours ou en retard
+        assertEquals(0, compter("SELECT COUNT(*) FROM vehicules v WHERE (v.etat = 'EN_LOCATION') <> (EXISTS "
+            + "(SELECT 1 FROM contrats c WHERE c.vehicule_id = v.id AND c.etat IN ('EN_COURS', 'EN_RETARD')))"));
+        assertEquals(0, compter("SELECT COUNT(*) FROM contrats c JOIN vehicules v ON v.id = c.vehicule_id "
+            + "WHERE v.etat = 'EN_PANNE' AND c.etat = 'EN_ATTENTE'"));
+        assertEquals(0, compter("SELECT COUNT(*) FROM contrats WHERE etat = 'EN_COURS' "
+            + "AND NOT (date_debut <= CURRENT_DATE AND date_fin >= CURRENT_DATE)"));
+        assertTrue(compter("SELECT COUNT(*) FROM contrats WHERE etat = 'EN_ATTENTE'") > 0);
+        assertTrue(compter("SELECT COUNT(*) FROM contrats WHERE etat = 'TERMINE'") > 0);
+    }
+
+    @Test
+    void run_devraitRecalerLesSequences() {
+        Client client = Client.builder()
+            .nom("Nouveau")
+            .prenom("Client")
+            .dateNaissance(LocalDate.of(1990, 1, 1))
+            .numeroPermis("N0000000001")
+            .adresse("1 rue Neuve")
+            .actif(true)
+            .build();
+
+        Client enregistre = clientRepository.save(client);
+
+        assertTrue(enregistre.getId() > 500);
+    }
+
+    private long compter(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,145 @@
+package com.BFB.automobile.data.jdbc;
+
+import com.BFB.automobile.data.jdbc.JournalRequetes.RequeteJournalisee;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires des proxies JDBC du journal des requêtes, sur une base H2 en mémoire
+ */
+class JdbcJournaliseTest {
+
+    private JdbcDataSource base;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        base = new JdbcDataSource();
+        base.setURL("jdbc:h2:mem:journal;DB_CLOSE_DELAY=-1");
+        try (Connection connexion = base.getConnection(); Statement statement = connexion.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS t");
+            statement.execute("CREATE TABLE t (id INT PRIMARY KEY, libelle VARCHAR(20))");
+            statement.execute("INSERT INTO t VALUES (1, 'a'), (2, 'b'), (3, 'c')");
+        }
+    }
+
+    @Test
+    void executeQuery_devraitPublierParametresEtLignesLuesALaFermeture() throws SQLException {
+        JournalRequetes journal = spy(new JournalRequetes(0, 0, true));
+        DataSource dataSource = JdbcJournalise.envelopper(base, journal);
+
+        try (Connection connexion = dataSource.getConnection();
+             PreparedStatement statement = connexion.prepareStatement("SELECT * FROM t WHERE id >= ? AND libelle <> ?")) {
+            statement.setInt(1, 2);
+            statement.setNull(2, Types.VARCHAR);
+            statement.setString(2, "z");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getString("libelle");
+                }
+                verify(journal, never()).journaliser(any());
+            }
+        }
+
+        RequeteJournalisee requete = capturer(journal).get(0);
+        assertEquals("SELECT * FROM t WHERE id >= ? AND libelle <> ?", requete.sql());
+        assertEquals(Arrays.asList(2, "z"), requete.parametres());
+        assertEquals(2, requete.lignes());
+    }
+
+    @Test
+    void executeBatch_devraitPublierLeNombreDeLignesModifiees() throws SQLException {
+        JournalRequetes journal = spy(new JournalRequetes(0, 0, true));
+        DataSource dataSource = JdbcJournalise.envelopper(base, journal);
+
+        try (Connection connexion = dataSource.getConnection();
+             PreparedStatement statement = connexion.prepareStatement("UPDATE t SET libelle = ? WHERE id = ?")) {
+            for (int id = 1; id <= 3; id++) {
+                statement.setString(1, "x" + id);
+                statement.setInt(2, id);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        RequeteJournalisee requete = capturer(journal).get(0);
+        assertEquals(3, requete.lignes());
+        assertEquals(Arrays.asList("x3", 3), requete.parametres());
+    }
+
+    @Test
+    void execute_sousLeSeuilSansEchantillonnage_neDevraitRienPublier() throws SQLException {
+        JournalRequetes journal = spy(new JournalRequetes(60_000, 0, true));
+        DataSource dataSource = JdbcJournalise.envelopper(base, journal);
+
+        try (Connection connexion = dataSource.getConnection();
+             PreparedStatement statement = connexion.prepareStatement("SELECT * FROM t");
+             ResultSet resultSet = statement.executeQuery()) {
+            assertTrue(resultSet.next());
+        }
+
+        verify(journal, never()).journaliser(any());
+        verify(journal, never()).appelant();
+    }
+
+    @Test
+    void executeQuery_devraitPublierALaFermetureDuStatement_siLeResultSetNEstPasFerme() throws SQLException {
+        JournalRequetes journal = spy(new JournalRequetes(0, 0, true));
+        DataSource dataSource = JdbcJournalise.envelopper(base, journal);
+
+        try (Connection connexion = dataSource.getConnection();
+             PreparedStatement statement = connexion.prepareStatement("SELECT * FROM t")) {
+            ResultSet resultSet = statement.executeQuery();
+            assertTrue(resultSet.next());
+        }
+
+        RequeteJournalisee requete = capturer(journal).get(0);
+        assertEquals(1, requete.lignes());
+        verify(journal, times(1)).journaliser(any());
+    }
+
+    @Test
+    void formater_devraitMasquerLesValeurs_parDefaut() {
+        JournalRequetes masque = new JournalRequetes(0, 0, false);
+        JournalRequetes visible = new JournalRequetes(0, 0, true);
+        List<Object> parametres = Arrays.asList("Dupont", 4L, null);
+
+        assertEquals("[String, Long, null]", masque.formater(parametres));
+        assertEquals("[Dupont, 4, null]", visible.formater(parametres));
+    }
+
+    @Test
+    void retenir_avecEchantillonnageComplet_devraitToutRetenir() {
+        JournalRequetes journal = new JournalRequetes(60_000, 1.0, true);
+
+        assertTrue(journal.retenir(0));
+    }
+
+    @Test
+    void unwrap_devraitDonnerAccesALObjetNatif() throws SQLException {
+        DataSource dataSource = JdbcJournalise.envelopper(base, new JournalRequetes(0, 0, true));
+
+        assertSame(base, dataSource.unwrap(JdbcDataSource.class));
+    }
+
+    private List<RequeteJournalisee> capturer(JournalRequetes journal) {
+        ArgumentCaptor<RequeteJournalisee> captor = ArgumentCaptor.forClass(RequeteJournalisee.class);
+        verify(journal, atLeastOnce()).journaliser(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,119 @@
+package com.BFB.automobile.data.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du journal segmenté sur un répertoire temporaire
+ */
+class JournalSegmenteTest {
+
+    private static final int TAILLE = 4096;
+
+    @TempDir
+    Path repertoire;
+
+    @Test
+    void ajouter_devraitRelireLesEnregistrementsDansOrdre() throws IOException {
+        try (JournalSegmente journal = new JournalSegmente(repertoire, TAILLE)) {
+            journal.ajouter(texte("premier"));
+            journal.ajouter(texte("second"));
+
+            assertEquals(List.of("premier", "second"), relire(journal));
+        }
+    }
+
+    @Test
+    void ajouter_devraitChangerDeSegmentQuandLeCourantEstPlein() throws IOException {
+        try (JournalSegmente journal = new JournalSegmente(repertoire, TAILLE)) {
+            for (int i = 0; i < 100; i++) {
+                journal.ajouter(texte("enregistrement-" + "x".repeat(50) + i));
+            }
+
+            assertTrue(journal.segments() > 1);
+            List<String> lus = relire(journal);
+            assertEquals(100, lus.size());
+            assertTrue(lus.get(99).endsWith("99"));
+        }
+    }
+
+    @Test
+    void ouverture_devraitReprendreALaSuiteDuDernierEnregistrement() throws IOException {
+        try (JournalSegmente journal = new JournalSegmente(repertoire, TAILLE)) {
+            journal.ajouter(texte("avant"));
+        }
+        try (JournalSegmente journal = new JournalSegmente(repertoire, TAILLE)) {
+            journal.ajouter(texte("apres"));
+
+            assertEquals(List.of("avant", "apres"), relire(journal));
+        }
+    }
+
+    @Test
+    void ouverture_devraitIgnorerUnEnregistrementAltere() throws IOException {
+        try (JournalSegmente journal = new JournalSegmente(repertoire, TAILLE)) {
+            journal.ajouter(texte("intact"));
+            journal.ajouter(texte("altere"));
+        }
+        // Second enregistrement : en-tête 8 + "intact" aligné (16), puis longueur et CRC (8)
+        try (FileChannel canal = FileChannel.open(repertoire.resolve("segment-000001.journal"), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[] {'X'}), 8 + 16 + 8);
+        }
+
+        try (JournalSegmente journal = new JournalSegmente(repertoire, TAILLE)) {
+            assertEquals(List.of("intact"), relire(journal));
+
+            journal.ajouter(texte("suivant"));
+            assertEquals(List.of("intact", "suivant"), relire(journal));
+        }
+    }
+
+    @Test
+    void ajouterPointDeReprise_devraitSupprimerLesSegmentsClos() throws IOException {
+        try (JournalSegmente journal = new JournalSegmente(repertoire, TAILLE)) {
+            for (int i = 0; i < 100; i++) {
+                journal.ajouter(texte("enregistrement-" + "x".repeat(50) + i));
+            }
+            int avant = journal.segments();
+
+            assertEquals(avant - 1, journal.ajouterPointDeReprise(texte("reprise")));
+            journal.ajouter(texte("suite"));
+
+            assertEquals(1, journal.segments());
+            List<String> lus = relire(journal);
+            assertEquals(List.of("reprise", "suite"), lus.subList(lus.size() - 2, lus.size()));
+        }
+        try (JournalSegmente journal = new JournalSegmente(repertoire, TAILLE)) {
+            assertEquals(1, journal.segments());
+            assertTrue(relire(journal).contains("reprise"));
+        }
+    }
+
+    @Test
+    void constructeur_devraitRefuserUneTailleDeSegmentInvalide() {
+        assertThrows(IllegalArgumentException.class, () -> new JournalSegmente(repertoire, 5002));
+    }
+
+    private static ByteBuffer texte(String texte) {
+        return ByteBuffer.wrap(texte.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> relire(JournalSegmente journal) throws IOException {
+        List<String> lus = new ArrayList<>();
+        for (int s = 0; s < journal.segments(); s++) {
+            journal.lire(s, contenu -> lus.add(StandardCharsets.UTF_8.decode(contenu).toString()));
+        }
+        return lus;
+    }
+}
@@ -0,0 +1,115 @@
+package com.BFB.automobile.data.repository;
+
+import com.BFB.automobile.data.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark d'import massif de contrats via JPA (débit en lignes/seconde)
+ * 
+ * Exclu de "mvn test" : mvn test -Pbenchmark -Dtest=ContratImportBenchmarkTest
+ * Volume : -Dbfb.bench.contrats=1000000 (valeur par défaut)
+ * 
+ * Le nombre de requêtes préparées affiché permet de vérifier le regroupement en lots :
+ * environ une requête pour 50 lignes avec les séquences, une par ligne avec IDENTITY.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+    "spring.sql.init.mode=never",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ContratImportBenchmarkTest {
+    
+    private static final int NB_CLIENTS = 100;
+    private static final int NB_VEHICULES = 100;
+    private static final int LIGNES_PAR_FLUSH = 1_000;
+    private static final int LIGNES_PAR_TRANSACTION = 10_000;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void importerContrats() {
+        int total = Integer.getInteger("bfb.bench.contrats", 1_000_000);
+        EntityManager em = entityManagerFactory.createEntityManager();
+        
+        long[] clientIds = new long[NB_CLIENTS];
+        long[] vehiculeIds = new long[NB_VEHICULES];
+        em.getTransaction().begin();
+        for (int i = 0; i < NB_CLIENTS; i++) {
+            Client client = Client.builder()
+                    .nom("Nom" + i).prenom("Prenom" + i)
+                    .dateNaissance(LocalDate.of(1980, 1, 1).plusDays(i))
+                    .numeroPermis("P" + i).adresse("Adresse " + i)
+                    .build();
+            em.persist(client);
+            clientIds[i] = client.getId();
+        }
+        for (int i = 0; i < NB_VEHICULES; i++) {
+            Vehicule vehicule = Vehicule.builder()
+                    .marque("Marque" + (i % 10)).modele("Modele" + i)
+                    .motorisation("Essence").couleur("Gris")
+                    .immatriculation("IM-" + i)
+                    .dateAcquisition(LocalDate.of(2020, 1, 1))
+                    .build();
+            em.persist(vehicule);
+            vehiculeIds[i] = vehicule.getId();
+        }
+        em.getTransaction().commit();
+        em.clear();
+        
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistiques.clear();
+        LocalDate origine = LocalDate.of(2020, 1, 1);
+        
+        long debut = System.nanoTime();
+        em.getTransaction().begin();
+        for (int i = 0; i < total; i++) {
+            LocalDate dateDebut = origine.plusDays(i % 3650);
+            Contrat contrat = Contrat.builder()
+                    .client(em.getReference(Client.class, clientIds[i % NB_CLIENTS]))
+                    .vehicule(em.getReference(Vehicule.class, vehiculeIds[(i / NB_CLIENTS) % NB_VEHICULES]))
+                    .dateDebut(dateDebut)
+                    .dateFin(dateDebut.plusDays(1 + i % 14))
+                    .etat(EtatContrat.TERMINE)
+                    .build();
+            em.persist(contrat);
+            
+            if ((i + 1) % LIGNES_PAR_FLUSH == 0) {
+                em.flush();
+                em.clear();
+            }
+            if ((i + 1) % LIGNES_PAR_TRANSACTION == 0) {
+                em.getTransaction().commit();
+                em.getTransaction().begin();
+            }
+        }
+        em.getTransaction().commit();
+        long dureeNanos = System.nanoTime() - debut;
+        
+        long enBase = em.createQuery("SELECT COUNT(c) FROM Contrat c", Long.class).getSingleResult();
+        em.close();
+        
+        double secondes = dureeNanos / 1e9;
+        System.out.printf("%n[benchmark] %d contrats insérés en %.2f s : %.0f lignes/s, %d requêtes préparées%n",
+                total, secondes, total / secondes, statistiques.getPrepareStatementCount());
+        assertEquals(total, enBase);
+    }
+}
@@ -84,6 +84,45 @@ class ContratRepositoryTest {
         assertEquals(1, conflits.size());
     }
     
+    @Test
+    void existeConflits_devraitSignalerVehiculeEtClientSeparement() {
+        // Arrange
+        entityManager.persist(contrat1);
+        Client autreClient = Client.builder()
+                .nom("Martin")
+                .prenom("Paul")
+                .dateNaissance(LocalDate.of(1985, 3, 2))
+                .numeroPermis("111222333")
+                .adresse("5 Rue Haute")
+                .actif(true)
+                .build();
+        entityManager.persist(autreClient);
+        entityManager.flush();
+        LocalDate debut = LocalDate.of(2024, 1, 12);
+        LocalDate fin = LocalDate.of(2024, 1, 18);
+        
+        // Act & Assert
+        assertEquals(ContratRepository.CONFLIT_VEHICULE | ContratRepository.CONFLIT_CLIENT,
+            contratRepository.existeConflits(null, vehicule.getId(), client.getId(), debut, fin));
+        assertEquals(ContratRepository.CONFLIT_VEHICULE,
+            contratRepository.existeConflits(null, vehicule.getId(), autreClient.getId(), debut, fin));
+        assertEquals(0,
+            contratRepository.existeConflits(null, vehicule.getId(), client.getId(),
+                LocalDate.of(2024, 1, 21), LocalDate.of(2024, 1, 25)));
+    }
+    
+    @Test
+    void existeConflits_devraitIgnorerLeContratModifie() {
+        // Arrange
+        entityManager.persist(contrat1);
+        entityManager.flush();
+        
+        // Act & Assert - Le contrat ne se bloque pas lui-même quand on décale ses dates
+        assertEquals(0,
+            contratRepository.existeConflits(contrat1.getId(), vehicule.getId(), client.getId(),
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 25)));
+    }
+    
     @Test
     void findContratsClientSurPeriode_devraitRetournerContratsClient() {
         // Arrange
@@ -0,0 +1,131 @@
+package com.BFB.automobile.data.routage;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du routage lecture/écriture sur deux bases H2 en mémoire, la seconde alimentée
+ * par la réplication locale
+ */
+class RoutageDataSourceTest {
+
+    private JdbcDataSource principale;
+    private JdbcDataSource replique;
+    private ReplicationLocale replication;
+    private RoutageDataSource routage;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate ecriture;
+    private TransactionTemplate lecture;
+
+    @BeforeEach
+    void setUp() {
+        principale = base("routage_principale");
+        replique = base("routage_replique");
+        replication = new ReplicationLocale(replique, 0);
+        routage = new RoutageDataSource(replication.envelopper(principale), replique, 1000, replication);
+
+        jdbcTemplate = new JdbcTemplate(routage);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routage);
+        ecriture = new TransactionTemplate(transactionManager);
+        lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routage.close();
+        new JdbcTemplate(principale).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replique).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void replication_devraitRejouerLesTransactionsValideesEtIgnorerLesAnnulees() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE t (id INT PRIMARY KEY, libelle VARCHAR(20))");
+        ecriture.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO t VALUES (?, ?)", 1, "validée");
+            jdbcTemplate.batchUpdate("INSERT INTO t VALUES (?, ?)", List.of(
+                new Object[] {2, "lot"}, new Object[] {3, null}));
+        });
+        ecriture.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO t VALUES (?, ?)", 4, "annulée");
+            status.setRollbackOnly();
+        });
+
+        replication.attendre();
+
+        JdbcTemplate surReplique = new JdbcTemplate(replique);
+        assertEquals(3, surReplique.queryForObject("SELECT COUNT(*) FROM t", Integer.class));
+        assertEquals("validée", surReplique.queryForObject("SELECT libelle FROM t WHERE id = 1", String.class));
+        assertNull(surReplique.queryForObject("SELECT libelle FROM t WHERE id = 3", String.class));
+    }
+
+    @Test
+    void lectureSeule_repliqueAJour_devraitAllerSurLaReplique() {
+        routage.enregistrerRetard(0);
+
+        assertEquals("ROUTAGE_REPLIQUE", lecture.execute(status -> base()));
+        assertEquals("ROUTAGE_PRINCIPALE", ecriture.execute(status -> base()));
+        assertEquals("ROUTAGE_PRINCIPALE", base());
+    }
+
+    @Test
+    void lectureSeule_repliqueEnRetard_devraitResterSurLaPrincipale() {
+        routage.enregistrerRetard(5000);
+
+        assertEquals("ROUTAGE_PRINCIPALE", lecture.execute(status -> base()));
+    }
+
+    @Test
+    void lecturePrimaire_devraitForcerLaPrincipale() {
+        routage.enregistrerRetard(0);
+
+        boolean precedent = RoutageDataSource.forcerPrimaire();
+        try {
+            assertEquals("ROUTAGE_PRINCIPALE", lecture.execute(status -> base()));
+        } finally {
+            RoutageDataSource.retablir(precedent);
+        }
+        assertEquals("ROUTAGE_REPLIQUE", lecture.execute(status -> base()));
+    }
+
+    @Test
+    void battement_devraitMesurerLeRetardDeLaReplique() throws Exception {
+        BattementReplique battement = new BattementReplique(routage);
+        battement.battre();
+        replication.attendre();
+
+        battement.battre();
+
+        assertTrue(routage.getRetardMs() < 1000, "retard mesuré : " + routage.getRetardMs());
+    }
+
+    @Test
+    void battement_sansReplication_devraitReplierLesLecturesSurLaPrincipale() throws Exception {
+        RoutageDataSource sansReplication = new RoutageDataSource(principale, replique, 1000);
+        BattementReplique battement = new BattementReplique(sansReplication);
+
+        battement.battre();
+
+        assertEquals(Long.MAX_VALUE, sansReplication.getRetardMs());
+    }
+
+    private String base() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private static JdbcDataSource base(String nom) {
+        JdbcDataSource base = new JdbcDataSource();
+        base.setURL("jdbc:h2:mem:" + nom + ";DB_CLOSE_DELAY=-1");
+        return base;
+    }
+}
@@ -0,0 +1,148 @@
+package com.BFB.automobile.data.sync;
+
+import com.BFB.automobile.data.Client;
+import com.BFB.automobile.data.EtatVehicule;
+import com.BFB.automobile.data.Vehicule;
+import com.BFB.automobile.data.repository.ClientRepository;
+import com.BFB.automobile.data.repository.VehiculeRepository;
+import com.BFB.automobile.data.sync.SequencesSync.Changement;
+import com.BFB.automobile.data.sync.SequencesSync.Entite;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration de la séquence de modification : colonnes tenues par la base,
+ * lecture des changements et filigrane
+ *
+ * Hors transaction de test : chaque écriture doit être validée pour être relue.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SequencesSyncTest {
+
+    @Autowired
+    private VehiculeRepository vehiculeRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM " + SequencesSync.SUPPRESSIONS);
+        vehiculeRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    void changements_devraientSuivreCreationsModificationsEtSuppressions() {
+        SequencesSync sync = new SequencesSync(jdbcTemplate);
+        long depart = sync.filigrane();
+        Vehicule vehicule = vehiculeRepository.save(vehicule("AB-123-CD"));
+        Client client = clientRepository.save(client());
+        sync.relever();
+        long apresCreation = sync.filigrane();
+
+        assertEquals(List.of(Entite.VEHICULE, Entite.CLIENT),
+            sync.changements(depart, apresCreation, 10).stream().map(Changement::entite).toList());
+
+        vehicule.setEtat(EtatVehicule.EN_PANNE);
+        vehiculeRepository.save(vehicule);
+        sync.supprimes(Entite.CONTRAT, List.of(42L));
+        sync.relever();
+
+        List<Changement> changements = sync.changements(apresCreation, sync.filigrane(), 10);
+        assertEquals(2, changements.size());
+        assertEquals(new Changement(Entite.VEHICULE, vehicule.getId(), changements.get(0).sequence(), false),
+            changements.get(0));
+        assertEquals(new Changement(Entite.CONTRAT, 42L, changements.get(1).sequence(), true),
+            changements.get(1));
+        assertTrue(changements.get(0).sequence() < changements.get(1).sequence());
+        // Client inchangé : absent
+        assertTrue(changements.stream().noneMatch(c -> c.id() == client.getId() && c.entite() == Entite.CLIENT));
+    }
+
+    @Test
+    void changements_devraientEtreLimitesAuNombreDemande() {
+        SequencesSync sync = new SequencesSync(jdbcTemplate);
+        long depart = sync.filigrane();
+        vehiculeRepository.save(vehicule("AB-123-CD"));
+        vehiculeRepository.save(vehicule("AB-124-CD"));
+        clientRepository.save(client());
+        sync.relever();
+
+        List<Changement> premiere = sync.changements(depart, sync.filigrane(), 2);
+        List<Changement> suite = sync.changements(premiere.get(1).sequence(), sync.filigrane(), 2);
+
+        assertEquals(List.of(Entite.VEHICULE, Entite.VEHICULE), premiere.stream().map(Changement::entite).toList());
+        assertEquals(List.of(Entite.CLIENT), suite.stream().map(Changement::entite).toList());
+    }
+
+    @Test
+    void filigrane_devraitAttendreLaFinDUneTransactionOuverte() throws Exception {
+        SequencesSync sync = new SequencesSync(jdbcTemplate);
+        long depart = sync.filigrane();
+        try (Connection longue = dataSource.getConnection()) {
+            // Transaction longue : tire une valeur, puis une transaction plus récente valide
+            longue.setAutoCommit(false);
+            longue.createStatement().execute(
+                "INSERT INTO " + SequencesSync.SUPPRESSIONS + " (entite, entite_id) VALUES ('CONTRAT', 42)");
+            vehiculeRepository.save(vehicule("AB-123-CD"));
+            sync.relever();
+            sync.relever();
+
+            assertEquals(depart, sync.filigrane());
+            assertTrue(sync.derniereValeur() > depart);
+
+            longue.commit();
+        }
+        sync.relever();
+
+        assertEquals(List.of(Entite.CONTRAT, Entite.VEHICULE),
+            sync.changements(depart, sync.filigrane(), 10).stream().map(Changement::entite).toList());
+    }
+
+    private static Vehicule vehicule(String immatriculation) {
+        return Vehicule.builder()
+                .marque("Peugeot")
+                .modele("308")
+                .motorisation("Diesel")
+                .couleur("Blanc")
+                .immatriculation(immatriculation)
+                .dateAcquisition(LocalDate.of(2020, 1, 15))
+                .etat(EtatVehicule.DISPONIBLE)
+                .build();
+    }
+
+    private static Client client() {
+        return Client.builder()
+                .nom("Dupont")
+                .prenom("Jean")
+                .dateNaissance(LocalDate.of(1990, 5, 15))
+                .numeroPermis("567890123")
+                .adresse("10 Rue de la Paix")
+                .actif(true)
+                .build();
+    }
+}
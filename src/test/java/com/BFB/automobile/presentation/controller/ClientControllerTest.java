@@ -2,6 +2,7 @@ package com.BFB.automobile.presentation.controller;
 
 import com.BFB.automobile.business.exception.BusinessException;
 import com.BFB.automobile.business.service.ClientService;
+import com.BFB.automobile.business.suggestion.Suggestion;
 import com.BFB.automobile.data.Client;
 import com.BFB.automobile.presentation.dto.ClientDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,9 +16,11 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +40,9 @@ class ClientControllerTest {
     @MockBean
     private com.BFB.automobile.presentation.mapper.ClientMapper clientMapper;
     
+    @MockBean
+    private com.BFB.automobile.presentation.importation.LecteurImport lecteurImport;
+    
     private Client client;
     private ClientDTO clientDTO;
     
@@ -115,4 +121,26 @@ class ClientControllerTest {
         mockMvc.perform(delete("/api/clients/1"))
                 .andExpect(status().isNoContent());
     }
+    
+    @Test
+    void suggerer_devraitRetourner200AvecLesSuggestions() throws Exception {
+        when(clientService.suggererClients("dup", 10))
+                .thenReturn(List.of(new Suggestion(1L, "Dupont Jean (123456789)")));
+        
+        mockMvc.perform(get("/api/clients/suggest").param("q", "dup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].libelle").value("Dupont Jean (123456789)"));
+    }
+    
+    @Test
+    void suggerer_devraitPlafonnerLaLimite() throws Exception {
+        when(clientService.suggererClients("dup", 50)).thenReturn(List.of());
+        
+        mockMvc.perform(get("/api/clients/suggest").param("q", "dup").param("limite", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+        
+        verify(clientService).suggererClients("dup", 50);
+    }
 }
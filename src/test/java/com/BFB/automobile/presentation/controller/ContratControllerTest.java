@@ -4,17 +4,25 @@ import com.BFB.automobile.business.exception.BusinessException;
 import com.BFB.automobile.business.service.ContratService;
 import com.BFB.automobile.data.*;
 import com.BFB.automobile.presentation.dto.ContratDTO;
+import com.BFB.automobile.presentation.lecture.LecturesAsynchrones;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -23,6 +31,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ContratController.class)
+@Import({LecturesAsynchrones.class, ContratControllerTest.LectureConfig.class})
 class ContratControllerTest {
     
     @Autowired
@@ -37,6 +46,20 @@ class ContratControllerTest {
     @MockBean
     private com.BFB.automobile.presentation.mapper.ContratMapper contratMapper;
     
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+    
+    /**
+     * Lectures asynchrones exécutées sur le thread du test
+     */
+    @TestConfiguration
+    static class LectureConfig {
+        @Bean
+        Executor lectureExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+    
     private Contrat contrat;
     private ContratDTO contratDTO;
     
@@ -90,7 +113,11 @@ class ContratControllerTest {
     void listerContrats_devraitRetournerListe() throws Exception {
         when(contratService.obtenirTousLesContrats()).thenReturn(Arrays.asList(contrat));
         
-        mockMvc.perform(get("/api/contrats"))
+        MvcResult resultat = mockMvc.perform(get("/api/contrats"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(resultat))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
     }
@@ -0,0 +1,50 @@
+package com.BFB.automobile.presentation.controller;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+    
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(objectMapper);
+    
+    @Test
+    void handleBusinessException_devraitProduireUnCorpsJsonComplet() throws Exception {
+        ResponseEntity<byte[]> reponse = handler.handleBusinessException(
+            new BusinessException("VEHICULE_DEJA_LOUE", "Ce véhicule est déjà loué \"sur\" cette période"));
+        
+        assertEquals(400, reponse.getStatusCode().value());
+        assertEquals(MediaType.APPLICATION_JSON, reponse.getHeaders().getContentType());
+        JsonNode corps = objectMapper.readTree(reponse.getBody());
+        assertEquals(400, corps.get("status").asInt());
+        assertEquals("Erreur métier", corps.get("error").asText());
+        assertEquals("VEHICULE_DEJA_LOUE", corps.get("code").asText());
+        assertEquals("Ce véhicule est déjà loué \"sur\" cette période", corps.get("message").asText());
+        assertNotNull(LocalDateTime.parse(corps.get("timestamp").asText()));
+    }
+    
+    @Test
+    void handleBusinessException_devraitReutiliserLeCorpsParCode() throws Exception {
+        BusinessException rejet = new BusinessException("CLIENT_INACTIF", "Le client n'est pas actif");
+        
+        JsonNode premier = objectMapper.readTree(handler.handleBusinessException(rejet).getBody());
+        JsonNode second = objectMapper.readTree(handler.handleBusinessException(rejet).getBody());
+        
+        assertEquals(premier.get("code"), second.get("code"));
+        assertEquals(premier.get("message"), second.get("message"));
+    }
+    
+    @Test
+    void businessException_neDevraitPasCapturerDePile() {
+        assertEquals(0, new BusinessException("CODE", "message").getStackTrace().length);
+    }
+}
@@ -0,0 +1,117 @@
+package com.BFB.automobile.presentation.controller;
+
+import com.BFB.automobile.business.exception.BusinessException;
+import com.BFB.automobile.business.service.ContratService;
+import com.BFB.automobile.data.Contrat;
+import com.BFB.automobile.presentation.lecture.LecturesAsynchrones;
+import com.BFB.automobile.presentation.mapper.ContratMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Benchmark du débit de requêtes rejetées (POST /api/contrats → 400 VEHICULE_DEJA_LOUE)
+ * 
+ * Compare le chemin d'origine (exception avec pile d'appels, corps HashMap) au chemin
+ * actuel (exception sans pile, corps pré-sérialisé par code d'erreur).
+ * 
+ * Exclu de "mvn test" : mvn test -Pbenchmark -Dtest=RejetMetierBenchmarkTest
+ * Volume : -Dbfb.bench.requetes=100000 (valeur par défaut)
+ */
+@Tag("benchmark")
+class RejetMetierBenchmarkTest {
+    
+    private static final String CORPS_DEMANDE = "{\"clientId\":1,\"vehiculeId\":1,"
+            + "\"dateDebut\":\"" + LocalDate.now().plusDays(1) + "\","
+            + "\"dateFin\":\"" + LocalDate.now().plusDays(3) + "\"}";
+    
+    @Test
+    void mesurerDebitRejets() throws Exception {
+        int requetes = Integer.getInteger("bfb.bench.requetes", 100_000);
+        
+        MockMvc origine = mockMvc(new AncienGestionnaire(),
+                () -> new ExceptionAvecPile("VEHICULE_DEJA_LOUE", "Ce véhicule est déjà loué sur cette période"));
+        MockMvc actuel = mockMvc(new GlobalExceptionHandler(Jackson2ObjectMapperBuilder.json().build()),
+                () -> new BusinessException("VEHICULE_DEJA_LOUE", "Ce véhicule est déjà loué sur cette période"));
+        
+        // Préchauffage puis mesures
+        mesurer("préchauffage", origine, requetes);
+        mesurer("préchauffage", actuel, requetes);
+        mesurer("pile + HashMap (origine)", origine, requetes);
+        mesurer("sans pile + corps en cache", actuel, requetes);
+    }
+    
+    private static void mesurer(String libelle, MockMvc mockMvc, int requetes) throws Exception {
+        long debut = System.nanoTime();
+        for (int i = 0; i < requetes; i++) {
+            int statut = mockMvc.perform(post("/api/contrats")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(CORPS_DEMANDE))
+                    .andReturn().getResponse().getStatus();
+            assertEquals(400, statut);
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        System.out.printf("[benchmark] %-28s : %8.0f requêtes rejetées/s%n", libelle, requetes / secondes);
+    }
+    
+    private static MockMvc mockMvc(Object gestionnaire, Supplier<RuntimeException> rejet) {
+        ContratService contratService = mock(ContratService.class);
+        when(contratService.creerContrat(any(Contrat.class))).thenAnswer(invocation -> {
+            throw rejet.get();
+        });
+        LecturesAsynchrones lectures = new LecturesAsynchrones(Runnable::run, mock(PlatformTransactionManager.class), 10_000);
+        return MockMvcBuilders.standaloneSetup(new ContratController(contratService, new ContratMapper(), lectures))
+                .setControllerAdvice(gestionnaire)
+                .build();
+    }
+    
+    /**
+     * Exception métier telle qu'elle était avant : pile d'appels capturée à la création
+     */
+    static class ExceptionAvecPile extends RuntimeException {
+        private final String code;
+        
+        ExceptionAvecPile(String code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+    
+    /**
+     * Gestionnaire d'origine : corps HashMap construit et sérialisé par réflexion à chaque rejet
+     */
+    @RestControllerAdvice
+    static class AncienGestionnaire {
+        
+        @ExceptionHandler(ExceptionAvecPile.class)
+        public ResponseEntity<Map<String, Object>> handle(ExceptionAvecPile ex) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("timestamp", LocalDateTime.now());
+            body.put("status", HttpStatus.BAD_REQUEST.value());
+            body.put("error", "Erreur métier");
+            body.put("code", ex.code);
+            body.put("message", ex.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.BFB.automobile.presentation.controller;
 
 import com.BFB.automobile.business.exception.BusinessException;
 import com.BFB.automobile.business.service.VehiculeService;
+import com.BFB.automobile.business.suggestion.Suggestion;
 import com.BFB.automobile.data.EtatVehicule;
 import com.BFB.automobile.data.Vehicule;
 import com.BFB.automobile.presentation.dto.VehiculeDTO;
@@ -16,9 +17,11 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +41,9 @@ class VehiculeControllerTest {
     @MockBean
     private com.BFB.automobile.presentation.mapper.VehiculeMapper vehiculeMapper;
     
+    @MockBean
+    private com.BFB.automobile.presentation.importation.LecteurImport lecteurImport;
+    
     private Vehicule vehicule;
     private VehiculeDTO vehiculeDTO;
     
@@ -119,4 +125,26 @@ class VehiculeControllerTest {
                 .param("etat", "EN_PANNE"))
                 .andExpect(status().isNoContent());
     }
+    
+    @Test
+    void suggerer_devraitRetourner200AvecLesSuggestions() throws Exception {
+        when(vehiculeService.suggererVehicules("aa-1", 10))
+                .thenReturn(List.of(new Suggestion(1L, "Peugeot 308 - AA-123-BB")));
+        
+        mockMvc.perform(get("/api/vehicules/suggest").param("q", "aa-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].libelle").value("Peugeot 308 - AA-123-BB"));
+    }
+    
+    @Test
+    void suggerer_devraitPlafonnerLaLimite() throws Exception {
+        when(vehiculeService.suggererVehicules("aa-1", 50)).thenReturn(List.of());
+        
+        mockMvc.perform(get("/api/vehicules/suggest").param("q", "aa-1").param("limite", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+        
+        verify(vehiculeService).suggererVehicules("aa-1", 50);
+    }
 }
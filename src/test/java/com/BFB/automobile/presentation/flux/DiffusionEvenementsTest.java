@@ -0,0 +1,230 @@
+package com.BFB.automobile.presentation.flux;
+
+import com.BFB.automobile.business.evenement.BoiteEnvoi;
+import com.BFB.automobile.data.EvenementSortant;
+import com.BFB.automobile.data.EvenementSortant.Categorie;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires de la diffusion du flux d'événements : boîte d'envoi simulée,
+ * émetteurs SSE qui enregistrent ce qu'ils envoient
+ */
+class DiffusionEvenementsTest {
+
+    private final BoiteEnvoi boiteEnvoi = mock(BoiteEnvoi.class);
+    private final List<Runnable> taches = new ArrayList<>();
+
+    @Test
+    void relayer_devraitDiffuserAChaqueAbonneDansOrdre() {
+        DiffusionEvenements diffusion = diffusion(Runnable::run, 10, 0);
+        Enregistreur premier = new Enregistreur();
+        Enregistreur second = new Enregistreur();
+        diffusion.inscrire(null, premier);
+        diffusion.inscrire(null, second);
+        when(boiteEnvoi.suivants(eq(0L), anyInt())).thenReturn(List.of(
+            evenement(1, Categorie.VEHICULE, 7), evenement(2, Categorie.CONTRAT, 3)));
+
+        diffusion.relayer();
+
+        assertEquals(List.of("1 vehicule", "2 contrat"), premier.recus);
+        assertEquals(List.of("1 vehicule", "2 contrat"), second.recus);
+        assertTrue(premier.contenus.get(0).contains("\"etat\":\"EN_LOCATION\""));
+    }
+
+    @Test
+    void relayer_devraitSauterUnIdentifiantManquantApresLeDelai() {
+        DiffusionEvenements diffusion = diffusion(Runnable::run, 10, 0, 0);
+        Enregistreur abonne = new Enregistreur();
+        diffusion.inscrire(null, abonne);
+        EvenementSortant apresTrou = evenement(3, Categorie.VEHICULE, 8);
+        when(boiteEnvoi.suivants(eq(0L), anyInt())).thenReturn(List.of(evenement(1, Categorie.VEHICULE, 7), apresTrou));
+        when(boiteEnvoi.suivants(eq(1L), anyInt())).thenReturn(List.of(apresTrou));
+
+        // Trou constaté : attendu au moins jusqu'au passage suivant, même avec un délai nul
+        diffusion.relayer();
+        assertEquals(List.of("1 vehicule"), abonne.recus);
+
+        // Transaction de l'identifiant 2 annulée : sauté une fois le délai écoulé
+        diffusion.relayer();
+        assertEquals(List.of("1 vehicule", "3 vehicule"), abonne.recus);
+    }
+
+    @Test
+    void relayer_transactionsEntrelacees_devraitAttendreLaPlusAncienneMemeSiLaSuivanteEstAncienne() {
+        DiffusionEvenements diffusion = diffusion(Runnable::run, 10, 1);
+        Enregistreur abonne = new Enregistreur();
+        diffusion.inscrire(null, abonne);
+        // Transaction A : identifiant 2, pas encore validée. Transaction B : identifiant 3,
+        // validée, ouverte depuis une minute (événement daté à sa publication)
+        EvenementSortant transactionB = evenement(3, Categorie.VEHICULE, 8);
+        ReflectionTestUtils.setField(transactionB, "instant", System.currentTimeMillis() - 60_000);
+        when(boiteEnvoi.suivants(eq(1L), anyInt())).thenReturn(List.of(transactionB));
+
+        diffusion.relayer();
+        assertEquals(List.of(), abonne.recus);
+
+        // Validation de A : les deux événements partent dans l'ordre
+        when(boiteEnvoi.suivants(eq(1L), anyInt())).thenReturn(List.of(evenement(2, Categorie.CONTRAT, 5), transactionB));
+        diffusion.relayer();
+        assertEquals(List.of("2 contrat", "3 vehicule"), abonne.recus);
+    }
+
+    @Test
+    void inscrire_avecLastEventId_devraitRattraperPuisSuivreEnDirect() {
+        when(boiteEnvoi.dernierId()).thenReturn(3L);
+        when(boiteEnvoi.premierId()).thenReturn(1L);
+        DiffusionEvenements diffusion = diffusion(Runnable::run, 10, 3);
+        when(boiteEnvoi.suivants(eq(1L), anyInt())).thenReturn(List.of(
+            evenement(2, Categorie.VEHICULE, 7), evenement(3, Categorie.VEHICULE, 8)));
+        when(boiteEnvoi.suivants(eq(3L), anyInt())).thenReturn(List.of(evenement(4, Categorie.CONTRAT, 1)));
+        Enregistreur abonne = new Enregistreur();
+
+        diffusion.inscrire(1L, abonne);
+        diffusion.relayer();
+
+        assertEquals(List.of("2 vehicule", "3 vehicule", "4 contrat"), abonne.recus);
+    }
+
+    @Test
+    void inscrire_avecLastEventId_devraitRelireHorsDuVerrouDuRelais() throws Exception {
+        when(boiteEnvoi.dernierId()).thenReturn(3L);
+        when(boiteEnvoi.premierId()).thenReturn(1L);
+        DiffusionEvenements diffusion = diffusion(Runnable::run, 10, 3);
+        CountDownLatch lectureEnCours = new CountDownLatch(1);
+        CountDownLatch finLecture = new CountDownLatch(1);
+        when(boiteEnvoi.suivants(eq(1L), anyInt())).thenAnswer(invocation -> {
+            lectureEnCours.countDown();
+            finLecture.await(30, TimeUnit.SECONDS);
+            return List.of(evenement(2, Categorie.VEHICULE, 7), evenement(3, Categorie.VEHICULE, 8));
+        });
+        when(boiteEnvoi.suivants(eq(3L), anyInt())).thenReturn(List.of(evenement(4, Categorie.CONTRAT, 1)));
+        Enregistreur abonne = new Enregistreur();
+
+        Thread inscription = new Thread(() -> diffusion.inscrire(1L, abonne));
+        inscription.start();
+        assertTrue(lectureEnCours.await(5, TimeUnit.SECONDS));
+        // Le relais n'est pas bloqué par la relecture ; l'événement 4 sera rattrapé au passage au direct
+        assertTimeoutPreemptively(Duration.ofSeconds(2), diffusion::relayer);
+        finLecture.countDown();
+        inscription.join(5000);
+
+        assertEquals(List.of("2 vehicule", "3 vehicule", "4 contrat"), abonne.recus);
+    }
+
+    @Test
+    void inscrire_avecPositionExpiree_devraitDemanderUneResynchronisation() {
+        when(boiteEnvoi.dernierId()).thenReturn(10L);
+        when(boiteEnvoi.premierId()).thenReturn(5L);
+        DiffusionEvenements diffusion = diffusion(Runnable::run, 10, 10);
+        Enregistreur abonne = new Enregistreur();
+
+        diffusion.inscrire(2L, abonne);
+
+        assertEquals(List.of("- resynchroniser"), abonne.recus);
+        verify(boiteEnvoi, never()).suivants(anyLong(), anyInt());
+    }
+
+    @Test
+    void abonneEnRetard_devraitRecevoirLeDernierEtatDeChaqueEntite() {
+        DiffusionEvenements diffusion = diffusion(taches::add, 10, 0);
+        Enregistreur abonne = new Enregistreur();
+        diffusion.inscrire(null, abonne);
+        when(boiteEnvoi.suivants(eq(0L), anyInt())).thenReturn(List.of(
+            evenement(1, Categorie.VEHICULE, 7), evenement(2, Categorie.VEHICULE, 8), evenement(3, Categorie.VEHICULE, 7)));
+
+        diffusion.relayer();
+        executerTaches();
+
+        assertEquals(List.of("2 vehicule", "3 vehicule"), abonne.recus);
+    }
+
+    @Test
+    void abonneEnRetard_auDelaDuTampon_devraitDemanderUneResynchronisation() {
+        DiffusionEvenements diffusion = diffusion(taches::add, 2, 0);
+        Enregistreur abonne = new Enregistreur();
+        diffusion.inscrire(null, abonne);
+        when(boiteEnvoi.suivants(eq(0L), anyInt())).thenReturn(List.of(
+            evenement(1, Categorie.VEHICULE, 7), evenement(2, Categorie.VEHICULE, 8), evenement(3, Categorie.VEHICULE, 9)));
+
+        diffusion.relayer();
+        executerTaches();
+
+        assertEquals(List.of("- resynchroniser", "3 vehicule"), abonne.recus);
+    }
+
+    @Test
+    void inscrire_auDelaDuMaximum_devraitEtreRefuse() {
+        DiffusionEvenements diffusion = new DiffusionEvenements(boiteEnvoi, Runnable::run,
+            new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), 10, 1, 60_000, 2000);
+        diffusion.inscrire(null, new Enregistreur());
+
+        assertThrows(RejectedExecutionException.class,
+            () -> diffusion.inscrire(null, new Enregistreur()));
+    }
+
+    private DiffusionEvenements diffusion(Executor executor, int capacite, long dernierId) {
+        return diffusion(executor, capacite, dernierId, 2000);
+    }
+
+    private DiffusionEvenements diffusion(Executor executor, int capacite, long dernierId, long delaiTrouMs) {
+        when(boiteEnvoi.dernierId()).thenReturn(dernierId);
+        DiffusionEvenements diffusion = new DiffusionEvenements(boiteEnvoi, executor,
+            new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), capacite, 100, 60_000, delaiTrouMs);
+        diffusion.initialiser();
+        return diffusion;
+    }
+
+    private void executerTaches() {
+        while (!taches.isEmpty()) {
+            taches.remove(0).run();
+        }
+    }
+
+    private static EvenementSortant evenement(long id, Categorie categorie, long entiteId) {
+        EvenementSortant evenement = new EvenementSortant(categorie, "ETAT_CHANGE", entiteId,
+            "DISPONIBLE", "EN_LOCATION", entiteId);
+        ReflectionTestUtils.setField(evenement, "id", id);
+        return evenement;
+    }
+
+    /**
+     * Émetteur qui enregistre l'identifiant et le nom de chaque événement envoyé
+     */
+    private static class Enregistreur extends SseEmitter {
+        private static final Pattern ENTETE = Pattern.compile("(?:id:(\\d+)\\n)?event:(\\w+)");
+
+        private final List<String> recus = new ArrayList<>();
+        private final List<String> contenus = new ArrayList<>();
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            StringBuilder texte = new StringBuilder();
+            items.forEach(item -> texte.append(item.getData()));
+            Matcher m = ENTETE.matcher(texte);
+            if (m.find()) {
+                recus.add((m.group(1) != null ? m.group(1) : "-") + " " + m.group(2));
+                contenus.add(texte.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.BFB.automobile.presentation.lecture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires des lectures asynchrones : exécuteur réel d'un thread, gestionnaire de transactions simulé
+ */
+class LecturesAsynchronesTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final CountDownLatch liberation = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberation.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void lire_devraitExecuterHorsDuThreadAppelantDansUneTransactionEnLectureSeule() throws Exception {
+        LecturesAsynchrones lectures = new LecturesAsynchrones(executor, transactionManager, 1500);
+
+        String thread = lectures.lire(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertNotEquals(Thread.currentThread().getName(), thread);
+        verify(transactionManager).getTransaction(argThat((TransactionDefinition definition) ->
+            definition.isReadOnly() && definition.getTimeout() == 2));
+    }
+
+    @Test
+    void lire_auDelaDuDelai_devraitEchouerEnTimeout() {
+        LecturesAsynchrones lectures = new LecturesAsynchrones(executor, transactionManager, 50);
+
+        ExecutionException echec = assertThrows(ExecutionException.class,
+            () -> lectures.lire(this::attendreLiberation).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(TimeoutException.class, echec.getCause());
+    }
+
+    @Test
+    void lire_executeurSature_devraitRefuserImmediatement() {
+        LecturesAsynchrones lectures = new LecturesAsynchrones(executor, transactionManager, 10_000);
+        lectures.lire(this::attendreLiberation);
+        lectures.lire(this::attendreLiberation);
+
+        assertThrows(TaskRejectedException.class, () -> lectures.lire(this::attendreLiberation));
+    }
+
+    private String attendreLiberation() {
+        try {
+            liberation.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "libéré";
+    }
+}